@@ -18,7 +18,10 @@
  * limitations under the License.
  */
 package io.janusproject;
+import io.janusproject.kernel.bic.PeriodicTaskPolicy;
+import io.janusproject.kernel.space.MailboxOverflowPolicy;
 import io.janusproject.modules.StandardJanusPlatformModule;
+import io.janusproject.modules.executors.JdkExecutorModule;
 import io.janusproject.modules.hazelcast.HazelcastKernelLoggerFactory;
 
 import java.util.Properties;
@@ -141,10 +144,61 @@ public final class JanusConfig {
 
 	/** Indicates the maximal number of threads to keep in the pool, even
      * if they are idle, unless {@code allowCoreThreadTimeOut} is set.
+	 * When the size of the pool is adaptive and the property is not set, the
+	 * maximal number of threads is derived from the number of available processors.
 	 * @see #MAX_NUMBER_OF_THREADS_IN_EXECUTOR_NAME
 	 */
 	public static final int MAX_NUMBER_OF_THREADS_IN_EXECUTOR_VALUE = 50;
 
+	/** Name of the property that contains the minimal number of threads in the pool
+	 * when the size of the pool is adaptive.
+	 * @see #MIN_NUMBER_OF_THREADS_IN_EXECUTOR_VALUE
+	 * @see #EXECUTOR_ADAPTIVE_NAME
+	 */
+	public static final String MIN_NUMBER_OF_THREADS_IN_EXECUTOR_NAME = "janus.executors.threads.min"; //$NON-NLS-1$
+
+	/** Indicates the minimal number of threads to keep in the pool when the size of
+	 * the pool is adaptive. Zero or a negative value means the number of available processors.
+	 * @see #MIN_NUMBER_OF_THREADS_IN_EXECUTOR_NAME
+	 */
+	public static final int MIN_NUMBER_OF_THREADS_IN_EXECUTOR_VALUE = 0;
+
+	/** Name of the property that indicates if the number of threads in the pools
+	 * is adapted to the load, between {@link #MIN_NUMBER_OF_THREADS_IN_EXECUTOR_NAME}
+	 * and {@link #MAX_NUMBER_OF_THREADS_IN_EXECUTOR_NAME}.
+	 * @see #EXECUTOR_ADAPTIVE_VALUE
+	 */
+	public static final String EXECUTOR_ADAPTIVE_NAME = "janus.executors.adaptive"; //$NON-NLS-1$
+
+	/** Indicates if the number of threads in the pools is adapted to the load.
+	 * @see #EXECUTOR_ADAPTIVE_NAME
+	 */
+	public static final boolean EXECUTOR_ADAPTIVE_VALUE = true;
+
+	/** Name of the property that contains the number of milliseconds between two
+	 * adaptations of the number of threads in the pools.
+	 * @see #EXECUTOR_ADAPTIVE_PERIOD_VALUE
+	 */
+	public static final String EXECUTOR_ADAPTIVE_PERIOD_NAME = "janus.executors.adaptive.period"; //$NON-NLS-1$
+
+	/** Indicates the number of milliseconds between two adaptations of the number
+	 * of threads in the pools.
+	 * @see #EXECUTOR_ADAPTIVE_PERIOD_NAME
+	 */
+	public static final int EXECUTOR_ADAPTIVE_PERIOD_VALUE = 1000;
+
+	/** Name of the property that contains the mean wait time of the tasks, in microseconds,
+	 * above which the pools are considered as too small.
+	 * @see #EXECUTOR_ADAPTIVE_WAIT_THRESHOLD_VALUE
+	 */
+	public static final String EXECUTOR_ADAPTIVE_WAIT_THRESHOLD_NAME = "janus.executors.adaptive.waitThreshold"; //$NON-NLS-1$
+
+	/** Indicates the mean wait time of the tasks, in microseconds, above which the pools
+	 * are considered as too small.
+	 * @see #EXECUTOR_ADAPTIVE_WAIT_THRESHOLD_NAME
+	 */
+	public static final int EXECUTOR_ADAPTIVE_WAIT_THRESHOLD_VALUE = 1000;
+
 	/** Name of the property that contains the numbers of seconds that the kernel is waiting
 	 * for thread terminations before timeout.
 	 * @see #KERNEL_THREAD_TIMEOUT_VALUE
@@ -167,6 +221,119 @@ public final class JanusConfig {
 	 */
 	public static final String INJECTION_MODULE_NAME_VALUE = StandardJanusPlatformModule.class.getName();
 
+	/** Name of the property that contains the injection module for the executors.
+	 * @see #EXECUTOR_MODULE_NAME_VALUE
+	 */
+	public static final String EXECUTOR_MODULE_NAME = "janus.executors.module"; //$NON-NLS-1$
+
+	/** The default name of the injection module for the executors.
+	 * @see #EXECUTOR_MODULE_NAME
+	 */
+	public static final String EXECUTOR_MODULE_NAME_VALUE = JdkExecutorModule.class.getName();
+
+	/** Name of the property that contains the number of event loops when
+	 * the kernel is running in the event-loop mode. Zero or a negative value
+	 * means that the number of event loops is the number of available processors.
+	 * @see #EVENT_LOOP_COUNT_VALUE
+	 * @see io.janusproject.modules.executors.EventLoopExecutorModule
+	 */
+	public static final String EVENT_LOOP_COUNT_NAME = "janus.executors.eventLoops"; //$NON-NLS-1$
+
+	/** Indicates the number of event loops when the kernel is running in
+	 * the event-loop mode. By default, there is one event loop per available processor.
+	 * @see #EVENT_LOOP_COUNT_NAME
+	 */
+	public static final int EVENT_LOOP_COUNT_VALUE = 0;
+
+	/** Name of the property that contains the seed of the order of the tasks when
+	 * the kernel is running in the deterministic mode. Zero means that the tasks
+	 * are run in their submission order.
+	 * @see #DETERMINISTIC_SEED_VALUE
+	 * @see io.janusproject.modules.executors.DeterministicExecutorModule
+	 */
+	public static final String DETERMINISTIC_SEED_NAME = "janus.executors.deterministic.seed"; //$NON-NLS-1$
+
+	/** Indicates the seed of the order of the tasks when the kernel is running in
+	 * the deterministic mode. By default, the tasks are run in their submission order.
+	 * @see #DETERMINISTIC_SEED_NAME
+	 */
+	public static final int DETERMINISTIC_SEED_VALUE = 0;
+
+	/** Name of the property that indicates if the executor service is collecting
+	 * the statistics on the execution of the tasks.
+	 * @see #EXECUTOR_STATISTICS_VALUE
+	 * @see io.janusproject.services.executor.ExecutorStatistics
+	 */
+	public static final String EXECUTOR_STATISTICS_NAME = "janus.executors.statistics"; //$NON-NLS-1$
+
+	/** Indicates if the executor service is collecting the statistics on the execution
+	 * of the tasks. The cost of the statistics is a few atomic operations per task.
+	 * @see #EXECUTOR_STATISTICS_NAME
+	 */
+	public static final boolean EXECUTOR_STATISTICS_VALUE = true;
+
+	/** Name of the property that indicates if the tasks scheduled by the agents
+	 * are managed by a hashed timing wheel instead of a scheduled thread pool.
+	 * @see #TIMING_WHEEL_VALUE
+	 */
+	public static final String TIMING_WHEEL_NAME = "janus.executors.timingWheel"; //$NON-NLS-1$
+
+	/** Indicates if the tasks scheduled by the agents
+	 * are managed by a hashed timing wheel instead of a scheduled thread pool.
+	 * @see #TIMING_WHEEL_NAME
+	 */
+	public static final boolean TIMING_WHEEL_VALUE = true;
+
+	/** Name of the property that contains the duration of a tick of the timing wheel,
+	 * in milliseconds.
+	 * @see #TIMING_WHEEL_TICK_VALUE
+	 */
+	public static final String TIMING_WHEEL_TICK_NAME = "janus.executors.timingWheel.tick"; //$NON-NLS-1$
+
+	/** Indicates the duration of a tick of the timing wheel, in milliseconds.
+	 * It is the precision of the scheduled tasks.
+	 * @see #TIMING_WHEEL_TICK_NAME
+	 */
+	public static final int TIMING_WHEEL_TICK_VALUE = 10;
+
+	/** Name of the property that contains the number of buckets in the timing wheel.
+	 * @see #TIMING_WHEEL_SIZE_VALUE
+	 */
+	public static final String TIMING_WHEEL_SIZE_NAME = "janus.executors.timingWheel.size"; //$NON-NLS-1$
+
+	/** Indicates the number of buckets in the timing wheel. It is rounded
+	 * to the next power of two.
+	 * @see #TIMING_WHEEL_SIZE_NAME
+	 */
+	public static final int TIMING_WHEEL_SIZE_VALUE = 512;
+
+	/** Name of the property that contains the maximal number of threads that are running
+	 * the blocking event handlers. Zero means that the blocking handlers are run by
+	 * the pool of the other tasks.
+	 * @see #BLOCKING_THREADS_VALUE
+	 * @see io.janusproject.kernel.annotations.Blocking
+	 */
+	public static final String BLOCKING_THREADS_NAME = "janus.executors.blocking.threads"; //$NON-NLS-1$
+
+	/** Indicates the maximal number of threads that are running the blocking event handlers.
+	 * @see #BLOCKING_THREADS_NAME
+	 */
+	public static final int BLOCKING_THREADS_VALUE = 16;
+
+	/** Name of the property that contains the comma-separated names of the types
+	 * of agents, behaviors or events, for which the event handlers are run by the
+	 * pool of the blocking handlers, in addition to the types that are annotated
+	 * with {@link io.janusproject.kernel.annotations.Blocking}.
+	 * @see #BLOCKING_TYPES_VALUE
+	 */
+	public static final String BLOCKING_TYPES_NAME = "janus.executors.blocking.types"; //$NON-NLS-1$
+
+	/** Indicates the comma-separated names of the types
+	 * of agents, behaviors or events, for which the event handlers are blocking.
+	 * @see #BLOCKING_TYPES_NAME
+	 */
+	public static final String BLOCKING_TYPES_VALUE = ""; //$NON-NLS-1$
+
 	/** Name of the property that contains the numbers of seconds between two purges of
 	 * the terminated threads by the kernel.
 	 * @see #KERNEL_THREAD_PURGE_DELAY_VALUE
@@ -179,6 +346,70 @@ public final class JanusConfig {
 	 */
 	public static final int KERNEL_THREAD_PURGE_DELAY_VALUE = 30;
 
+	/** Name of the property that contains the maximal number of events that are delivered
+	 * to a participant of a space each time its mailbox is drained.
+	 * @see #MAILBOX_BATCH_SIZE_VALUE
+	 */
+	public static final String MAILBOX_BATCH_SIZE_NAME = "janus.space.mailbox.batch"; //$NON-NLS-1$
+
+	/** Indicates the maximal number of events that are delivered
+	 * to a participant of a space each time its mailbox is drained.
+	 * @see #MAILBOX_BATCH_SIZE_NAME
+	 */
+	public static final int MAILBOX_BATCH_SIZE_VALUE = 64;
+
+	/** Name of the property that contains the maximal number of events in the mailbox
+	 * of a participant of a space. Zero or a negative value means that the mailboxes
+	 * are unbounded.
+	 * @see #MAILBOX_CAPACITY_VALUE
+	 */
+	public static final String MAILBOX_CAPACITY_NAME = "janus.space.mailbox.capacity"; //$NON-NLS-1$
+
+	/** Indicates the maximal number of events in the mailbox of a participant of a space.
+	 * By default, the mailboxes are unbounded.
+	 * @see #MAILBOX_CAPACITY_NAME
+	 */
+	public static final int MAILBOX_CAPACITY_VALUE = 0;
+
+	/** Name of the property that contains the policy to apply when an event is posted
+	 * in the full mailbox of a participant of a space.
+	 * @see #MAILBOX_OVERFLOW_POLICY_VALUE
+	 * @see MailboxOverflowPolicy
+	 */
+	public static final String MAILBOX_OVERFLOW_POLICY_NAME = "janus.space.mailbox.overflow"; //$NON-NLS-1$
+
+	/** Indicates the policy to apply when an event is posted
+	 * in the full mailbox of a participant of a space.
+	 * @see #MAILBOX_OVERFLOW_POLICY_NAME
+	 */
+	public static final MailboxOverflowPolicy MAILBOX_OVERFLOW_POLICY_VALUE = MailboxOverflowPolicy.DROP_NEWEST;
+
+	/** Name of the property that contains the maximal number of milliseconds during which
+	 * the emitter of an event is blocked on a full mailbox with the
+	 * {@link MailboxOverflowPolicy#BLOCK} policy.
+	 * @see #MAILBOX_BLOCK_TIMEOUT_VALUE
+	 */
+	public static final String MAILBOX_BLOCK_TIMEOUT_NAME = "janus.space.mailbox.block.timeout"; //$NON-NLS-1$
+
+	/** Indicates the maximal number of milliseconds during which the emitter of an event
+	 * is blocked on a full mailbox with the {@link MailboxOverflowPolicy#BLOCK} policy.
+	 * @see #MAILBOX_BLOCK_TIMEOUT_NAME
+	 */
+	public static final int MAILBOX_BLOCK_TIMEOUT_VALUE = 1000;
+
+	/** Name of the property that contains the policy to apply to the periodic
+	 * tasks of the agents when a run lasts longer than the period.
+	 * @see #PERIODIC_TASK_POLICY_VALUE
+	 * @see PeriodicTaskPolicy
+	 */
+	public static final String PERIODIC_TASK_POLICY_NAME = "janus.schedules.periodicPolicy"; //$NON-NLS-1$
+
+	/** Indicates the policy to apply to the periodic
+	 * tasks of the agents when a run lasts longer than the period.
+	 * @see #PERIODIC_TASK_POLICY_NAME
+	 */
+	public static final PeriodicTaskPolicy PERIODIC_TASK_POLICY_VALUE = PeriodicTaskPolicy.FIXED_RATE;
+
 	private JanusConfig() {
 		//
 	}
@@ -201,9 +432,28 @@ public final class JanusConfig {
 		defaultValues.put(HAZELCAST_LOGGER_FACTORY_NAME, HAZELCAST_LOGGER_FACTORY_VALUE);
 		defaultValues.put(MAX_NUMBER_OF_THREADS_IN_EXECUTOR_NAME,
 				Integer.toString(MAX_NUMBER_OF_THREADS_IN_EXECUTOR_VALUE));
+		defaultValues.put(MIN_NUMBER_OF_THREADS_IN_EXECUTOR_NAME,
+				Integer.toString(MIN_NUMBER_OF_THREADS_IN_EXECUTOR_VALUE));
+		defaultValues.put(EXECUTOR_ADAPTIVE_NAME, Boolean.toString(EXECUTOR_ADAPTIVE_VALUE));
+		defaultValues.put(EXECUTOR_ADAPTIVE_PERIOD_NAME, Integer.toString(EXECUTOR_ADAPTIVE_PERIOD_VALUE));
+		defaultValues.put(EXECUTOR_ADAPTIVE_WAIT_THRESHOLD_NAME, Integer.toString(EXECUTOR_ADAPTIVE_WAIT_THRESHOLD_VALUE));
+		defaultValues.put(TIMING_WHEEL_NAME, Boolean.toString(TIMING_WHEEL_VALUE));
+		defaultValues.put(TIMING_WHEEL_TICK_NAME, Integer.toString(TIMING_WHEEL_TICK_VALUE));
+		defaultValues.put(TIMING_WHEEL_SIZE_NAME, Integer.toString(TIMING_WHEEL_SIZE_VALUE));
+		defaultValues.put(BLOCKING_THREADS_NAME, Integer.toString(BLOCKING_THREADS_VALUE));
+		defaultValues.put(BLOCKING_TYPES_NAME, BLOCKING_TYPES_VALUE);
 		defaultValues.put(KERNEL_THREAD_TIMEOUT_NAME, Integer.toString(KERNEL_THREAD_TIMEOUT_VALUE));
 		defaultValues.put(KERNEL_THREAD_PURGE_DELAY_NAME, Integer.toString(KERNEL_THREAD_PURGE_DELAY_VALUE));
+		defaultValues.put(MAILBOX_BATCH_SIZE_NAME, Integer.toString(MAILBOX_BATCH_SIZE_VALUE));
+		defaultValues.put(MAILBOX_CAPACITY_NAME, Integer.toString(MAILBOX_CAPACITY_VALUE));
+		defaultValues.put(MAILBOX_OVERFLOW_POLICY_NAME, MAILBOX_OVERFLOW_POLICY_VALUE.name());
+		defaultValues.put(MAILBOX_BLOCK_TIMEOUT_NAME, Integer.toString(MAILBOX_BLOCK_TIMEOUT_VALUE));
+		defaultValues.put(PERIODIC_TASK_POLICY_NAME, PERIODIC_TASK_POLICY_VALUE.name());
 		defaultValues.put(INJECTION_MODULE_NAME, INJECTION_MODULE_NAME_VALUE);
+		defaultValues.put(EXECUTOR_MODULE_NAME, EXECUTOR_MODULE_NAME_VALUE);
+		defaultValues.put(EVENT_LOOP_COUNT_NAME, Integer.toString(EVENT_LOOP_COUNT_VALUE));
+		defaultValues.put(DETERMINISTIC_SEED_NAME, Integer.toString(DETERMINISTIC_SEED_VALUE));
+		defaultValues.put(EXECUTOR_STATISTICS_NAME, Boolean.toString(EXECUTOR_STATISTICS_VALUE));
 		defaultValues.put(JANUS_LOGO_SHOW_NAME, JANUS_LOGO_SHOW.toString());
 	}
 
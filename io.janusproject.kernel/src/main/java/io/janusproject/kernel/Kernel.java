@@ -30,6 +30,7 @@ import io.sarl.lang.core.Agent;
 import io.sarl.lang.core.AgentContext;
 
 import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
@@ -155,6 +156,18 @@ public class Kernel {
 		return this.spawnService.spawn(this.janusContext, agentID, agent, params);
 	}
 
+	/**
+	 * Spawn a group of agents of the given type, and pass the parameters to their initialization functions.
+	 *
+	 * @param nbAgents - the number of agents to spawn.
+	 * @param agent - the type of the agents to spawn.
+	 * @param params - the list of the parameters to pass to the agent initialization functions.
+	 * @return the identifiers of the agents, never <code>null</code>.
+	 */
+	public List<UUID> spawn(int nbAgents, Class<? extends Agent> agent, Object... params) {
+		return this.spawnService.spawn(this.janusContext, nbAgents, agent, params);
+	}
+
 	/** Replies a kernel service that is alive.
 	 *
 	 * @param <S> - type of the type to reply.
@@ -0,0 +1,48 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.annotations;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/** Marks the event handlers that may block the running thread, e.g. for I/O.
+ * <p>
+ * The handlers are run by a separate pool of threads, so that they cannot
+ * starve the delivery of the events to the other agents. The annotation may
+ * be put on a handler method, on the type of an agent or a behavior (all its
+ * handlers are blocking), or on the type of an event (all its handlers are blocking).
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @see io.janusproject.JanusConfig#BLOCKING_TYPES_NAME
+ */
+@Target({ TYPE, METHOD })
+@Retention(RUNTIME)
+@Inherited
+public @interface Blocking {
+	//
+}
@@ -23,6 +23,7 @@ import io.sarl.core.ExternalContextAccess;
 import io.sarl.core.InnerContextAccess;
 import io.sarl.lang.core.Agent;
 import io.sarl.lang.core.AgentContext;
+import io.sarl.lang.core.EventListener;
 import io.sarl.lang.util.SynchronizedCollection;
 
 import java.lang.reflect.Method;
@@ -88,4 +89,27 @@ public final class BuiltinCapacityUtil {
 		return skill.getInnerContext();
 	}
 
+	/** Replies the event listener of the agent, i.e. the entity that is
+	 * registered in the spaces on behalf of the agent.
+	 * <p>
+	 * The event listener is available before the built-in skills of the agent are installed.
+	 *
+	 * @param agent - the agent for which the event listener must be retreived.
+	 * @return the event listener of the agent.
+	 * @throws Exception - when it is not possible to retreive the event listener.
+	 */
+	public static EventListener getEventListenerOf(Agent agent) throws Exception {
+		Method method = Agent.class.getDeclaredMethod("getSkill", Class.class); //$NON-NLS-1$
+		boolean isAccessible = method.isAccessible();
+		InternalEventBusCapacity skill;
+		try {
+			method.setAccessible(true);
+			skill = (InternalEventBusCapacity) method.invoke(agent, InternalEventBusCapacity.class);
+		} finally {
+			method.setAccessible(isAccessible);
+		}
+
+		return skill.asEventListener();
+	}
+
 }
@@ -19,6 +19,7 @@
  */
 package io.janusproject.kernel.bic;
 
+import io.janusproject.kernel.space.AddressSetScope;
 import io.sarl.core.DefaultContextInteractions;
 import io.sarl.core.Lifecycle;
 import io.sarl.lang.core.Address;
@@ -30,7 +31,6 @@ import io.sarl.lang.core.Scope;
 import io.sarl.lang.core.Skill;
 import io.sarl.lang.core.Space;
 import io.sarl.lang.core.SpaceID;
-import io.sarl.util.Scopes;
 
 import java.util.UUID;
 
@@ -110,7 +110,7 @@ DefaultContextInteractions {
 	@Override
 	public void receive(UUID receiverID, Event event) {
 		Address recAddr = this.defaultSpace.getAddress(receiverID);
-		this.emit(event, Scopes.addresses(recAddr));
+		this.emit(event, new AddressSetScope(recAddr));
 	}
 
 	@Override
@@ -19,7 +19,9 @@
  */
 package io.janusproject.kernel.bic;
 
+import io.janusproject.kernel.bic.internaleventdispatching.AgentInternalEventsDispatcher;
 import io.janusproject.services.logging.LogService;
+import io.janusproject.services.spawn.AgentsSpawned;
 import io.janusproject.services.spawn.SpawnService;
 import io.janusproject.services.spawn.SpawnService.AgentKillException;
 import io.sarl.core.AgentSpawned;
@@ -35,14 +37,22 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import com.google.common.collect.Queues;
-import com.google.common.eventbus.AsyncSyncEventBus;
 import com.google.inject.Inject;
 
 /** Janus implementation of an internal skill that provides
  * an event bus to notify the different components of an agent.
+ * <p>
+ * The delivery of the events does not take any lock. The lifecycle
+ * of the owner is a state machine stored in an atomic reference:
+ * the events received in the {@link OwnerState#NEW NEW} state are
+ * buffered until the owner is initialized, the events received in the
+ * {@link OwnerState#RUNNING RUNNING} state are posted on the event bus,
+ * and the events received in the {@link OwnerState#DESTROYED DESTROYED}
+ * state are dropped.
  *
  * @author $Author: srodriguez$
  * @author $Author: ngaud$
@@ -67,7 +77,7 @@ class InternalEventBusSkill extends Skill implements InternalEventBusCapacity {
 	 * are connected to the event bus.
 	 */
 	@Inject
-	private AsyncSyncEventBus eventBus;
+	private AgentInternalEventsDispatcher eventBus;
 
 	@Inject
 	private LogService logger;
@@ -110,7 +120,7 @@ class InternalEventBusSkill extends Skill implements InternalEventBusCapacity {
 	}
 
 	@Override
-	public synchronized Address getInnerDefaultSpaceAddress() {
+	public Address getInnerDefaultSpaceAddress() {
 		return this.agentAddressInInnerDefaultSpace;
 	}
 
@@ -153,7 +163,7 @@ class InternalEventBusSkill extends Skill implements InternalEventBusCapacity {
 	}
 
 	@Override
-	public synchronized void selfEvent(Event event) {
+	public void selfEvent(Event event) {
 		// Ensure that the event source is the agent itself!
 		event.setSource(getInnerDefaultSpaceAddress());
 		// If the event must be fired only by the
@@ -163,7 +173,7 @@ class InternalEventBusSkill extends Skill implements InternalEventBusCapacity {
 		if (event instanceof Initialize) {
 			//Immediate synchronous dispatching of Initialize event
 			this.eventBus.fire(event);
-			this.state.set(OwnerState.RUNNING);
+			this.state.compareAndSet(OwnerState.NEW, OwnerState.RUNNING);
 		} else if (event instanceof Destroy) {
 			//Immediate synchronous dispatching of Destroy event
 			this.state.set(OwnerState.DESTROYED);
@@ -192,11 +202,13 @@ class InternalEventBusSkill extends Skill implements InternalEventBusCapacity {
 	 */
 	private class AgentEventListener implements EventListener {
 
-		private Queue<Event> buffer = Queues.newConcurrentLinkedQueue();
+		/** Events received before the owner is running.
+		 */
+		private final Queue<Event> buffer = Queues.newConcurrentLinkedQueue();
 
 		private final UUID aid;
 
-		private boolean isKilled;
+		private final AtomicBoolean isKilled = new AtomicBoolean();
 
 		@SuppressWarnings("synthetic-access")
 		public AgentEventListener() {
@@ -215,65 +227,92 @@ class InternalEventBusSkill extends Skill implements InternalEventBusCapacity {
 					&& (!(event instanceof Destroy))
 					&& (!(event instanceof AsynchronousAgentKillingEvent)))
 					: "Unsupported type of event: " + event; //$NON-NLS-1$
-			synchronized (InternalEventBusSkill.this) {
-				if (event instanceof AgentSpawned
-						&& this.aid.equals(((AgentSpawned) event).agentID)) {
-					// This permits to ensure that the killing event
-					// is correctly treated when fired from the initialization
-					// handler.
-					fireEnqueuedEvents(InternalEventBusSkill.this);
-					if (this.isKilled) {
-						killOwner(InternalEventBusSkill.this);
-						return;
-					}
+			if (event instanceof AgentSpawned
+					&& this.aid.equals(((AgentSpawned) event).agentID)) {
+				// This permits to ensure that the killing event
+				// is correctly treated when fired from the initialization
+				// handler.
+				fireEnqueuedEvents();
+				if (this.isKilled.get()) {
+					killOwner();
+					return;
+				}
+			} else if (event instanceof AgentsSpawned
+					&& ((AgentsSpawned) event).contains(this.aid)) {
+				// The owner was spawned with a group of agents: it receives
+				// its own notification, as if it was spawned alone.
+				AgentsSpawned groupEvent = (AgentsSpawned) event;
+				receiveEvent(new AgentSpawned(
+						new Address(groupEvent.getSource().getSpaceId(), this.aid),
+						this.aid,
+						groupEvent.agentType));
+				if (this.isKilled.get()) {
+					return;
 				}
-				switch(InternalEventBusSkill.this.state.get()) {
-				case NEW:
-					this.buffer.add(event);
-					break;
-				case RUNNING:
-					fireEnqueuedEvents(InternalEventBusSkill.this);
-					InternalEventBusSkill.this.eventBus.post(event);
-					break;
-				case DESTROYED:
-					// Dropping messages since agent is dying
-					InternalEventBusSkill.this.logger.debug(InternalEventBusSkill.class,
-							"EVENT_DROP_WARNING", event); //$NON-NLS-1$
-					break;
-				default:
-					throw new IllegalStateException();
+			}
+			switch(InternalEventBusSkill.this.state.get()) {
+			case NEW:
+				this.buffer.add(event);
+				// The owner may have left the NEW state after the test above.
+				// The events in the buffer are then flushed or dropped here
+				// because the owner will not do it.
+				if (InternalEventBusSkill.this.state.get() != OwnerState.NEW) {
+					fireEnqueuedEvents();
 				}
+				break;
+			case RUNNING:
+				fireEnqueuedEvents();
+				InternalEventBusSkill.this.eventBus.post(event);
+				break;
+			case DESTROYED:
+				// Dropping messages since agent is dying
+				InternalEventBusSkill.this.logger.debug(InternalEventBusSkill.class,
+						"EVENT_DROP_WARNING", event); //$NON-NLS-1$
+				break;
+			default:
+				throw new IllegalStateException();
 			}
 		}
 
+		/** Post the buffered events if the owner is running, or drop them
+		 * if it is destroyed. Each buffered event is removed from the buffer
+		 * by exactly one thread.
+		 */
 		@SuppressWarnings("synthetic-access")
-		private void fireEnqueuedEvents(InternalEventBusSkill s) {
+		private void fireEnqueuedEvents() {
 			Queue<Event> q = this.buffer;
-			if (q != null && !q.isEmpty()) {
-				this.buffer = null;
-				for (Event evt : q) {
-					s.eventBus.post(evt);
+			if (!q.isEmpty()) {
+				OwnerState ownerState = InternalEventBusSkill.this.state.get();
+				if (ownerState != OwnerState.NEW) {
+					Event evt = q.poll();
+					while (evt != null) {
+						if (ownerState == OwnerState.RUNNING) {
+							InternalEventBusSkill.this.eventBus.post(evt);
+						} else {
+							InternalEventBusSkill.this.logger.debug(InternalEventBusSkill.class,
+									"EVENT_DROP_WARNING", evt); //$NON-NLS-1$
+						}
+						evt = q.poll();
+					}
 				}
 			}
 		}
 
 		@SuppressWarnings("synthetic-access")
-		private void killOwner(InternalEventBusSkill s) {
+		private void killOwner() {
 			try {
-				s.spawnService.killAgent(this.aid);
+				InternalEventBusSkill.this.spawnService.killAgent(this.aid);
 			} catch (AgentKillException e) {
-				s.logger.error(InternalEventBusSkill.class,
+				InternalEventBusSkill.this.logger.error(InternalEventBusSkill.class,
 						"CANNOT_KILL_AGENT", this.aid, e); //$NON-NLS-1$
 			}
 		}
 
 		@SuppressWarnings("synthetic-access")
 		void killOrMarkAsKilled() {
-			synchronized (InternalEventBusSkill.this) {
-				this.isKilled = true;
-				if (InternalEventBusSkill.this.state.get() != OwnerState.NEW) {
-					killOwner(InternalEventBusSkill.this);
-				}
+			this.isKilled.set(true);
+			if (InternalEventBusSkill.this.state.get() != OwnerState.NEW) {
+				killOwner();
 			}
 		}
 
@@ -0,0 +1,59 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.bic;
+
+import io.sarl.core.AgentTask;
+import io.sarl.lang.core.Agent;
+import io.sarl.lang.core.Capacity;
+
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+
+/** Capacity that permits to run periodic tasks with an explicit policy
+ * for the runs that are lasting longer than the period.
+ * <p>
+ * It complements the <code>Schedules</code> capacity, which is applying
+ * the default policy given by {@link io.janusproject.JanusConfig#PERIODIC_TASK_POLICY_NAME}.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public interface PeriodicTaskCapacity extends Capacity {
+
+	/** Schedule a periodic execution of the given task.
+	 *
+	 * @param task - the task to run.
+	 * @param period - the period, in milliseconds.
+	 * @param policy - the policy to apply when a run is longer than the period.
+	 * @param procedure - the code to run.
+	 * @return the task.
+	 */
+	AgentTask every(AgentTask task, long period, PeriodicTaskPolicy policy, Procedure1<? super Agent> procedure);
+
+	/** Replies the number of ticks that were skipped for the given task
+	 * with the {@link PeriodicTaskPolicy#SKIP} policy.
+	 *
+	 * @param task - the task.
+	 * @return the number of skipped ticks, or zero if the task is unknown.
+	 */
+	long getSkippedTicks(AgentTask task);
+
+}
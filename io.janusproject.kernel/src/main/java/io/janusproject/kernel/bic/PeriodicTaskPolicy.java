@@ -0,0 +1,50 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.bic;
+
+/**
+ * Policy that is applied to a periodic task of an agent when one of its
+ * runs lasts longer than its period.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @see io.janusproject.JanusConfig#PERIODIC_TASK_POLICY_NAME
+ * @see PeriodicTaskCapacity
+ */
+public enum PeriodicTaskPolicy {
+
+	/** The task is run at a fixed rate. The missed runs are run as soon as
+	 * possible, one after the other, until the task has caught up its rate.
+	 */
+	FIXED_RATE,
+
+	/** The task is run with a fixed delay between the end of a run and the start
+	 * of the next one. The rate of the task decreases when its runs are slow.
+	 */
+	FIXED_DELAY,
+
+	/** The task is run at a fixed rate, and the ticks that were missed while
+	 * a run was lasting are skipped. The skipped ticks are counted.
+	 */
+	SKIP;
+
+}
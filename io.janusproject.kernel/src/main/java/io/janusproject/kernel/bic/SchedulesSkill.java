@@ -19,8 +19,11 @@
  */
 package io.janusproject.kernel.bic;
 
+import io.janusproject.JanusConfig;
+import io.janusproject.services.executor.ClassifiedTask;
 import io.janusproject.services.executor.ExecutorService;
 import io.janusproject.services.executor.JanusScheduledFutureTask;
+import io.janusproject.services.executor.TaskKind;
 import io.janusproject.services.logging.LogService;
 import io.sarl.core.AgentTask;
 import io.sarl.core.Schedules;
@@ -33,9 +36,9 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.UUID;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.arakhne.afc.vmutil.locale.Locale;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
@@ -51,7 +54,7 @@ import com.google.inject.Inject;
  * @mavengroupid $GroupId$
  * @mavenartifactid $ArtifactId$
  */
-class SchedulesSkill extends Skill implements Schedules {
+class SchedulesSkill extends Skill implements Schedules, PeriodicTaskCapacity {
 
 	@Inject
 	private ExecutorService executorService;
@@ -61,6 +64,12 @@ class SchedulesSkill extends Skill implements Schedules {
 
 	private final Map<String, AgentTask> tasks = new HashMap<>();
 	private final Map<String, ScheduledFuture<?>> futures = new HashMap<>();
+	private final Map<String, AgentRunnableTask> periodicRunners = new HashMap<>();
+	private final PeriodicTaskPolicy defaultPolicy = JanusConfig.getSystemPropertyAsEnum(
+			PeriodicTaskPolicy.class,
+			JanusConfig.PERIODIC_TASK_POLICY_NAME,
+			JanusConfig.PERIODIC_TASK_POLICY_VALUE);
+	private long taskCount;
 
 	/**
 	 * @param agent - the owner of this skill.
@@ -84,6 +93,22 @@ class SchedulesSkill extends Skill implements Schedules {
 	private synchronized void finishTask(String name) {
 		this.tasks.remove(name);
 		this.futures.remove(name);
+		this.periodicRunners.remove(name);
+	}
+
+	/** Replies a name for an anonymous task.
+	 * The names are built with a counter that is local to this skill; it is
+	 * cheaper than a random UUID, and enough to be unique among the tasks
+	 * of the agent.
+	 *
+	 * @return the name of the task.
+	 */
+	private synchronized String newTaskName() {
+		String name;
+		do {
+			name = "task-" + (++this.taskCount); //$NON-NLS-1$
+		} while (this.tasks.containsKey(name));
+		return name;
 	}
 
 	/** Replies the names of the active tasks.
@@ -124,12 +149,13 @@ class SchedulesSkill extends Skill implements Schedules {
 			}
 		}
 		this.futures.clear();
+		this.periodicRunners.clear();
 		this.tasks.clear();
 	}
 
 	@Override
 	public AgentTask in(long delay, Procedure1<? super Agent> procedure) {
-		return in(task("task-" + UUID.randomUUID()), delay, procedure); //$NON-NLS-1$
+		return in(task(newTaskName()), delay, procedure);
 	}
 
 	@Override
@@ -137,7 +163,7 @@ class SchedulesSkill extends Skill implements Schedules {
 		task.setProcedure(procedure);
 		ScheduledFuture<?> sf =
 				this.executorService.schedule(
-						new AgentRunnableTask(task, false), delay, TimeUnit.MILLISECONDS);
+						new AgentRunnableTask(task, null, 0), delay, TimeUnit.MILLISECONDS);
 		this.futures.put(task.getName(), sf);
 		return task;
 	}
@@ -194,21 +220,53 @@ class SchedulesSkill extends Skill implements Schedules {
 	 */
 	@Override
 	public AgentTask every(long period, Procedure1<? super Agent> procedure) {
-		return every(task("task-" + UUID.randomUUID()), period, procedure); //$NON-NLS-1$
+		return every(task(newTaskName()), period, procedure);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public AgentTask every(AgentTask task, long period, Procedure1<? super Agent> procedure) {
+		return every(task, period, this.defaultPolicy, procedure);
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public synchronized AgentTask every(AgentTask task, long period, Procedure1<? super Agent> procedure) {
+	public synchronized AgentTask every(AgentTask task, long period, PeriodicTaskPolicy policy,
+			Procedure1<? super Agent> procedure) {
+		PeriodicTaskPolicy p = (policy == null) ? this.defaultPolicy : policy;
 		task.setProcedure(procedure);
-		ScheduledFuture<?> sf = this.executorService.scheduleAtFixedRate(
-				new AgentRunnableTask(task, true), 0, period, TimeUnit.MILLISECONDS);
+		AgentRunnableTask runner = new AgentRunnableTask(task, p, period);
+		ScheduledFuture<?> sf;
+		if (p == PeriodicTaskPolicy.FIXED_DELAY) {
+			sf = this.executorService.scheduleWithFixedDelay(
+					runner, 0, period, TimeUnit.MILLISECONDS);
+		} else {
+			sf = this.executorService.scheduleAtFixedRate(
+					runner, 0, period, TimeUnit.MILLISECONDS);
+		}
 		this.futures.put(task.getName(), sf);
+		this.periodicRunners.put(task.getName(), runner);
 		return task;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized long getSkippedTicks(AgentTask task) {
+		if (task != null) {
+			AgentRunnableTask runner = this.periodicRunners.get(task.getName());
+			if (runner != null) {
+				return runner.getSkippedTicks();
+			}
+		}
+		return 0;
+	}
+
 
 
 	/**
@@ -218,12 +276,59 @@ class SchedulesSkill extends Skill implements Schedules {
 	 * @mavenartifactid $ArtifactId$
 	 */
 	@SuppressWarnings("synthetic-access")
-	private class AgentRunnableTask implements Runnable {
+	private class AgentRunnableTask implements ClassifiedTask {
 		private WeakReference<AgentTask> agentTaskRef;
 		private final boolean isPeriodic;
-		public AgentRunnableTask(AgentTask task, boolean isPeriodic) {
+		private final PeriodicTaskPolicy policy;
+		private final long period;
+		private final AtomicLong skippedTicks = new AtomicLong();
+		/** Time of the next expected tick, for the SKIP policy. It is accessed
+		 * by one run at a time, since the runs of a periodic task do not overlap.
+		 */
+		private long nextTick = Long.MIN_VALUE;
+
+		/**
+		 * @param task - the agent task.
+		 * @param policy - the policy of the periodic task, or <code>null</code> if the
+		 * task is not periodic.
+		 * @param period - the period of the task in milliseconds.
+		 */
+		public AgentRunnableTask(AgentTask task, PeriodicTaskPolicy policy, long period) {
 			this.agentTaskRef = new WeakReference<>(task);
-			this.isPeriodic = isPeriodic;
+			this.isPeriodic = policy != null;
+			this.policy = policy;
+			this.period = period;
+		}
+
+		/** Replies the number of skipped ticks.
+		 *
+		 * @return the number of skipped ticks.
+		 */
+		public long getSkippedTicks() {
+			return this.skippedTicks.get();
+		}
+
+		/** Replies if the current tick must be skipped because it was
+		 * missed while a previous run was lasting.
+		 *
+		 * @return <code>true</code> if the tick must be skipped.
+		 */
+		private boolean isMissedTick() {
+			if (this.policy != PeriodicTaskPolicy.SKIP) {
+				return false;
+			}
+			long now = SchedulesSkill.this.executorService.getTime(TimeUnit.MILLISECONDS);
+			if (this.nextTick == Long.MIN_VALUE) {
+				this.nextTick = now;
+			}
+			// The executor is running the missed ticks one after the other
+			// as soon as possible; each of them is late of at least one period.
+			boolean missed = (now - this.nextTick) >= this.period;
+			this.nextTick += this.period;
+			if (missed) {
+				this.skippedTicks.incrementAndGet();
+			}
+			return missed;
 		}
 
 		@Override
@@ -235,6 +340,9 @@ class SchedulesSkill extends Skill implements Schedules {
 								SchedulesSkill.class,
 								"NULL_AGENT_TASK")); //$NON-NLS-1$
 			}
+			if (isMissedTick()) {
+				return;
+			}
 			try {
 				Agent owner = getOwner();
 				if (task.getGuard().apply(owner).booleanValue()) {
@@ -247,6 +355,14 @@ class SchedulesSkill extends Skill implements Schedules {
 			}
 		}
 
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public TaskKind getTaskKind() {
+			return TaskKind.SCHEDULED_AGENT_TASK;
+		}
+
 		/**
 		 * {@inheritDoc}
 		 */
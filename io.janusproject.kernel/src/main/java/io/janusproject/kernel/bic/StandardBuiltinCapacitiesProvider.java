@@ -96,6 +96,7 @@ public class StandardBuiltinCapacitiesProvider implements BuiltinCapacitiesProvi
 				this.contextRepository.getContext(agent.getParentID()));
 		SchedulesSkill scheduleSkill = new SchedulesSkill(agent);
 		LoggingSkill loggingSkill = new LoggingSkill(agent);
+		TimeSkill timeSkill = new TimeSkill(agent);
 
 		this.injector.injectMembers(eventBusSkill);
 		this.injector.injectMembers(innerContextSkill);
@@ -105,6 +106,7 @@ public class StandardBuiltinCapacitiesProvider implements BuiltinCapacitiesProvi
 		this.injector.injectMembers(interactionSkill);
 		this.injector.injectMembers(scheduleSkill);
 		this.injector.injectMembers(loggingSkill);
+		this.injector.injectMembers(timeSkill);
 
 		result.put(MicroKernelCapacity.class, microKernelSkill);
 		result.put(InternalEventBusCapacity.class, eventBusSkill);
@@ -114,7 +116,9 @@ public class StandardBuiltinCapacitiesProvider implements BuiltinCapacitiesProvi
 		result.put(ExternalContextAccess.class, externalContextSkill);
 		result.put(DefaultContextInteractions.class, interactionSkill);
 		result.put(Schedules.class, scheduleSkill);
+		result.put(PeriodicTaskCapacity.class, scheduleSkill);
 		result.put(Logging.class, loggingSkill);
+		result.put(TimeCapacity.class, timeSkill);
 
 		this.spawnService.addSpawnServiceListener(agent.getID(),
 				new AgentLifeCycleSupport(
@@ -128,7 +132,8 @@ public class StandardBuiltinCapacitiesProvider implements BuiltinCapacitiesProvi
 						externalContextSkill,
 						interactionSkill,
 						scheduleSkill,
-						loggingSkill));
+						loggingSkill,
+						timeSkill));
 
 		// Test if all the BICs are installed.
 		assert (result.get(Behaviors.class) != null);
@@ -138,8 +143,10 @@ public class StandardBuiltinCapacitiesProvider implements BuiltinCapacitiesProvi
 		assert (result.get(InnerContextAccess.class) != null);
 		assert (result.get(Lifecycle.class) != null);
 		assert (result.get(Schedules.class) != null);
+		assert (result.get(PeriodicTaskCapacity.class) != null);
 		assert (result.get(MicroKernelCapacity.class) != null);
 		assert (result.get(Logging.class) != null);
+		assert (result.get(TimeCapacity.class) != null);
 
 		return result;
 	}
@@ -0,0 +1,62 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.bic;
+
+import io.sarl.lang.core.Capacity;
+
+import java.util.concurrent.TimeUnit;
+
+/** Capacity that provides an access to the clock that is used by the kernel
+ * for scheduling the tasks of the agents.
+ * <p>
+ * When the kernel is running with a virtual clock, the replied time is the
+ * virtual time, i.e. the model time of the simulation.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @see io.janusproject.modules.executors.VirtualTimeExecutorModule
+ */
+public interface TimeCapacity extends Capacity {
+
+	/** Replies the time elapsed since the start of the kernel, in milliseconds.
+	 *
+	 * @return the current time.
+	 * @see io.janusproject.services.executor.ExecutorService#getTime(TimeUnit)
+	 */
+	long getTime();
+
+	/** Replies the time elapsed since the start of the kernel.
+	 *
+	 * @param unit - the unit of the replied time.
+	 * @return the current time.
+	 * @see io.janusproject.services.executor.ExecutorService#getTime(TimeUnit)
+	 */
+	long getTime(TimeUnit unit);
+
+	/** Replies if the time is virtual.
+	 *
+	 * @return <code>true</code> if the time is virtual, <code>false</code> if
+	 * it is the time of the system.
+	 */
+	boolean isVirtualTime();
+
+}
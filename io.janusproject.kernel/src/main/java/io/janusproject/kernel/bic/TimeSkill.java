@@ -0,0 +1,65 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.bic;
+
+import io.janusproject.services.executor.ExecutorService;
+import io.sarl.lang.core.Agent;
+import io.sarl.lang.core.Skill;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.inject.Inject;
+
+/** Janus implementation of the {@link TimeCapacity}, based on the clock
+ * of the executor service.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+class TimeSkill extends Skill implements TimeCapacity {
+
+	@Inject
+	private ExecutorService executorService;
+
+	/**
+	 * @param agent - the owner of this skill.
+	 */
+	public TimeSkill(Agent agent) {
+		super(agent);
+	}
+
+	@Override
+	public long getTime() {
+		return this.executorService.getTime(TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public long getTime(TimeUnit unit) {
+		return this.executorService.getTime(unit);
+	}
+
+	@Override
+	public boolean isVirtualTime() {
+		return this.executorService.isVirtualTime();
+	}
+
+}
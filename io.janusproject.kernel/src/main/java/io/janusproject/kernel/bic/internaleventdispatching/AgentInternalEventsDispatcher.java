@@ -0,0 +1,364 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.bic.internaleventdispatching;
+
+import io.janusproject.services.executor.ClassifiedTask;
+import io.janusproject.services.executor.PerceptExceptionHandler;
+import io.janusproject.services.executor.TaskKind;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+import com.google.common.eventbus.DeadEvent;
+
+/**
+ * Dispatcher of the events inside an agent. The events are dispatched
+ * to the agent itself and to its behaviors.
+ * <p>
+ * The handlers of a subscriber are retreived from a {@link PerceptHandlerTable}
+ * that is built once for each type of subscriber, and shared by all the
+ * dispatchers through a {@link PerceptHandlerRegistry}. A dispatcher stores
+ * only the bindings between its subscribers and their tables.
+ * The handlers are invoked through method handles, without reflection
+ * at dispatching time.
+ * <p>
+ * As for the Guava event bus, a handler is never invoked concurrently for the
+ * same subscriber, except if it is annotated with
+ * {@link com.google.common.eventbus.AllowConcurrentEvents}.
+ * <p>
+ * An event is dispatched to its handlers synchronously with {@link #fire(Object)},
+ * or asynchronously with {@link #post(Object)}.
+ * If no handler is found for an event, a {@link DeadEvent} is dispatched.
+ * <p>
+ * When the events are dispatched asynchronously, the blocking handlers
+ * (see {@link PerceptHandler#isBlocking()}) and the handlers of the blocking
+ * types of events are run by a separate executor.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public class AgentInternalEventsDispatcher {
+
+	private final Executor executor;
+
+	private final Executor blockingExecutor;
+
+	private final PerceptExceptionHandler exceptionHandler;
+
+	private final PerceptHandlerRegistry registry;
+
+	/** Registered subscribers.
+	 */
+	private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+	/**
+	 * @param executor - the executor used for the asynchronous dispatching of the events.
+	 * @param exceptionHandler - the handler of the exceptions thrown by the event handlers.
+	 * @param registry - the registry of the handler tables that is shared by the dispatchers.
+	 */
+	public AgentInternalEventsDispatcher(Executor executor, PerceptExceptionHandler exceptionHandler,
+			PerceptHandlerRegistry registry) {
+		this(executor, executor, exceptionHandler, registry);
+	}
+
+	/**
+	 * @param executor - the executor used for the asynchronous dispatching of the events.
+	 * @param blockingExecutor - the executor used for the asynchronous dispatching of the events
+	 * to the blocking handlers.
+	 * @param exceptionHandler - the handler of the exceptions thrown by the event handlers.
+	 * @param registry - the registry of the handler tables that is shared by the dispatchers.
+	 */
+	public AgentInternalEventsDispatcher(Executor executor, Executor blockingExecutor,
+			PerceptExceptionHandler exceptionHandler, PerceptHandlerRegistry registry) {
+		assert (executor != null);
+		assert (blockingExecutor != null);
+		assert (exceptionHandler != null);
+		assert (registry != null);
+		this.executor = executor;
+		this.blockingExecutor = blockingExecutor;
+		this.exceptionHandler = exceptionHandler;
+		this.registry = registry;
+	}
+
+	/** Create a dispatcher with its own registry of handler tables.
+	 *
+	 * @param executor - the executor used for the asynchronous dispatching of the events.
+	 * @param exceptionHandler - the handler of the exceptions thrown by the event handlers.
+	 * @param annotation - the annotation that is marking the event handlers.
+	 */
+	public AgentInternalEventsDispatcher(Executor executor, PerceptExceptionHandler exceptionHandler,
+			Class<? extends Annotation> annotation) {
+		this(executor, exceptionHandler, new PerceptHandlerRegistry(annotation));
+	}
+
+	/** Replies the registry of the handler tables.
+	 *
+	 * @return the registry.
+	 */
+	public PerceptHandlerRegistry getRegistry() {
+		return this.registry;
+	}
+
+	/** Replies the table of the handlers for the given type of subscriber.
+	 *
+	 * @param type - the type of the subscriber.
+	 * @return the table of handlers.
+	 */
+	protected PerceptHandlerTable getHandlerTable(Class<?> type) {
+		return this.registry.getHandlerTable(type);
+	}
+
+	/** Register the given object as a subscriber of the events.
+	 *
+	 * @param subscriber - the subscriber.
+	 */
+	public void register(Object subscriber) {
+		PerceptHandlerTable table = getHandlerTable(subscriber.getClass());
+		synchronized (this.subscriptions) {
+			for (Subscription subscription : this.subscriptions) {
+				if (subscription.getSubscriber() == subscriber) {
+					return;
+				}
+			}
+			this.subscriptions.add(new Subscription(subscriber, table));
+		}
+	}
+
+	/** Unregister the given subscriber.
+	 *
+	 * @param subscriber - the subscriber.
+	 */
+	public void unregister(Object subscriber) {
+		synchronized (this.subscriptions) {
+			for (Subscription subscription : this.subscriptions) {
+				if (subscription.getSubscriber() == subscriber) {
+					this.subscriptions.remove(subscription);
+					return;
+				}
+			}
+		}
+	}
+
+	/** Dispatch the given event synchronously: all the handlers are
+	 * invoked in the calling thread before this function returns.
+	 *
+	 * @param event - the event to dispatch.
+	 */
+	public void fire(Object event) {
+		Class<?> eventType = event.getClass();
+		boolean handled = false;
+		for (Subscription subscription : this.subscriptions) {
+			for (PerceptHandler handler : subscription.getHandlers(eventType)) {
+				handled = true;
+				invoke(handler, subscription, event);
+			}
+		}
+		if (!handled && !(event instanceof DeadEvent)) {
+			fire(new DeadEvent(this, event));
+		}
+	}
+
+	/** Dispatch the given event asynchronously: each handler is
+	 * invoked in a task of the executor.
+	 *
+	 * @param event - the event to dispatch.
+	 */
+	public void post(Object event) {
+		Class<?> eventType = event.getClass();
+		boolean handled = false;
+		boolean blockingEvent = false;
+		for (Subscription subscription : this.subscriptions) {
+			for (PerceptHandler handler : subscription.getHandlers(eventType)) {
+				if (!handled) {
+					handled = true;
+					blockingEvent = this.registry.isBlockingType(eventType);
+				}
+				Executor exec = (blockingEvent || handler.isBlocking()) ? this.blockingExecutor : this.executor;
+				exec.execute(new AsyncHandlerRunner(handler, subscription, event));
+			}
+		}
+		if (!handled && !(event instanceof DeadEvent)) {
+			post(new DeadEvent(this, event));
+		}
+	}
+
+	/** Replies the registered subscribers.
+	 *
+	 * @return the subscribers.
+	 */
+	public List<Object> getSubscribers() {
+		List<Object> subscribers = new ArrayList<>(this.subscriptions.size());
+		for (Subscription subscription : this.subscriptions) {
+			subscribers.add(subscription.getSubscriber());
+		}
+		return subscribers;
+	}
+
+	/** Invoke the given handler, and report any error to the exception handler.
+	 * The handler is invoked under the lock of the subscription, except if
+	 * it accepts concurrent invocations.
+	 *
+	 * @param handler - the handler to invoke.
+	 * @param subscription - the owner of the handler.
+	 * @param event - the event to give to the handler.
+	 */
+	void invoke(PerceptHandler handler, Subscription subscription, Object event) {
+		Object subscriber = subscription.getSubscriber();
+		try {
+			if (handler.isConcurrent()) {
+				handler.invoke(subscriber, event);
+			} else {
+				synchronized (subscription.getLock(handler)) {
+					handler.invoke(subscriber, event);
+				}
+			}
+		} catch (Throwable e) {
+			this.exceptionHandler.handleException(e, this, event, subscriber);
+		}
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + this.subscriptions;
+	}
+
+	/** Subscriber registered in a dispatcher.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	static final class Subscription {
+
+		private final Object subscriber;
+
+		private final PerceptHandlerTable table;
+
+		/** Locks that are serializing the invocations of each handler.
+		 */
+		private final Object[] locks;
+
+		/**
+		 * @param subscriber - the subscriber.
+		 * @param table - the handlers of the subscriber.
+		 */
+		Subscription(Object subscriber, PerceptHandlerTable table) {
+			this.subscriber = subscriber;
+			this.table = table;
+			this.locks = new Object[table.size()];
+			for (int i = 0; i < this.locks.length; ++i) {
+				this.locks[i] = new Object();
+			}
+		}
+
+		/** Replies the lock that is serializing the invocations of the given handler
+		 * for this subscriber.
+		 *
+		 * @param handler - the handler.
+		 * @return the lock.
+		 */
+		public Object getLock(PerceptHandler handler) {
+			return this.locks[handler.getIndex()];
+		}
+
+		/** Replies the subscriber.
+		 *
+		 * @return the subscriber.
+		 */
+		public Object getSubscriber() {
+			return this.subscriber;
+		}
+
+		/** Replies the handlers of the subscriber for the given type of event.
+		 *
+		 * @param eventType - the type of the event.
+		 * @return the handlers.
+		 */
+		public PerceptHandler[] getHandlers(Class<?> eventType) {
+			return this.table.getHandlers(eventType);
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return String.valueOf(this.subscriber);
+		}
+
+	}
+
+	/** Task that is invoking an event handler asynchronously.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private class AsyncHandlerRunner implements ClassifiedTask {
+
+		private final PerceptHandler handler;
+
+		private final Subscription subscription;
+
+		private final Object event;
+
+		/**
+		 * @param handler - the handler to invoke.
+		 * @param subscription - the owner of the handler.
+		 * @param event - the event to give to the handler.
+		 */
+		AsyncHandlerRunner(PerceptHandler handler, Subscription subscription, Object event) {
+			this.handler = handler;
+			this.subscription = subscription;
+			this.event = event;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public void run() {
+			invoke(this.handler, this.subscription, this.event);
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public TaskKind getTaskKind() {
+			return TaskKind.EVENT_HANDLER;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return "[handler=" + this.handler + "; event=" + this.event + "]"; //$NON-NLS-1$//$NON-NLS-2$//$NON-NLS-3$
+		}
+
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.bic.internaleventdispatching;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Default strategy for finding the event handlers: the handlers are
+ * the methods annotated with a given annotation and with exactly one parameter,
+ * declared in the subscriber type or in one of its super types.
+ * A method that is overridden in a subtype is replied only once.
+ * <p>
+ * The handlers are not only the public methods: the protected, package and private
+ * methods are also replied. They are made accessible when they are bound by {@link PerceptHandler}.
+ * Since a private method is never overridden, the private methods with the same signature
+ * in a type and in its super types are distinct handlers.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public class AnnotatedPerceptHandlerFindingStrategy implements PerceptHandlerFindingStrategy {
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public Collection<Method> findHandlers(Class<?> subscriberType, Class<? extends Annotation> annotation) {
+		List<Method> handlers = new ArrayList<>();
+		Set<List<Object>> signatures = new HashSet<>();
+		Set<Class<?>> visited = new HashSet<>();
+		Queue<Class<?>> types = new LinkedList<>();
+		types.add(subscriberType);
+		while (!types.isEmpty()) {
+			Class<?> current = types.remove();
+			if (visited.add(current)) {
+				for (Method method : current.getDeclaredMethods()) {
+					if (method.isAnnotationPresent(annotation)
+						&& method.getParameterTypes().length == 1
+						&& !method.isBridge() && !method.isSynthetic()
+						&& !Modifier.isStatic(method.getModifiers())
+						// A method overridden in a subtype is invoked only once.
+						&& (Modifier.isPrivate(method.getModifiers())
+							|| signatures.add(Arrays.<Object>asList(method.getName(), method.getParameterTypes()[0])))) {
+						handlers.add(method);
+					}
+				}
+				if (current.getSuperclass() != null) {
+					types.add(current.getSuperclass());
+				}
+				types.addAll(Arrays.asList(current.getInterfaces()));
+			}
+		}
+		return handlers;
+	}
+
+}
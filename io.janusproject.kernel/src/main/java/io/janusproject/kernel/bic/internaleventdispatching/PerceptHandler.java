@@ -0,0 +1,147 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.bic.internaleventdispatching;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+
+/**
+ * An event handler, i.e. a method of a subscriber that is invoked
+ * when an event of a given type is dispatched.
+ * <p>
+ * The method is invoked through a {@link MethodHandle} that is
+ * resolved once, when the handler is created.
+ * <p>
+ * As for the Guava event bus, a handler is not invoked concurrently for the
+ * same subscriber, except if it is annotated with {@link AllowConcurrentEvents}
+ * (see {@link #isConcurrent()}).
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public final class PerceptHandler {
+
+	private static final MethodType HANDLER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private final Method method;
+
+	private final Class<?> eventType;
+
+	private final MethodHandle handle;
+
+	private final boolean blocking;
+
+	private final boolean concurrent;
+
+	private final int index;
+
+	/**
+	 * @param method - the handling method. It must have exactly one parameter.
+	 * @throws IllegalAccessException - if the method cannot be accessed.
+	 */
+	PerceptHandler(Method method) throws IllegalAccessException {
+		this(method, false, 0);
+	}
+
+	/**
+	 * @param method - the handling method. It must have exactly one parameter.
+	 * @param blocking - indicates if the handler may block the running thread.
+	 * @param index - the index of the handler in the table of its subscriber type.
+	 * @throws IllegalAccessException - if the method cannot be accessed.
+	 */
+	PerceptHandler(Method method, boolean blocking, int index) throws IllegalAccessException {
+		assert (method.getParameterTypes().length == 1);
+		assert (index >= 0);
+		this.method = method;
+		this.blocking = blocking;
+		this.concurrent = method.isAnnotationPresent(AllowConcurrentEvents.class);
+		this.index = index;
+		this.eventType = method.getParameterTypes()[0];
+		if (!method.isAccessible()) {
+			method.setAccessible(true);
+		}
+		this.handle = MethodHandles.lookup().unreflect(method).asType(HANDLER_TYPE);
+	}
+
+	/** Replies the handling method.
+	 *
+	 * @return the method.
+	 */
+	public Method getMethod() {
+		return this.method;
+	}
+
+	/** Replies the type of the events supported by this handler.
+	 *
+	 * @return the type of the events.
+	 */
+	public Class<?> getEventType() {
+		return this.eventType;
+	}
+
+	/** Replies if the handler may block the running thread.
+	 * The blocking handlers are run by a separate pool of threads.
+	 *
+	 * @return <code>true</code> if the handler is blocking.
+	 */
+	public boolean isBlocking() {
+		return this.blocking;
+	}
+
+	/** Replies if the handler may be invoked concurrently for the same subscriber.
+	 *
+	 * @return <code>true</code> if the handler is annotated with {@link AllowConcurrentEvents}.
+	 */
+	public boolean isConcurrent() {
+		return this.concurrent;
+	}
+
+	/** Replies the index of the handler in the table of its subscriber type.
+	 *
+	 * @return the index.
+	 */
+	int getIndex() {
+		return this.index;
+	}
+
+	/** Invoke the handler.
+	 *
+	 * @param subscriber - the object on which the handler must be invoked.
+	 * @param event - the event to give to the handler.
+	 * @throws Throwable - the error thrown by the handler.
+	 */
+	public void invoke(Object subscriber, Object event) throws Throwable {
+		this.handle.invokeExact(subscriber, event);
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return this.method.toString();
+	}
+
+}
@@ -0,0 +1,50 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.bic.internaleventdispatching;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Collection;
+
+/**
+ * Strategy for finding the event handlers in a type of subscriber.
+ * <p>
+ * A strategy may be bound in the injector for replacing the
+ * {@link AnnotatedPerceptHandlerFindingStrategy default strategy}
+ * of the {@link PerceptHandlerRegistry}.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public interface PerceptHandlerFindingStrategy {
+
+	/** Replies the event handlers of the given type of subscriber.
+	 * Each replied method must have exactly one parameter, which is the
+	 * type of the events supported by the handler.
+	 *
+	 * @param subscriberType - the type of the subscribers.
+	 * @param annotation - the annotation that is marking the event handlers.
+	 * @return the handling methods.
+	 */
+	Collection<Method> findHandlers(Class<?> subscriberType, Class<? extends Annotation> annotation);
+
+}
@@ -0,0 +1,173 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.bic.internaleventdispatching;
+
+import io.janusproject.kernel.annotations.Blocking;
+
+import java.lang.annotation.Annotation;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.google.inject.Inject;
+
+/**
+ * Registry of the tables of event handlers, shared by all the
+ * {@link AgentInternalEventsDispatcher event dispatchers} of the kernel.
+ * <p>
+ * The table of the handlers of a subscriber type is built once, when the
+ * first instance of this type is registered in a dispatcher. The other
+ * dispatchers are reusing the same table; they store only the binding
+ * between the subscriber instance and its table.
+ * <p>
+ * The tables are attached to the subscriber types with a {@link ClassValue}.
+ * In this way, a table does not prevent the garbage collection of its type
+ * when the class loader of the type is unloaded.
+ * <p>
+ * The handlers are found by a {@link PerceptHandlerFindingStrategy}, which may be
+ * replaced by binding another strategy in the injector. The strategy must be
+ * set before the first table is built.
+ * <p>
+ * The registry also knows the types of subscribers and events for which the
+ * handlers are blocking: the types annotated with {@link Blocking}, and the types
+ * that are given by name to the registry.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public final class PerceptHandlerRegistry {
+
+	private final Class<? extends Annotation> annotation;
+
+	private final Set<String> blockingTypes;
+
+	private volatile PerceptHandlerFindingStrategy findingStrategy = new AnnotatedPerceptHandlerFindingStrategy();
+
+	private final ClassValue<PerceptHandlerTable> tables = new ClassValue<PerceptHandlerTable>() {
+		@Override
+		protected PerceptHandlerTable computeValue(Class<?> type) {
+			return new PerceptHandlerTable(type, PerceptHandlerRegistry.this.annotation, PerceptHandlerRegistry.this);
+		}
+	};
+
+	private final ClassValue<Boolean> blocking = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			return Boolean.valueOf(computeBlocking(type));
+		}
+	};
+
+	/**
+	 * @param annotation - the annotation that is marking the event handlers.
+	 */
+	public PerceptHandlerRegistry(Class<? extends Annotation> annotation) {
+		this(annotation, Collections.<String>emptySet());
+	}
+
+	/**
+	 * @param annotation - the annotation that is marking the event handlers.
+	 * @param blockingTypes - the names of the types of subscribers or events for which the handlers
+	 * are blocking, in addition to the types annotated with {@link Blocking}.
+	 */
+	public PerceptHandlerRegistry(Class<? extends Annotation> annotation, Collection<String> blockingTypes) {
+		assert (annotation != null);
+		this.annotation = annotation;
+		this.blockingTypes = blockingTypes.isEmpty()
+				? Collections.<String>emptySet()
+				: Collections.unmodifiableSet(new HashSet<>(blockingTypes));
+	}
+
+	/** Replies the annotation that is marking the event handlers.
+	 *
+	 * @return the annotation.
+	 */
+	public Class<? extends Annotation> getAnnotation() {
+		return this.annotation;
+	}
+
+	/** Change the strategy for finding the event handlers.
+	 *
+	 * @param strategy - the strategy.
+	 */
+	@Inject(optional = true)
+	public void setFindingStrategy(PerceptHandlerFindingStrategy strategy) {
+		assert (strategy != null);
+		this.findingStrategy = strategy;
+	}
+
+	/** Replies the strategy for finding the event handlers.
+	 *
+	 * @return the strategy.
+	 */
+	public PerceptHandlerFindingStrategy getFindingStrategy() {
+		return this.findingStrategy;
+	}
+
+	/** Replies the table of the handlers for the given type of subscriber.
+	 * The table is built at the first call for the given type.
+	 *
+	 * @param type - the type of the subscriber.
+	 * @return the table of handlers.
+	 */
+	public PerceptHandlerTable getHandlerTable(Class<?> type) {
+		return this.tables.get(type);
+	}
+
+	/** Replies if the handlers of the given type of subscriber, or the handlers
+	 * of the given type of event, are blocking.
+	 *
+	 * @param type - the type of the subscriber or of the event.
+	 * @return <code>true</code> if the handlers are blocking.
+	 */
+	public boolean isBlockingType(Class<?> type) {
+		return this.blocking.get(type).booleanValue();
+	}
+
+	private boolean computeBlocking(Class<?> type) {
+		if (type.isAnnotationPresent(Blocking.class)) {
+			return true;
+		}
+		if (!this.blockingTypes.isEmpty()) {
+			if (this.blockingTypes.contains(type.getName())) {
+				return true;
+			}
+			if (type.getSuperclass() != null && isBlockingType(type.getSuperclass())) {
+				return true;
+			}
+			for (Class<?> interf : type.getInterfaces()) {
+				if (isBlockingType(interf)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[@" + this.annotation.getSimpleName() + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+}
@@ -0,0 +1,172 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.bic.internaleventdispatching;
+
+import io.janusproject.kernel.annotations.Blocking;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Table of the event handlers declared in a type of subscriber.
+ * <p>
+ * The handlers are found by a {@link PerceptHandlerFindingStrategy}; by default,
+ * they are the methods annotated with a given annotation
+ * and with exactly one parameter, declared in the subscriber type or
+ * in one of its super types. The handlers that must be invoked for
+ * a type of event are computed once, by considering all the
+ * super types of the event; they are stored in a table indexed
+ * by the type of the event.
+ * <p>
+ * A handler is blocking if it is annotated with {@link Blocking}, or if the
+ * subscriber type or the declared event type of the handler is blocking.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public final class PerceptHandlerTable {
+
+	private static final PerceptHandler[] NO_HANDLER = new PerceptHandler[0];
+
+	private static final PerceptHandlerFindingStrategy DEFAULT_FINDING_STRATEGY =
+			new AnnotatedPerceptHandlerFindingStrategy();
+
+	private final Class<?> subscriberType;
+
+	private final PerceptHandler[] handlers;
+
+	/** Handlers that must be invoked for each type of event.
+	 */
+	private final ConcurrentMap<Class<?>, PerceptHandler[]> handlersPerEventType = new ConcurrentHashMap<>();
+
+	/**
+	 * @param subscriberType - the type of the subscribers.
+	 * @param annotation - the annotation that is marking the handlers.
+	 */
+	public PerceptHandlerTable(Class<?> subscriberType, Class<? extends Annotation> annotation) {
+		this(subscriberType, annotation, null);
+	}
+
+	/**
+	 * @param subscriberType - the type of the subscribers.
+	 * @param annotation - the annotation that is marking the handlers.
+	 * @param registry - the registry that knows the blocking types, or <code>null</code>
+	 * for considering the {@link Blocking} annotations only.
+	 */
+	PerceptHandlerTable(Class<?> subscriberType, Class<? extends Annotation> annotation,
+			PerceptHandlerRegistry registry) {
+		this.subscriberType = subscriberType;
+		this.handlers = findHandlers(subscriberType, annotation, registry);
+	}
+
+	private static boolean isBlockingType(Class<?> type, PerceptHandlerRegistry registry) {
+		if (registry != null) {
+			return registry.isBlockingType(type);
+		}
+		return type.isAnnotationPresent(Blocking.class);
+	}
+
+	private static PerceptHandler[] findHandlers(Class<?> type, Class<? extends Annotation> annotation,
+			PerceptHandlerRegistry registry) {
+		boolean blockingSubscriber = isBlockingType(type, registry);
+		PerceptHandlerFindingStrategy strategy = (registry != null)
+				? registry.getFindingStrategy()
+				: DEFAULT_FINDING_STRATEGY;
+		List<PerceptHandler> handlers = new ArrayList<>();
+		for (Method method : strategy.findHandlers(type, annotation)) {
+			handlers.add(createHandler(method,
+					blockingSubscriber
+					|| method.isAnnotationPresent(Blocking.class)
+					|| isBlockingType(method.getParameterTypes()[0], registry),
+					handlers.size()));
+		}
+		return handlers.toArray(new PerceptHandler[handlers.size()]);
+	}
+
+	private static PerceptHandler createHandler(Method method, boolean blocking, int index) {
+		try {
+			return new PerceptHandler(method, blocking, index);
+		} catch (IllegalAccessException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	/** Replies the type of the subscribers.
+	 *
+	 * @return the type of the subscribers.
+	 */
+	public Class<?> getSubscriberType() {
+		return this.subscriberType;
+	}
+
+	/** Replies the number of handlers in the subscriber type.
+	 *
+	 * @return the number of handlers.
+	 */
+	public int size() {
+		return this.handlers.length;
+	}
+
+	/** Replies if the subscriber type has no handler.
+	 *
+	 * @return <code>true</code> if there is no handler.
+	 */
+	public boolean isEmpty() {
+		return this.handlers.length == 0;
+	}
+
+	/** Replies the handlers that must be invoked for the given type of event.
+	 *
+	 * @param eventType - the type of the event.
+	 * @return the handlers, never <code>null</code>.
+	 */
+	public PerceptHandler[] getHandlers(Class<?> eventType) {
+		PerceptHandler[] result = this.handlersPerEventType.get(eventType);
+		if (result == null) {
+			List<PerceptHandler> list = new ArrayList<>();
+			for (PerceptHandler handler : this.handlers) {
+				if (handler.getEventType().isAssignableFrom(eventType)) {
+					list.add(handler);
+				}
+			}
+			result = list.isEmpty() ? NO_HANDLER : list.toArray(new PerceptHandler[list.size()]);
+			PerceptHandler[] old = this.handlersPerEventType.putIfAbsent(eventType, result);
+			if (old != null) {
+				result = old;
+			}
+		}
+		return result;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return this.subscriberType.getName() + Arrays.toString(this.handlers);
+	}
+
+}
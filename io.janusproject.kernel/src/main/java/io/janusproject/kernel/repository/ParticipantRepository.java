@@ -25,11 +25,15 @@ import io.sarl.lang.util.SynchronizedSet;
 import io.sarl.util.Collections3;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
 /**
  * An abstract repository providing the basic support of storage a
  * collection a participant's address and its related listener.
@@ -50,12 +54,52 @@ public abstract class ParticipantRepository<ADDRESS extends Serializable> {
 	 */
 	private final Map<ADDRESS, EventListener> listeners;
 
+	/** Immutable copy of the content of {@link #listeners}.
+	 * It is invalidated (set to <code>null</code>) each time the listeners are changed,
+	 * and lazily rebuilt when it is read.
+	 */
+	private volatile Snapshot<ADDRESS> snapshot = new Snapshot<>();
+
 	/** Construct a <code>ParticipantRepository</code>.
 	 */
 	protected ParticipantRepository() {
 		this.listeners = new TreeMap<>();
 	}
 
+	/** Build the snapshot of the participants.
+	 * This function must be invoked inside a block synchronized on the {@link #mutex()}.
+	 *
+	 * @return the snapshot.
+	 */
+	private Snapshot<ADDRESS> buildSnapshot() {
+		ImmutableList.Builder<Participant<ADDRESS>> list = ImmutableList.builder();
+		ImmutableMap.Builder<ADDRESS, EventListener> index = ImmutableMap.builder();
+		for (Entry<ADDRESS, EventListener> entry : this.listeners.entrySet()) {
+			list.add(new Participant<>(entry.getKey(), entry.getValue()));
+			index.put(entry.getKey(), entry.getValue());
+		}
+		return new Snapshot<>(list.build(), index.build());
+	}
+
+	/** Replies the snapshot of the participants.
+	 * The snapshot is rebuilt if it was invalidated.
+	 *
+	 * @return the snapshot.
+	 */
+	private Snapshot<ADDRESS> snapshot() {
+		Snapshot<ADDRESS> s = this.snapshot;
+		if (s == null) {
+			synchronized (mutex()) {
+				s = this.snapshot;
+				if (s == null) {
+					s = buildSnapshot();
+					this.snapshot = s;
+				}
+			}
+		}
+		return s;
+	}
+
 	/** Replies the numbers of participants registered in this repository.
 	 *
 	 * @return the number of listeners.
@@ -121,7 +165,23 @@ public abstract class ParticipantRepository<ADDRESS extends Serializable> {
 	 */
 	protected EventListener addListener(ADDRESS key, EventListener value) {
 		synchronized (mutex()) {
-			return this.listeners.put(key, value);
+			EventListener old = this.listeners.put(key, value);
+			this.snapshot = null;
+			return old;
+		}
+	}
+
+	/** Add the given participants in this repository.
+	 * <p>
+	 * Contrary to a sequence of calls to {@link #addListener(Serializable, EventListener)},
+	 * the snapshot of the participants is invalidated once.
+	 *
+	 * @param participants - the participants, indexed by their addresses.
+	 */
+	protected void addListeners(Map<ADDRESS, EventListener> participants) {
+		synchronized (mutex()) {
+			this.listeners.putAll(participants);
+			this.snapshot = null;
 		}
 	}
 
@@ -133,7 +193,11 @@ public abstract class ParticipantRepository<ADDRESS extends Serializable> {
 	 */
 	protected EventListener removeListener(ADDRESS key) {
 		synchronized (mutex()) {
-			return this.listeners.remove(key);
+			EventListener old = this.listeners.remove(key);
+			if (old != null) {
+				this.snapshot = null;
+			}
+			return old;
 		}
 	}
 
@@ -142,6 +206,7 @@ public abstract class ParticipantRepository<ADDRESS extends Serializable> {
 	protected void clearListeners() {
 		synchronized (mutex()) {
 			this.listeners.clear();
+			this.snapshot = new Snapshot<>();
 		}
 	}
 
@@ -167,6 +232,37 @@ public abstract class ParticipantRepository<ADDRESS extends Serializable> {
 		}
 	}
 
+	/** Replies an immutable snapshot of the pairs of addresses and participants
+	 * in this repository.
+	 * <p>
+	 * The snapshot is read without any synchronization on the repository,
+	 * and it is not updated when participants are added or removed
+	 * afterwards. It is dedicated to the iteration on the participants
+	 * when an event is dispatched.
+	 * The snapshot is rebuilt at the first call following a change
+	 * in the repository.
+	 *
+	 * @return the pairs of addresses and participants, sorted by address.
+	 */
+	public List<Participant<ADDRESS>> getParticipantSnapshot() {
+		return snapshot().getParticipants();
+	}
+
+	/** Replies the participant with the given address, from the snapshot of
+	 * this repository.
+	 * <p>
+	 * Contrary to {@link #getListener(Serializable)}, this function does not
+	 * synchronize on the repository. The participant is retreived from
+	 * a hash index that is part of the {@link #getParticipantSnapshot() snapshot}.
+	 *
+	 * @param key - the address of the participant to retreive.
+	 * @return the participant with the given address, or <code>null</code>
+	 * if there is no participant with the given address.
+	 */
+	public EventListener lookupListener(ADDRESS key) {
+		return snapshot().getIndex().get(key);
+	}
+
 	/** Replies the pairs of addresses and participants in this repository.
 	 *
 	 * @return the pairs of addresses and participants
@@ -186,4 +282,99 @@ public abstract class ParticipantRepository<ADDRESS extends Serializable> {
 		return this;
 	}
 
+	/** Immutable snapshot of the participants in a {@link ParticipantRepository}.
+	 *
+	 * @param <ADDRESS> - the generic type representing the address of a participant.
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private static final class Snapshot<ADDRESS extends Serializable> {
+
+		private final ImmutableList<Participant<ADDRESS>> participants;
+
+		private final ImmutableMap<ADDRESS, EventListener> index;
+
+		/** Construct an empty snapshot.
+		 */
+		Snapshot() {
+			this(ImmutableList.<Participant<ADDRESS>>of(), ImmutableMap.<ADDRESS, EventListener>of());
+		}
+
+		/**
+		 * @param participants - the pairs of addresses and participants.
+		 * @param index - the participants indexed by their addresses.
+		 */
+		Snapshot(ImmutableList<Participant<ADDRESS>> participants, ImmutableMap<ADDRESS, EventListener> index) {
+			this.participants = participants;
+			this.index = index;
+		}
+
+		/** Replies the pairs of addresses and participants, sorted by address.
+		 *
+		 * @return the pairs.
+		 */
+		public ImmutableList<Participant<ADDRESS>> getParticipants() {
+			return this.participants;
+		}
+
+		/** Replies the participants indexed by their addresses.
+		 *
+		 * @return the index.
+		 */
+		public ImmutableMap<ADDRESS, EventListener> getIndex() {
+			return this.index;
+		}
+
+	}
+
+	/** Pair of an address and a participant in a {@link ParticipantRepository}.
+	 *
+	 * @param <ADDRESS> - the generic type representing the address of a participant.
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	public static final class Participant<ADDRESS extends Serializable> {
+
+		private final ADDRESS address;
+
+		private final EventListener listener;
+
+		/**
+		 * @param address - the address of the participant.
+		 * @param listener - the participant.
+		 */
+		Participant(ADDRESS address, EventListener listener) {
+			this.address = address;
+			this.listener = listener;
+		}
+
+		/** Replies the address of the participant.
+		 *
+		 * @return the address.
+		 */
+		public ADDRESS getAddress() {
+			return this.address;
+		}
+
+		/** Replies the participant.
+		 *
+		 * @return the participant.
+		 */
+		public EventListener getListener() {
+			return this.listener;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return this.address + "=" + this.listener; //$NON-NLS-1$
+		}
+
+	}
+
 }
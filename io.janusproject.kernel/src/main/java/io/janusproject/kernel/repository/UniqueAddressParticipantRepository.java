@@ -27,7 +27,9 @@ import io.sarl.lang.util.SynchronizedSet;
 import io.sarl.util.Collections3;
 
 import java.io.Serializable;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.UUID;
 
 /**
@@ -87,6 +89,38 @@ public final class UniqueAddressParticipantRepository<ADDRESS extends Serializab
 		return a;
 	}
 
+	/**
+	 * Registers new participants in this repository.
+	 * <p>
+	 * The snapshot of the participants is invalidated once, and the
+	 * distributed map is updated with a single operation.
+	 *
+	 * @param entities - the entities, indexed by their addresses.
+	 */
+	public void registerParticipants(Map<ADDRESS, EventListener> entities) {
+		Map<UUID, ADDRESS> ids = new HashMap<>();
+		for (Entry<ADDRESS, EventListener> entry : entities.entrySet()) {
+			ids.put(entry.getValue().getID(), entry.getKey());
+		}
+		synchronized (mutex()) {
+			addListeners(entities);
+			this.participants.putAll(ids);
+		}
+	}
+
+	/** Replies if the given participant is registered with the given address.
+	 *
+	 * @param a - the address of the participant.
+	 * @param entity - the participant.
+	 * @return <code>true</code> if the participant is registered with the address,
+	 * otherwise <code>false</code>.
+	 */
+	public boolean isRegistered(ADDRESS a, EventListener entity) {
+		synchronized (mutex()) {
+			return getListener(a) == entity;
+		}
+	}
+
 	/** Remove a participant from this repository.
 	 *
 	 * @param entity - participant to remove from this repository.
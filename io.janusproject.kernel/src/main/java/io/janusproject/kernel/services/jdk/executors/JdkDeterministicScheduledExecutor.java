@@ -0,0 +1,761 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.jdk.executors;
+
+import io.janusproject.JanusConfig;
+import io.janusproject.services.executor.ChuckNorrisException;
+import io.janusproject.services.executor.ClassifiedTask;
+import io.janusproject.services.executor.JanusScheduledFutureTask;
+import io.janusproject.services.executor.TaskKind;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.google.inject.Inject;
+
+/**
+ * Executor that is running all the tasks of the kernel on a single thread,
+ * in a reproducible order.
+ * <p>
+ * This executor is both the executor of the tasks and the scheduler of the
+ * delayed tasks. The tasks are run one after the other by a single worker
+ * thread. When several tasks are ready, the next task to run is the oldest one,
+ * or, if a non-zero seed is given, a task that is selected by a pseudo-random
+ * generator initialized with this seed. Two runs of the same agents with the same
+ * seed are then running the tasks in the same order; and different seeds are
+ * exploring different interleavings of the tasks.
+ * <p>
+ * The delays are honoured according to a virtual clock, as in
+ * {@link JdkVirtualTimeScheduledExecutor}: when no task is ready, the clock jumps
+ * to the due time of the next scheduled task. The clock jumps only when a task that
+ * is not a {@link TaskKind#SERVICE_TASK service task} is scheduled.
+ * <p>
+ * The tasks must not wait for the termination of other tasks of this executor,
+ * since they would wait for themselves.
+ * The tasks that are submitted by threads that are not managed by this executor,
+ * e.g. the threads of the network layer, are run in the order of their submission,
+ * which may be not reproducible.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public class JdkDeterministicScheduledExecutor extends AbstractExecutorService
+		implements ScheduledExecutorService, JdkMonitoredExecutor, JdkVirtualClockExecutor {
+
+	private final Object lock = new Object();
+
+	/** Tasks that are ready to run. This list is accessed within the lock.
+	 */
+	private final List<Runnable> readyTasks;
+
+	/** Scheduled tasks, sorted by due time and submission order.
+	 * This queue is accessed within the lock.
+	 */
+	private final PriorityQueue<DeterministicTask<?>> timers = new PriorityQueue<>();
+
+	/** Generator of the selection of the next ready task, or <code>null</code>
+	 * for selecting the oldest ready task.
+	 */
+	private final Random random;
+
+	private final long seed;
+
+	private final CountDownLatch termination = new CountDownLatch(1);
+
+	private final Thread worker;
+
+	/** Source of the submission orders of the scheduled tasks.
+	 * This field is accessed within the lock.
+	 */
+	private long sequencer;
+
+	/** Number of scheduled tasks that are not service tasks.
+	 * This field is accessed within the lock.
+	 */
+	private int agentTimerCount;
+
+	/** Indicates if a task is running. This field is accessed within the lock.
+	 */
+	private boolean running;
+
+	/** Current virtual time, in nanoseconds.
+	 */
+	private volatile long now;
+
+	private volatile boolean shutdown;
+
+	private volatile JdkExecutorStatistics statistics;
+
+	/**
+	 * @param factory - the factory to use for creating the worker thread.
+	 */
+	@Inject
+	public JdkDeterministicScheduledExecutor(ThreadFactory factory) {
+		this(JanusConfig.getSystemPropertyAsInteger(
+				JanusConfig.DETERMINISTIC_SEED_NAME,
+				JanusConfig.DETERMINISTIC_SEED_VALUE),
+				factory);
+	}
+
+	/**
+	 * @param seed - the seed of the selection of the ready tasks; zero for running
+	 * the ready tasks in their submission order.
+	 * @param factory - the factory to use for creating the worker thread.
+	 */
+	@SuppressWarnings("synthetic-access")
+	public JdkDeterministicScheduledExecutor(long seed, ThreadFactory factory) {
+		this.seed = seed;
+		if (seed == 0) {
+			this.random = null;
+			this.readyTasks = new LinkedList<>();
+		} else {
+			this.random = new Random(seed);
+			this.readyTasks = new ArrayList<>();
+		}
+		this.worker = factory.newThread(new Worker());
+		this.worker.start();
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public void setStatistics(JdkExecutorStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+	/** Replies the seed of the selection of the ready tasks.
+	 *
+	 * @return the seed; zero if the ready tasks are run in their submission order.
+	 */
+	public long getSeed() {
+		return this.seed;
+	}
+
+	/** Replies the current virtual time.
+	 *
+	 * @param unit - the unit of the replied time.
+	 * @return the virtual time since the creation of this executor.
+	 */
+	@Override
+	public long getTime(TimeUnit unit) {
+		return unit.convert(this.now, TimeUnit.NANOSECONDS);
+	}
+
+	/** Replies the number of tasks that are ready to run.
+	 *
+	 * @return the number of ready tasks, the running task excluded.
+	 */
+	public int getReadyTaskCount() {
+		synchronized (this.lock) {
+			return this.readyTasks.size();
+		}
+	}
+
+	/** Replies the number of tasks that are waiting for their due time.
+	 *
+	 * @return the number of scheduled tasks.
+	 */
+	public int getScheduledTaskCount() {
+		synchronized (this.lock) {
+			return this.timers.size();
+		}
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public int getQueueSize() {
+		return getReadyTaskCount();
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean isIdle() {
+		synchronized (this.lock) {
+			return !this.running && this.readyTasks.isEmpty();
+		}
+	}
+
+	/** Wait until the executor is quiescent: no task is running or ready,
+	 * and no task that is not a service task is scheduled.
+	 * <p>
+	 * The periodic tasks of the agents are never finished; the executor
+	 * is not quiescent until they are cancelled.
+	 *
+	 * @param timeout - the maximal real time to wait.
+	 * @param unit - the unit of the timeout.
+	 * @return <code>true</code> if the executor is quiescent, <code>false</code>
+	 * if the timeout has elapsed.
+	 * @throws InterruptedException - if the waiting thread was interrupted.
+	 */
+	@Override
+	public boolean runUntilQuiescent(long timeout, TimeUnit unit) throws InterruptedException {
+		if (Thread.currentThread() == this.worker) {
+			throw new IllegalStateException();
+		}
+		long end = System.nanoTime() + unit.toNanos(timeout);
+		synchronized (this.lock) {
+			while (!isQuiescent()) {
+				long remaining = end - System.nanoTime();
+				if (remaining <= 0) {
+					return false;
+				}
+				TimeUnit.NANOSECONDS.timedWait(this.lock, remaining);
+			}
+		}
+		return true;
+	}
+
+	/** Replies if the executor is quiescent. This function must be invoked within the lock.
+	 *
+	 * @return <code>true</code> if no task is running, ready or scheduled.
+	 */
+	private boolean isQuiescent() {
+		return !this.running && this.readyTasks.isEmpty()
+				&& (this.agentTimerCount <= 0 || this.termination.getCount() == 0);
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public void execute(Runnable command) {
+		if (command == null) {
+			throw new NullPointerException();
+		}
+		synchronized (this.lock) {
+			if (this.shutdown) {
+				throw new RejectedExecutionException();
+			}
+			this.readyTasks.add(command);
+			this.lock.notifyAll();
+		}
+	}
+
+	/** Add a scheduled task in the queue of the timers.
+	 *
+	 * @param <V> - the type of the value replied by the task.
+	 * @param task - the task.
+	 * @return the task.
+	 */
+	@SuppressWarnings("synthetic-access")
+	private <V> DeterministicTask<V> addTimer(DeterministicTask<V> task) {
+		synchronized (this.lock) {
+			if (this.shutdown) {
+				throw new RejectedExecutionException();
+			}
+			task.sequence = this.sequencer++;
+			this.timers.add(task);
+			if (task.kind != TaskKind.SERVICE_TASK) {
+				++this.agentTimerCount;
+			}
+			this.lock.notifyAll();
+		}
+		return task;
+	}
+
+	/** Remove a scheduled task from the queue of the timers.
+	 *
+	 * @param task - the task.
+	 */
+	@SuppressWarnings("synthetic-access")
+	private void removeTimer(DeterministicTask<?> task) {
+		synchronized (this.lock) {
+			if (this.timers.remove(task) && task.kind != TaskKind.SERVICE_TASK) {
+				--this.agentTimerCount;
+			}
+			this.lock.notifyAll();
+		}
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+		if (command == null || unit == null) {
+			throw new NullPointerException();
+		}
+		return addTimer(new DeterministicTask<Void>(command, null, triggerTime(delay, unit), 0));
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+		if (callable == null || unit == null) {
+			throw new NullPointerException();
+		}
+		return addTimer(new DeterministicTask<>(callable, triggerTime(delay, unit)));
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+		if (command == null || unit == null) {
+			throw new NullPointerException();
+		}
+		if (period <= 0) {
+			throw new IllegalArgumentException();
+		}
+		return addTimer(new DeterministicTask<Void>(command, null,
+				triggerTime(initialDelay, unit), unit.toNanos(period)));
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+		if (command == null || unit == null) {
+			throw new NullPointerException();
+		}
+		if (delay <= 0) {
+			throw new IllegalArgumentException();
+		}
+		return addTimer(new DeterministicTask<Void>(command, null,
+				triggerTime(initialDelay, unit), -unit.toNanos(delay)));
+	}
+
+	private long triggerTime(long delay, TimeUnit unit) {
+		return this.now + Math.max(0, unit.toNanos(delay));
+	}
+
+	/** {@inheritDoc}
+	 * <p>
+	 * The ready tasks are run; the scheduled tasks that are not yet run are cancelled.
+	 */
+	@Override
+	public void shutdown() {
+		cancelTimers();
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public List<Runnable> shutdownNow() {
+		List<Runnable> tasks;
+		synchronized (this.lock) {
+			this.shutdown = true;
+			tasks = new ArrayList<>(this.readyTasks);
+			this.readyTasks.clear();
+		}
+		tasks.addAll(cancelTimers());
+		this.worker.interrupt();
+		return tasks;
+	}
+
+	/** Stop the executor and cancel the scheduled tasks.
+	 *
+	 * @return the cancelled tasks.
+	 */
+	private List<Runnable> cancelTimers() {
+		List<DeterministicTask<?>> cancelled;
+		synchronized (this.lock) {
+			this.shutdown = true;
+			cancelled = new ArrayList<>(this.timers);
+			this.timers.clear();
+			this.agentTimerCount = 0;
+			this.lock.notifyAll();
+		}
+		List<Runnable> tasks = new ArrayList<>(cancelled.size());
+		for (DeterministicTask<?> task : cancelled) {
+			if (task.cancel(false)) {
+				tasks.add(task);
+			}
+		}
+		return tasks;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean isShutdown() {
+		return this.shutdown;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean isTerminated() {
+		return this.termination.getCount() == 0;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return this.termination.await(timeout, unit);
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "Deterministic[seed=" + this.seed //$NON-NLS-1$
+				+ "; now=" + this.now + "ns]"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/** Code of the thread that is running the tasks.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private class Worker implements Runnable {
+
+		/**
+		 */
+		Worker() {
+			//
+		}
+
+		/** {@inheritDoc}
+		 */
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public void run() {
+			JdkDeterministicScheduledExecutor executor = JdkDeterministicScheduledExecutor.this;
+			try {
+				Runnable task = nextTask();
+				while (task != null) {
+					try {
+						task.run();
+					} catch (Throwable e) {
+						JdkExecutorUtil.log(Thread.currentThread(), e);
+					}
+					task = nextTask();
+				}
+			} catch (InterruptedException e) {
+				//
+			} finally {
+				synchronized (executor.lock) {
+					executor.running = false;
+					executor.termination.countDown();
+					executor.lock.notifyAll();
+				}
+			}
+		}
+
+		/** Wait for the next task to run.
+		 *
+		 * @return the next task, or <code>null</code> if the executor is shut down.
+		 * @throws InterruptedException - if the worker was interrupted.
+		 */
+		@SuppressWarnings("synthetic-access")
+		private Runnable nextTask() throws InterruptedException {
+			JdkDeterministicScheduledExecutor executor = JdkDeterministicScheduledExecutor.this;
+			synchronized (executor.lock) {
+				executor.running = false;
+				while (true) {
+					// Move the tasks that are due at the current time in the ready tasks.
+					DeterministicTask<?> timer = executor.timers.peek();
+					while (timer != null && timer.time <= executor.now) {
+						executor.timers.poll();
+						if (timer.kind != TaskKind.SERVICE_TASK) {
+							--executor.agentTimerCount;
+						}
+						timer.dispatchTime = System.nanoTime();
+						executor.readyTasks.add(timer);
+						timer = executor.timers.peek();
+					}
+					if (!executor.readyTasks.isEmpty()) {
+						executor.running = true;
+						return pollReadyTask();
+					}
+					if (executor.shutdown) {
+						return null;
+					}
+					if (executor.agentTimerCount > 0) {
+						// No ready task: jump to the next due time.
+						executor.now = timer.time;
+					} else {
+						executor.lock.notifyAll();
+						executor.lock.wait();
+					}
+				}
+			}
+		}
+
+		/** Remove the next task to run from the ready tasks.
+		 * This function must be invoked within the lock.
+		 *
+		 * @return the next task.
+		 */
+		@SuppressWarnings("synthetic-access")
+		private Runnable pollReadyTask() {
+			List<Runnable> tasks = JdkDeterministicScheduledExecutor.this.readyTasks;
+			Random rnd = JdkDeterministicScheduledExecutor.this.random;
+			if (rnd == null) {
+				return tasks.remove(0);
+			}
+			int last = tasks.size() - 1;
+			int index = rnd.nextInt(last + 1);
+			Runnable task = tasks.get(index);
+			Runnable lastTask = tasks.remove(last);
+			if (index < last) {
+				tasks.set(index, lastTask);
+			}
+			return task;
+		}
+
+		@Override
+		public String toString() {
+			return "Deterministic-Worker"; //$NON-NLS-1$
+		}
+
+	}
+
+	/** Task that is scheduled according to the virtual clock.
+	 *
+	 * @param <V> - type of the values supported by the task.
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private class DeterministicTask<V> extends FutureTask<V> implements JanusScheduledFutureTask<V>, ClassifiedTask {
+
+		private final TaskKind kind;
+
+		private final Object subruntime;
+
+		/** Period of the task: positive for a fixed rate, negative for a fixed delay,
+		 * zero for a single run.
+		 */
+		private final long period;
+
+		/** Virtual time at which the task must be run.
+		 */
+		private volatile long time;
+
+		/** Submission order of the task, for the tasks with the same due time.
+		 */
+		private volatile long sequence;
+
+		/** Real time at which the task was added to the ready tasks.
+		 */
+		private volatile long dispatchTime;
+
+		/**
+		 * @param runnable - the task.
+		 * @param result - the result of the task.
+		 * @param time - the virtual time at which the task must be run the first time.
+		 * @param period - the period of the task.
+		 */
+		DeterministicTask(Runnable runnable, V result, long time, long period) {
+			super(runnable, result);
+			this.kind = TaskKind.of(runnable);
+			this.subruntime = runnable;
+			this.time = time;
+			this.period = period;
+		}
+
+		/**
+		 * @param callable - the task.
+		 * @param time - the virtual time at which the task must be run.
+		 */
+		DeterministicTask(Callable<V> callable, long time) {
+			super(callable);
+			this.kind = TaskKind.of(callable);
+			this.subruntime = callable;
+			this.time = time;
+			this.period = 0;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public TaskKind getTaskKind() {
+			return this.kind;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public boolean isPeriodic() {
+			return this.period != 0;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.time - JdkDeterministicScheduledExecutor.this.now, TimeUnit.NANOSECONDS);
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public int compareTo(Delayed other) {
+			if (other == this) {
+				return 0;
+			}
+			if (other instanceof DeterministicTask<?>) {
+				DeterministicTask<?> task = (DeterministicTask<?>) other;
+				int cmp = Long.compare(this.time, task.time);
+				if (cmp != 0) {
+					return cmp;
+				}
+				return Long.compare(this.sequence, task.sequence);
+			}
+			return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+		}
+
+		/** {@inheritDoc}
+		 */
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				removeTimer(this);
+			}
+			return cancelled;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public void run() {
+			Thread current = Thread.currentThread();
+			JdkExecutorStatistics stats = JdkDeterministicScheduledExecutor.this.statistics;
+			long start = 0;
+			if (stats != null && stats.isEnabled()) {
+				start = stats.taskStarted(this.kind, Math.max(0, System.nanoTime() - this.dispatchTime));
+			} else {
+				stats = null;
+			}
+			try {
+				if (!isPeriodic()) {
+					super.run();
+					reportException(current);
+				} else if (runAndReset()) {
+					JdkDeterministicScheduledExecutor executor = JdkDeterministicScheduledExecutor.this;
+					if (this.period > 0) {
+						this.time += this.period;
+					} else {
+						this.time = executor.now - this.period;
+					}
+					try {
+						executor.addTimer(this);
+					} catch (RejectedExecutionException e) {
+						cancel(false);
+					}
+				} else {
+					reportException(current);
+				}
+			} finally {
+				if (stats != null) {
+					stats.taskFinished(this.kind, start);
+				}
+			}
+		}
+
+		/** Report the exception thrown by the task, if one.
+		 *
+		 * @param current - the thread that has run the task.
+		 */
+		private void reportException(Thread current) {
+			if (isDone() && !isCancelled()) {
+				try {
+					super.get();
+				} catch (ExecutionException e) {
+					JdkExecutorUtil.log(current, e);
+				} catch (Throwable e) {
+					//
+				}
+			}
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public V get() throws InterruptedException, ExecutionException {
+			try {
+				return super.get();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof ChuckNorrisException) {
+					return null;
+				}
+				throw e;
+			}
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public V get(long timeout, TimeUnit unit) throws InterruptedException,
+				ExecutionException, TimeoutException {
+			try {
+				return super.get(timeout, unit);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof ChuckNorrisException) {
+					return null;
+				}
+				throw e;
+			}
+		}
+
+		/** {@inheritDoc}
+		 */
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public Thread getThread() {
+			return JdkDeterministicScheduledExecutor.this.worker;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public boolean isCurrentThread() {
+			return Thread.currentThread() == getThread();
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return "[ " + this.subruntime + " ] ON [ " //$NON-NLS-1$ //$NON-NLS-2$
+					+ getThread() + " ]"; //$NON-NLS-1$
+		}
+
+	}
+
+}
@@ -0,0 +1,574 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.jdk.executors;
+
+import io.janusproject.JanusConfig;
+import io.janusproject.services.executor.AffinityTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import com.google.inject.Inject;
+
+/**
+ * Executor that is running the tasks on a fixed number of event loops.
+ * <p>
+ * Each event loop is a thread with its own queue of tasks. A task with an
+ * {@link AffinityTask affinity key} is always queued in the same event loop.
+ * The other tasks are queued in the event loop of the submitting thread,
+ * or in the event loops in a round-robin way if the submitting thread is not
+ * an event loop. In this way, the events of an agent and their handlers
+ * are run on the same thread, and the number of threads does not grow with
+ * the load.
+ * <p>
+ * An idle event loop steals the tasks that are waiting in the queues of
+ * the other event loops. The tasks with an affinity key are never stolen,
+ * so that the tasks of a key are run in their submission order.
+ * <p>
+ * The threads of the event loops are started by {@link #start()}; the tasks
+ * that are submitted before are queued. An idle event loop is parked until
+ * a task is submitted.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public class JdkEventLoopExecutor extends AbstractExecutorService
+		implements JdkMonitoredExecutor, JdkStartableExecutor {
+
+	private static final ThreadLocal<EventLoop> CURRENT_LOOP = new ThreadLocal<>();
+
+	private final EventLoop[] loops;
+
+	private final AtomicInteger nextLoop = new AtomicInteger();
+
+	/** Number of the event loops that are sleeping.
+	 */
+	private final AtomicInteger idleLoops = new AtomicInteger();
+
+	private final CountDownLatch termination;
+
+	private final AtomicBoolean started = new AtomicBoolean();
+
+	private volatile boolean shutdown;
+
+	private volatile boolean stopped;
+
+	private volatile JdkExecutorStatistics statistics;
+
+	/**
+	 * @param factory - the factory to use for creating the threads of the event loops.
+	 */
+	@Inject
+	public JdkEventLoopExecutor(ThreadFactory factory) {
+		this(
+				JanusConfig.getSystemPropertyAsInteger(
+						JanusConfig.EVENT_LOOP_COUNT_NAME,
+						JanusConfig.EVENT_LOOP_COUNT_VALUE),
+				factory);
+	}
+
+	/**
+	 * @param loopCount - the number of event loops; if zero or negative,
+	 *     the number of available processors.
+	 * @param factory - the factory to use for creating the threads of the event loops.
+	 */
+	@SuppressWarnings("synthetic-access")
+	public JdkEventLoopExecutor(int loopCount, ThreadFactory factory) {
+		int count = (loopCount > 0) ? loopCount : Runtime.getRuntime().availableProcessors();
+		this.loops = new EventLoop[count];
+		this.termination = new CountDownLatch(count);
+		for (int i = 0; i < count; ++i) {
+			this.loops[i] = new EventLoop(i);
+			this.loops[i].thread = factory.newThread(this.loops[i]);
+		}
+	}
+
+	/** Start the threads of the event loops.
+	 * This function does nothing if the threads are already started.
+	 */
+	@SuppressWarnings("synthetic-access")
+	@Override
+	public void start() {
+		if (this.started.compareAndSet(false, true)) {
+			for (EventLoop loop : this.loops) {
+				loop.thread.start();
+			}
+		}
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public void setStatistics(JdkExecutorStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean isIdle() {
+		return this.idleLoops.get() == this.loops.length && getQueueSize() == 0;
+	}
+
+	/** Replies the number of tasks that are waiting in the queues of the event loops.
+	 *
+	 * @return the number of pending tasks.
+	 */
+	@SuppressWarnings("synthetic-access")
+	@Override
+	public int getQueueSize() {
+		int size = 0;
+		for (EventLoop loop : this.loops) {
+			size += loop.affineTasks.size() + loop.tasks.size();
+		}
+		return size;
+	}
+
+	/** Replies the number of event loops.
+	 *
+	 * @return the number of event loops.
+	 */
+	public int getLoopCount() {
+		return this.loops.length;
+	}
+
+	/** Replies if the current thread is one of the event loops of this executor.
+	 *
+	 * @return <code>true</code> if the current thread is an event loop.
+	 */
+	public boolean isEventLoopThread() {
+		return getCurrentLoop() != null;
+	}
+
+	/** Replies the event loop in which the given task should be run.
+	 *
+	 * @param task - the task.
+	 * @return the event loop.
+	 */
+	@SuppressWarnings("synthetic-access")
+	Executor getLoop(Object task) {
+		Object key = getAffinityKey(task);
+		if (key != null) {
+			return selectLoop(key).affineExecutor;
+		}
+		return selectLoop(null);
+	}
+
+	/** Queue the given command in the event loop of the given task.
+	 *
+	 * @param task - the submitted task.
+	 * @param command - the command to queue, that is running the task.
+	 */
+	@SuppressWarnings("synthetic-access")
+	private void dispatch(Object task, Runnable command) {
+		Object key = getAffinityKey(task);
+		selectLoop(key).enqueue(command, key != null);
+	}
+
+	private static Object getAffinityKey(Object task) {
+		if (task instanceof AffinityTask) {
+			return ((AffinityTask) task).getAffinityKey();
+		}
+		return null;
+	}
+
+	private EventLoop getCurrentLoop() {
+		EventLoop loop = CURRENT_LOOP.get();
+		if (loop != null && loop.getOwner() == this) {
+			return loop;
+		}
+		return null;
+	}
+
+	private EventLoop selectLoop(Object key) {
+		if (key != null) {
+			return this.loops[(key.hashCode() & Integer.MAX_VALUE) % this.loops.length];
+		}
+		EventLoop loop = getCurrentLoop();
+		if (loop != null) {
+			return loop;
+		}
+		return this.loops[(this.nextLoop.getAndIncrement() & Integer.MAX_VALUE) % this.loops.length];
+	}
+
+	/** Wake up an idle event loop, that will steal the tasks of the busy loops.
+	 *
+	 * @param busyLoop - the busy loop.
+	 */
+	@SuppressWarnings("synthetic-access")
+	private void wakeUpIdleLoop(EventLoop busyLoop) {
+		for (EventLoop loop : this.loops) {
+			if (loop != busyLoop && loop.sleeping) {
+				LockSupport.unpark(loop.thread);
+				return;
+			}
+		}
+	}
+
+	/** Steal a task from the queues of the other event loops.
+	 * The tasks with an affinity key are not stolen.
+	 *
+	 * @param thief - the event loop that is stealing.
+	 * @return the stolen task, or <code>null</code> if none.
+	 */
+	@SuppressWarnings("synthetic-access")
+	private Runnable steal(EventLoop thief) {
+		int count = this.loops.length;
+		for (int i = 1; i < count; ++i) {
+			EventLoop victim = this.loops[(thief.index + i) % count];
+			Runnable task = victim.tasks.poll();
+			if (task != null) {
+				return task;
+			}
+		}
+		return null;
+	}
+
+	/** Replies if a task may be stolen from the queues of the other event loops.
+	 *
+	 * @param thief - the event loop that is stealing.
+	 * @return <code>true</code> if a task may be stolen.
+	 */
+	@SuppressWarnings("synthetic-access")
+	private boolean hasStealableTask(EventLoop thief) {
+		for (EventLoop loop : this.loops) {
+			if (loop != thief && !loop.tasks.isEmpty()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+		JdkJanusFutureTask<T> task = new JdkJanusFutureTask<>(callable);
+		task.setStatistics(this.statistics);
+		return task;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+		JdkJanusFutureTask<T> task = new JdkJanusFutureTask<>(runnable, value);
+		task.setStatistics(this.statistics);
+		return task;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public void execute(Runnable command) {
+		dispatch(command, command);
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public Future<?> submit(Runnable task) {
+		RunnableFuture<Object> future = newTaskFor(task, null);
+		dispatch(task, future);
+		return future;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public <T> Future<T> submit(Runnable task, T result) {
+		RunnableFuture<T> future = newTaskFor(task, result);
+		dispatch(task, future);
+		return future;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		RunnableFuture<T> future = newTaskFor(task);
+		dispatch(task, future);
+		return future;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@SuppressWarnings("synthetic-access")
+	@Override
+	public void shutdown() {
+		this.shutdown = true;
+		// The loops must run for terminating, even if the executor was never started.
+		start();
+		for (EventLoop loop : this.loops) {
+			LockSupport.unpark(loop.thread);
+		}
+	}
+
+	/** {@inheritDoc}
+	 */
+	@SuppressWarnings("synthetic-access")
+	@Override
+	public List<Runnable> shutdownNow() {
+		this.shutdown = true;
+		this.stopped = true;
+		List<Runnable> tasks = new ArrayList<>();
+		for (EventLoop loop : this.loops) {
+			drain(loop.affineTasks, tasks);
+			drain(loop.tasks, tasks);
+		}
+		start();
+		for (EventLoop loop : this.loops) {
+			loop.thread.interrupt();
+		}
+		return tasks;
+	}
+
+	private static void drain(Queue<Runnable> queue, List<Runnable> tasks) {
+		Runnable task = queue.poll();
+		while (task != null) {
+			tasks.add(task);
+			task = queue.poll();
+		}
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean isShutdown() {
+		return this.shutdown;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean isTerminated() {
+		return this.termination.getCount() == 0;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return this.termination.await(timeout, unit);
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[loops=" + this.loops.length //$NON-NLS-1$
+				+ "; idle=" + this.idleLoops.get() + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/** Event loop: thread with its own queues of tasks.
+	 * The tasks with an affinity key are in a queue that is
+	 * not visible to the other event loops.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private class EventLoop implements Runnable, Executor {
+
+		private final int index;
+
+		/** Tasks with an affinity key, that are run only by this loop.
+		 */
+		private final Queue<Runnable> affineTasks = new ConcurrentLinkedQueue<>();
+
+		/** Tasks that may be stolen by the other loops.
+		 */
+		private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+		/** Executor that is queuing the tasks with an affinity key in this loop.
+		 */
+		private final Executor affineExecutor = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				enqueue(command, true);
+			}
+		};
+
+		/** Indicates if the next task is taken from the shared queue, for
+		 * alternating between the two queues.
+		 */
+		private boolean sharedFirst;
+
+		/** Thread of the loop. It is set before the thread is started.
+		 */
+		private Thread thread;
+
+		private volatile boolean sleeping;
+
+		/**
+		 * @param index - the index of the loop.
+		 */
+		EventLoop(int index) {
+			this.index = index;
+		}
+
+		/** Replies the executor that is owning this loop.
+		 *
+		 * @return the owner.
+		 */
+		JdkEventLoopExecutor getOwner() {
+			return JdkEventLoopExecutor.this;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public void execute(Runnable command) {
+			enqueue(command, false);
+		}
+
+		/** Queue the given command.
+		 *
+		 * @param command - the command.
+		 * @param affine - indicates if the command has an affinity key, and must not be stolen.
+		 */
+		@SuppressWarnings("synthetic-access")
+		void enqueue(Runnable command, boolean affine) {
+			assert (command != null);
+			if (JdkEventLoopExecutor.this.shutdown) {
+				throw new RejectedExecutionException();
+			}
+			Queue<Runnable> queue = affine ? this.affineTasks : this.tasks;
+			queue.add(command);
+			if (this.sleeping) {
+				LockSupport.unpark(this.thread);
+			} else if (!affine && JdkEventLoopExecutor.this.idleLoops.get() > 0) {
+				wakeUpIdleLoop(this);
+			}
+			// The executor may have been shut down in the meantime.
+			if (JdkEventLoopExecutor.this.shutdown && queue.remove(command)) {
+				throw new RejectedExecutionException();
+			}
+		}
+
+		private Runnable poll() {
+			Runnable task;
+			this.sharedFirst = !this.sharedFirst;
+			if (this.sharedFirst) {
+				task = this.tasks.poll();
+				if (task == null) {
+					task = this.affineTasks.poll();
+				}
+			} else {
+				task = this.affineTasks.poll();
+				if (task == null) {
+					task = this.tasks.poll();
+				}
+			}
+			return task;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public void run() {
+			CURRENT_LOOP.set(this);
+			try {
+				JdkEventLoopExecutor executor = JdkEventLoopExecutor.this;
+				while (!executor.stopped) {
+					Runnable task = poll();
+					if (task == null) {
+						task = steal(this);
+					}
+					if (task != null) {
+						runTask(task);
+					} else if (executor.shutdown) {
+						return;
+					} else {
+						sleep();
+					}
+				}
+			} finally {
+				CURRENT_LOOP.remove();
+				JdkEventLoopExecutor.this.termination.countDown();
+			}
+		}
+
+		private void runTask(Runnable task) {
+			// Clear the interruption flag that may be set by a cancelled task.
+			Thread.interrupted();
+			JdkJanusFutureTask<?> future = null;
+			if (task instanceof JdkJanusFutureTask<?>) {
+				future = (JdkJanusFutureTask<?>) task;
+				future.taskStarted(this.thread);
+			}
+			try {
+				task.run();
+			} catch (Throwable e) {
+				JdkExecutorUtil.log(this.thread, e);
+			} finally {
+				if (future != null) {
+					future.taskFinished();
+				}
+			}
+		}
+
+		@SuppressWarnings("synthetic-access")
+		private void sleep() {
+			AtomicInteger idle = JdkEventLoopExecutor.this.idleLoops;
+			idle.incrementAndGet();
+			this.sleeping = true;
+			try {
+				// The queues are tested after the flag is set: a task that is added
+				// before the flag is visible is not missed, and a task that is added
+				// after wakes up this loop.
+				if (this.affineTasks.isEmpty() && this.tasks.isEmpty()
+						&& !hasStealableTask(this) && !JdkEventLoopExecutor.this.shutdown) {
+					LockSupport.park(this);
+				}
+			} finally {
+				this.sleeping = false;
+				idle.decrementAndGet();
+			}
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return "EventLoop-" + this.index; //$NON-NLS-1$
+		}
+
+	}
+
+}
@@ -0,0 +1,159 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.jdk.executors;
+
+import io.janusproject.services.executor.TaskKind;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+
+import com.google.inject.Inject;
+
+/**
+ * Scheduled executor that is running the timed tasks on event loops.
+ * <p>
+ * A single timer thread is waiting for the delays of the tasks. When the
+ * delay of a task has expired, the task is given to the event loop that
+ * was selected when the task was scheduled: the event loop of the scheduling
+ * thread, or the event loop associated to the
+ * {@link io.janusproject.services.executor.AffinityTask affinity key} of the task.
+ * In this way, the timers of an agent are run on the same thread as its events.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public class JdkEventLoopScheduledExecutor extends JdkScheduledThreadPoolExecutor {
+
+	private final JdkEventLoopExecutor loops;
+
+	/**
+	 * @param factory - the thread factory to use for creating the timer thread.
+	 * @param loops - the event loops that are running the tasks.
+	 */
+	@Inject
+	public JdkEventLoopScheduledExecutor(ThreadFactory factory, JdkEventLoopExecutor loops) {
+		super(1, factory);
+		assert (loops != null);
+		this.loops = loops;
+	}
+
+	/** {@inheritDoc}
+	 * <p>
+	 * The event-loop scheduler has a single timer thread by design.
+	 */
+	@Override
+	public boolean isResizable() {
+		return false;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	protected <V> RunnableScheduledFuture<V> decorateTask(Callable<V> callable,
+			RunnableScheduledFuture<V> task) {
+		return new LoopBoundScheduledFutureTask<>(task, TaskKind.of(callable), this.loops.getLoop(callable));
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	protected <V> RunnableScheduledFuture<V> decorateTask(Runnable runnable,
+			RunnableScheduledFuture<V> task) {
+		return new LoopBoundScheduledFutureTask<>(task, TaskKind.of(runnable), this.loops.getLoop(runnable));
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	protected void beforeExecute(Thread t, Runnable r) {
+		// The timer thread is only giving the task to an event loop.
+		// The start of the task is reported by the event loop.
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	protected void afterExecute(Runnable r, Throwable t) {
+		// The timer thread has only given the task to an event loop.
+		// The termination of the task is reported by the event loop.
+	}
+
+	/** Scheduled task that is run by an event loop.
+	 *
+	 * @param <V> - type of the values supported by the task.
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private class LoopBoundScheduledFutureTask<V> extends JdkJanusScheduledFutureTask<V> {
+
+		private final Executor loop;
+
+		/**
+		 * @param task - the JRE task.
+		 * @param kind - the kind of the task.
+		 * @param loop - the event loop that must run the task.
+		 */
+		LoopBoundScheduledFutureTask(RunnableScheduledFuture<V> task, TaskKind kind, Executor loop) {
+			super(task, kind);
+			this.loop = loop;
+		}
+
+		/** Run the task in the current thread, that is the event loop.
+		 */
+		void runInLoop() {
+			taskStarted(Thread.currentThread(), getStatistics());
+			try {
+				super.run();
+			} finally {
+				taskFinished();
+			}
+			if (isDone() || isCancelled()) {
+				reportException(getThread());
+				fireTaskFinished(getThread(), this);
+			}
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public void run() {
+			try {
+				this.loop.execute(new Runnable() {
+					@Override
+					public void run() {
+						runInLoop();
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				// The event loops are shut down.
+				cancel(false);
+			}
+		}
+
+	}
+
+}
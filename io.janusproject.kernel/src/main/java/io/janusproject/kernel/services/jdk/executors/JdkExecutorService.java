@@ -21,12 +21,23 @@ package io.janusproject.kernel.services.jdk.executors;
 
 import io.janusproject.JanusConfig;
 import io.janusproject.services.AbstractDependentService;
+import io.janusproject.services.executor.AffinityTask;
+import io.janusproject.services.executor.ClassifiedTask;
+import io.janusproject.services.executor.ExecutorStatistics;
+import io.janusproject.services.executor.TaskKind;
+import io.janusproject.services.logging.LogService;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -46,11 +57,40 @@ import com.google.inject.Singleton;
 @Singleton
 public class JdkExecutorService extends AbstractDependentService implements io.janusproject.services.executor.ExecutorService {
 
+	private static final long BLOCKING_THREAD_KEEP_ALIVE = 60;
+
+	/** Period of the polling of the pools when the quiescence is detected
+	 * with the time of the system, in nanoseconds.
+	 */
+	private static final long QUIESCENCE_POLL_PERIOD = TimeUnit.MILLISECONDS.toNanos(1);
+
+	/** Maximal number of threads per processor that are kept in an adaptive pool
+	 * when the maximal number of threads is not configured.
+	 */
+	private static final int THREADS_PER_PROCESSOR = 4;
+
+	/** Time at which this service was created. It is the origin of the time
+	 * of the system that is replied by {@link #getTime(TimeUnit)}.
+	 */
+	private final long startTime = System.nanoTime();
+
 	private ScheduledExecutorService schedules;
 	private ExecutorService exec;
 
+	private ThreadFactory threadFactory;
+
+	private volatile ThreadPoolExecutor blockingPool;
+
+	private final Executor blockingExecutor = new BlockingExecutor();
+
 	private ScheduledFuture<?> purgeTask;
 
+	private final List<ScheduledFuture<?>> controllerTasks = new ArrayList<>();
+
+	private LogService logger;
+
+	private final JdkExecutorStatistics statistics = new JdkExecutorStatistics();
+
 	/**
 	 */
 	public JdkExecutorService() {
@@ -63,7 +103,12 @@ public class JdkExecutorService extends AbstractDependentService implements io.j
 	 */
 	@Inject
 	void setScheduledExecutorService(ScheduledExecutorService service) {
+		this.statistics.removeExecutor(this.schedules);
 		this.schedules = service;
+		this.statistics.addExecutor(service);
+		if (service instanceof JdkMonitoredExecutor) {
+			((JdkMonitoredExecutor) service).setStatistics(this.statistics);
+		}
 	}
 
 	/** Change the JRE service for scheduled tasks.
@@ -72,7 +117,31 @@ public class JdkExecutorService extends AbstractDependentService implements io.j
 	 */
 	@Inject
 	void setExecutorService(ExecutorService service) {
+		this.statistics.removeExecutor(this.exec);
 		this.exec = service;
+		this.statistics.addExecutor(service);
+		if (service instanceof JdkMonitoredExecutor) {
+			((JdkMonitoredExecutor) service).setStatistics(this.statistics);
+		}
+	}
+
+	/** Change the factory of the threads of the pool that is running the blocking tasks.
+	 *
+	 * @param factory - the factory of threads.
+	 */
+	@Inject
+	void setThreadFactory(ThreadFactory factory) {
+		this.threadFactory = factory;
+	}
+
+	/** Change the logging service that is used for reporting the adaptations
+	 * of the pools.
+	 *
+	 * @param logger - the logging service.
+	 */
+	@Inject
+	void setLogService(LogService logger) {
+		this.logger = logger;
 	}
 
 	@Override
@@ -86,6 +155,12 @@ public class JdkExecutorService extends AbstractDependentService implements io.j
 	protected void doStart() {
 		assert (this.schedules != null);
 		assert (this.exec != null);
+		if (this.exec instanceof JdkStartableExecutor) {
+			((JdkStartableExecutor) this.exec).start();
+		}
+		if (this.schedules instanceof JdkStartableExecutor) {
+			((JdkStartableExecutor) this.schedules).start();
+		}
 		// Launch a periodic task that is purging the executor pools.
 		if ((this.schedules instanceof ThreadPoolExecutor)
 				|| (this.exec instanceof ThreadPoolExecutor)) {
@@ -96,9 +171,83 @@ public class JdkExecutorService extends AbstractDependentService implements io.j
 					new Purger(),
 					delay, delay, TimeUnit.SECONDS);
 		}
+		// Create the pool of the blocking tasks. With a virtual clock, all the tasks
+		// must be run by the scheduler for detecting the quiescence of the agents.
+		int blockingThreads = JanusConfig.getSystemPropertyAsInteger(
+				JanusConfig.BLOCKING_THREADS_NAME,
+				JanusConfig.BLOCKING_THREADS_VALUE);
+		if (blockingThreads > 0 && !isVirtualTime()) {
+			ThreadFactory factory = this.threadFactory;
+			if (factory == null) {
+				factory = Executors.defaultThreadFactory();
+			}
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(
+					blockingThreads, blockingThreads,
+					BLOCKING_THREAD_KEEP_ALIVE, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(),
+					factory);
+			pool.allowCoreThreadTimeOut(true);
+			this.statistics.addExecutor(pool);
+			this.blockingPool = pool;
+		}
+		// Launch the periodic tasks that are adapting the sizes of the pools.
+		if (JanusConfig.getSystemPropertyAsBoolean(
+				JanusConfig.EXECUTOR_ADAPTIVE_NAME,
+				JanusConfig.EXECUTOR_ADAPTIVE_VALUE)) {
+			startPoolSizeController("executor", this.exec); //$NON-NLS-1$
+			if (this.schedules != this.exec) {
+				startPoolSizeController("scheduler", this.schedules); //$NON-NLS-1$
+			}
+		}
 		notifyStarted();
 	}
 
+	/** Replies if the number of threads of the given pool may be adapted to the load.
+	 *
+	 * @param pool - the pool.
+	 * @return <code>true</code> if the pool is a thread pool that may be resized.
+	 */
+	private static boolean isResizable(ExecutorService pool) {
+		if (pool instanceof JdkResizableExecutor) {
+			return pool instanceof ThreadPoolExecutor && ((JdkResizableExecutor) pool).isResizable();
+		}
+		return pool instanceof ThreadPoolExecutor;
+	}
+
+	/** Launch the controller of the size of the given pool, if the pool is
+	 * a thread pool that may be resized.
+	 *
+	 * @param name - the name of the pool.
+	 * @param pool - the pool.
+	 */
+	private void startPoolSizeController(String name, ExecutorService pool) {
+		if (isResizable(pool)) {
+			int processors = Runtime.getRuntime().availableProcessors();
+			int max = JanusConfig.getSystemPropertyAsInteger(
+					JanusConfig.MAX_NUMBER_OF_THREADS_IN_EXECUTOR_NAME, 0);
+			if (max <= 0) {
+				max = processors * THREADS_PER_PROCESSOR;
+			}
+			int min = JanusConfig.getSystemPropertyAsInteger(
+					JanusConfig.MIN_NUMBER_OF_THREADS_IN_EXECUTOR_NAME,
+					JanusConfig.MIN_NUMBER_OF_THREADS_IN_EXECUTOR_VALUE);
+			if (min <= 0) {
+				min = processors;
+			}
+			int waitThreshold = JanusConfig.getSystemPropertyAsInteger(
+					JanusConfig.EXECUTOR_ADAPTIVE_WAIT_THRESHOLD_NAME,
+					JanusConfig.EXECUTOR_ADAPTIVE_WAIT_THRESHOLD_VALUE);
+			int period = JanusConfig.getSystemPropertyAsInteger(
+					JanusConfig.EXECUTOR_ADAPTIVE_PERIOD_NAME,
+					JanusConfig.EXECUTOR_ADAPTIVE_PERIOD_VALUE);
+			JdkPoolSizeController controller = new JdkPoolSizeController(
+					name, (ThreadPoolExecutor) pool, this.logger,
+					min, max, waitThreshold);
+			this.controllerTasks.add(this.schedules.scheduleWithFixedDelay(
+					controller, period, period, TimeUnit.MILLISECONDS));
+		}
+	}
+
 	/** {@inheritDoc}
 	 */
 	@Override
@@ -107,6 +256,15 @@ public class JdkExecutorService extends AbstractDependentService implements io.j
 			this.purgeTask.cancel(true);
 			this.purgeTask = null;
 		}
+		for (ScheduledFuture<?> controllerTask : this.controllerTasks) {
+			controllerTask.cancel(true);
+		}
+		this.controllerTasks.clear();
+		ThreadPoolExecutor pool = this.blockingPool;
+		this.blockingPool = null;
+		if (pool != null) {
+			pool.shutdown();
+		}
 		this.exec.shutdown();
 		this.schedules.shutdown();
 		try {
@@ -115,17 +273,31 @@ public class JdkExecutorService extends AbstractDependentService implements io.j
 					JanusConfig.KERNEL_THREAD_TIMEOUT_VALUE);
 			this.schedules.awaitTermination(timeout, TimeUnit.SECONDS);
 			this.exec.awaitTermination(timeout, TimeUnit.SECONDS);
+			if (pool != null) {
+				pool.awaitTermination(timeout, TimeUnit.SECONDS);
+			}
 		} catch (InterruptedException e) {
 			// This error may occur when the thread is killed before this
 			// function is waiting for its termination.
 		} finally {
 			this.schedules.shutdownNow();
 			this.exec.shutdownNow();
+			if (pool != null) {
+				pool.shutdownNow();
+				this.statistics.removeExecutor(pool);
+			}
 			notifyStopped();
 		}
 
 	}
 
+	/** {@inheritDoc}
+	 */
+	@Override
+	public void execute(Runnable task) {
+		this.exec.execute(new ExecuteTask(task, this.statistics));
+	}
+
 	/** {@inheritDoc}
 	 */
 	@Override
@@ -186,6 +358,13 @@ public class JdkExecutorService extends AbstractDependentService implements io.j
 		return this.exec;
 	}
 
+	/** {@inheritDoc}
+	 */
+	@Override
+	public Executor getBlockingExecutor() {
+		return this.blockingExecutor;
+	}
+
 	/** {@inheritDoc}
 	 */
 	@Override
@@ -198,6 +377,194 @@ public class JdkExecutorService extends AbstractDependentService implements io.j
 		}
 	}
 
+	/** {@inheritDoc}
+	 */
+	@Override
+	public ExecutorStatistics getStatistics() {
+		return this.statistics;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public long getTime(TimeUnit unit) {
+		if (this.schedules instanceof JdkVirtualClockExecutor) {
+			return ((JdkVirtualClockExecutor) this.schedules).getTime(unit);
+		}
+		return unit.convert(System.nanoTime() - this.startTime, TimeUnit.NANOSECONDS);
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean isVirtualTime() {
+		return this.schedules instanceof JdkVirtualClockExecutor;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean isKernelThread() {
+		return JdkExecutorUtil.isKernelThread();
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean runUntilQuiescent(long timeout, TimeUnit unit) throws InterruptedException {
+		if (this.schedules instanceof JdkVirtualClockExecutor) {
+			return ((JdkVirtualClockExecutor) this.schedules).runUntilQuiescent(timeout, unit);
+		}
+		// With the time of the system, the pools are polled because they
+		// are not notifying the end of their tasks.
+		long end = System.nanoTime() + unit.toNanos(timeout);
+		while (!isIdle()) {
+			long remaining = end - System.nanoTime();
+			if (remaining <= 0) {
+				return false;
+			}
+			TimeUnit.NANOSECONDS.sleep(Math.min(remaining, QUIESCENCE_POLL_PERIOD));
+		}
+		return true;
+	}
+
+	/** Replies if no task is running or waiting for a thread in the pools.
+	 *
+	 * @return <code>true</code> if the pools are idle.
+	 */
+	private boolean isIdle() {
+		// The executor is tested again after the scheduler because the
+		// scheduler may have given an expired task to it in the meantime.
+		return isIdle(this.exec) && isIdle(this.schedules)
+				&& isIdle(this.blockingPool) && isIdle(this.exec);
+	}
+
+	private static boolean isIdle(Executor executor) {
+		if (executor instanceof JdkMonitoredExecutor) {
+			return ((JdkMonitoredExecutor) executor).isIdle();
+		}
+		if (executor instanceof ThreadPoolExecutor) {
+			ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+			return pool.getActiveCount() == 0 && pool.getQueue().isEmpty();
+		}
+		return true;
+	}
+
+	/** Fire-and-forget task. The exceptions are given to the
+	 * uncaught exception handler of the running thread, and the thread
+	 * is not terminated.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private static final class ExecuteTask implements AffinityTask, ClassifiedTask {
+
+		private final Runnable task;
+
+		private final JdkExecutorStatistics statistics;
+
+		private final long submissionTime;
+
+		/**
+		 * @param task - the task to run.
+		 * @param statistics - the statistics to update.
+		 */
+		ExecuteTask(Runnable task, JdkExecutorStatistics statistics) {
+			assert (task != null);
+			this.task = task;
+			this.statistics = statistics;
+			this.submissionTime = statistics.now();
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public Object getAffinityKey() {
+			if (this.task instanceof AffinityTask) {
+				return ((AffinityTask) this.task).getAffinityKey();
+			}
+			return null;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public TaskKind getTaskKind() {
+			return TaskKind.of(this.task);
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public void run() {
+			TaskKind kind = null;
+			long start = 0;
+			if (this.statistics.isEnabled()) {
+				kind = getTaskKind();
+				start = this.statistics.taskStarted(kind, this.statistics.now() - this.submissionTime);
+			}
+			// The threads that are not created by the kernel, e.g. the workers of a
+			// fork-join pool, are threads of the kernel while they are running the task.
+			boolean kernelThread = JdkExecutorUtil.isKernelThread();
+			if (!kernelThread) {
+				JdkExecutorUtil.setKernelThread(true);
+			}
+			try {
+				this.task.run();
+			} catch (Throwable e) {
+				JdkExecutorUtil.log(Thread.currentThread(), e);
+			} finally {
+				if (!kernelThread) {
+					JdkExecutorUtil.setKernelThread(false);
+				}
+				if (kind != null) {
+					this.statistics.taskFinished(kind, start);
+				}
+			}
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return this.task.toString();
+		}
+
+	}
+
+	/** Executor of the blocking tasks. The tasks are run by the dedicated pool
+	 * if it exists, or by the main executor.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private class BlockingExecutor implements Executor {
+
+		/**
+		 */
+		public BlockingExecutor() {
+			//
+		}
+
+		/** {@inheritDoc}
+		 */
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public void execute(Runnable command) {
+			ThreadPoolExecutor pool = JdkExecutorService.this.blockingPool;
+			if (pool != null) {
+				pool.execute(new ExecuteTask(command, JdkExecutorService.this.statistics));
+			} else {
+				JdkExecutorService.this.execute(command);
+			}
+		}
+
+	}
+
 	/** Task that is purging the thread pools.
 	 *
 	 * @author $Author: sgalland$
@@ -0,0 +1,205 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.jdk.executors;
+
+import io.janusproject.JanusConfig;
+import io.janusproject.services.executor.ExecutorStatistics;
+import io.janusproject.services.executor.LatencyHistogram;
+import io.janusproject.services.executor.TaskKind;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Statistics on the execution of the tasks by the JRE executors.
+ * <p>
+ * The executors are invoking {@link #taskStarted(TaskKind, long)} and
+ * {@link #taskFinished(TaskKind, long)} around the execution of each task.
+ * When the statistics are disabled, these functions do nothing.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public class JdkExecutorStatistics implements ExecutorStatistics {
+
+	private final boolean enabled;
+
+	private final Map<TaskKind, LatencyHistogram> waitTimes = new EnumMap<>(TaskKind.class);
+
+	private final Map<TaskKind, LatencyHistogram> runTimes = new EnumMap<>(TaskKind.class);
+
+	private final AtomicInteger activeThreads = new AtomicInteger();
+
+	private final AtomicInteger peakThreads = new AtomicInteger();
+
+	private final List<Executor> executors = new CopyOnWriteArrayList<>();
+
+	/** Create the statistics that are enabled or not according to
+	 * {@link JanusConfig#EXECUTOR_STATISTICS_NAME}.
+	 */
+	public JdkExecutorStatistics() {
+		this(JanusConfig.getSystemPropertyAsBoolean(
+				JanusConfig.EXECUTOR_STATISTICS_NAME,
+				JanusConfig.EXECUTOR_STATISTICS_VALUE));
+	}
+
+	/**
+	 * @param enabled - indicates if the statistics are collected.
+	 */
+	public JdkExecutorStatistics(boolean enabled) {
+		this.enabled = enabled;
+		for (TaskKind kind : TaskKind.values()) {
+			this.waitTimes.put(kind, new LatencyHistogram());
+			this.runTimes.put(kind, new LatencyHistogram());
+		}
+	}
+
+	/** Add an executor for which the queue size must be counted.
+	 *
+	 * @param executor - the executor.
+	 */
+	void addExecutor(Executor executor) {
+		if (executor != null && !this.executors.contains(executor)) {
+			this.executors.add(executor);
+		}
+	}
+
+	/** Remove an executor for which the queue size must be counted.
+	 *
+	 * @param executor - the executor.
+	 */
+	void removeExecutor(Executor executor) {
+		this.executors.remove(executor);
+	}
+
+	/** Invoked by the executors when a task is starting.
+	 *
+	 * @param kind - the kind of the task.
+	 * @param waitTime - the time the task has waited before being run,
+	 * in nanoseconds. It is negative if unknown.
+	 * @return the time at which the task has started, to be given to
+	 * {@link #taskFinished(TaskKind, long)}.
+	 */
+	long taskStarted(TaskKind kind, long waitTime) {
+		if (!this.enabled) {
+			return 0;
+		}
+		if (waitTime >= 0) {
+			this.waitTimes.get(kind).record(waitTime);
+		}
+		int active = this.activeThreads.incrementAndGet();
+		int peak = this.peakThreads.get();
+		while (active > peak && !this.peakThreads.compareAndSet(peak, active)) {
+			peak = this.peakThreads.get();
+		}
+		return System.nanoTime();
+	}
+
+	/** Invoked by the executors when a task is finished.
+	 *
+	 * @param kind - the kind of the task.
+	 * @param startTime - the value replied by {@link #taskStarted(TaskKind, long)}.
+	 */
+	void taskFinished(TaskKind kind, long startTime) {
+		if (this.enabled) {
+			this.runTimes.get(kind).record(System.nanoTime() - startTime);
+			this.activeThreads.decrementAndGet();
+		}
+	}
+
+	/** Replies the current time if the statistics are enabled.
+	 *
+	 * @return the current time in nanoseconds, or zero if the statistics are disabled.
+	 */
+	long now() {
+		return this.enabled ? System.nanoTime() : 0;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	@Override
+	public int getActiveThreadCount() {
+		return this.activeThreads.get();
+	}
+
+	@Override
+	public int getPeakThreadCount() {
+		return this.peakThreads.get();
+	}
+
+	@Override
+	public int getQueueSize() {
+		int size = 0;
+		for (Executor executor : this.executors) {
+			if (executor instanceof JdkMonitoredExecutor) {
+				size += ((JdkMonitoredExecutor) executor).getQueueSize();
+			} else if (executor instanceof ThreadPoolExecutor) {
+				size += ((ThreadPoolExecutor) executor).getQueue().size();
+			}
+		}
+		return size;
+	}
+
+	@Override
+	public LatencyHistogram getWaitTimeHistogram(TaskKind kind) {
+		return this.waitTimes.get(kind);
+	}
+
+	@Override
+	public LatencyHistogram getRunTimeHistogram(TaskKind kind) {
+		return this.runTimes.get(kind);
+	}
+
+	@Override
+	public void reset() {
+		for (LatencyHistogram histogram : this.waitTimes.values()) {
+			histogram.reset();
+		}
+		for (LatencyHistogram histogram : this.runTimes.values()) {
+			histogram.reset();
+		}
+		this.peakThreads.set(this.activeThreads.get());
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder buffer = new StringBuilder();
+		buffer.append("active=").append(getActiveThreadCount()); //$NON-NLS-1$
+		buffer.append("; peak=").append(getPeakThreadCount()); //$NON-NLS-1$
+		buffer.append("; queue=").append(getQueueSize()); //$NON-NLS-1$
+		for (TaskKind kind : TaskKind.values()) {
+			buffer.append("\n").append(kind.name()); //$NON-NLS-1$
+			buffer.append(": wait[").append(this.waitTimes.get(kind)); //$NON-NLS-1$
+			buffer.append("] run[").append(this.runTimes.get(kind)).append("]"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return buffer.toString();
+	}
+
+}
@@ -35,10 +35,35 @@ import java.util.concurrent.ExecutionException;
  */
 final class JdkExecutorUtil {
 
+	/** Indicates if the current thread is a thread of the kernel.
+	 */
+	private static final ThreadLocal<Boolean> KERNEL_THREAD = new ThreadLocal<>();
+
 	private JdkExecutorUtil() {
 		//
 	}
 
+	/** Replies if the current thread is a thread of the kernel.
+	 *
+	 * @return <code>true</code> if the current thread was created by the kernel,
+	 *     or is running a task of the kernel.
+	 */
+	public static boolean isKernelThread() {
+		return KERNEL_THREAD.get() != null;
+	}
+
+	/** Change the flag that indicates if the current thread is a thread of the kernel.
+	 *
+	 * @param kernel - <code>true</code> if the current thread is a thread of the kernel.
+	 */
+	public static void setKernelThread(boolean kernel) {
+		if (kernel) {
+			KERNEL_THREAD.set(Boolean.TRUE);
+		} else {
+			KERNEL_THREAD.remove();
+		}
+	}
+
 	/** Log the exception.
 	 *
 	 * @param thread - the thread in which the exception occurs.
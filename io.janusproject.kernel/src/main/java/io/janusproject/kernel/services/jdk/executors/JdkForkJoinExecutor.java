@@ -0,0 +1,356 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.jdk.executors;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.google.inject.Inject;
+
+/**
+ * Executor that is running the tasks on a work-stealing {@link ForkJoinPool}.
+ * <p>
+ * The parallelism of the pool is bounded to the number of available processors,
+ * and the pool is in asynchronous mode, i.e. the local tasks are run in FIFO order,
+ * which is adapted to the event-driven tasks that are never joined.
+ * <p>
+ * The submitted tasks are {@link io.janusproject.services.executor.JanusFutureTask Janus future tasks},
+ * and the {@link io.janusproject.services.executor.ChuckNorrisException} is ignored
+ * as in {@link JdkThreadPoolExecutor}.
+ * <p>
+ * The worker threads are configured by the injected {@link ThreadFactory}, i.e.
+ * they have the name, the daemon flag and the exception handler of the threads
+ * of this factory.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public class JdkForkJoinExecutor extends AbstractExecutorService implements JdkMonitoredExecutor {
+
+	private final ForkJoinPool pool;
+
+	private volatile JdkExecutorStatistics statistics;
+
+	/**
+	 * @param factory - the factory of the threads that are adapted to the worker threads.
+	 */
+	@Inject
+	public JdkForkJoinExecutor(ThreadFactory factory) {
+		this(Runtime.getRuntime().availableProcessors(), factory);
+	}
+
+	/**
+	 * @param parallelism - the maximal number of threads that are running tasks at the same time.
+	 * @param factory - the factory of the threads that are adapted to the worker threads.
+	 */
+	public JdkForkJoinExecutor(int parallelism, ThreadFactory factory) {
+		assert (factory != null);
+		this.pool = new ForkJoinPool(
+				Math.max(1, parallelism),
+				new WorkerThreadFactory(factory),
+				null,
+				true);
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public void setStatistics(JdkExecutorStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public int getQueueSize() {
+		return (int) Math.min(Integer.MAX_VALUE,
+				this.pool.getQueuedTaskCount() + this.pool.getQueuedSubmissionCount());
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean isIdle() {
+		return this.pool.isQuiescent();
+	}
+
+	/** Replies the fork-join pool that is running the tasks.
+	 *
+	 * @return the pool.
+	 */
+	public ForkJoinPool getPool() {
+		return this.pool;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+		JdkJanusFutureTask<T> task = new JdkJanusFutureTask<>(callable);
+		task.setStatistics(this.statistics);
+		return task;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+		JdkJanusFutureTask<T> task = new JdkJanusFutureTask<>(runnable, value);
+		task.setStatistics(this.statistics);
+		return task;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public void execute(Runnable command) {
+		assert (command != null);
+		this.pool.execute(new TaskAdapter(command));
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public Future<?> submit(Runnable task) {
+		RunnableFuture<Object> future = newTaskFor(task, null);
+		execute(future);
+		return future;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public <T> Future<T> submit(Runnable task, T result) {
+		RunnableFuture<T> future = newTaskFor(task, result);
+		execute(future);
+		return future;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		RunnableFuture<T> future = newTaskFor(task);
+		execute(future);
+		return future;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public void shutdown() {
+		this.pool.shutdown();
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public List<Runnable> shutdownNow() {
+		return this.pool.shutdownNow();
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean isShutdown() {
+		return this.pool.isShutdown();
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean isTerminated() {
+		return this.pool.isTerminated();
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return this.pool.awaitTermination(timeout, unit);
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return this.pool.toString();
+	}
+
+	/** Fork-join task that is running a Janus task.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private static final class TaskAdapter extends ForkJoinTask<Void> {
+
+		private static final long serialVersionUID = -8470567413539002390L;
+
+		private final Runnable task;
+
+		/**
+		 * @param task - the task to run.
+		 */
+		TaskAdapter(Runnable task) {
+			this.task = task;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public Void getRawResult() {
+			return null;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		protected void setRawResult(Void value) {
+			//
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		protected boolean exec() {
+			Thread thread = Thread.currentThread();
+			JdkJanusFutureTask<?> future = null;
+			if (this.task instanceof JdkJanusFutureTask<?>) {
+				future = (JdkJanusFutureTask<?>) this.task;
+				future.taskStarted(thread);
+			}
+			try {
+				this.task.run();
+			} catch (Throwable e) {
+				// The exceptions must not be stored in the fork-join task, that is never joined.
+				JdkExecutorUtil.log(thread, e);
+			} finally {
+				if (future != null) {
+					future.taskFinished();
+				}
+			}
+			return true;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return String.valueOf(this.task);
+		}
+
+	}
+
+	/** Factory of the worker threads that is adapting a {@link ThreadFactory}.
+	 * <p>
+	 * For each worker, a thread is created by the adapted factory, and is never started.
+	 * The worker takes the configuration of this thread, and runs it when it starts,
+	 * so that the worker is also initialized as the threads of the adapted factory,
+	 * e.g. it is marked as a thread of the kernel by {@link JdkThreadFactory}.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private static final class WorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+		/** Empty task that is given to the adapted factory.
+		 */
+		private static final Runnable NO_TASK = new Runnable() {
+			@Override
+			public void run() {
+				//
+			}
+		};
+
+		private final ThreadFactory factory;
+
+		/** Construct the factory.
+		 *
+		 * @param factory - the adapted factory.
+		 */
+		WorkerThreadFactory(ThreadFactory factory) {
+			this.factory = factory;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+			Thread template = this.factory.newThread(NO_TASK);
+			if (template == null) {
+				// The creation of the thread was rejected by the adapted factory.
+				return null;
+			}
+			return new WorkerThread(pool, template);
+		}
+
+	}
+
+	/** Worker thread that is configured as a thread of an adapted factory.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private static final class WorkerThread extends ForkJoinWorkerThread {
+
+		private final Thread template;
+
+		/**
+		 * @param pool - the pool of the worker.
+		 * @param template - the thread of the adapted factory.
+		 */
+		WorkerThread(ForkJoinPool pool, Thread template) {
+			super(pool);
+			this.template = template;
+			setName(template.getName());
+			setDaemon(template.isDaemon());
+			setPriority(template.getPriority());
+			setUncaughtExceptionHandler(template.getUncaughtExceptionHandler());
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		protected void onStart() {
+			super.onStart();
+			// Run the task of the template in the worker, i.e. the empty task that may be
+			// wrapped by the adapted factory for initializing its threads.
+			this.template.run();
+		}
+
+	}
+
+}
@@ -21,6 +21,7 @@ package io.janusproject.kernel.services.jdk.executors;
 
 import io.janusproject.services.executor.ChuckNorrisException;
 import io.janusproject.services.executor.JanusFutureTask;
+import io.janusproject.services.executor.TaskKind;
 
 import java.lang.ref.WeakReference;
 import java.util.concurrent.Callable;
@@ -49,6 +50,10 @@ class JdkJanusFutureTask<V> extends FutureTask<V> implements JanusFutureTask<V>
 	private final AtomicBoolean treated = new AtomicBoolean(false);
 	private WeakReference<Thread> thread;
 	private final WeakReference<Object> subruntime;
+	private final TaskKind kind;
+	private JdkExecutorStatistics statistics;
+	private long submissionTime;
+	private long startTime;
 
 	/**
      * Creates a {@code FutureTask} that will, upon running, execute the
@@ -65,6 +70,7 @@ class JdkJanusFutureTask<V> extends FutureTask<V> implements JanusFutureTask<V>
 	JdkJanusFutureTask(Runnable runnable, V result) throws NullPointerException {
 		super(runnable, result);
 		this.subruntime = new WeakReference<Object>(runnable);
+		this.kind = TaskKind.of(runnable);
 	}
 
     /**
@@ -77,6 +83,7 @@ class JdkJanusFutureTask<V> extends FutureTask<V> implements JanusFutureTask<V>
 	JdkJanusFutureTask(Callable<V> callable) throws NullPointerException {
 		super(callable);
 		this.subruntime = new WeakReference<Object>(callable);
+		this.kind = TaskKind.of(callable);
 	}
 
 	@Override
@@ -148,6 +155,48 @@ class JdkJanusFutureTask<V> extends FutureTask<V> implements JanusFutureTask<V>
 		this.thread = new WeakReference<>(thread);
 	}
 
+	/** Replies the kind of this task.
+	 *
+	 * @return the kind of the task.
+	 */
+	TaskKind getTaskKind() {
+		return this.kind;
+	}
+
+	/** Set the statistics to update when this task is run.
+	 * This function must be invoked when the task is submitted.
+	 *
+	 * @param statistics - the statistics to update, or <code>null</code>.
+	 */
+	void setStatistics(JdkExecutorStatistics statistics) {
+		if (statistics != null && statistics.isEnabled()) {
+			this.statistics = statistics;
+			this.submissionTime = System.nanoTime();
+		}
+	}
+
+	/** Invoked by the executor when the task is starting in the given thread.
+	 *
+	 * @param thread - thread that is running the task.
+	 */
+	void taskStarted(Thread thread) {
+		setThread(thread);
+		JdkExecutorStatistics stats = this.statistics;
+		if (stats != null) {
+			this.startTime = stats.taskStarted(this.kind, System.nanoTime() - this.submissionTime);
+		}
+	}
+
+	/** Invoked by the executor when the task is finished.
+	 */
+	void taskFinished() {
+		JdkExecutorStatistics stats = this.statistics;
+		if (stats != null) {
+			this.statistics = null;
+			stats.taskFinished(this.kind, this.startTime);
+		}
+	}
+
 	@Override
 	public Thread getThread() {
 		return this.thread.get();
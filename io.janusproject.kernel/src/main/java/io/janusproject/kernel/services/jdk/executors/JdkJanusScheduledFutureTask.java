@@ -21,6 +21,7 @@ package io.janusproject.kernel.services.jdk.executors;
 
 import io.janusproject.services.executor.ChuckNorrisException;
 import io.janusproject.services.executor.JanusScheduledFutureTask;
+import io.janusproject.services.executor.TaskKind;
 
 import java.lang.ref.WeakReference;
 import java.util.concurrent.CancellationException;
@@ -50,12 +51,24 @@ class JdkJanusScheduledFutureTask<V> implements JanusScheduledFutureTask<V> {
 	private final AtomicBoolean treated = new AtomicBoolean(false);
 	private final RunnableScheduledFuture<V> task;
 	private WeakReference<Thread> thread;
+	private final TaskKind kind;
+	private JdkExecutorStatistics statistics;
+	private long startTime;
 
 	/**
 	 * @param task - the JRE task that must be wrapped into the particular Janus implementation.
 	 */
 	JdkJanusScheduledFutureTask(RunnableScheduledFuture<V> task) {
+		this(task, TaskKind.SERVICE_TASK);
+	}
+
+	/**
+	 * @param task - the JRE task that must be wrapped into the particular Janus implementation.
+	 * @param kind - the kind of the task.
+	 */
+	JdkJanusScheduledFutureTask(RunnableScheduledFuture<V> task, TaskKind kind) {
 		this.task = task;
+		this.kind = kind;
 	}
 
 	@Override
@@ -72,6 +85,39 @@ class JdkJanusScheduledFutureTask<V> implements JanusScheduledFutureTask<V> {
 		this.thread = new WeakReference<>(thread);
 	}
 
+	/** Replies the kind of this task.
+	 *
+	 * @return the kind of the task.
+	 */
+	TaskKind getTaskKind() {
+		return this.kind;
+	}
+
+	/** Invoked by the executor when the task is starting in the given thread.
+	 * The wait time of the task is the delay since its due time.
+	 *
+	 * @param thread - thread that is running the task.
+	 * @param statistics - the statistics to update, or <code>null</code>.
+	 */
+	void taskStarted(Thread thread, JdkExecutorStatistics statistics) {
+		setThread(thread);
+		if (statistics != null && statistics.isEnabled()) {
+			this.statistics = statistics;
+			long lateness = -this.task.getDelay(TimeUnit.NANOSECONDS);
+			this.startTime = statistics.taskStarted(this.kind, Math.max(0, lateness));
+		}
+	}
+
+	/** Invoked by the executor when a run of the task is finished.
+	 */
+	void taskFinished() {
+		JdkExecutorStatistics stats = this.statistics;
+		if (stats != null) {
+			this.statistics = null;
+			stats.taskFinished(this.kind, this.startTime);
+		}
+	}
+
 	/** Report the exception if one.
 	 *
 	 * @param thread - thread for which an exception must be reported.
@@ -0,0 +1,52 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.jdk.executors;
+
+/**
+ * Executor of the Janus kernel that is updating the {@link JdkExecutorStatistics},
+ * and that is able to report its pending and running tasks.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+interface JdkMonitoredExecutor {
+
+	/** Change the statistics that are updated by the tasks.
+	 *
+	 * @param statistics - the statistics, or <code>null</code> for no statistics.
+	 */
+	void setStatistics(JdkExecutorStatistics statistics);
+
+	/** Replies the number of tasks that are waiting in the executor.
+	 *
+	 * @return the number of pending tasks.
+	 */
+	int getQueueSize();
+
+	/** Replies if no task is running, and no task is waiting for a thread.
+	 * The tasks that are waiting for their due time are ignored.
+	 *
+	 * @return <code>true</code> if the executor is idle.
+	 */
+	boolean isIdle();
+
+}
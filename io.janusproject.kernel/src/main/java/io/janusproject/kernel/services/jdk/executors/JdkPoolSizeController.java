@@ -0,0 +1,326 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.jdk.executors;
+
+import io.janusproject.services.logging.LogService;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodic task that is adapting the number of threads of a pool to the load.
+ * <p>
+ * At each period, the controller measures the throughput of the pool (the number of
+ * tasks completed per second), the mean wait time of the tasks in the queue of the
+ * pool, and the load of the processors. The wait time is deduced from the number of
+ * tasks that are ready to run in the queue and from the throughput (Little's law),
+ * so that only the tasks of the controlled pool are considered. Then:
+ * <ul>
+ * <li>if the tasks are waiting, or are run by threads beyond the core ones,
+ * and all the threads are busy, the pool is grown,
+ * unless the previous growth has decreased the throughput: in this case the growth is
+ * reverted, and the pool is not grown again during a few periods (hill climbing);</li>
+ * <li>if the processors are saturated and the tasks are not waiting, the pool is shrunk
+ * since more threads would only add contention;</li>
+ * <li>if less than the half of the threads are busy and the tasks are not waiting,
+ * the pool is shrunk.</li>
+ * </ul>
+ * The size of the pool is always between the configured bounds, and each change
+ * is logged. The size is the number of core threads; when the pool has a fixed
+ * size, the maximal number of threads is changed in the same way, so that the
+ * number of running tasks follows the size.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+class JdkPoolSizeController implements Runnable {
+
+	/** Load of the processors above which the pool is shrunk.
+	 */
+	static final double CPU_SATURATION = .9;
+
+	/** Relative decrease of the throughput that makes a growth of the pool a bad move.
+	 */
+	static final double THROUGHPUT_TOLERANCE = .05;
+
+	/** Number of periods during which the pool is not grown after a bad move.
+	 */
+	static final int COOL_DOWN_PERIODS = 5;
+
+	/** The pool size is changed by the size divided by this value, at least one thread.
+	 */
+	private static final int STEP_DIVISOR = 8;
+
+	/** Indicates if the JVM provides the CPU usage of the process.
+	 */
+	private static final boolean HAS_PROCESS_CPU_LOAD = hasProcessCpuLoad();
+
+	private final String name;
+
+	private final ThreadPoolExecutor pool;
+
+	private final LogService logger;
+
+	private final int minSize;
+
+	private final int maxSize;
+
+	private final long waitThreshold;
+
+	private boolean initialized;
+
+	private long lastTime;
+
+	private long lastCompletedTasks;
+
+	private int lastReadyTasks;
+
+	private double lastThroughput = -1;
+
+	private int lastMove;
+
+	private int coolDown;
+
+	/**
+	 * @param name - the name of the pool, for the log messages.
+	 * @param pool - the pool to control.
+	 * @param logger - the logger, or <code>null</code> for no log.
+	 * @param minSize - the minimal number of threads.
+	 * @param maxSize - the maximal number of threads.
+	 * @param waitThreshold - the mean wait time of the tasks, in microseconds, above which
+	 *     the pool is considered as too small.
+	 */
+	JdkPoolSizeController(String name, ThreadPoolExecutor pool, LogService logger, int minSize, int maxSize, long waitThreshold) {
+		assert (pool != null);
+		this.name = name;
+		this.pool = pool;
+		this.logger = logger;
+		this.minSize = Math.max(1, Math.min(minSize, maxSize));
+		this.maxSize = Math.max(this.minSize, maxSize);
+		this.waitThreshold = TimeUnit.MICROSECONDS.toNanos(waitThreshold);
+	}
+
+	/** Replies the minimal number of threads in the pool.
+	 *
+	 * @return the minimal size of the pool.
+	 */
+	int getMinPoolSize() {
+		return this.minSize;
+	}
+
+	/** Replies the maximal number of threads in the pool.
+	 *
+	 * @return the maximal size of the pool.
+	 */
+	int getMaxPoolSize() {
+		return this.maxSize;
+	}
+
+	/** Replies the load of the processors.
+	 * <p>
+	 * The recent CPU usage of the JVM process is used when the JVM provides it,
+	 * so that the other processes of the system do not shrink the pool.
+	 * Otherwise, the load average of the system during the last minute is used.
+	 *
+	 * @return the load of the processors, usually between 0 and 1, or a negative
+	 * value if it is unknown.
+	 */
+	double getCpuLoad() {
+		OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+		if (HAS_PROCESS_CPU_LOAD) {
+			double load = getProcessCpuLoad(os);
+			if (load >= 0) {
+				return load;
+			}
+		}
+		double load = os.getSystemLoadAverage();
+		if (load < 0) {
+			return -1;
+		}
+		return load / Math.max(1, os.getAvailableProcessors());
+	}
+
+	/** Replies the recent CPU usage of the JVM process.
+	 * This function must be invoked only if {@link #HAS_PROCESS_CPU_LOAD} is true,
+	 * for not loading the class of the Oracle JVM.
+	 *
+	 * @param os - the bean of the operating system.
+	 * @return the CPU usage between 0 and 1, or a negative value if it is unknown.
+	 */
+	private static double getProcessCpuLoad(OperatingSystemMXBean os) {
+		if (os instanceof com.sun.management.OperatingSystemMXBean) {
+			return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuLoad();
+		}
+		return -1;
+	}
+
+	private static boolean hasProcessCpuLoad() {
+		try {
+			Class.forName("com.sun.management.OperatingSystemMXBean"); //$NON-NLS-1$
+			return true;
+		} catch (Throwable e) {
+			return false;
+		}
+	}
+
+	/** Change the number of threads in the pool.
+	 *
+	 * @param size - the current size of the pool.
+	 * @param newSize - the new size of the pool.
+	 */
+	void resize(int size, int newSize) {
+		boolean fixedSize = this.pool.getMaximumPoolSize() == size;
+		// The core size must never be greater than the maximal size.
+		if (newSize > size) {
+			if (fixedSize) {
+				this.pool.setMaximumPoolSize(newSize);
+			}
+			this.pool.setCorePoolSize(newSize);
+		} else {
+			this.pool.setCorePoolSize(newSize);
+			if (fixedSize) {
+				this.pool.setMaximumPoolSize(newSize);
+			}
+		}
+	}
+
+	/** Replies the number of tasks in the queue of the pool that are ready to run.
+	 * The delayed tasks are ready when their delay is elapsed.
+	 *
+	 * @param queue - the queue of the pool.
+	 * @return the number of tasks that are waiting for a thread.
+	 */
+	static int getReadyTaskCount(BlockingQueue<Runnable> queue) {
+		int count = 0;
+		for (Runnable task : queue) {
+			if (!(task instanceof Delayed) || ((Delayed) task).getDelay(TimeUnit.NANOSECONDS) <= 0) {
+				++count;
+			}
+		}
+		return count;
+	}
+
+	/** Replies the mean wait time of the tasks in the queue of the pool.
+	 * According to Little's law, the mean wait time is the mean number of
+	 * waiting tasks divided by the throughput.
+	 *
+	 * @param readyTasks - the mean number of tasks that are waiting in the queue.
+	 * @param throughput - the number of tasks completed per second.
+	 * @param period - the duration of the period, in nanoseconds.
+	 * @return the mean wait time, in nanoseconds.
+	 */
+	static double computeMeanWait(double readyTasks, double throughput, long period) {
+		if (readyTasks <= 0.) {
+			return 0.;
+		}
+		if (throughput <= 0.) {
+			// No task was completed: the tasks have waited during all the period.
+			return period;
+		}
+		return readyTasks * TimeUnit.SECONDS.toNanos(1) / throughput;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public void run() {
+		long now = System.nanoTime();
+		long completedTasks = this.pool.getCompletedTaskCount();
+		int readyTasks = getReadyTaskCount(this.pool.getQueue());
+		if (this.initialized && now > this.lastTime) {
+			long period = now - this.lastTime;
+			double throughput = (completedTasks - this.lastCompletedTasks) * ((double) TimeUnit.SECONDS.toNanos(1))
+					/ period;
+			double meanWait = computeMeanWait((this.lastReadyTasks + readyTasks) / 2., throughput, period);
+			int size = this.pool.getCorePoolSize();
+			int newSize = computePoolSize(size, this.pool.getActiveCount(), readyTasks,
+					throughput, meanWait, getCpuLoad());
+			if (newSize != size) {
+				resize(size, newSize);
+			}
+		}
+		this.initialized = true;
+		this.lastTime = now;
+		this.lastCompletedTasks = completedTasks;
+		this.lastReadyTasks = readyTasks;
+	}
+
+	/** Compute the new size of the pool.
+	 *
+	 * @param size - the current size of the pool.
+	 * @param activeThreads - the number of threads that are running a task; it is greater
+	 *     than the size when tasks are run by threads beyond the core ones.
+	 * @param queuedTasks - the number of tasks in the queue of the pool that are ready to run.
+	 * @param throughput - the number of tasks completed per second during the last period.
+	 * @param meanWait - the mean wait time of the tasks during the last period, in nanoseconds.
+	 * @param cpuLoad - the load of the processors, or a negative value if unknown.
+	 * @return the new size of the pool.
+	 */
+	int computePoolSize(int size, int activeThreads, int queuedTasks, double throughput,
+			double meanWait, double cpuLoad) {
+		if (this.coolDown > 0) {
+			--this.coolDown;
+		}
+		int step = Math.max(1, size / STEP_DIVISOR);
+		boolean saturated = activeThreads >= size || queuedTasks > 0;
+		int newSize = size;
+		// The bounds may have been changed since the pool was created.
+		String reason = "RESIZE_TO_BOUNDS"; //$NON-NLS-1$
+		boolean waiting = meanWait > this.waitThreshold || activeThreads > size;
+		if (waiting && saturated) {
+			if (this.lastMove > 0 && throughput < this.lastThroughput * (1. - THROUGHPUT_TOLERANCE)) {
+				newSize = size - this.lastMove;
+				this.coolDown = COOL_DOWN_PERIODS;
+				reason = "SHRINK_GROWTH_REVERTED"; //$NON-NLS-1$
+			} else if (this.coolDown == 0) {
+				newSize = size + step;
+				reason = "GROW_TASKS_WAITING"; //$NON-NLS-1$
+			}
+		} else if (cpuLoad >= CPU_SATURATION && meanWait <= this.waitThreshold) {
+			newSize = size - step;
+			reason = "SHRINK_CPU_SATURATED"; //$NON-NLS-1$
+		} else if (!saturated && meanWait <= this.waitThreshold && activeThreads < size / 2) {
+			newSize = size - step;
+			reason = "SHRINK_POOL_IDLE"; //$NON-NLS-1$
+		}
+		newSize = Math.max(this.minSize, Math.min(this.maxSize, newSize));
+		this.lastMove = newSize - size;
+		this.lastThroughput = throughput;
+		if (newSize != size && this.logger != null) {
+			this.logger.fineInfo(JdkPoolSizeController.class, reason,
+					this.name, size, newSize,
+					TimeUnit.NANOSECONDS.toMicros((long) meanWait),
+					cpuLoad, throughput);
+		}
+		return newSize;
+	}
+
+	@Override
+	public String toString() {
+		return "Pool size controller of " + this.name; //$NON-NLS-1$
+	}
+
+}
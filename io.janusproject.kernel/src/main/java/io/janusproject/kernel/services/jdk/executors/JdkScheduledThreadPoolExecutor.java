@@ -21,9 +21,11 @@ package io.janusproject.kernel.services.jdk.executors;
 
 import io.janusproject.JanusConfig;
 import io.janusproject.services.executor.ChuckNorrisException;
+import io.janusproject.services.executor.TaskKind;
 import io.janusproject.util.ListenerCollection;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
 import java.util.concurrent.Future;
 import java.util.concurrent.RunnableScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -40,9 +42,15 @@ import com.google.inject.Inject;
  * @mavengroupid $GroupId$
  * @mavenartifactid $ArtifactId$
  */
-public class JdkScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor {
+public class JdkScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor
+		implements JdkMonitoredExecutor, JdkResizableExecutor {
 
-	private ListenerCollection<JdkTaskListener> listeners;
+	/** Listeners on the tasks. This field is read without synchronization
+	 * for avoiding to take a lock when there is no listener.
+	 */
+	private volatile ListenerCollection<JdkTaskListener> listeners;
+
+	private volatile JdkExecutorStatistics statistics;
 
 	/**
 	 * @param factory - the thread factory to use for creating new threads.
@@ -55,6 +63,58 @@ public class JdkScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor
 				factory);
 	}
 
+	/**
+	 * @param poolSize - the number of threads in the pool.
+	 * @param factory - the thread factory to use for creating new threads.
+	 */
+	public JdkScheduledThreadPoolExecutor(int poolSize, ThreadFactory factory) {
+		super(poolSize, factory);
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public void setStatistics(JdkExecutorStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public int getQueueSize() {
+		return getQueue().size();
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean isIdle() {
+		if (getActiveCount() > 0) {
+			return false;
+		}
+		for (Runnable task : getQueue()) {
+			if (((Delayed) task).getDelay(TimeUnit.NANOSECONDS) <= 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean isResizable() {
+		return true;
+	}
+
+	/** Replies the statistics that are updated by the tasks.
+	 *
+	 * @return the statistics, or <code>null</code> for no statistics.
+	 */
+	JdkExecutorStatistics getStatistics() {
+		return this.statistics;
+	}
+
 	/** Add a listener on tasks.
 	 *
 	 * @param listener - the listener on task events
@@ -85,6 +145,9 @@ public class JdkScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor
 	 * @param task - the finished task.
 	 */
 	protected void fireTaskFinished(Thread thread, Runnable task) {
+		if (this.listeners == null) {
+			return;
+		}
 		JdkTaskListener[] listeners;
 		synchronized (this) {
 			if (this.listeners == null) {
@@ -102,7 +165,7 @@ public class JdkScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor
 	@Override
 	protected <V> RunnableScheduledFuture<V> decorateTask(Callable<V> callable,
 			RunnableScheduledFuture<V> task) {
-		return new JdkJanusScheduledFutureTask<>(task);
+		return new JdkJanusScheduledFutureTask<>(task, TaskKind.of(callable));
 	}
 
 	/** {@inheritDoc}
@@ -110,7 +173,7 @@ public class JdkScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor
 	@Override
 	protected <V> RunnableScheduledFuture<V> decorateTask(Runnable runnable,
 			RunnableScheduledFuture<V> task) {
-		return new JdkJanusScheduledFutureTask<>(task);
+		return new JdkJanusScheduledFutureTask<>(task, TaskKind.of(runnable));
 	}
 
 	/** {@inheritDoc}
@@ -128,7 +191,7 @@ public class JdkScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor
 	protected void beforeExecute(Thread t, Runnable r) {
 		// Was the task submitted (if future task) or executed?
 		if (r instanceof JdkJanusScheduledFutureTask<?>) {
-			((JdkJanusScheduledFutureTask<?>) r).setThread(t);
+			((JdkJanusScheduledFutureTask<?>) r).taskStarted(t, this.statistics);
 		}
 	}
 
@@ -139,6 +202,7 @@ public class JdkScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor
 		assert (t == null);
 		assert (r instanceof JdkJanusScheduledFutureTask<?>);
 		JdkJanusScheduledFutureTask<?> task = (JdkJanusScheduledFutureTask<?>) r;
+		task.taskFinished();
 		assert (task.isDone() || task.isCancelled() || task.isPeriodic());
 		if (task.isDone() || task.isCancelled()) {
 			task.reportException(task.getThread());
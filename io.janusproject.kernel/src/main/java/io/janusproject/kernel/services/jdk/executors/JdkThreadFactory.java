@@ -27,6 +27,8 @@ import com.google.inject.Inject;
 
 /**
  * A factory of threads for the Janus platform.
+ * <p>
+ * The created threads are marked as threads of the kernel.
  *
  * @author $Author: sgalland$
  * @version $FullVersion$
@@ -55,11 +57,37 @@ public class JdkThreadFactory implements ThreadFactory {
 	 */
 	@Override
 	public Thread newThread(Runnable r) {
-		Thread t = this.defaultThreadFactory.newThread(r);
+		Thread t = this.defaultThreadFactory.newThread(new KernelThreadRunnable(r));
 		t.setDaemon(false);
 		assert (this.handler != null);
 		t.setUncaughtExceptionHandler(this.handler);
 		return t;
 	}
 
+	/** Runnable that marks its running thread as a thread of the kernel.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private static class KernelThreadRunnable implements Runnable {
+
+		private final Runnable runnable;
+
+		/**
+		 * @param runnable - the code of the thread.
+		 */
+		KernelThreadRunnable(Runnable runnable) {
+			this.runnable = runnable;
+		}
+
+		@Override
+		public void run() {
+			JdkExecutorUtil.setKernelThread(true);
+			this.runnable.run();
+		}
+
+	}
+
 }
@@ -33,17 +33,28 @@ import com.google.inject.Inject;
 
 /**
  * Executor that support uncaucht exceptions and interruptable threads.
+ * <p>
+ * The tasks are given to the threads without being queued, and a thread
+ * is created when all the threads are busy: a task is never rejected nor run by
+ * the submitting thread, and the tasks that are blocking do not prevent the other
+ * tasks to run. The number of threads that are kept in the pool when they are idle
+ * is the core size, which may be changed at runtime by a {@link JdkPoolSizeController}.
  *
  * @author $Author: sgalland$
  * @version $FullVersion$
  * @mavengroupid $GroupId$
  * @mavenartifactid $ArtifactId$
  */
-public class JdkThreadPoolExecutor extends ThreadPoolExecutor {
+public class JdkThreadPoolExecutor extends ThreadPoolExecutor implements JdkMonitoredExecutor, JdkResizableExecutor {
 
 	private static final long TIMEOUT = 60;
 
-	private ListenerCollection<JdkTaskListener> listeners;
+	/** Listeners on the tasks. This field is read without synchronization
+	 * for avoiding to take a lock when there is no listener.
+	 */
+	private volatile ListenerCollection<JdkTaskListener> listeners;
+
+	private volatile JdkExecutorStatistics statistics;
 
 	/**
 	 * @param factory - the factory to use for creating new threads.
@@ -58,7 +69,7 @@ public class JdkThreadPoolExecutor extends ThreadPoolExecutor {
 	}
 
 	/**
-	 * @param poolSize - maximal number of threads in the pool.
+	 * @param poolSize - number of threads to keep in the pool.
 	 * @param factory - thread factory.
 	 */
 	public JdkThreadPoolExecutor(int poolSize, ThreadFactory factory) {
@@ -70,6 +81,42 @@ public class JdkThreadPoolExecutor extends ThreadPoolExecutor {
         		factory);
 	}
 
+	/** {@inheritDoc}
+	 */
+	@Override
+	public void setStatistics(JdkExecutorStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public int getQueueSize() {
+		return getQueue().size();
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean isIdle() {
+		return getActiveCount() == 0 && getQueue().isEmpty();
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean isResizable() {
+		return true;
+	}
+
+	/** Replies the statistics that are updated by the submitted tasks.
+	 *
+	 * @return the statistics, or <code>null</code> for no statistics.
+	 */
+	JdkExecutorStatistics getStatistics() {
+		return this.statistics;
+	}
+
 	/** Add a listener on tasks.
 	 *
 	 * @param listener - the listener on task events.
@@ -100,6 +147,9 @@ public class JdkThreadPoolExecutor extends ThreadPoolExecutor {
 	 * @param task - the finished task.
 	 */
 	protected void fireTaskFinished(Thread thread, Runnable task) {
+		if (this.listeners == null) {
+			return;
+		}
 		JdkTaskListener[] listeners;
 		synchronized (this) {
 			if (this.listeners == null) {
@@ -117,7 +167,9 @@ public class JdkThreadPoolExecutor extends ThreadPoolExecutor {
 	@Override
 	protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
 		// This function is invoked when the task was submited
-		return new JdkJanusFutureTask<>(callable);
+		JdkJanusFutureTask<T> task = new JdkJanusFutureTask<>(callable);
+		task.setStatistics(this.statistics);
+		return task;
 	}
 
 	/** {@inheritDoc}
@@ -125,7 +177,9 @@ public class JdkThreadPoolExecutor extends ThreadPoolExecutor {
 	@Override
 	protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
 		// This function is invoked when the task was submited
-		return new JdkJanusFutureTask<>(runnable, value);
+		JdkJanusFutureTask<T> task = new JdkJanusFutureTask<>(runnable, value);
+		task.setStatistics(this.statistics);
+		return task;
 	}
 
 	/** {@inheritDoc}
@@ -134,7 +188,7 @@ public class JdkThreadPoolExecutor extends ThreadPoolExecutor {
 	protected void beforeExecute(Thread t, Runnable r) {
 		// Was the task submitted (if future task) or executed?
 		if (r instanceof JdkJanusFutureTask<?>) {
-			((JdkJanusFutureTask<?>) r).setThread(t);
+			((JdkJanusFutureTask<?>) r).taskStarted(t);
 		}
 	}
 
@@ -146,6 +200,7 @@ public class JdkThreadPoolExecutor extends ThreadPoolExecutor {
 		JdkJanusFutureTask<?> task;
 		if (r instanceof JdkJanusFutureTask<?>) {
 			task = (JdkJanusFutureTask<?>) r;
+			task.taskFinished();
 			th = task.getThread();
 		} else {
 			task = null;
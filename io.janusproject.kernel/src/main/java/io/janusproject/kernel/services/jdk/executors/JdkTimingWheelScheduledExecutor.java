@@ -0,0 +1,845 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.jdk.executors;
+
+import io.janusproject.JanusConfig;
+import io.janusproject.services.executor.ChuckNorrisException;
+import io.janusproject.services.executor.ClassifiedTask;
+import io.janusproject.services.executor.JanusScheduledFutureTask;
+import io.janusproject.services.executor.TaskKind;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.google.inject.Inject;
+
+/**
+ * Scheduled executor that is based on a hashed timing wheel.
+ * <p>
+ * The time is divided into ticks, and the wheel is an array of buckets: the timer with
+ * a delay of <var>n</var> ticks is put in the bucket <code>(current + n) % size</code>,
+ * with the number of remaining turns of the wheel. A single ticker thread moves from
+ * bucket to bucket at each tick, and gives the expired timers to the worker executor.
+ * <p>
+ * Scheduling and cancelling a task are lock-free and in constant time: the tasks are
+ * added to a queue of pending timers, and the cancelled tasks to a queue of cancelled
+ * timers; these queues are consumed by the ticker thread, which is the only thread that
+ * is accessing the buckets. The price is the precision of the timers: a task is run at
+ * most one tick after its due time, never before.
+ * <p>
+ * The ticker thread is started by {@link #start()}; the tasks that are scheduled
+ * before are put in the wheel when the ticker starts.
+ * <p>
+ * When the executor is shut down, the periodic tasks are cancelled and the delayed
+ * tasks are run at their due time, as for the {@link java.util.concurrent.ScheduledThreadPoolExecutor}.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public class JdkTimingWheelScheduledExecutor extends AbstractExecutorService
+		implements ScheduledExecutorService, JdkMonitoredExecutor, JdkStartableExecutor {
+
+	/** Maximal number of pending timers that are put in the wheel at each tick.
+	 * It avoids to block the ticker when a huge number of timers are scheduled at once.
+	 */
+	private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+	private final Executor workers;
+
+	private final long tickDuration;
+
+	private final Bucket[] wheel;
+
+	private final int mask;
+
+	private final Queue<WheelTimeout<?>> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+	private final Queue<WheelTimeout<?>> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+
+	/** Number of timers that are pending or in the wheel.
+	 */
+	private final AtomicLong timeoutCount = new AtomicLong();
+
+	private final CountDownLatch termination = new CountDownLatch(1);
+
+	private final long startTime;
+
+	private final Thread ticker;
+
+	private final AtomicBoolean started = new AtomicBoolean();
+
+	/** Indicates if the ticker is putting the pending timers in the wheel,
+	 * or giving the expired timers to the worker executor.
+	 */
+	private volatile boolean handOff;
+
+	/** Index of the current tick. It is accessed by the ticker thread only.
+	 */
+	private long tick;
+
+	private volatile boolean shutdown;
+
+	private volatile boolean stopped;
+
+	private volatile JdkExecutorStatistics statistics;
+
+	/**
+	 * @param factory - the factory of the ticker thread.
+	 * @param workers - the executor that is running the expired tasks.
+	 */
+	@Inject
+	public JdkTimingWheelScheduledExecutor(ThreadFactory factory, java.util.concurrent.ExecutorService workers) {
+		this(
+				JanusConfig.getSystemPropertyAsInteger(
+						JanusConfig.TIMING_WHEEL_TICK_NAME,
+						JanusConfig.TIMING_WHEEL_TICK_VALUE),
+				TimeUnit.MILLISECONDS,
+				JanusConfig.getSystemPropertyAsInteger(
+						JanusConfig.TIMING_WHEEL_SIZE_NAME,
+						JanusConfig.TIMING_WHEEL_SIZE_VALUE),
+				factory, workers);
+	}
+
+	/**
+	 * @param tickDuration - the duration of a tick.
+	 * @param unit - the unit of the tick duration.
+	 * @param wheelSize - the number of buckets in the wheel; it is rounded to the next power of two.
+	 * @param factory - the factory of the ticker thread.
+	 * @param workers - the executor that is running the expired tasks.
+	 */
+	@SuppressWarnings("synthetic-access")
+	public JdkTimingWheelScheduledExecutor(long tickDuration, TimeUnit unit, int wheelSize,
+			ThreadFactory factory, Executor workers) {
+		assert (workers != null);
+		this.workers = workers;
+		this.tickDuration = Math.max(1, unit.toNanos(tickDuration));
+		int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+		this.wheel = new Bucket[size];
+		for (int i = 0; i < size; ++i) {
+			this.wheel[i] = new Bucket();
+		}
+		this.mask = size - 1;
+		this.startTime = System.nanoTime();
+		this.ticker = factory.newThread(new Ticker());
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public void start() {
+		if (this.started.compareAndSet(false, true)) {
+			this.ticker.start();
+		}
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public void setStatistics(JdkExecutorStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+	/** Replies the duration of a tick.
+	 *
+	 * @param unit - the unit of the replied duration.
+	 * @return the duration of a tick.
+	 */
+	public long getTickDuration(TimeUnit unit) {
+		return unit.convert(this.tickDuration, TimeUnit.NANOSECONDS);
+	}
+
+	/** Replies the number of buckets in the wheel.
+	 *
+	 * @return the size of the wheel.
+	 */
+	public int getWheelSize() {
+		return this.wheel.length;
+	}
+
+	/** Replies the number of tasks that are waiting for their due time.
+	 *
+	 * @return the number of scheduled tasks.
+	 */
+	public int getScheduledTaskCount() {
+		return (int) Math.min(Integer.MAX_VALUE, this.timeoutCount.get());
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public int getQueueSize() {
+		return getScheduledTaskCount();
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean isIdle() {
+		// The expired tasks are run by the worker executor: this executor is idle
+		// when no expired timer is waiting for the ticker. The timers in the wheel
+		// are given to the workers at most one tick after their due time.
+		for (WheelTimeout<?> timeout : this.pendingTimeouts) {
+			if (timeout.getDelay(TimeUnit.NANOSECONDS) <= 0) {
+				return false;
+			}
+		}
+		// The hand-off is tested after the pending timers because the ticker may
+		// have removed a timer from the queue in the meantime.
+		return !this.handOff;
+	}
+
+	/** Schedule the given timer.
+	 *
+	 * @param <V> - the type of the value replied by the task.
+	 * @param timeout - the timer to schedule.
+	 * @param delay - the delay before the first run of the timer, in nanoseconds.
+	 * @return the timer.
+	 */
+	private <V> WheelTimeout<V> scheduleTimeout(WheelTimeout<V> timeout, long delay) {
+		if (this.shutdown) {
+			throw new RejectedExecutionException();
+		}
+		if (delay <= 0) {
+			this.workers.execute(timeout);
+		} else {
+			this.timeoutCount.incrementAndGet();
+			this.pendingTimeouts.add(timeout);
+			// The executor may have been stopped in the meantime.
+			if (this.stopped && this.pendingTimeouts.remove(timeout)) {
+				this.timeoutCount.decrementAndGet();
+				throw new RejectedExecutionException();
+			}
+		}
+		return timeout;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+		if (command == null || unit == null) {
+			throw new NullPointerException();
+		}
+		long nanos = unit.toNanos(delay);
+		return scheduleTimeout(new WheelTimeout<Void>(command, null, System.nanoTime() + nanos, 0), nanos);
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+		if (callable == null || unit == null) {
+			throw new NullPointerException();
+		}
+		long nanos = unit.toNanos(delay);
+		return scheduleTimeout(new WheelTimeout<>(callable, System.nanoTime() + nanos), nanos);
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+		if (command == null || unit == null) {
+			throw new NullPointerException();
+		}
+		if (period <= 0) {
+			throw new IllegalArgumentException();
+		}
+		long nanos = unit.toNanos(initialDelay);
+		return scheduleTimeout(
+				new WheelTimeout<Void>(command, null, System.nanoTime() + nanos, unit.toNanos(period)),
+				nanos);
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+		if (command == null || unit == null) {
+			throw new NullPointerException();
+		}
+		if (delay <= 0) {
+			throw new IllegalArgumentException();
+		}
+		long nanos = unit.toNanos(initialDelay);
+		return scheduleTimeout(
+				new WheelTimeout<Void>(command, null, System.nanoTime() + nanos, -unit.toNanos(delay)),
+				nanos);
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public void execute(Runnable command) {
+		schedule(command, 0, TimeUnit.NANOSECONDS);
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public Future<?> submit(Runnable task) {
+		return schedule(task, 0, TimeUnit.NANOSECONDS);
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public <T> Future<T> submit(Runnable task, T result) {
+		return schedule(Executors.callable(task, result), 0, TimeUnit.NANOSECONDS);
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		return schedule(task, 0, TimeUnit.NANOSECONDS);
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public void shutdown() {
+		this.shutdown = true;
+		// The ticker must run for terminating, even if the executor was never started.
+		start();
+		LockSupport.unpark(this.ticker);
+	}
+
+	/** {@inheritDoc}
+	 * <p>
+	 * The replied list contains the tasks that were not yet put in the wheel.
+	 * The tasks in the wheel are cancelled by the ticker thread.
+	 */
+	@Override
+	public List<Runnable> shutdownNow() {
+		this.shutdown = true;
+		this.stopped = true;
+		start();
+		LockSupport.unpark(this.ticker);
+		List<Runnable> tasks = new ArrayList<>();
+		WheelTimeout<?> timeout = this.pendingTimeouts.poll();
+		while (timeout != null) {
+			this.timeoutCount.decrementAndGet();
+			if (timeout.cancel(false)) {
+				tasks.add(timeout);
+			}
+			timeout = this.pendingTimeouts.poll();
+		}
+		return tasks;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean isShutdown() {
+		return this.shutdown;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean isTerminated() {
+		return this.termination.getCount() == 0;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return this.termination.await(timeout, unit);
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "TimingWheel[tick=" + this.tickDuration //$NON-NLS-1$
+				+ "ns; size=" + this.wheel.length //$NON-NLS-1$
+				+ "; scheduled=" + this.timeoutCount.get() + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/** Wait for the end of the current tick.
+	 *
+	 * @return the time at which the current tick ends.
+	 */
+	private long waitForNextTick() {
+		long deadline = this.startTime + (this.tick + 1) * this.tickDuration;
+		long sleep = deadline - System.nanoTime();
+		while (sleep > 0 && !this.stopped) {
+			LockSupport.parkNanos(this, sleep);
+			sleep = deadline - System.nanoTime();
+		}
+		return deadline;
+	}
+
+	/** Remove the cancelled timers from the wheel.
+	 * This function is invoked by the ticker thread.
+	 */
+	@SuppressWarnings("synthetic-access")
+	private void processCancelledTimeouts() {
+		WheelTimeout<?> timeout = this.cancelledTimeouts.poll();
+		while (timeout != null) {
+			if (timeout.bucket != null) {
+				timeout.bucket.remove(timeout);
+				this.timeoutCount.decrementAndGet();
+			}
+			timeout = this.cancelledTimeouts.poll();
+		}
+	}
+
+	/** Put the pending timers in the wheel.
+	 * This function is invoked by the ticker thread.
+	 */
+	@SuppressWarnings("synthetic-access")
+	private void transferPendingTimeouts() {
+		for (int i = 0; i < MAX_TRANSFERS_PER_TICK; ++i) {
+			WheelTimeout<?> timeout = this.pendingTimeouts.poll();
+			if (timeout == null) {
+				return;
+			}
+			if (timeout.isCancelled()) {
+				this.timeoutCount.decrementAndGet();
+			} else {
+				long calculated = (timeout.deadline - this.startTime) / this.tickDuration;
+				timeout.remainingRounds = (calculated - this.tick) / this.wheel.length;
+				long ticks = Math.max(calculated, this.tick);
+				this.wheel[(int) (ticks & this.mask)].add(timeout);
+			}
+		}
+	}
+
+	/** Run the expired timers of the given bucket.
+	 * This function is invoked by the ticker thread.
+	 *
+	 * @param bucket - the bucket of the current tick.
+	 */
+	@SuppressWarnings("synthetic-access")
+	private void expireTimeouts(Bucket bucket) {
+		WheelTimeout<?> timeout = bucket.head;
+		while (timeout != null) {
+			WheelTimeout<?> next = timeout.next;
+			if (timeout.isCancelled()) {
+				bucket.remove(timeout);
+				this.timeoutCount.decrementAndGet();
+			} else if (timeout.remainingRounds <= 0) {
+				bucket.remove(timeout);
+				this.timeoutCount.decrementAndGet();
+				try {
+					this.workers.execute(timeout);
+				} catch (RejectedExecutionException e) {
+					// The workers are shut down.
+					timeout.cancel(false);
+				}
+			} else {
+				--timeout.remainingRounds;
+			}
+			timeout = next;
+		}
+	}
+
+	/** Cancel the timers in the wheel that are periodic, or all the timers.
+	 * This function is invoked by the ticker thread.
+	 *
+	 * @param all - indicates if all the timers must be cancelled.
+	 */
+	@SuppressWarnings("synthetic-access")
+	private void cancelTimeouts(boolean all) {
+		for (Bucket bucket : this.wheel) {
+			WheelTimeout<?> timeout = bucket.head;
+			while (timeout != null) {
+				WheelTimeout<?> next = timeout.next;
+				if (all || timeout.isPeriodic()) {
+					timeout.cancel(false);
+				}
+				timeout = next;
+			}
+		}
+		for (WheelTimeout<?> timeout : this.pendingTimeouts) {
+			if (all || timeout.isPeriodic()) {
+				timeout.cancel(false);
+			}
+		}
+	}
+
+	/** Code of the ticker thread.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private class Ticker implements Runnable {
+
+		/**
+		 */
+		Ticker() {
+			//
+		}
+
+		/** {@inheritDoc}
+		 */
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public void run() {
+			JdkTimingWheelScheduledExecutor executor = JdkTimingWheelScheduledExecutor.this;
+			boolean periodicCancelled = false;
+			try {
+				while (!executor.stopped) {
+					waitForNextTick();
+					if (executor.shutdown && !periodicCancelled) {
+						cancelTimeouts(false);
+						periodicCancelled = true;
+					}
+					executor.handOff = true;
+					try {
+						processCancelledTimeouts();
+						transferPendingTimeouts();
+						expireTimeouts(executor.wheel[(int) (executor.tick & executor.mask)]);
+					} finally {
+						executor.handOff = false;
+					}
+					++executor.tick;
+					if (executor.shutdown && executor.timeoutCount.get() <= 0) {
+						executor.stopped = true;
+					}
+				}
+				cancelTimeouts(true);
+			} finally {
+				executor.termination.countDown();
+			}
+		}
+
+		@Override
+		public String toString() {
+			return "TimingWheel-Ticker"; //$NON-NLS-1$
+		}
+
+	}
+
+	/** Bucket of the wheel: double-linked list of timers.
+	 * It is accessed by the ticker thread only.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private static final class Bucket {
+
+		private WheelTimeout<?> head;
+
+		private WheelTimeout<?> tail;
+
+		/**
+		 */
+		Bucket() {
+			//
+		}
+
+		/** Add a timer at the end of the bucket.
+		 *
+		 * @param timeout - the timer.
+		 */
+		@SuppressWarnings("synthetic-access")
+		void add(WheelTimeout<?> timeout) {
+			timeout.bucket = this;
+			if (this.head == null) {
+				this.head = timeout;
+				this.tail = timeout;
+			} else {
+				this.tail.next = timeout;
+				timeout.prev = this.tail;
+				this.tail = timeout;
+			}
+		}
+
+		/** Remove a timer from the bucket.
+		 *
+		 * @param timeout - the timer.
+		 */
+		@SuppressWarnings("synthetic-access")
+		void remove(WheelTimeout<?> timeout) {
+			WheelTimeout<?> next = timeout.next;
+			if (timeout.prev != null) {
+				timeout.prev.next = next;
+			}
+			if (next != null) {
+				next.prev = timeout.prev;
+			}
+			if (timeout == this.head) {
+				this.head = next;
+			}
+			if (timeout == this.tail) {
+				this.tail = timeout.prev;
+			}
+			timeout.prev = null;
+			timeout.next = null;
+			timeout.bucket = null;
+		}
+
+	}
+
+	/** Task that is scheduled in the wheel.
+	 *
+	 * @param <V> - type of the values supported by the task.
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private class WheelTimeout<V> extends FutureTask<V> implements JanusScheduledFutureTask<V>, ClassifiedTask {
+
+		private final TaskKind kind;
+
+		private final Object subruntime;
+
+		/** Period of the task: positive for a fixed rate, negative for a fixed delay,
+		 * zero for a single run.
+		 */
+		private final long period;
+
+		/** Time at which the task must be run.
+		 */
+		private volatile long deadline;
+
+		private volatile WeakReference<Thread> thread;
+
+		/** Fields that are accessed by the ticker thread only.
+		 */
+		private long remainingRounds;
+
+		private Bucket bucket;
+
+		private WheelTimeout<?> next;
+
+		private WheelTimeout<?> prev;
+
+		/**
+		 * @param runnable - the task.
+		 * @param result - the result of the task.
+		 * @param deadline - the time at which the task must be run the first time.
+		 * @param period - the period of the task.
+		 */
+		WheelTimeout(Runnable runnable, V result, long deadline, long period) {
+			super(runnable, result);
+			this.kind = TaskKind.of(runnable);
+			this.subruntime = runnable;
+			this.deadline = deadline;
+			this.period = period;
+		}
+
+		/**
+		 * @param callable - the task.
+		 * @param deadline - the time at which the task must be run.
+		 */
+		WheelTimeout(Callable<V> callable, long deadline) {
+			super(callable);
+			this.kind = TaskKind.of(callable);
+			this.subruntime = callable;
+			this.deadline = deadline;
+			this.period = 0;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public TaskKind getTaskKind() {
+			return this.kind;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public boolean isPeriodic() {
+			return this.period != 0;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public int compareTo(Delayed other) {
+			if (other == this) {
+				return 0;
+			}
+			long diff = getDelay(TimeUnit.NANOSECONDS) - other.getDelay(TimeUnit.NANOSECONDS);
+			return (diff < 0) ? -1 : ((diff > 0) ? 1 : 0);
+		}
+
+		/** {@inheritDoc}
+		 */
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				JdkTimingWheelScheduledExecutor.this.cancelledTimeouts.add(this);
+			}
+			return cancelled;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public void run() {
+			Thread current = Thread.currentThread();
+			this.thread = new WeakReference<>(current);
+			JdkExecutorStatistics stats = JdkTimingWheelScheduledExecutor.this.statistics;
+			long start = 0;
+			if (stats != null && stats.isEnabled()) {
+				start = stats.taskStarted(this.kind, Math.max(0, System.nanoTime() - this.deadline));
+			} else {
+				stats = null;
+			}
+			try {
+				if (!isPeriodic()) {
+					super.run();
+					reportException(current);
+				} else if (runAndReset()) {
+					reschedule();
+				} else {
+					reportException(current);
+				}
+			} finally {
+				if (stats != null) {
+					stats.taskFinished(this.kind, start);
+				}
+			}
+		}
+
+		/** Schedule the next run of the periodic task.
+		 */
+		@SuppressWarnings("synthetic-access")
+		private void reschedule() {
+			JdkTimingWheelScheduledExecutor executor = JdkTimingWheelScheduledExecutor.this;
+			if (executor.shutdown) {
+				cancel(false);
+			} else {
+				if (this.period > 0) {
+					this.deadline += this.period;
+				} else {
+					this.deadline = System.nanoTime() - this.period;
+				}
+				executor.timeoutCount.incrementAndGet();
+				executor.pendingTimeouts.add(this);
+			}
+		}
+
+		/** Report the exception thrown by the task, if one.
+		 *
+		 * @param current - the thread that has run the task.
+		 */
+		private void reportException(Thread current) {
+			if (isDone() && !isCancelled()) {
+				try {
+					super.get();
+				} catch (ExecutionException e) {
+					JdkExecutorUtil.log(current, e);
+				} catch (Throwable e) {
+					//
+				}
+			}
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public V get() throws InterruptedException, ExecutionException {
+			try {
+				return super.get();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof ChuckNorrisException) {
+					return null;
+				}
+				throw e;
+			}
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public V get(long timeout, TimeUnit unit) throws InterruptedException,
+				ExecutionException, TimeoutException {
+			try {
+				return super.get(timeout, unit);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof ChuckNorrisException) {
+					return null;
+				}
+				throw e;
+			}
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public Thread getThread() {
+			WeakReference<Thread> ref = this.thread;
+			return (ref == null) ? null : ref.get();
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public boolean isCurrentThread() {
+			return Thread.currentThread() == getThread();
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return "[ " + this.subruntime + " ] ON [ " //$NON-NLS-1$ //$NON-NLS-2$
+					+ getThread() + " ]"; //$NON-NLS-1$
+		}
+
+	}
+
+}
@@ -20,6 +20,7 @@
 package io.janusproject.kernel.services.jdk.executors;
 
 import io.janusproject.services.executor.ChuckNorrisException;
+import io.janusproject.services.executor.PerceptExceptionHandler;
 import io.janusproject.services.logging.LogService;
 import io.janusproject.services.spawn.SpawnService;
 import io.sarl.core.Initialize;
@@ -46,7 +47,8 @@ import com.google.inject.Singleton;
  * @mavenartifactid $ArtifactId$
  */
 @Singleton
-public class JdkUncaughtExceptionHandler implements UncaughtExceptionHandler, SubscriberExceptionHandler {
+public class JdkUncaughtExceptionHandler implements UncaughtExceptionHandler, SubscriberExceptionHandler,
+		PerceptExceptionHandler {
 
 	private final LogService logger;
 
@@ -133,16 +135,23 @@ public class JdkUncaughtExceptionHandler implements UncaughtExceptionHandler, Su
 	@Override
 	public void handleException(Throwable exception,
 			SubscriberExceptionContext context) {
-		log(exception, context.getEventBus().toString(), context.getEvent().toString());
+		handleException(exception, context.getEventBus(), context.getEvent(), context.getSubscriber());
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public void handleException(Throwable exception, Object dispatcher, Object event, Object subscriber) {
+		log(exception, dispatcher.toString(), event.toString());
 
 		// #91: Special case: when the agent cannot be initialized, it must be destroyed
-		if (isAutoKillEvent(context.getEvent())) {
-			Agent caller = (Agent) context.getSubscriber();
+		if (isAutoKillEvent(event)) {
+			Agent caller = (Agent) subscriber;
 			try {
 				// Do not call the equivalent of the agent's killMe since the agent was never initialized.
 				this.spawnService.killAgent(caller.getID());
 			} catch (Exception e) {
-				log(e, context.getEventBus().toString(), context.getEvent().toString());
+				log(e, dispatcher.toString(), event.toString());
 			}
 		}
 	}
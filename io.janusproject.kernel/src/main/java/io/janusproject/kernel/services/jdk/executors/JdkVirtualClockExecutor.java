@@ -0,0 +1,53 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.jdk.executors;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduler of the Janus kernel that is running the tasks according
+ * to a virtual clock.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+interface JdkVirtualClockExecutor {
+
+	/** Replies the current virtual time.
+	 *
+	 * @param unit - the unit of the replied time.
+	 * @return the virtual time since the creation of this executor.
+	 */
+	long getTime(TimeUnit unit);
+
+	/** Wait until the executor is quiescent: no task is running or ready,
+	 * and no task that is not a service task is scheduled.
+	 *
+	 * @param timeout - the maximal real time to wait.
+	 * @param unit - the unit of the timeout.
+	 * @return <code>true</code> if the executor is quiescent, <code>false</code>
+	 * if the timeout has elapsed.
+	 * @throws InterruptedException - if the waiting thread was interrupted.
+	 */
+	boolean runUntilQuiescent(long timeout, TimeUnit unit) throws InterruptedException;
+
+}
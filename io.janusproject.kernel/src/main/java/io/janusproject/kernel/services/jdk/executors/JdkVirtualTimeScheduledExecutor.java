@@ -0,0 +1,658 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.jdk.executors;
+
+import io.janusproject.services.executor.ChuckNorrisException;
+import io.janusproject.services.executor.ClassifiedTask;
+import io.janusproject.services.executor.JanusScheduledFutureTask;
+import io.janusproject.services.executor.TaskKind;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.inject.Inject;
+
+/**
+ * Executor that is running the scheduled tasks according to a virtual clock.
+ * <p>
+ * This executor is both the thread pool that is running the tasks of the kernel
+ * and the scheduler of the delayed tasks. It counts the tasks that are submitted
+ * and not yet finished. When there is no more running task, i.e. when all the agents
+ * are idle and no event is pending, the virtual clock jumps to the due time of the
+ * next scheduled task, which is run immediately. The simulations are then running
+ * as fast as possible, and the scheduled tasks are run in the same order as with
+ * a real-time scheduler: by due time, then by submission order.
+ * <p>
+ * The virtual clock starts at zero. It jumps only when a task that is not a
+ * {@link TaskKind#SERVICE_TASK service task} is scheduled: the periodic tasks of the
+ * kernel services are run when the clock passes their due time, but they do not
+ * make the clock moving when the agents are waiting for an external event.
+ * <p>
+ * The activity of the threads that are not managed by this executor, e.g. the
+ * threads of the network layer, is not observed by the virtual clock.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public class JdkVirtualTimeScheduledExecutor extends JdkThreadPoolExecutor
+		implements ScheduledExecutorService, JdkVirtualClockExecutor {
+
+	private final Object lock = new Object();
+
+	/** Scheduled tasks, sorted by due time and submission order.
+	 * This queue is accessed within the lock.
+	 */
+	private final PriorityQueue<VirtualTimeTask<?>> timers = new PriorityQueue<>();
+
+	/** Number of tasks that are submitted to the pool and not yet finished.
+	 */
+	private final AtomicLong activity = new AtomicLong();
+
+	/** Source of the submission orders of the scheduled tasks.
+	 */
+	private final AtomicLong sequencer = new AtomicLong();
+
+	private final CountDownLatch driverTermination = new CountDownLatch(1);
+
+	private final Thread driver;
+
+	/** Number of scheduled tasks that are not service tasks.
+	 * This field is accessed within the lock.
+	 */
+	private int agentTimerCount;
+
+	/** Current virtual time, in nanoseconds.
+	 */
+	private volatile long now;
+
+	private volatile boolean stopped;
+
+	/**
+	 * @param factory - the factory to use for creating new threads.
+	 */
+	@Inject
+	public JdkVirtualTimeScheduledExecutor(ThreadFactory factory) {
+		super(factory);
+		this.driver = createDriver(factory);
+	}
+
+	/**
+	 * @param poolSize - maximal number of threads in the pool.
+	 * @param factory - thread factory.
+	 */
+	public JdkVirtualTimeScheduledExecutor(int poolSize, ThreadFactory factory) {
+		super(poolSize, factory);
+		this.driver = createDriver(factory);
+	}
+
+	@SuppressWarnings("synthetic-access")
+	private Thread createDriver(ThreadFactory factory) {
+		Thread thread = factory.newThread(new Driver());
+		thread.start();
+		return thread;
+	}
+
+	/** Replies the current virtual time.
+	 *
+	 * @param unit - the unit of the replied time.
+	 * @return the virtual time since the creation of this executor.
+	 */
+	@Override
+	public long getTime(TimeUnit unit) {
+		return unit.convert(this.now, TimeUnit.NANOSECONDS);
+	}
+
+	/** Replies the number of tasks that are submitted and not yet finished.
+	 *
+	 * @return the number of running or queued tasks.
+	 */
+	public long getActivity() {
+		return this.activity.get();
+	}
+
+	/** Replies the number of tasks that are waiting for their due time.
+	 *
+	 * @return the number of scheduled tasks.
+	 */
+	public int getScheduledTaskCount() {
+		synchronized (this.lock) {
+			return this.timers.size();
+		}
+	}
+
+	/** Wait until the executor is quiescent: no task is running or queued,
+	 * and no task that is not a service task is scheduled.
+	 * <p>
+	 * The periodic tasks of the agents are never finished; the executor
+	 * is not quiescent until they are cancelled.
+	 *
+	 * @param timeout - the maximal real time to wait.
+	 * @param unit - the unit of the timeout.
+	 * @return <code>true</code> if the executor is quiescent, <code>false</code>
+	 * if the timeout has elapsed.
+	 * @throws InterruptedException - if the waiting thread was interrupted.
+	 */
+	@Override
+	public boolean runUntilQuiescent(long timeout, TimeUnit unit) throws InterruptedException {
+		long end = System.nanoTime() + unit.toNanos(timeout);
+		synchronized (this.lock) {
+			while (this.activity.get() > 0 || this.agentTimerCount > 0) {
+				long remaining = end - System.nanoTime();
+				if (remaining <= 0) {
+					return false;
+				}
+				TimeUnit.NANOSECONDS.timedWait(this.lock, remaining);
+			}
+		}
+		return true;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public void execute(Runnable command) {
+		this.activity.incrementAndGet();
+		try {
+			super.execute(command);
+		} catch (RejectedExecutionException e) {
+			taskFinished();
+			throw e;
+		}
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	protected void afterExecute(Runnable r, Throwable t) {
+		try {
+			super.afterExecute(r, t);
+		} finally {
+			taskFinished();
+		}
+	}
+
+	/** Invoked when a task of the pool is finished.
+	 */
+	private void taskFinished() {
+		if (this.activity.decrementAndGet() <= 0) {
+			synchronized (this.lock) {
+				this.lock.notifyAll();
+			}
+		}
+	}
+
+	/** Add a scheduled task in the queue of the timers.
+	 *
+	 * @param <V> - the type of the value replied by the task.
+	 * @param task - the task.
+	 * @return the task.
+	 */
+	@SuppressWarnings("synthetic-access")
+	private <V> VirtualTimeTask<V> addTimer(VirtualTimeTask<V> task) {
+		synchronized (this.lock) {
+			if (this.stopped || isShutdown()) {
+				throw new RejectedExecutionException();
+			}
+			this.timers.add(task);
+			if (task.kind != TaskKind.SERVICE_TASK) {
+				++this.agentTimerCount;
+			}
+			this.lock.notifyAll();
+		}
+		return task;
+	}
+
+	/** Remove a scheduled task from the queue of the timers.
+	 *
+	 * @param task - the task.
+	 */
+	@SuppressWarnings("synthetic-access")
+	private void removeTimer(VirtualTimeTask<?> task) {
+		synchronized (this.lock) {
+			if (this.timers.remove(task) && task.kind != TaskKind.SERVICE_TASK) {
+				--this.agentTimerCount;
+			}
+			this.lock.notifyAll();
+		}
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+		if (command == null || unit == null) {
+			throw new NullPointerException();
+		}
+		return addTimer(new VirtualTimeTask<Void>(command, null, triggerTime(delay, unit), 0));
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+		if (callable == null || unit == null) {
+			throw new NullPointerException();
+		}
+		return addTimer(new VirtualTimeTask<>(callable, triggerTime(delay, unit)));
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+		if (command == null || unit == null) {
+			throw new NullPointerException();
+		}
+		if (period <= 0) {
+			throw new IllegalArgumentException();
+		}
+		return addTimer(new VirtualTimeTask<Void>(command, null,
+				triggerTime(initialDelay, unit), unit.toNanos(period)));
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+		if (command == null || unit == null) {
+			throw new NullPointerException();
+		}
+		if (delay <= 0) {
+			throw new IllegalArgumentException();
+		}
+		return addTimer(new VirtualTimeTask<Void>(command, null,
+				triggerTime(initialDelay, unit), -unit.toNanos(delay)));
+	}
+
+	private long triggerTime(long delay, TimeUnit unit) {
+		return this.now + Math.max(0, unit.toNanos(delay));
+	}
+
+	/** {@inheritDoc}
+	 * <p>
+	 * The scheduled tasks that are not yet run are cancelled.
+	 */
+	@Override
+	public void shutdown() {
+		stopDriver();
+		super.shutdown();
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public List<Runnable> shutdownNow() {
+		List<Runnable> timerTasks = stopDriver();
+		List<Runnable> tasks = super.shutdownNow();
+		tasks.addAll(timerTasks);
+		return tasks;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		long end = System.nanoTime() + unit.toNanos(timeout);
+		if (!this.driverTermination.await(timeout, unit)) {
+			return false;
+		}
+		return super.awaitTermination(end - System.nanoTime(), TimeUnit.NANOSECONDS);
+	}
+
+	/** Stop the virtual clock and cancel the scheduled tasks.
+	 *
+	 * @return the cancelled tasks.
+	 */
+	private List<Runnable> stopDriver() {
+		List<VirtualTimeTask<?>> cancelled;
+		synchronized (this.lock) {
+			this.stopped = true;
+			cancelled = new ArrayList<>(this.timers);
+			this.timers.clear();
+			this.agentTimerCount = 0;
+			this.lock.notifyAll();
+		}
+		List<Runnable> tasks = new ArrayList<>(cancelled.size());
+		for (VirtualTimeTask<?> task : cancelled) {
+			if (task.cancel(false)) {
+				tasks.add(task);
+			}
+		}
+		return tasks;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "VirtualTime[now=" + this.now //$NON-NLS-1$
+				+ "ns; activity=" + this.activity.get() + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/** Code of the thread that is moving the virtual clock.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private class Driver implements Runnable {
+
+		/**
+		 */
+		Driver() {
+			//
+		}
+
+		/** {@inheritDoc}
+		 */
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public void run() {
+			JdkVirtualTimeScheduledExecutor executor = JdkVirtualTimeScheduledExecutor.this;
+			try {
+				synchronized (executor.lock) {
+					while (!executor.stopped) {
+						VirtualTimeTask<?> next = executor.timers.peek();
+						if (next != null && next.time <= executor.now) {
+							// Run the task that is due at the current time.
+							executor.timers.poll();
+							if (next.kind != TaskKind.SERVICE_TASK) {
+								--executor.agentTimerCount;
+							}
+							dispatch(next);
+						} else if (next != null && executor.activity.get() <= 0
+								&& executor.agentTimerCount > 0) {
+							// Quiescence: jump to the next due time.
+							executor.now = next.time;
+						} else {
+							executor.lock.wait();
+						}
+					}
+				}
+			} catch (InterruptedException e) {
+				//
+			} finally {
+				executor.driverTermination.countDown();
+			}
+		}
+
+		@SuppressWarnings("synthetic-access")
+		private void dispatch(VirtualTimeTask<?> task) {
+			task.dispatchTime = System.nanoTime();
+			try {
+				execute(task);
+			} catch (RejectedExecutionException e) {
+				task.cancel(false);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return "VirtualTime-Driver"; //$NON-NLS-1$
+		}
+
+	}
+
+	/** Task that is scheduled according to the virtual clock.
+	 *
+	 * @param <V> - type of the values supported by the task.
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private class VirtualTimeTask<V> extends FutureTask<V> implements JanusScheduledFutureTask<V>, ClassifiedTask {
+
+		private final TaskKind kind;
+
+		private final Object subruntime;
+
+		/** Period of the task: positive for a fixed rate, negative for a fixed delay,
+		 * zero for a single run.
+		 */
+		private final long period;
+
+		/** Virtual time at which the task must be run.
+		 */
+		private volatile long time;
+
+		/** Submission order of the task, for the tasks with the same due time.
+		 */
+		private volatile long sequence;
+
+		/** Real time at which the task was given to the pool.
+		 */
+		private volatile long dispatchTime;
+
+		private volatile WeakReference<Thread> thread;
+
+		/**
+		 * @param runnable - the task.
+		 * @param result - the result of the task.
+		 * @param time - the virtual time at which the task must be run the first time.
+		 * @param period - the period of the task.
+		 */
+		@SuppressWarnings("synthetic-access")
+		VirtualTimeTask(Runnable runnable, V result, long time, long period) {
+			super(runnable, result);
+			this.kind = TaskKind.of(runnable);
+			this.subruntime = runnable;
+			this.time = time;
+			this.period = period;
+			this.sequence = JdkVirtualTimeScheduledExecutor.this.sequencer.getAndIncrement();
+		}
+
+		/**
+		 * @param callable - the task.
+		 * @param time - the virtual time at which the task must be run.
+		 */
+		@SuppressWarnings("synthetic-access")
+		VirtualTimeTask(Callable<V> callable, long time) {
+			super(callable);
+			this.kind = TaskKind.of(callable);
+			this.subruntime = callable;
+			this.time = time;
+			this.period = 0;
+			this.sequence = JdkVirtualTimeScheduledExecutor.this.sequencer.getAndIncrement();
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public TaskKind getTaskKind() {
+			return this.kind;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public boolean isPeriodic() {
+			return this.period != 0;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.time - JdkVirtualTimeScheduledExecutor.this.now, TimeUnit.NANOSECONDS);
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public int compareTo(Delayed other) {
+			if (other == this) {
+				return 0;
+			}
+			if (other instanceof VirtualTimeTask<?>) {
+				VirtualTimeTask<?> task = (VirtualTimeTask<?>) other;
+				int cmp = Long.compare(this.time, task.time);
+				if (cmp != 0) {
+					return cmp;
+				}
+				return Long.compare(this.sequence, task.sequence);
+			}
+			return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+		}
+
+		/** {@inheritDoc}
+		 */
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				removeTimer(this);
+			}
+			return cancelled;
+		}
+
+		/** {@inheritDoc}
+		 */
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public void run() {
+			Thread current = Thread.currentThread();
+			this.thread = new WeakReference<>(current);
+			JdkExecutorStatistics stats = getStatistics();
+			long start = 0;
+			if (stats != null && stats.isEnabled()) {
+				start = stats.taskStarted(this.kind, Math.max(0, System.nanoTime() - this.dispatchTime));
+			} else {
+				stats = null;
+			}
+			try {
+				if (!isPeriodic()) {
+					super.run();
+					reportException(current);
+				} else if (runAndReset()) {
+					// Reschedule before the end of the task, for keeping the pool busy
+					// until the next run is known by the virtual clock.
+					JdkVirtualTimeScheduledExecutor executor = JdkVirtualTimeScheduledExecutor.this;
+					if (this.period > 0) {
+						this.time += this.period;
+					} else {
+						this.time = executor.now - this.period;
+					}
+					this.sequence = executor.sequencer.getAndIncrement();
+					try {
+						executor.addTimer(this);
+					} catch (RejectedExecutionException e) {
+						cancel(false);
+					}
+				} else {
+					reportException(current);
+				}
+			} finally {
+				if (stats != null) {
+					stats.taskFinished(this.kind, start);
+				}
+			}
+		}
+
+		/** Report the exception thrown by the task, if one.
+		 *
+		 * @param current - the thread that has run the task.
+		 */
+		private void reportException(Thread current) {
+			if (isDone() && !isCancelled()) {
+				try {
+					super.get();
+				} catch (ExecutionException e) {
+					JdkExecutorUtil.log(current, e);
+				} catch (Throwable e) {
+					//
+				}
+			}
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public V get() throws InterruptedException, ExecutionException {
+			try {
+				return super.get();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof ChuckNorrisException) {
+					return null;
+				}
+				throw e;
+			}
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public V get(long timeout, TimeUnit unit) throws InterruptedException,
+				ExecutionException, TimeoutException {
+			try {
+				return super.get(timeout, unit);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof ChuckNorrisException) {
+					return null;
+				}
+				throw e;
+			}
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public Thread getThread() {
+			WeakReference<Thread> ref = this.thread;
+			return (ref == null) ? null : ref.get();
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public boolean isCurrentThread() {
+			return Thread.currentThread() == getThread();
+		}
+
+		/** {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return "[ " + this.subruntime + " ] ON [ " //$NON-NLS-1$ //$NON-NLS-2$
+					+ getThread() + " ]"; //$NON-NLS-1$
+		}
+
+	}
+
+}
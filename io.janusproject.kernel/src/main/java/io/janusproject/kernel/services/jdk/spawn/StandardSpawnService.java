@@ -20,9 +20,12 @@
 package io.janusproject.kernel.services.jdk.spawn;
 
 import io.janusproject.kernel.bic.BuiltinCapacityUtil;
+import io.janusproject.kernel.space.EventSpaceImpl;
 import io.janusproject.services.AbstractDependentService;
 import io.janusproject.services.contextspace.ContextSpaceService;
+import io.janusproject.services.executor.ExecutorService;
 import io.janusproject.services.spawn.AgentFactory;
+import io.janusproject.services.spawn.AgentsSpawned;
 import io.janusproject.services.spawn.KernelAgentSpawnListener;
 import io.janusproject.services.spawn.SpawnService;
 import io.janusproject.services.spawn.SpawnServiceListener;
@@ -32,31 +35,50 @@ import io.sarl.core.AgentSpawned;
 import io.sarl.lang.core.Address;
 import io.sarl.lang.core.Agent;
 import io.sarl.lang.core.AgentContext;
+import io.sarl.lang.core.EventListener;
 import io.sarl.lang.core.EventSpace;
 import io.sarl.lang.util.SynchronizedCollection;
 import io.sarl.lang.util.SynchronizedSet;
 import io.sarl.util.Collections3;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Map;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.arakhne.afc.vmutil.locale.Locale;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Multimap;
 import com.google.common.util.concurrent.Service;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
+import com.google.inject.MembersInjector;
 import com.google.inject.Singleton;
 
 /**
  * Implementation of a spawning service
  * that is based on the other services of
  * the Janus platform.
+ * <p>
+ * The agents are stored in a concurrent registry. The spawning and
+ * the killing of an agent are synchronized on the registry entry of
+ * this agent, and on the entry of its parent agent when the agent is
+ * spawned in an inner context. The spawning and the killing of
+ * unrelated agents are done in parallel.
  *
  * @author $Author: srodriguez$
  * @author $Author: sgalland$
@@ -67,11 +89,19 @@ import com.google.inject.Singleton;
 @Singleton
 public class StandardSpawnService extends AbstractDependentService implements SpawnService {
 
+	/** Minimal number of agents that are instanciated by a single task
+	 * when a group of agents is spawned.
+	 */
+	private static final int MIN_AGENTS_PER_TASK = 32;
+
 	private final ListenerCollection<?> globalListeners = new ListenerCollection<>();
-	private final Multimap<UUID, SpawnServiceListener> agentLifecycleListeners = ArrayListMultimap.create();
-	private final Map<UUID, Agent> agents = new TreeMap<>();
+	private final ConcurrentMap<UUID, List<SpawnServiceListener>> agentLifecycleListeners = new ConcurrentHashMap<>();
+	private final ConcurrentMap<UUID, AgentEntry> agents = new ConcurrentHashMap<>();
+	private final AtomicInteger agentCount = new AtomicInteger();
 
-	private AgentFactory agentFactory;
+	private volatile AgentFactory agentFactory;
+
+	private volatile ExecutorService executor;
 
 	/**
 	 * @param injector - the background injector that is currently used.
@@ -81,6 +111,16 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 		this.agentFactory = new DefaultAgentFactory(injector);
 	}
 
+	/** Change the executor service that is used for instanciating
+	 * the groups of agents in parallel.
+	 *
+	 * @param service - the executor service.
+	 */
+	@Inject
+	void setExecutorService(ExecutorService service) {
+		this.executor = service;
+	}
+
 	@Override
 	public final Class<? extends Service> getServiceType() {
 		return SpawnService.class;
@@ -96,7 +136,7 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 	/** {@inheritDoc}
 	 */
 	@Override
-	public synchronized void setAgentFactory(AgentFactory factory) {
+	public void setAgentFactory(AgentFactory factory) {
 		assert (factory != null);
 		this.agentFactory = factory;
 	}
@@ -104,7 +144,7 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 	/** {@inheritDoc}
 	 */
 	@Override
-	public synchronized AgentFactory getAgentFactory() {
+	public AgentFactory getAgentFactory() {
 		return this.agentFactory;
 	}
 
@@ -112,13 +152,20 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 	 * {@inheritDoc}
 	 */
 	@Override
-	public synchronized UUID spawn(AgentContext parent, UUID agentID, Class<? extends Agent> agentClazz, Object... params) {
+	public UUID spawn(AgentContext parent, UUID agentID, Class<? extends Agent> agentClazz, Object... params) {
 		if (isRunning()) {
 			try {
 				Agent agent = this.agentFactory.newInstance(agentClazz, agentID, parent.getID());
 				assert (agent != null);
-				this.agents.put(agent.getID(), agent);
-				fireAgentSpawned(parent, agent, params);
+				AgentEntry parentEntry = this.agents.get(parent.getID());
+				if (parentEntry == null) {
+					registerAgent(parent, agent, params);
+				} else {
+					synchronized (parentEntry) {
+						ensureParentAlive(parentEntry);
+						registerAgent(parent, agent, params);
+					}
+				}
 				return agent.getID();
 			} catch (Throwable e) {
 				throw new CannotSpawnException(agentClazz, e);
@@ -127,26 +174,248 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 		throw new SpawnDisabledException(parent.getID(), agentClazz);
 	}
 
+	/** Ensure that the parent agent was not killed while its entry was not locked.
+	 * The caller must own the monitor of the entry.
+	 *
+	 * @param parentEntry - the entry of the parent agent.
+	 */
+	private static void ensureParentAlive(AgentEntry parentEntry) {
+		if (parentEntry.isKilled()) {
+			throw new IllegalStateException(Locale.getString(StandardSpawnService.class,
+					"PARENT_AGENT_KILLED", parentEntry.getAgent().getID())); //$NON-NLS-1$
+		}
+	}
+
+	/** Register the given agent and notifies about its creation.
+	 *
+	 * @param parent - the parent entity that is creating the agent.
+	 * @param agent - the agent to register.
+	 * @param params - the list of the parameters to pass to the agent initialization function.
+	 */
+	private void registerAgent(AgentContext parent, Agent agent, Object[] params) {
+		AgentEntry entry = new AgentEntry(agent);
+		synchronized (entry) {
+			addEntry(entry);
+			fireAgentSpawned(parent, agent, params);
+		}
+	}
+
+	/** Register the given agents and notifies about their creation.
+	 * <p>
+	 * The agents are registered in the default space of the parent context
+	 * all at once, before their built-in skills are installed.
+	 * If the notification of the creation of an agent fails, the agents
+	 * of the group are killed, and the exception is rethrown.
+	 *
+	 * @param parent - the parent entity that is creating the agents.
+	 * @param newAgents - the agents to register.
+	 * @param agentIDs - the identifiers of the agents.
+	 * @param agentClazz - the type of the agents.
+	 * @param params - the list of the parameters to pass to the agent initialization functions.
+	 * @throws Exception - when the agents cannot be registered.
+	 */
+	private void registerAgents(AgentContext parent, Agent[] newAgents, List<UUID> agentIDs,
+			Class<? extends Agent> agentClazz, Object[] params) throws Exception {
+		EventSpace defSpace = parent.getDefaultSpace();
+		List<EventListener> listeners = null;
+		if (defSpace instanceof EventSpaceImpl) {
+			listeners = new ArrayList<>(newAgents.length);
+			for (Agent agent : newAgents) {
+				listeners.add(BuiltinCapacityUtil.getEventListenerOf(agent));
+			}
+			((EventSpaceImpl) defSpace).registerAll(listeners);
+		}
+		List<AgentEntry> entries = new ArrayList<>(newAgents.length);
+		try {
+			for (Agent agent : newAgents) {
+				AgentEntry entry = new AgentEntry(agent);
+				synchronized (entry) {
+					addEntry(entry);
+					entries.add(entry);
+					notifyAgentSpawned(parent, agent, params);
+				}
+			}
+		} catch (Throwable e) {
+			cancelAgents(entries, e);
+			if (listeners != null) {
+				// The agents that were not notified are still inside the default space.
+				EventSpaceImpl space = (EventSpaceImpl) defSpace;
+				for (EventListener listener : listeners) {
+					if (space.getAddress(listener.getID()) != null) {
+						space.unregister(listener);
+					}
+				}
+			}
+			for (Agent agent : newAgents) {
+				this.agentLifecycleListeners.remove(agent.getID());
+			}
+			throw e;
+		}
+		fireAgentsSpawned(parent, agentIDs, agentClazz);
+	}
+
+	/** Kill the agents of a group that cannot be completely spawned.
+	 * The failures are added to the given cause as suppressed exceptions.
+	 *
+	 * @param entries - the entries of the registered agents.
+	 * @param cause - the cause of the spawning failure.
+	 */
+	private void cancelAgents(List<AgentEntry> entries, Throwable cause) {
+		for (AgentEntry entry : entries) {
+			Agent agent = entry.getAgent();
+			synchronized (entry) {
+				if (entry.isKilled()) {
+					// The agent was killed by another thread.
+					continue;
+				}
+				entry.setKilled();
+				this.agents.remove(agent.getID(), entry);
+				try {
+					fireAgentDestroyed(agent);
+				} catch (Throwable e) {
+					cause.addSuppressed(e);
+				}
+			}
+			// The counter permits to notify exactly once when the last agent is killed.
+			if (this.agentCount.decrementAndGet() == 0) {
+				fireKernelAgentDestroy();
+			}
+		}
+	}
+
+	/** Add the given entry in the registry of the agents.
+	 * The caller must own the monitor of the entry.
+	 *
+	 * @param entry - the entry to add.
+	 */
+	private void addEntry(AgentEntry entry) {
+		UUID agentID = entry.getAgent().getID();
+		if (this.agents.putIfAbsent(agentID, entry) != null) {
+			throw new IllegalStateException(Locale.getString(StandardSpawnService.class,
+					"AGENT_ALREADY_EXISTS", agentID)); //$NON-NLS-1$
+		}
+		this.agentCount.incrementAndGet();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<UUID> spawn(AgentContext parent, int nbAgents, Class<? extends Agent> agentClazz, Object... params) {
+		if (nbAgents <= 0) {
+			return Collections.emptyList();
+		}
+		if (!isRunning()) {
+			throw new SpawnDisabledException(parent.getID(), agentClazz);
+		}
+		try {
+			Agent[] newAgents = newInstances(parent.getID(), nbAgents, agentClazz);
+			List<UUID> agentIDs = new ArrayList<>(nbAgents);
+			for (Agent agent : newAgents) {
+				agentIDs.add(agent.getID());
+			}
+			AgentEntry parentEntry = this.agents.get(parent.getID());
+			if (parentEntry == null) {
+				registerAgents(parent, newAgents, agentIDs, agentClazz, params);
+			} else {
+				synchronized (parentEntry) {
+					ensureParentAlive(parentEntry);
+					registerAgents(parent, newAgents, agentIDs, agentClazz, params);
+				}
+			}
+			return agentIDs;
+		} catch (Throwable e) {
+			throw new CannotSpawnException(agentClazz, e);
+		}
+	}
+
+	/** Create the instances of a group of agents.
+	 * <p>
+	 * When an executor service is available and the group is large enough,
+	 * the instances are created by parallel tasks. The calling thread
+	 * runs any task that is not yet started by the executor service,
+	 * in order to never wait for a task that is stuck in the queue of
+	 * the executor service.
+	 *
+	 * @param parentID - the identifier of the parent entity that is creating the agents.
+	 * @param nbAgents - the number of agents to create.
+	 * @param agentClazz - the type of the agents to create.
+	 * @return the created agents.
+	 * @throws Exception - when an agent cannot be instanciated.
+	 */
+	private Agent[] newInstances(UUID parentID, int nbAgents, Class<? extends Agent> agentClazz) throws Exception {
+		Agent[] newAgents = new Agent[nbAgents];
+		AgentFactory factory = this.agentFactory;
+		ExecutorService service = this.executor;
+		int nbTasks = Math.min(nbAgents / MIN_AGENTS_PER_TASK, Runtime.getRuntime().availableProcessors());
+		if (service == null || nbTasks <= 1) {
+			new AgentInstanciationTask(factory, agentClazz, parentID, newAgents, 0, nbAgents).call();
+			return newAgents;
+		}
+		List<FutureTask<Void>> tasks = new ArrayList<>(nbTasks);
+		int chunk = nbAgents / nbTasks;
+		int remainder = nbAgents % nbTasks;
+		int start = 0;
+		for (int i = 0; i < nbTasks; ++i) {
+			int end = start + chunk + (i < remainder ? 1 : 0);
+			FutureTask<Void> task = new FutureTask<>(
+					new AgentInstanciationTask(factory, agentClazz, parentID, newAgents, start, end));
+			tasks.add(task);
+			// The first task is run by the calling thread.
+			if (i > 0) {
+				try {
+					service.execute(task);
+				} catch (RejectedExecutionException _) {
+					//
+				}
+			}
+			start = end;
+		}
+		for (FutureTask<Void> task : tasks) {
+			// Do nothing if the task was already started by the executor service.
+			task.run();
+			try {
+				task.get();
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof Exception) {
+					throw (Exception) cause;
+				}
+				throw e;
+			}
+		}
+		return newAgents;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public synchronized void killAgent(UUID agentID) throws AgentKillException {
+	public void killAgent(UUID agentID) throws AgentKillException {
 		boolean error = !isRunning();
-		// We should check if it is possible to kill the agent BEFORE killing it.
-		Agent agent = this.agents.get(agentID);
-		if (agent != null) {
-			if (canKillAgent(agent)) {
-				this.agents.remove(agentID);
-				fireAgentDestroyed(agent);
-				if (this.agents.isEmpty()) {
-					fireKernelAgentDestroy();
+		AgentEntry entry = this.agents.get(agentID);
+		if (entry != null) {
+			synchronized (entry) {
+				if (entry.isKilled()) {
+					// The agent was killed by another thread.
+					return;
 				}
-				if (error) {
-					throw new SpawnServiceStopException(agentID);
+				// We should check if it is possible to kill the agent BEFORE killing it.
+				Agent agent = entry.getAgent();
+				if (!canKillAgent(agent)) {
+					throw new AgentKillException(agentID);
 				}
-			} else {
-				throw new AgentKillException(agentID);
+				entry.setKilled();
+				this.agents.remove(agentID, entry);
+				fireAgentDestroyed(agent);
+				this.agentLifecycleListeners.remove(agentID);
+			}
+			// The counter permits to notify exactly once when the last agent is killed.
+			if (this.agentCount.decrementAndGet() == 0) {
+				fireKernelAgentDestroy();
+			}
+			if (error) {
+				throw new SpawnServiceStopException(agentID);
 			}
 		}
 	}
@@ -155,8 +424,8 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 	 *
 	 * @return the registered agents.
 	 */
-	public synchronized SynchronizedSet<UUID> getAgents() {
-		return Collections3.synchronizedSet(this.agents.keySet(), this);
+	public SynchronizedSet<UUID> getAgents() {
+		return Collections3.synchronizedSet(Collections.unmodifiableSet(this.agents.keySet()), this.agents);
 	}
 
 	/** Replies the registered agent.
@@ -164,9 +433,10 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 	 * @param id is the identifier of the agent.
 	 * @return the registered agent, or <code>null</code>.
 	 */
-	synchronized Agent getAgent(UUID id) {
+	Agent getAgent(UUID id) {
 		assert (id != null);
-		return this.agents.get(id);
+		AgentEntry entry = this.agents.get(id);
+		return entry == null ? null : entry.getAgent();
 	}
 
 	/**
@@ -208,9 +478,15 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 	 */
 	@Override
 	public void addSpawnServiceListener(UUID id, SpawnServiceListener agentLifecycleListener) {
-		synchronized (this.agentLifecycleListeners) {
-			this.agentLifecycleListeners.put(id, agentLifecycleListener);
+		List<SpawnServiceListener> list = this.agentLifecycleListeners.get(id);
+		if (list == null) {
+			list = new CopyOnWriteArrayList<>();
+			List<SpawnServiceListener> old = this.agentLifecycleListeners.putIfAbsent(id, list);
+			if (old != null) {
+				list = old;
+			}
 		}
+		list.add(agentLifecycleListener);
 	}
 
 	/**
@@ -218,8 +494,9 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 	 */
 	@Override
 	public void removeSpawnServiceListener(UUID id, SpawnServiceListener agentLifecycleListener) {
-		synchronized (this.agentLifecycleListeners) {
-			this.agentLifecycleListeners.remove(id, agentLifecycleListener);
+		List<SpawnServiceListener> list = this.agentLifecycleListeners.get(id);
+		if (list != null) {
+			list.remove(agentLifecycleListener);
 		}
 	}
 
@@ -247,26 +524,7 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 	 * @param initializationParameters - list of the values to pass as initialization parameters.
 	 */
 	protected void fireAgentSpawned(AgentContext context, Agent agent, Object[] initializationParameters) {
-		// Notify the listeners on the spawn events (not restricted to a
-		// single agent)
-		for (SpawnServiceListener l : this.globalListeners.getListeners(SpawnServiceListener.class)) {
-			l.agentSpawned(context, agent, initializationParameters);
-		}
-
-		// Notify the listeners on the lifecycle events on
-		// the just spawned agent.
-		// Usually, only BICs and the AgentLifeCycleSupport in
-		// io.janusproject.kernel.bic.StandardBuiltinCapacitiesProvider
-		// is invoked.
-		SpawnServiceListener[] agentListeners;
-		synchronized (this.agentLifecycleListeners) {
-			Collection<SpawnServiceListener> list = this.agentLifecycleListeners.get(agent.getID());
-			agentListeners = new SpawnServiceListener[list.size()];
-			list.toArray(agentListeners);
-		}
-		for (SpawnServiceListener l : agentListeners) {
-			l.agentSpawned(context, agent, initializationParameters);
-		}
+		notifyAgentSpawned(context, agent, initializationParameters);
 
 		// Send the event in the default space.
 		UUID agentID = agent.getID();
@@ -282,6 +540,57 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 				agent.getClass().getName()));
 	}
 
+	/**
+	 * Notifies the agents in the default space about the creation of a group of agents.
+	 * <p>
+	 * The spawn listeners are notified for each agent when it is registered, but a single
+	 * {@link AgentsSpawned} event is emitted in the default space.
+	 *
+	 * @param context - context in which the agents are spawn.
+	 * @param agentIDs - the identifiers of the spawn agents.
+	 * @param agentClazz - the type of the spawn agents.
+	 */
+	protected void fireAgentsSpawned(AgentContext context, List<UUID> agentIDs, Class<? extends Agent> agentClazz) {
+		assert (!agentIDs.isEmpty());
+		// Send the event in the default space.
+		EventSpace defSpace = context.getDefaultSpace();
+		assert (defSpace != null) : "A context does not contain a default space"; //$NON-NLS-1$
+		Address sourceAddress = defSpace.getAddress(agentIDs.get(0));
+		assert (sourceAddress != null) : "Cannot find an address in the default space for " + agentIDs.get(0); //$NON-NLS-1$
+
+		defSpace.emit(new AgentsSpawned(
+				sourceAddress,
+				agentIDs,
+				agentClazz.getName()));
+	}
+
+	/**
+	 * Notifies the global listeners and the listeners of the agent about the agent creation.
+	 *
+	 * @param context - context in which the agent is spawn.
+	 * @param agent - the spawn agent.
+	 * @param initializationParameters - list of the values to pass as initialization parameters.
+	 */
+	private void notifyAgentSpawned(AgentContext context, Agent agent, Object[] initializationParameters) {
+		// Notify the listeners on the spawn events (not restricted to a
+		// single agent)
+		for (SpawnServiceListener l : this.globalListeners.getListeners(SpawnServiceListener.class)) {
+			l.agentSpawned(context, agent, initializationParameters);
+		}
+
+		// Notify the listeners on the lifecycle events on
+		// the just spawned agent.
+		// Usually, only BICs and the AgentLifeCycleSupport in
+		// io.janusproject.kernel.bic.StandardBuiltinCapacitiesProvider
+		// is invoked.
+		List<SpawnServiceListener> agentListeners = this.agentLifecycleListeners.get(agent.getID());
+		if (agentListeners != null) {
+			for (SpawnServiceListener l : agentListeners) {
+				l.agentSpawned(context, agent, initializationParameters);
+			}
+		}
+	}
+
 	/** Replies if the given agent can be killed.
 	 *
 	 * @param agent - agent to test.
@@ -289,7 +598,7 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 	 * otherwise <code>false</code>.
 	 */
 	@SuppressWarnings("static-method")
-	public synchronized boolean canKillAgent(Agent agent) {
+	public boolean canKillAgent(Agent agent) {
 		try {
 			AgentContext ac = BuiltinCapacityUtil.getContextIn(agent);
 			if (ac != null) {
@@ -313,10 +622,11 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 	 */
 	protected void fireAgentDestroyed(Agent agent) {
 		SpawnServiceListener[] ilisteners;
-		synchronized (this.agentLifecycleListeners) {
-			Collection<SpawnServiceListener> list = this.agentLifecycleListeners.get(agent.getID());
-			ilisteners = new SpawnServiceListener[list.size()];
-			list.toArray(ilisteners);
+		List<SpawnServiceListener> list = this.agentLifecycleListeners.get(agent.getID());
+		if (list == null) {
+			ilisteners = new SpawnServiceListener[0];
+		} else {
+			ilisteners = list.toArray(new SpawnServiceListener[0]);
 		}
 
 		SpawnServiceListener[] ilisteners2 = this.globalListeners.getListeners(SpawnServiceListener.class);
@@ -361,9 +671,7 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 	 */
 	@Override
 	protected synchronized void doStop() {
-		synchronized (this.agentLifecycleListeners) {
-			this.agentLifecycleListeners.clear();
-		}
+		this.agentLifecycleListeners.clear();
 		notifyStopped();
 	}
 
@@ -434,16 +742,124 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 
 	}
 
-	/**
+	/** Entry of the registry of the agents.
+	 * <p>
+	 * The monitor of the entry is owned during the spawning and the killing
+	 * of the agent.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private static class AgentEntry {
+
+		private final Agent agent;
+
+		private boolean killed;
+
+		/**
+		 * @param agent - the registered agent.
+		 */
+		public AgentEntry(Agent agent) {
+			this.agent = agent;
+		}
+
+		/** Replies the registered agent.
+		 *
+		 * @return the agent.
+		 */
+		public Agent getAgent() {
+			return this.agent;
+		}
+
+		/** Replies if the agent was killed.
+		 * The caller must own the monitor of the entry.
+		 *
+		 * @return <code>true</code> if the agent was killed.
+		 */
+		public boolean isKilled() {
+			return this.killed;
+		}
+
+		/** Mark the agent as killed.
+		 * The caller must own the monitor of the entry.
+		 */
+		public void setKilled() {
+			this.killed = true;
+		}
+
+	}
+
+	/** Task that creates a range of the agents of a group.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private static class AgentInstanciationTask implements Callable<Void> {
+
+		private final AgentFactory factory;
+		private final Class<? extends Agent> agentClazz;
+		private final UUID parentID;
+		private final Agent[] agents;
+		private final int start;
+		private final int end;
+
+		/**
+		 * @param factory - the factory of agents.
+		 * @param agentClazz - the type of the agents to create.
+		 * @param parentID - the identifier of the parent entity.
+		 * @param agents - the array to fill with the created agents.
+		 * @param start - the index of the first agent to create.
+		 * @param end - the index after the last agent to create.
+		 */
+		public AgentInstanciationTask(AgentFactory factory, Class<? extends Agent> agentClazz,
+				UUID parentID, Agent[] agents, int start, int end) {
+			this.factory = factory;
+			this.agentClazz = agentClazz;
+			this.parentID = parentID;
+			this.agents = agents;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public Void call() throws Exception {
+			for (int i = this.start; i < this.end; ++i) {
+				Agent agent = this.factory.newInstance(this.agentClazz, null, this.parentID);
+				assert (agent != null);
+				this.agents[i] = agent;
+			}
+			return null;
+		}
+
+	}
+
+	/** Factory of agents that is using the Guice injector.
+	 * <p>
+	 * The constructors of the agent types are resolved once as method handles,
+	 * and the members injectors are built once for each agent type.
+	 *
 	 * @author $Author: sgalland$
 	 * @version $FullVersion$
 	 * @mavengroupid $GroupId$
 	 * @mavenartifactid $ArtifactId$
 	 */
-	private static class DefaultAgentFactory implements AgentFactory {
+	static class DefaultAgentFactory implements AgentFactory {
 
 		private final Injector injector;
 
+		private final ClassValue<AgentType> agentTypes = new ClassValue<AgentType>() {
+			@SuppressWarnings({"synthetic-access", "unchecked"})
+			@Override
+			protected AgentType computeValue(Class<?> type) {
+				return new AgentType(type,
+						(MembersInjector<Agent>) DefaultAgentFactory.this.injector.getMembersInjector(type));
+			}
+		};
+
 		/**
 		 * @param injector
 		 */
@@ -451,19 +867,105 @@ public class StandardSpawnService extends AbstractDependentService implements Sp
 			this.injector = injector;
 		}
 
+		/** Replies the cached description of the given agent type.
+		 *
+		 * @param type - the agent type.
+		 * @return the description of the type.
+		 */
+		AgentType getAgentType(Class<?> type) {
+			return this.agentTypes.get(type);
+		}
+
 		@Override
 		public <T extends Agent> T newInstance(Class<T> type, UUID agentID, UUID contextID) throws Exception {
+			AgentType agentType = getAgentType(type);
 			Agent agent;
-			if (agentID == null) {
-				agent = type.getConstructor(UUID.class).newInstance(contextID);
-			} else {
-				agent = type.getConstructor(UUID.class, UUID.class).newInstance(contextID, agentID);
+			try {
+				if (agentID == null) {
+					agent = (Agent) agentType.getConstructor().invokeExact(contextID);
+				} else {
+					agent = (Agent) agentType.getConstructorWithID().invokeExact(contextID, agentID);
+				}
+			} catch (Exception | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new InvocationTargetException(e);
 			}
 			assert (agent != null);
-			this.injector.injectMembers(agent);
+			agentType.getMembersInjector().injectMembers(agent);
 			return type.cast(agent);
 		}
 
 	}
 
+	/** Cached description of an agent type.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	static class AgentType {
+
+		private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Agent.class, UUID.class);
+
+		private static final MethodType CONSTRUCTOR_WITH_ID_TYPE = MethodType.methodType(Agent.class, UUID.class, UUID.class);
+
+		private final Class<?> type;
+
+		private final MembersInjector<Agent> membersInjector;
+
+		private volatile MethodHandle constructor;
+
+		private volatile MethodHandle constructorWithID;
+
+		/**
+		 * @param type - the agent type.
+		 * @param membersInjector - the injector of the members of the agent type.
+		 */
+		public AgentType(Class<?> type, MembersInjector<Agent> membersInjector) {
+			this.type = type;
+			this.membersInjector = membersInjector;
+		}
+
+		/** Replies the injector of the members of the agent type.
+		 *
+		 * @return the members injector.
+		 */
+		public MembersInjector<Agent> getMembersInjector() {
+			return this.membersInjector;
+		}
+
+		/** Replies the constructor with the parent identifier as parameter.
+		 *
+		 * @return the constructor of type <code>(UUID)Agent</code>.
+		 * @throws ReflectiveOperationException - if the constructor cannot be found.
+		 */
+		public MethodHandle getConstructor() throws ReflectiveOperationException {
+			MethodHandle handle = this.constructor;
+			if (handle == null) {
+				handle = MethodHandles.lookup().unreflectConstructor(
+						this.type.getConstructor(UUID.class)).asType(CONSTRUCTOR_TYPE);
+				this.constructor = handle;
+			}
+			return handle;
+		}
+
+		/** Replies the constructor with the parent identifier and the agent identifier as parameters.
+		 *
+		 * @return the constructor of type <code>(UUID,UUID)Agent</code>.
+		 * @throws ReflectiveOperationException - if the constructor cannot be found.
+		 */
+		public MethodHandle getConstructorWithID() throws ReflectiveOperationException {
+			MethodHandle handle = this.constructorWithID;
+			if (handle == null) {
+				handle = MethodHandles.lookup().unreflectConstructor(
+						this.type.getConstructor(UUID.class, UUID.class)).asType(CONSTRUCTOR_WITH_ID_TYPE);
+				this.constructorWithID = handle;
+			}
+			return handle;
+		}
+
+	}
+
 }
@@ -0,0 +1,210 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.zeromq;
+
+import io.janusproject.services.network.EventEnvelope;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.primitives.Ints;
+
+/**
+ * Framing of the envelopes that are exchanged over ZeroMQ.
+ * <p>
+ * A ZeroMQ message is composed of two frames:
+ * <ol>
+ * <li>the filterable header, i.e. the length-prefixed context identifier
+ * and space identifier; it is the prefix that is used by the SUB sockets for
+ * filtering the messages of the spaces;</li>
+ * <li>the payload, i.e. the length-prefixed blocks of the scope, the custom
+ * headers and the body of one or more envelopes of this space.</li>
+ * </ol>
+ * The payload is written into a pooled buffer, and parsed in place:
+ * the only copy of the received bytes is the extraction of the fields
+ * of the envelopes. Each frame and each block is bounded by the
+ * size of a Java array.
+ * <p>
+ * An instance of this class is not thread-safe; it must be used by the
+ * thread that owns the sending socket.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+final class ZeroMQEnvelopeFraming {
+
+	/** Initial size of the pooled buffer.
+	 */
+	private static final int INITIAL_BUFFER_SIZE = 4096;
+
+	/** Number of blocks of an envelope in a payload.
+	 */
+	private static final int BLOCKS_PER_ENVELOPE = 3;
+
+	private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+	private byte[] lastContextId;
+
+	private byte[] lastSpaceId;
+
+	private byte[] lastHeader;
+
+	/**
+	 */
+	public ZeroMQEnvelopeFraming() {
+		//
+	}
+
+	/** Replies the filterable header for the given space.
+	 * The last header is kept, since the consecutive messages are
+	 * usually sent in the same space.
+	 *
+	 * @param contextID - the serialized context identifier.
+	 * @param spaceID - the serialized space identifier.
+	 * @return the header.
+	 * @see #buildFilterableHeader(byte[], byte[])
+	 */
+	public byte[] getFilterableHeader(byte[] contextID, byte[] spaceID) {
+		if (this.lastHeader == null || !Arrays.equals(this.lastContextId, contextID)
+				|| !Arrays.equals(this.lastSpaceId, spaceID)) {
+			this.lastHeader = buildFilterableHeader(contextID, spaceID);
+			this.lastContextId = contextID;
+			this.lastSpaceId = spaceID;
+		}
+		return this.lastHeader;
+	}
+
+	/** Write the payload of the given envelopes into the pooled buffer.
+	 * <p>
+	 * The replied buffer is valid until the next call to this function.
+	 *
+	 * @param envelopes - the envelopes to write; they must have the same space.
+	 * @return the pooled buffer, ready to be read.
+	 */
+	public ByteBuffer writePayload(List<EventEnvelope> envelopes) {
+		long size = 0;
+		for (EventEnvelope e : envelopes) {
+			size += payloadSize(e);
+		}
+		int capacity = Ints.checkedCast(size);
+		if (this.buffer.capacity() < capacity) {
+			this.buffer = ByteBuffer.allocate(Math.max(capacity, this.buffer.capacity() * 2));
+		}
+		ByteBuffer buf = this.buffer;
+		buf.clear();
+		for (EventEnvelope e : envelopes) {
+			writeBlock(buf, e.getScope());
+			writeBlock(buf, e.getCustomHeaders());
+			writeBlock(buf, e.getBody());
+		}
+		buf.flip();
+		return buf;
+	}
+
+	/** Replies the number of bytes of the payload of the given envelope.
+	 *
+	 * @param envelope - the envelope.
+	 * @return the size of the envelope in a payload.
+	 */
+	public static long payloadSize(EventEnvelope envelope) {
+		return (long) BLOCKS_PER_ENVELOPE * Ints.BYTES
+				+ envelope.getScope().length
+				+ envelope.getCustomHeaders().length
+				+ envelope.getBody().length;
+	}
+
+	/** Build the byte array that may be used for the ZeroMQ filtering
+	 * associated with {@link org.zeromq.ZMQ.Socket#subscribe(byte[])}.
+	 * For a given space (identifiers translated into byte arrays with an
+	 * {@link io.janusproject.services.network.EventSerializer}), this function
+	 * must always reply the same sequence of bytes.
+	 * <p>
+	 * The length of the context identifier is written before the space identifier,
+	 * so that the header of a space is never the prefix of the header of another space.
+	 *
+	 * @param contextID - the serialized context identifier.
+	 * @param spaceID - the serialized space identifier.
+	 * @return the header of the ZeroMQ message that may be used for
+	 * filtering.
+	 */
+	public static byte[] buildFilterableHeader(byte[] contextID, byte[] spaceID) {
+		ByteBuffer header = ByteBuffer.allocate(Ints.BYTES * 2 + contextID.length + spaceID.length);
+		writeBlock(header, contextID);
+		writeBlock(header, spaceID);
+		return header.array();
+	}
+
+	/** Read the envelopes from the frames of a ZeroMQ message.
+	 *
+	 * @param header - the filterable header.
+	 * @param payload - the payload.
+	 * @return the envelopes.
+	 * @throws IOException if the frames are not well-formed.
+	 */
+	public static List<EventEnvelope> readEnvelopes(byte[] header, byte[] payload) throws IOException {
+		ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+		byte[] contextId = readBlock(headerBuffer);
+		assert (contextId != null && contextId.length > 0);
+
+		byte[] spaceId = readBlock(headerBuffer);
+		assert (spaceId != null && spaceId.length > 0);
+
+		ByteBuffer buf = ByteBuffer.wrap(payload);
+		List<EventEnvelope> envelopes = new ArrayList<>(1);
+		do {
+			byte[] scope = readBlock(buf);
+			assert (scope != null && scope.length > 0);
+
+			byte[] headers = readBlock(buf);
+			assert (headers != null && headers.length > 0);
+
+			byte[] body = readBlock(buf);
+			assert (body != null && body.length > 0);
+
+			envelopes.add(new EventEnvelope(contextId, spaceId, scope, headers, body));
+		} while (buf.hasRemaining());
+
+		return envelopes;
+	}
+
+	private static void writeBlock(ByteBuffer buffer, byte[] block) {
+		buffer.putInt(block.length);
+		buffer.put(block);
+	}
+
+	private static byte[] readBlock(ByteBuffer buffer) throws IOException {
+		if (buffer.remaining() >= Ints.BYTES) {
+			int length = buffer.getInt();
+			if (length >= 0 && buffer.remaining() >= length) {
+				byte[] result = new byte[length];
+				buffer.get(result);
+				return result;
+			}
+		}
+		throw new EOFException();
+	}
+
+}
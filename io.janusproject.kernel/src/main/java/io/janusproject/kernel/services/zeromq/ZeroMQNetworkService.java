@@ -31,6 +31,7 @@ import io.janusproject.services.network.AbstractNetworkingExecutionThreadService
 import io.janusproject.services.network.EventDispatch;
 import io.janusproject.services.network.EventEnvelope;
 import io.janusproject.services.network.EventSerializer;
+import io.janusproject.services.network.NetworkConfig;
 import io.janusproject.services.network.NetworkServiceListener;
 import io.janusproject.services.network.NetworkUtil;
 import io.sarl.lang.core.Event;
@@ -45,10 +46,21 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Level;
 
 import org.zeromq.ZContext;
@@ -56,7 +68,6 @@ import org.zeromq.ZMQ;
 import org.zeromq.ZMQ.Poller;
 import org.zeromq.ZMQ.Socket;
 
-import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.Service;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -64,6 +75,29 @@ import com.google.inject.name.Named;
 
 /**
  * Service that is providing the ZeroMQ network.
+ * <p>
+ * The events are serialized by the publishing threads, and put in
+ * a lock-free outbound queue. A single sender thread owns the PUB socket
+ * and drains this queue. When the traffic is high, the sender puts several
+ * consecutive envelopes of the same space in one message.
+ * The framing of the messages is defined by {@link ZeroMQEnvelopeFraming}.
+ * <p>
+ * The prefix of the messages contains the identifiers of the context and of
+ * the space. The SUB sockets subscribe to each space that is shared with the
+ * remote kernel, so that the messages of the other spaces are discarded by
+ * ZeroMQ before they are read by the service.
+ * <p>
+ * The thread of the service owns the poller and the SUB sockets. It is
+ * blocked on the poller until a message is received, or until it is woken
+ * up through an inproc PAIR socket. The other threads never touch the
+ * SUB sockets: they put commands in a queue and wake up the thread of
+ * the service, which runs them.
+ * <p>
+ * The thread of the service only reads the envelopes from the sockets.
+ * The envelopes are put in reception lanes that are run by the executor service:
+ * the lanes decrypt and deserialize the envelopes in parallel, and give the
+ * events to the spaces. The envelopes of a space are always put in the same lane,
+ * so that the events of a space are given in their reception order.
  *
  * @author $Author: srodriguez$
  * @author $Author: sgalland$
@@ -75,7 +109,29 @@ import com.google.inject.name.Named;
 @Singleton
 public class ZeroMQNetworkService extends AbstractNetworkingExecutionThreadService {
 
-	private static final long POLL_TIMEOUT = 1000;
+	/** Address of the inproc sockets that are used for waking up the thread of the service.
+	 */
+	private static final String WAKEUP_ADDRESS = "inproc://janus-network-wakeup"; //$NON-NLS-1$
+
+	private static final byte[] WAKEUP_SIGNAL = new byte[] {0};
+
+	/** Maximal number of envelopes that are received by a lane before it gives
+	 * the hand to the other tasks.
+	 */
+	private static final int RECEPTION_BATCH_SIZE = 64;
+
+	/** Maximal number of envelopes that are put in one multipart message.
+	 */
+	private static final int MAX_BATCH_SIZE = 64;
+
+	/** Number of bytes of the payload after which no more envelope is put in a message.
+	 */
+	private static final long MAX_BATCH_BYTES = 1 << 20;
+
+	/** Number of milliseconds during which the messages that are still in the sockets
+	 * are sent when the service is stopped.
+	 */
+	private static final int SHUTDOWN_LINGER = 1000;
 
 	private final Listener serviceListener = new Listener();
 
@@ -94,17 +150,33 @@ public class ZeroMQNetworkService extends AbstractNetworkingExecutionThreadServi
 	@Inject
 	private EventSerializer serializer;
 
+	@Inject
+	private ThreadFactory threadFactory;
+
 	private ZContext context;
 	private Socket sendingSocket;
-	private Map<URI, Socket> receptionSocketsPerRemoteKernel = new ConcurrentHashMap<>();
 
-	private final Map<SpaceID, NetworkEventReceivingListener> messageRecvListeners = new TreeMap<>();
+	private Socket wakeupReceiver;
+	private Socket wakeupSender;
+	private final Object wakeupLock = new Object();
+	private final Queue<Runnable> socketCommands = new ConcurrentLinkedQueue<>();
+
+	private final Queue<EventEnvelope> outboundQueue = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean senderParked = new AtomicBoolean();
+	private volatile boolean senderRunning;
+	private Thread senderThread;
+	private final Map<URI, Socket> receptionSocketsPerRemoteKernel = new HashMap<>();
+	private final Map<URI, Set<SpaceID>> subscribedSpacesPerRemoteKernel = new HashMap<>();
+	private final Set<URI> connectedPeers = Collections.newSetFromMap(new ConcurrentHashMap<URI, Boolean>());
+
+	private final Map<SpaceID, NetworkEventReceivingListener> messageRecvListeners = new ConcurrentSkipListMap<>();
+
+	private ZeroMQReceptionLanes receptionLanes;
 
-	// TODO Change poller that can be stopped properly.
 	private Poller poller;
 
 	private URI uriCandidate;
-	private URI validatedURI;
+	private volatile URI validatedURI;
 
 	private Map<SpaceID, BufferedConnection> bufferedConnections = new TreeMap<>();
 	private Map<SpaceID, BufferedSpace> bufferedSpaces = new TreeMap<>();
@@ -140,9 +212,7 @@ public class ZeroMQNetworkService extends AbstractNetworkingExecutionThreadServi
 	 */
 	@Override
 	public URI getURI() {
-		synchronized (this) {
-			return this.validatedURI;
-		}
+		return this.validatedURI;
 	}
 
 
@@ -226,105 +296,71 @@ public class ZeroMQNetworkService extends AbstractNetworkingExecutionThreadServi
 		}
 	}
 
-	private void send(EventEnvelope e) {
-		this.sendingSocket.sendMore(buildFilterableHeader(e.getContextId()));
-		this.sendingSocket.sendMore(Ints.toByteArray(e.getSpaceId().length));
-		this.sendingSocket.sendMore(e.getSpaceId());
-		this.sendingSocket.sendMore(Ints.toByteArray(e.getScope().length));
-		this.sendingSocket.sendMore(e.getScope());
-		this.sendingSocket.sendMore(Ints.toByteArray(e.getCustomHeaders().length));
-		this.sendingSocket.sendMore(e.getCustomHeaders());
-		this.sendingSocket.sendMore(Ints.toByteArray(e.getBody().length));
-		this.sendingSocket.send(e.getBody());
-	}
-
-	/** Build the byte array that may be used for the ZeroMQ filtering
-	 * associated with {@link Socket#subscribe(byte[])}.
-	 * For a given contextID (translated into a byte array with an
-	 * {@link EventSerializer}), this function must always reply the
-	 * same sequence of bytes.
+	/** Send the given envelopes in one message.
+	 * This function must be invoked by the sender thread only.
 	 *
-	 * @param contextID
-	 * @return the header of the ZeroMQ message that may be used for
-	 * filtering.
+	 * @param framing - the framing tool of the sender thread.
+	 * @param batch - the envelopes to send; they must have the same space.
 	 */
-	private static byte[] buildFilterableHeader(byte[] contextID) {
-		byte[] header = new byte[Ints.BYTES + contextID.length];
-		byte[] length = Ints.toByteArray(contextID.length);
-		System.arraycopy(length, 0, header, 0, length.length);
-		System.arraycopy(contextID, 0, header, length.length, contextID.length);
-		return header;
+	private void send(ZeroMQEnvelopeFraming framing, List<EventEnvelope> batch) {
+		assert (!batch.isEmpty());
+		EventEnvelope first = batch.get(0);
+		this.sendingSocket.sendMore(framing.getFilterableHeader(first.getContextId(), first.getSpaceId()));
+		ByteBuffer payload = framing.writePayload(batch);
+		this.sendingSocket.send(payload.array(), payload.arrayOffset() + payload.position(), payload.remaining(), 0);
 	}
 
 	/** {@inheritDoc}
 	 */
 	@Override
-	public synchronized void publish(Scope<?> scope, Event data)
+	public void publish(Scope<?> scope, Event data)
 			throws Exception {
-		if (this.validatedURI == null) {
+		if (this.validatedURI == null || !this.senderRunning) {
 			this.logger.debug("DISCARDED_MESSAGE", data.getSource().getSpaceId(), scope, data); //$NON-NLS-1$
-		} else if (!this.receptionSocketsPerRemoteKernel.isEmpty()) {
+		} else if (!this.connectedPeers.isEmpty()) {
 			SpaceID spaceID = data.getSource().getSpaceId();
+			// The event is serialized by the calling thread, so that
+			// the envelope is not changed by a later change of the event.
 			EventEnvelope env = this.serializer.serialize(new EventDispatch(spaceID, data, scope));
-			send(env);
-			this.logger.debug("PUBLISH_EVENT", spaceID, data); //$NON-NLS-1$
-		}
-	}
-
-	private static byte[] readBuffer(ByteBuffer buffer, int size) throws IOException {
-		if (buffer.remaining() >= size) {
-			byte[] result = new byte[size];
-			buffer.get(result);
-			return result;
+			this.outboundQueue.offer(env);
+			if (!this.senderRunning) {
+				// The service was stopped after the test above: the sender thread
+				// may have left, and the envelope is discarded if it is still queued.
+				if (this.outboundQueue.remove(env)) {
+					this.logger.debug("DISCARDED_MESSAGE", spaceID, scope, data); //$NON-NLS-1$
+				}
+			} else {
+				if (this.senderParked.compareAndSet(true, false)) {
+					LockSupport.unpark(this.senderThread);
+				}
+				this.logger.debug("PUBLISH_EVENT", spaceID, data); //$NON-NLS-1$
+			}
 		}
-		throw new EOFException();
-	}
-
-	private static byte[] readBlock(ByteBuffer buffer) throws IOException {
-		int length = Ints.fromByteArray(readBuffer(buffer, Ints.BYTES));
-		return readBuffer(buffer, length);
 	}
 
 	/**
 	 * Receive data from the network.
 	 *
 	 * @param socket - network reader.
-	 * @return the envelope received over the network.
-	 * @throws IOException if the envelope cannot be read from the network.
+	 * @return the envelopes received over the network.
+	 * @throws IOException if the envelopes cannot be read from the network.
 	 */
-	private static EventEnvelope extractEnvelope(Socket socket) throws IOException {
-		// TODO: Read the ZeroMQ socket via a NIO wrapper to support large data:
-		// indeed the arrays has a maximal size bounded by a native int value, and
-		// the real data could be larger than this limit.
-
-		byte[] data = socket.recv(ZMQ.DONTWAIT);
-		byte[] cdata;
-		int oldSize = 0;
+	private static List<EventEnvelope> extractEnvelopes(Socket socket) throws IOException {
+		byte[] header = socket.recv(ZMQ.DONTWAIT);
+		byte[] payload = null;
+		if (header != null && socket.hasReceiveMore()) {
+			payload = socket.recv(ZMQ.DONTWAIT);
+		}
+		boolean unexpectedFrames = false;
 		while (socket.hasReceiveMore()) {
-			cdata = socket.recv(ZMQ.DONTWAIT);
-			oldSize = data.length;
-			data = Arrays.copyOf(data, data.length + cdata.length);
-			System.arraycopy(cdata, 0, data, oldSize, cdata.length);
+			// Consume the frames of the malformed message.
+			socket.recv(ZMQ.DONTWAIT);
+			unexpectedFrames = true;
 		}
-
-		ByteBuffer buffer = ByteBuffer.wrap(data);
-
-		byte[] contextId = readBlock(buffer);
-		assert (contextId != null && contextId.length > 0);
-
-		byte[] spaceId = readBlock(buffer);
-		assert (spaceId != null && spaceId.length > 0);
-
-		byte[] scope = readBlock(buffer);
-		assert (scope != null && scope.length > 0);
-
-		byte[] headers = readBlock(buffer);
-		assert (headers != null && headers.length > 0);
-
-		byte[] body = readBlock(buffer);
-		assert (body != null && body.length > 0);
-
-		return new EventEnvelope(contextId, spaceId, scope, headers, body);
+		if (payload == null || unexpectedFrames) {
+			throw new EOFException();
+		}
+		return ZeroMQEnvelopeFraming.readEnvelopes(header, payload);
 	}
 
 	/** {@inheritDoc}
@@ -338,63 +374,77 @@ public class ZeroMQNetworkService extends AbstractNetworkingExecutionThreadServi
 			assert (this.bufferedConnections != null);
 			this.bufferedConnections.put(space, new BufferedConnection(peerUri, space, listener));
 		} else {
-			Socket receptionSocket = this.receptionSocketsPerRemoteKernel.get(peerUri);
-			if (receptionSocket == null) {
-				this.logger.debug("PEER_CONNECTION", peerUri, space); //$NON-NLS-1$
-				receptionSocket = this.context.createSocket(ZMQ.SUB);
-				assert (receptionSocket != null);
-				this.receptionSocketsPerRemoteKernel.put(peerUri, receptionSocket);
-				receptionSocket.connect(peerUri.toString());
-				this.poller.register(receptionSocket, Poller.POLLIN);
-				this.logger.debug("PEER_CONNECTED", peerUri); //$NON-NLS-1$
-			}
-			assert (receptionSocket != null);
 			NetworkEventReceivingListener old = this.messageRecvListeners.get(space);
 			if (old == null) {
 				assert (listener != null);
 				this.messageRecvListeners.put(space, listener);
 			}
-			byte[] header = buildFilterableHeader(
-					this.serializer.serializeContextID(space.getContextID()));
-			receptionSocket.subscribe(header);
-			this.logger.debug("PEER_SUBSCRIPTION", peerUri, space); //$NON-NLS-1$
+			byte[] header = buildFilterableHeader(space);
+			this.connectedPeers.add(peerUri);
+			runInServiceThread(new SubscriptionCommand(peerUri, space, header));
 		}
 	}
 
 	/** {@inheritDoc}
 	 */
-	@SuppressWarnings("resource")
 	@Override
 	public synchronized void disconnectFromRemoteSpace(URI peer, SpaceID space) throws Exception {
-		Socket s = this.receptionSocketsPerRemoteKernel.get(peer);
-		if (s != null) {
-			this.logger.debug("PEER_UNSUBSCRIPTION ", peer, space); //$NON-NLS-1$
-			byte[] header = buildFilterableHeader(
-					this.serializer.serializeContextID(space.getContextID()));
-			s.unsubscribe(header);
+		if (this.connectedPeers.contains(peer)) {
+			byte[] header = buildFilterableHeader(space);
+			runInServiceThread(new UnsubscriptionCommand(peer, space, header));
 		}
 	}
 
+	/** Build the prefix of the messages of the given space, which is used
+	 * for subscribing to the space.
+	 *
+	 * @param space - the identifier of the space.
+	 * @return the filterable header of the space.
+	 * @throws Exception - if the identifiers cannot be serialized.
+	 */
+	private byte[] buildFilterableHeader(SpaceID space) throws Exception {
+		return ZeroMQEnvelopeFraming.buildFilterableHeader(
+				this.serializer.serializeContextID(space.getContextID()),
+				this.serializer.serializeSpaceID(space.getID()));
+	}
+
 	/** {@inheritDoc}
 	 */
-	@SuppressWarnings("resource")
 	@Override
 	public synchronized void disconnectPeer(URI peer) throws Exception {
-		Socket s = this.receptionSocketsPerRemoteKernel.remove(peer);
-		if (s != null) {
-			this.logger.debug("PEER_DISCONNECTION", peer); //$NON-NLS-1$
-			this.poller.unregister(s);
-			s.close();
-			this.logger.debug("PEER_DISCONNECTED", peer); //$NON-NLS-1$
+		if (this.connectedPeers.remove(peer)) {
+			runInServiceThread(new DisconnectionCommand(peer));
+		}
+	}
+
+	/** Run the given command on the SUB sockets in the thread of the service.
+	 *
+	 * @param command - the command to run.
+	 */
+	private void runInServiceThread(Runnable command) {
+		this.socketCommands.offer(command);
+		wakeUp();
+	}
+
+	/** Wake up the thread of the service if it is waiting on the poller.
+	 */
+	private void wakeUp() {
+		// The PAIR socket is shared by the threads that are waking up the service.
+		synchronized (this.wakeupLock) {
+			if (this.wakeupSender != null) {
+				this.wakeupSender.send(WAKEUP_SIGNAL, ZMQ.DONTWAIT);
+			}
 		}
 	}
 
 	/** Extract data from a received envelope, and forwad it to the rest of the platform.
+	 * <p>
+	 * This function is invoked by the reception lanes, in parallel for different spaces.
 	 *
 	 * @param env - the evenlope received over the network, and that must be deserialize.
 	 * @throws Exception - if cannot deserialize the envelope.
 	 */
-	protected synchronized void receive(EventEnvelope env) throws Exception {
+	protected void receive(EventEnvelope env) throws Exception {
 		this.logger.debug("ENVELOPE_RECEIVED", this.validatedURI, env); //$NON-NLS-1$
 		EventDispatch dispatch = this.serializer.deserialize(env);
 		this.logger.debug("DISPATCH_RECEIVED", dispatch); //$NON-NLS-1$
@@ -402,9 +452,7 @@ public class ZeroMQNetworkService extends AbstractNetworkingExecutionThreadServi
 		SpaceID spaceID = dispatch.getSpaceID();
 		NetworkEventReceivingListener space = this.messageRecvListeners.get(spaceID);
 		if (space != null) {
-			this.executorService.submit(new AsyncRunner(
-					space, spaceID,
-					dispatch.getScope(), dispatch.getEvent()));
+			space.eventReceived(spaceID, dispatch.getScope(), dispatch.getEvent());
 		} else {
 			this.logger.debug("UNKNOWN_SPACE", spaceID, dispatch.getEvent()); //$NON-NLS-1$
 		}
@@ -416,46 +464,54 @@ public class ZeroMQNetworkService extends AbstractNetworkingExecutionThreadServi
 	protected void run() throws Exception {
 		while (isRunning()) {
 			try {
-				if (this.poller.getSize() > 0) {
-					int signaled = this.poller.poll(POLL_TIMEOUT);
-					if (signaled > 0) {
-						for (int i = 0; i < this.poller.getSize(); i++) {
-							if (this.poller.pollin(i)) {
+				// Blocking until a message is received, or the thread is woken up.
+				int signaled = this.poller.poll(-1);
+				if (signaled > 0) {
+					for (int i = 0; i < this.poller.getSize(); i++) {
+						if (this.poller.pollin(i)) {
+							Socket socket = this.poller.getSocket(i);
+							if (socket == this.wakeupReceiver) {
+								while (socket.recv(ZMQ.DONTWAIT) != null) {
+									// Consume all the wake-up signals
+								}
+							} else {
 								this.logger.debug("POLLING", new Integer(i)); //$NON-NLS-1$
-								EventEnvelope ev = extractEnvelope(this.poller.getSocket(i));
-								assert (ev != null);
-
-								try {
-									receive(ev);
-								} catch (Throwable e) {
-									this.logger.log(
-											Level.FINE,
-											ZeroMQNetworkService.class,
-											"CANNOT_RECEIVE_EVENT", e); //$NON-NLS-1$
+								for (EventEnvelope ev : extractEnvelopes(socket)) {
+									assert (ev != null);
+									this.receptionLanes.dispatch(ev);
 								}
-							} else if (this.poller.pollerr(i)) {
-								final int poolerIdx = i;
-								this.logger.warning("POLLING_ERROR", //$NON-NLS-1$
-										new LogParam() {
-									@SuppressWarnings("synthetic-access")
-									@Override
-									public String toString() {
-										return ZeroMQNetworkService.this.poller.getSocket(
-												poolerIdx).toString();
-									}
-								});
 							}
+						} else if (this.poller.pollerr(i)) {
+							final int poolerIdx = i;
+							this.logger.warning("POLLING_ERROR", //$NON-NLS-1$
+									new LogParam() {
+								@SuppressWarnings("synthetic-access")
+								@Override
+								public String toString() {
+									return ZeroMQNetworkService.this.poller.getSocket(
+											poolerIdx).toString();
+								}
+							});
 						}
 					}
 				}
+				// The commands change the poller, so that they are run after the polling loop.
+				Runnable command = this.socketCommands.poll();
+				while (command != null) {
+					command.run();
+					command = this.socketCommands.poll();
+				}
 			} catch (Throwable e) {
 				this.logger.log(Level.SEVERE, ZeroMQNetworkService.class, "UNEXPECTED_EXCEPTION", e); //$NON-NLS-1$
 			}
-			// ensure that this thread does not take too much time.
-			Thread.yield();
 		}
-		// FIXME: May the poller be stopped?
-		// stopPoller();
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	protected void triggerShutdown() {
+		wakeUp();
 	}
 
 	/**
@@ -487,7 +543,31 @@ public class ZeroMQNetworkService extends AbstractNetworkingExecutionThreadServi
 			this.uriCandidate = null;
 			connections = this.bufferedConnections;
 			this.bufferedConnections = null;
+			int nbLanes = JanusConfig.getSystemPropertyAsInteger(
+					NetworkConfig.RECEPTION_LANES_NAME, NetworkConfig.RECEPTION_LANES_VALUE);
+			if (nbLanes <= 0) {
+				nbLanes = Runtime.getRuntime().availableProcessors();
+			}
+			this.receptionLanes = new ZeroMQReceptionLanes(nbLanes, RECEPTION_BATCH_SIZE,
+					this.executorService, this.logger, new LaneReceiver());
+
 			this.poller = new Poller(1);
+			this.wakeupReceiver = this.context.createSocket(ZMQ.PAIR);
+			this.wakeupReceiver.bind(WAKEUP_ADDRESS);
+			this.poller.register(this.wakeupReceiver, Poller.POLLIN);
+			synchronized (this.wakeupLock) {
+				this.wakeupSender = this.context.createSocket(ZMQ.PAIR);
+				this.wakeupSender.connect(WAKEUP_ADDRESS);
+			}
+
+			// The PUB socket is owned by the sender thread from now.
+			ThreadFactory factory = this.threadFactory;
+			if (factory == null) {
+				factory = Executors.defaultThreadFactory();
+			}
+			this.senderThread = factory.newThread(new Sender());
+			this.senderRunning = true;
+			this.senderThread.start();
 
 			this.kernelService.addKernelDiscoveryServiceListener(this.serviceListener);
 			this.spaceService.addSpaceRepositoryListener(this.serviceListener);
@@ -506,11 +586,26 @@ public class ZeroMQNetworkService extends AbstractNetworkingExecutionThreadServi
 			this.kernelService.removeKernelDiscoveryServiceListener(this.serviceListener);
 			this.spaceService.removeSpaceRepositoryListener(this.serviceListener);
 
-			// TODO this.poller.stop();
-			// stopPoller();
-
-			// this.publisher.close();
+			// Stop the sender thread after it has sent the pending envelopes.
+			this.senderRunning = false;
+			if (this.senderThread != null) {
+				LockSupport.unpark(this.senderThread);
+				this.senderThread.join();
+				this.senderThread = null;
+			}
 
+			synchronized (this.wakeupLock) {
+				this.wakeupSender = null;
+			}
+			this.socketCommands.clear();
+			this.receptionSocketsPerRemoteKernel.clear();
+			this.subscribedSpacesPerRemoteKernel.clear();
+			this.connectedPeers.clear();
+
+			// The poller and the SUB sockets are owned by the current thread,
+			// that has left the polling loop: the sockets are closed with the context.
+			// The messages that are still in the PUB socket are sent before it is closed.
+			this.context.setLinger(SHUTDOWN_LINGER);
 			this.context.destroy();
 		}
 		this.logger.fineInfo("ZEROMQ_SHUTDOWN"); //$NON-NLS-1$
@@ -596,30 +691,212 @@ public class ZeroMQNetworkService extends AbstractNetworkingExecutionThreadServi
 
 	}
 
-	/**
+	/** Loop of the thread that is sending the envelopes over the PUB socket.
+	 *
 	 * @author $Author: sgalland$
 	 * @version $FullVersion$
 	 * @mavengroupid $GroupId$
 	 * @mavenartifactid $ArtifactId$
 	 */
-	private class AsyncRunner implements Runnable {
+	private class Sender implements Runnable {
 
-		private final NetworkEventReceivingListener space;
-		private final SpaceID spaceID;
-		private final Scope<?> scope;
-		private final Event event;
+		/**
+		 */
+		public Sender() {
+			//
+		}
 
-		public AsyncRunner(NetworkEventReceivingListener space, SpaceID spaceID, Scope<?> scope, Event event) {
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public void run() {
+			Queue<EventEnvelope> queue = ZeroMQNetworkService.this.outboundQueue;
+			AtomicBoolean parked = ZeroMQNetworkService.this.senderParked;
+			List<EventEnvelope> batch = new ArrayList<>(MAX_BATCH_SIZE);
+			ZeroMQEnvelopeFraming framing = new ZeroMQEnvelopeFraming();
+			while (true) {
+				EventEnvelope env = queue.poll();
+				if (env == null) {
+					if (!ZeroMQNetworkService.this.senderRunning) {
+						// A publisher that has seen the running flag before it was cleared
+						// has put its envelope before the flag is read here.
+						if (queue.isEmpty()) {
+							// All the pending envelopes were sent.
+							return;
+						}
+						continue;
+					}
+					parked.set(true);
+					// Check the queue again for the envelopes that were put before the
+					// publishers have seen the parked flag.
+					if (queue.isEmpty() && ZeroMQNetworkService.this.senderRunning) {
+						LockSupport.park(this);
+					}
+					parked.set(false);
+				} else {
+					batch.add(env);
+					long size = ZeroMQEnvelopeFraming.payloadSize(env);
+					EventEnvelope next = queue.peek();
+					while (next != null && batch.size() < MAX_BATCH_SIZE && size < MAX_BATCH_BYTES
+							&& Arrays.equals(env.getContextId(), next.getContextId())
+							&& Arrays.equals(env.getSpaceId(), next.getSpaceId())) {
+						batch.add(queue.poll());
+						size += ZeroMQEnvelopeFraming.payloadSize(next);
+						next = queue.peek();
+					}
+					try {
+						send(framing, batch);
+					} catch (Throwable e) {
+						ZeroMQNetworkService.this.logger.log(Level.SEVERE, ZeroMQNetworkService.class,
+								"UNEXPECTED_EXCEPTION", e); //$NON-NLS-1$
+					}
+					batch.clear();
+				}
+			}
+		}
+
+	}
+
+	/** Command that connects to a peer if needed, and subscribes to a space.
+	 * <p>
+	 * The SUB socket subscribes only once to each space, since the
+	 * subscriptions to the same prefix are counted by ZeroMQ.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private class SubscriptionCommand implements Runnable {
+
+		private final URI peer;
+		private final SpaceID space;
+		private final byte[] header;
+
+		/**
+		 * @param peer - the URI of the peer.
+		 * @param space - the identifier of the space.
+		 * @param header - the filterable header of the space.
+		 */
+		public SubscriptionCommand(URI peer, SpaceID space, byte[] header) {
+			this.peer = peer;
 			this.space = space;
-			this.spaceID = spaceID;
-			this.scope = scope;
-			this.event = event;
+			this.header = header;
 		}
 
+		@SuppressWarnings({"synthetic-access", "resource"})
 		@Override
 		public void run() {
-			this.space.eventReceived(this.spaceID, this.scope, this.event);
+			ZeroMQNetworkService service = ZeroMQNetworkService.this;
+			Socket receptionSocket = service.receptionSocketsPerRemoteKernel.get(this.peer);
+			if (receptionSocket == null) {
+				service.logger.debug("PEER_CONNECTION", this.peer, this.space); //$NON-NLS-1$
+				receptionSocket = service.context.createSocket(ZMQ.SUB);
+				assert (receptionSocket != null);
+				service.receptionSocketsPerRemoteKernel.put(this.peer, receptionSocket);
+				receptionSocket.connect(this.peer.toString());
+				service.poller.register(receptionSocket, Poller.POLLIN);
+				service.subscribedSpacesPerRemoteKernel.put(this.peer, new HashSet<SpaceID>());
+				service.logger.debug("PEER_CONNECTED", this.peer); //$NON-NLS-1$
+			}
+			if (service.subscribedSpacesPerRemoteKernel.get(this.peer).add(this.space)) {
+				receptionSocket.subscribe(this.header);
+				service.logger.debug("PEER_SUBSCRIPTION", this.peer, this.space); //$NON-NLS-1$
+			}
 		}
+
+	}
+
+	/** Command that unsubscribes from a space.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private class UnsubscriptionCommand implements Runnable {
+
+		private final URI peer;
+		private final SpaceID space;
+		private final byte[] header;
+
+		/**
+		 * @param peer - the URI of the peer.
+		 * @param space - the identifier of the space.
+		 * @param header - the filterable header of the space.
+		 */
+		public UnsubscriptionCommand(URI peer, SpaceID space, byte[] header) {
+			this.peer = peer;
+			this.space = space;
+			this.header = header;
+		}
+
+		@SuppressWarnings({"synthetic-access", "resource"})
+		@Override
+		public void run() {
+			ZeroMQNetworkService service = ZeroMQNetworkService.this;
+			Socket s = service.receptionSocketsPerRemoteKernel.get(this.peer);
+			if (s != null && service.subscribedSpacesPerRemoteKernel.get(this.peer).remove(this.space)) {
+				service.logger.debug("PEER_UNSUBSCRIPTION ", this.peer, this.space); //$NON-NLS-1$
+				s.unsubscribe(this.header);
+			}
+		}
+
+	}
+
+	/** Command that disconnects from a peer.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private class DisconnectionCommand implements Runnable {
+
+		private final URI peer;
+
+		/**
+		 * @param peer - the URI of the peer.
+		 */
+		public DisconnectionCommand(URI peer) {
+			this.peer = peer;
+		}
+
+		@SuppressWarnings({"synthetic-access", "resource"})
+		@Override
+		public void run() {
+			ZeroMQNetworkService service = ZeroMQNetworkService.this;
+			Socket s = service.receptionSocketsPerRemoteKernel.remove(this.peer);
+			service.subscribedSpacesPerRemoteKernel.remove(this.peer);
+			if (s != null) {
+				service.logger.debug("PEER_DISCONNECTION", this.peer); //$NON-NLS-1$
+				service.poller.unregister(s);
+				service.context.destroySocket(s);
+				service.logger.debug("PEER_DISCONNECTED", this.peer); //$NON-NLS-1$
+			}
+		}
+
+	}
+
+	/** Receiver of the envelopes of the reception lanes.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private class LaneReceiver implements ZeroMQReceptionLanes.Receiver {
+
+		/**
+		 */
+		public LaneReceiver() {
+			//
+		}
+
+		@Override
+		public void receive(EventEnvelope env) throws Exception {
+			ZeroMQNetworkService.this.receive(env);
+		}
+
 	}
 
 	/**
@@ -0,0 +1,207 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.zeromq;
+
+import io.janusproject.services.executor.ClassifiedTask;
+import io.janusproject.services.executor.TaskKind;
+import io.janusproject.services.logging.LogService;
+import io.janusproject.services.network.EventEnvelope;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Lanes in which the received envelopes are given to a receiver.
+ * <p>
+ * The envelopes of a space are always put in the same lane, and each lane
+ * gives its envelopes to the receiver in their reception order.
+ * The lanes are run in parallel by an executor, so that the envelopes of
+ * the spaces of different lanes are received independently.
+ * <p>
+ * The lanes are fed by a single thread, i.e. the thread of the network service.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+final class ZeroMQReceptionLanes {
+
+	private final Lane[] lanes;
+
+	private final int batchSize;
+
+	private final Executor executor;
+
+	private final LogService logger;
+
+	private final Receiver receiver;
+
+	/**
+	 * @param nbLanes - the number of lanes.
+	 * @param batchSize - the maximal number of envelopes that are received by a lane
+	 *     before it gives the hand to the other tasks of the executor.
+	 * @param executor - the executor that is running the lanes.
+	 * @param logger - the logger of the errors of the receiver.
+	 * @param receiver - the receiver of the envelopes.
+	 */
+	public ZeroMQReceptionLanes(int nbLanes, int batchSize, Executor executor, LogService logger, Receiver receiver) {
+		assert (nbLanes > 0);
+		assert (batchSize > 0);
+		this.batchSize = batchSize;
+		this.executor = executor;
+		this.logger = logger;
+		this.receiver = receiver;
+		this.lanes = new Lane[nbLanes];
+		for (int i = 0; i < nbLanes; ++i) {
+			this.lanes[i] = new Lane();
+		}
+	}
+
+	/** Replies the number of lanes.
+	 *
+	 * @return the number of lanes.
+	 */
+	public int getLaneCount() {
+		return this.lanes.length;
+	}
+
+	/** Replies the index of the lane of the given envelope.
+	 * <p>
+	 * The lane is selected from the serialized identifiers of the context and of the
+	 * space, that are the same for all the envelopes of a space.
+	 *
+	 * @param env - the envelope.
+	 * @return the index of the lane.
+	 */
+	public int getLaneIndex(EventEnvelope env) {
+		int hash = Arrays.hashCode(env.getContextId()) ^ Arrays.hashCode(env.getSpaceId());
+		return (hash & Integer.MAX_VALUE) % this.lanes.length;
+	}
+
+	/** Put the given envelope in its lane.
+	 *
+	 * @param env - the received envelope.
+	 */
+	public void dispatch(EventEnvelope env) {
+		this.lanes[getLaneIndex(env)].add(env);
+	}
+
+	/** Receiver of the envelopes of the lanes.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	interface Receiver {
+
+		/** Receive an envelope.
+		 * <p>
+		 * This function is invoked in parallel for the envelopes of different lanes.
+		 *
+		 * @param env - the envelope.
+		 * @throws Exception - if the envelope cannot be received.
+		 */
+		void receive(EventEnvelope env) throws Exception;
+
+	}
+
+	/** Lane in which the received envelopes are received in their reception order.
+	 * <p>
+	 * The lane is run by the executor when it contains envelopes;
+	 * it is never run by two threads at the same time.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private class Lane implements ClassifiedTask {
+
+		private final Queue<EventEnvelope> envelopes = new ConcurrentLinkedQueue<>();
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		/**
+		 */
+		public Lane() {
+			//
+		}
+
+		/** Add a received envelope in the lane.
+		 *
+		 * @param env - the envelope.
+		 */
+		public void add(EventEnvelope env) {
+			this.envelopes.offer(env);
+			schedule();
+		}
+
+		@SuppressWarnings("synthetic-access")
+		private void schedule() {
+			if (this.scheduled.compareAndSet(false, true)) {
+				try {
+					ZeroMQReceptionLanes.this.executor.execute(this);
+				} catch (RuntimeException e) {
+					this.scheduled.set(false);
+					throw e;
+				}
+			}
+		}
+
+		@SuppressWarnings("synthetic-access")
+		@Override
+		public void run() {
+			try {
+				for (int i = 0; i < ZeroMQReceptionLanes.this.batchSize; ++i) {
+					EventEnvelope env = this.envelopes.poll();
+					if (env == null) {
+						break;
+					}
+					try {
+						ZeroMQReceptionLanes.this.receiver.receive(env);
+					} catch (Throwable e) {
+						ZeroMQReceptionLanes.this.logger.log(
+								Level.FINE,
+								ZeroMQNetworkService.class,
+								"CANNOT_RECEIVE_EVENT", e); //$NON-NLS-1$
+					}
+				}
+			} finally {
+				this.scheduled.set(false);
+				// Reschedule the lane for the envelopes that were not received by this run.
+				if (!this.envelopes.isEmpty()) {
+					schedule();
+				}
+			}
+		}
+
+		@Override
+		public TaskKind getTaskKind() {
+			return TaskKind.NETWORK_RECEIVE;
+		}
+
+	}
+
+}
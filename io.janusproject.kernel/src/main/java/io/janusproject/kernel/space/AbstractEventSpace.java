@@ -19,11 +19,14 @@
  */
 package io.janusproject.kernel.space;
 
+import io.janusproject.JanusConfig;
+import io.janusproject.kernel.repository.ParticipantRepository.Participant;
 import io.janusproject.kernel.repository.UniqueAddressParticipantRepository;
 import io.janusproject.services.distributeddata.DistributedDataStructureService;
 import io.janusproject.services.executor.ExecutorService;
 import io.janusproject.services.logging.LogService;
 import io.janusproject.services.network.NetworkService;
+import io.janusproject.util.ListenerCollection;
 import io.sarl.lang.core.Address;
 import io.sarl.lang.core.Event;
 import io.sarl.lang.core.EventListener;
@@ -33,7 +36,12 @@ import io.sarl.lang.util.SynchronizedSet;
 import io.sarl.util.Collections3;
 import io.sarl.util.Scopes;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.google.common.eventbus.DeadEvent;
 import com.google.common.eventbus.Subscribe;
@@ -56,6 +64,36 @@ public abstract class AbstractEventSpace extends SpaceBase {
 	 */
 	protected final UniqueAddressParticipantRepository<Address> participants;
 
+	/** Mailboxes of the participants, indexed by the identifiers of the participants.
+	 */
+	private final ConcurrentMap<UUID, EventMailbox> mailboxes = new ConcurrentHashMap<>();
+
+	/** Maximal number of events delivered to a participant each time its mailbox is drained.
+	 */
+	private final int mailboxBatchSize;
+
+	/** Maximal number of events in the mailbox of a participant.
+	 */
+	private final int mailboxCapacity;
+
+	/** Policy applied when an event is posted in a full mailbox.
+	 */
+	private final MailboxOverflowPolicy mailboxOverflowPolicy;
+
+	/** Maximal time during which an emitter is blocked on a full mailbox, in milliseconds.
+	 */
+	private final long mailboxBlockTimeout;
+
+	/** Handler of the overflows of the mailboxes.
+	 */
+	private final EventMailbox.OverflowHandler mailboxOverflowHandler = new MailboxOverflowNotifier();
+
+	/** Number of events posted in full mailboxes.
+	 */
+	private final AtomicLong mailboxOverflowCount = new AtomicLong();
+
+	private ListenerCollection<MailboxOverflowListener> overflowListeners;
+
 	/** Logging service.
 	 */
 	@Inject
@@ -82,6 +120,71 @@ public abstract class AbstractEventSpace extends SpaceBase {
 		this.participants = new UniqueAddressParticipantRepository<>(
 				getID().getID().toString() + "-participants", //$NON-NLS-1$
 				factory);
+		this.mailboxBatchSize = JanusConfig.getSystemPropertyAsInteger(
+				JanusConfig.MAILBOX_BATCH_SIZE_NAME,
+				JanusConfig.MAILBOX_BATCH_SIZE_VALUE);
+		this.mailboxCapacity = JanusConfig.getSystemPropertyAsInteger(
+				JanusConfig.MAILBOX_CAPACITY_NAME,
+				JanusConfig.MAILBOX_CAPACITY_VALUE);
+		this.mailboxOverflowPolicy = JanusConfig.getSystemPropertyAsEnum(
+				MailboxOverflowPolicy.class,
+				JanusConfig.MAILBOX_OVERFLOW_POLICY_NAME,
+				JanusConfig.MAILBOX_OVERFLOW_POLICY_VALUE);
+		this.mailboxBlockTimeout = JanusConfig.getSystemPropertyAsInteger(
+				JanusConfig.MAILBOX_BLOCK_TIMEOUT_NAME,
+				JanusConfig.MAILBOX_BLOCK_TIMEOUT_VALUE);
+	}
+
+	/** Add a listener on the overflows of the mailboxes of the participants.
+	 *
+	 * @param listener - the listener.
+	 */
+	public synchronized void addMailboxOverflowListener(MailboxOverflowListener listener) {
+		if (this.overflowListeners == null) {
+			this.overflowListeners = new ListenerCollection<>();
+		}
+		this.overflowListeners.add(MailboxOverflowListener.class, listener);
+	}
+
+	/** Remove a listener on the overflows of the mailboxes of the participants.
+	 *
+	 * @param listener - the listener.
+	 */
+	public synchronized void removeMailboxOverflowListener(MailboxOverflowListener listener) {
+		if (this.overflowListeners != null) {
+			this.overflowListeners.remove(MailboxOverflowListener.class, listener);
+			if (this.overflowListeners.isEmpty()) {
+				this.overflowListeners = null;
+			}
+		}
+	}
+
+	/** Notify the listeners about the overflow of a mailbox.
+	 *
+	 * @param participant - the identifier of the participant with the full mailbox.
+	 * @param event - the dropped event, or the event that is blocking its emitter.
+	 * @param policy - the applied policy.
+	 */
+	protected void fireMailboxOverflow(UUID participant, Event event, MailboxOverflowPolicy policy) {
+		MailboxOverflowListener[] listeners;
+		synchronized (this) {
+			if (this.overflowListeners == null) {
+				return;
+			}
+			listeners = this.overflowListeners.getListeners(MailboxOverflowListener.class);
+		}
+		for (MailboxOverflowListener listener : listeners) {
+			listener.mailboxOverflow(getID(), participant, event, policy);
+		}
+	}
+
+	/** Replies the number of events that were posted in the full mailboxes
+	 * of the participants of this space.
+	 *
+	 * @return the number of overflows.
+	 */
+	public long getMailboxOverflowCount() {
+		return this.mailboxOverflowCount.get();
 	}
 
 	/**
@@ -146,18 +249,120 @@ public abstract class AbstractEventSpace extends SpaceBase {
 	 * <p>
 	 * This function emits the event <strong>only on the internal
 	 * event bus</strong> of the agents.
+	 * The event is posted in the mailboxes of the receivers; it
+	 * is delivered asynchronously by the executor service.
+	 * If the scope is an {@link AddressSetScope}, the receivers are
+	 * retreived from their addresses, without testing all the participants.
 	 *
 	 * @param event - the event to emit.
 	 * @param scope - description of the scope of the event, i.e. the receivers of the event.
 	 */
 	protected void doEmit(Event event, Scope<? super Address> scope) {
-		synchronized (this.participants) {
-			for (EventListener agent : this.participants.getListeners()) {
-				if (scope.matches(getAddress(agent))) {
-					// TODO Verify the agent is still alive and running
-					this.executorService.submit(new AsyncRunner(agent, event));
+		if (scope instanceof AddressSetScope) {
+			// The receivers are enumerated by the scope: retreive them from their addresses.
+			AddressSetScope addresses = (AddressSetScope) scope;
+			for (int i = 0; i < addresses.size(); ++i) {
+				EventListener listener = this.participants.lookupListener(addresses.getAddress(i));
+				if (listener != null) {
+					post(listener, event);
 				}
 			}
+			return;
+		}
+		// The snapshot is immutable: no need to synchronize on the participants,
+		// and the addresses are not retreived from the distributed map.
+		List<Participant<Address>> snapshot = this.participants.getParticipantSnapshot();
+		for (int i = 0; i < snapshot.size(); ++i) {
+			Participant<Address> participant = snapshot.get(i);
+			if (scope.matches(participant.getAddress())) {
+				// TODO Verify the agent is still alive and running
+				post(participant.getListener(), event);
+			}
+		}
+	}
+
+	/** Register the given participant in this space, and create its mailbox.
+	 * The mailbox is created before the participant becomes visible
+	 * to the emitters.
+	 *
+	 * @param address - the address of the participant.
+	 * @param listener - the participant.
+	 * @return the address of the participant.
+	 */
+	protected Address addParticipant(Address address, EventListener listener) {
+		synchronized (this.participants) {
+			if (this.participants.isRegistered(address, listener)) {
+				// Already registered, e.g. by addParticipants(): keep the mailbox.
+				return address;
+			}
+			this.mailboxes.put(listener.getID(), newMailbox(listener));
+			return this.participants.registerParticipant(address, listener);
+		}
+	}
+
+	/** Register the given participants in this space, and create their mailboxes.
+	 * <p>
+	 * Contrary to a sequence of calls to {@link #addParticipant(Address, EventListener)},
+	 * the participants are made visible to the emitters all at once.
+	 *
+	 * @param participants - the participants, indexed by their addresses.
+	 */
+	protected void addParticipants(Map<Address, EventListener> participants) {
+		synchronized (this.participants) {
+			for (EventListener listener : participants.values()) {
+				this.mailboxes.put(listener.getID(), newMailbox(listener));
+			}
+			this.participants.registerParticipants(participants);
+		}
+	}
+
+	/** Create the mailbox of the given participant.
+	 *
+	 * @param listener - the participant.
+	 * @return the mailbox.
+	 */
+	private EventMailbox newMailbox(EventListener listener) {
+		return new EventMailbox(listener, this.executorService, this.mailboxBatchSize,
+				this.mailboxCapacity, this.mailboxOverflowPolicy, this.mailboxBlockTimeout,
+				this.mailboxOverflowHandler);
+	}
+
+	/** Unregister the given participant from this space, and release its mailbox.
+	 * The events that are already inside the mailbox are still delivered;
+	 * the events that are emitted later are not delivered to the participant.
+	 *
+	 * @param listener - the participant.
+	 * @return the address that was mapped to the participant.
+	 */
+	protected Address removeParticipant(EventListener listener) {
+		synchronized (this.participants) {
+			Address address = this.participants.unregisterParticipant(listener);
+			this.mailboxes.remove(listener.getID());
+			return address;
+		}
+	}
+
+	/** Replies the mailbox of the given participant.
+	 *
+	 * @param listener - the participant.
+	 * @return the mailbox of the participant, or <code>null</code> if the
+	 * participant is not registered in this space.
+	 */
+	EventMailbox getMailbox(EventListener listener) {
+		return this.mailboxes.get(listener.getID());
+	}
+
+	/** Post the event in the mailbox of the given participant.
+	 * The event is discarded if the participant was unregistered
+	 * since the receivers were selected.
+	 *
+	 * @param listener - the participant.
+	 * @param event - the event to post.
+	 */
+	private void post(EventListener listener, Event event) {
+		EventMailbox mailbox = getMailbox(listener);
+		if (mailbox != null) {
+			mailbox.post(event);
 		}
 	}
 
@@ -201,34 +406,26 @@ public abstract class AbstractEventSpace extends SpaceBase {
 		}
 	}
 
-	/**
+	/** Notifier of the overflows of the mailboxes.
+	 *
 	 * @author $Author: sgalland$
 	 * @version $FullVersion$
 	 * @mavengroupid $GroupId$
 	 * @mavenartifactid $ArtifactId$
 	 */
-	private static class AsyncRunner implements Runnable {
-
-		private final EventListener agent;
-		private final Event event;
+	private class MailboxOverflowNotifier implements EventMailbox.OverflowHandler {
 
-		/**
-		 * @param agent
-		 * @param event
+		/** Construct the notifier.
 		 */
-		public AsyncRunner(EventListener agent, Event event) {
-			this.agent = agent;
-			this.event = event;
-		}
-
-		@Override
-		public void run() {
-			this.agent.receiveEvent(this.event);
+		MailboxOverflowNotifier() {
+			//
 		}
 
+		@SuppressWarnings("synthetic-access")
 		@Override
-		public String toString() {
-			return "[agent=" + this.agent + "; event=" + this.event + "]"; //$NON-NLS-1$//$NON-NLS-2$//$NON-NLS-3$
+		public void mailboxOverflow(EventMailbox mailbox, Event event, MailboxOverflowPolicy policy) {
+			AbstractEventSpace.this.mailboxOverflowCount.incrementAndGet();
+			fireMailboxOverflow(mailbox.getListener().getID(), event, policy);
 		}
 
 	}
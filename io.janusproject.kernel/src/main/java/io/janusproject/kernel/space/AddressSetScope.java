@@ -0,0 +1,120 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.space;
+
+import io.sarl.lang.core.Address;
+import io.sarl.lang.core.Scope;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Scope that is matching an explicit set of addresses.
+ * <p>
+ * Contrary to a general {@link Scope}, the receivers of an event
+ * emitted with this scope are enumerated. The event spaces use this
+ * property for retreiving the receivers directly from their addresses,
+ * instead of testing every participant of the space.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public final class AddressSetScope implements Scope<Address> {
+
+	private static final long serialVersionUID = -3478409236187403217L;
+
+	private final Address[] addresses;
+
+	/**
+	 * @param addresses - the addresses that are matched by the scope.
+	 */
+	public AddressSetScope(Address... addresses) {
+		Set<Address> set = new LinkedHashSet<>(Arrays.asList(addresses));
+		set.remove(null);
+		this.addresses = set.toArray(new Address[set.size()]);
+	}
+
+	/** Replies the addresses that are matched by this scope.
+	 *
+	 * @return the addresses, without duplicate.
+	 */
+	public List<Address> getAddresses() {
+		return Collections.unmodifiableList(Arrays.asList(this.addresses));
+	}
+
+	/** Replies the number of addresses that are matched by this scope.
+	 *
+	 * @return the number of addresses.
+	 */
+	public int size() {
+		return this.addresses.length;
+	}
+
+	/** Replies the address at the given index.
+	 *
+	 * @param index - the index of the address.
+	 * @return the address.
+	 */
+	public Address getAddress(int index) {
+		return this.addresses[index];
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean matches(Address element) {
+		for (Address address : this.addresses) {
+			if (address.equals(element)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (obj instanceof AddressSetScope) {
+			return Arrays.equals(this.addresses, ((AddressSetScope) obj).addresses);
+		}
+		return false;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(this.addresses);
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return Arrays.toString(this.addresses);
+	}
+
+}
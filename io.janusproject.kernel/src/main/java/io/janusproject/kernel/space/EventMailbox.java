@@ -0,0 +1,342 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.space;
+
+import io.janusproject.JanusConfig;
+import io.janusproject.services.executor.AffinityTask;
+import io.janusproject.services.executor.ClassifiedTask;
+import io.janusproject.services.executor.ExecutorService;
+import io.janusproject.services.executor.TaskKind;
+import io.sarl.lang.core.Event;
+import io.sarl.lang.core.EventListener;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mailbox of a participant in an event space.
+ * <p>
+ * The mailbox is a lock-free queue with multiple producers (the emitters
+ * of events) and a single consumer (the participant). A draining task is
+ * submitted to the executor service only when the mailbox switches from
+ * empty to non-empty. Each run of the draining task delivers at most
+ * {@link #getBatchSize()} events to the participant, and the task
+ * resubmits itself if events are remaining. The events are delivered
+ * in the order of their arrival in the mailbox.
+ * <p>
+ * The mailbox may be bounded. When an event is posted in a full mailbox,
+ * the {@link MailboxOverflowPolicy overflow policy} of the mailbox is applied,
+ * and the {@link OverflowHandler overflow handler} is notified. With the
+ * {@link MailboxOverflowPolicy#BLOCK} policy, the emitter is blocked at most
+ * during the block timeout, and the threads of the kernel are never blocked.
+ * The capacity
+ * is not strictly enforced: concurrent emitters may exceed it by the number
+ * of emitters.
+ * <p>
+ * The affinity key of the draining task is the identifier of the participant:
+ * the executors that are supporting the task affinity drain the mailbox
+ * of a participant always on the same thread.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+class EventMailbox implements AffinityTask, ClassifiedTask {
+
+	private final Queue<Event> events = new ConcurrentLinkedQueue<>();
+
+	/** Number of events that were posted and not yet delivered.
+	 * The drain task is scheduled when this counter switches from
+	 * zero to one.
+	 */
+	private final AtomicInteger size = new AtomicInteger();
+
+	private final EventListener listener;
+
+	private final ExecutorService executor;
+
+	private final int batchSize;
+
+	private final int capacity;
+
+	private final MailboxOverflowPolicy policy;
+
+	private final long blockTimeout;
+
+	private final OverflowHandler overflowHandler;
+
+	private final AtomicLong overflowCount = new AtomicLong();
+
+	/** Number of emitters that are blocked on the full mailbox.
+	 */
+	private final AtomicInteger waiters = new AtomicInteger();
+
+	private final Object lock = new Object();
+
+	/** Create an unbounded mailbox.
+	 *
+	 * @param listener - the participant that is the consumer of the mailbox.
+	 * @param executor - the executor service that is running the draining task.
+	 * @param batchSize - the maximal number of events delivered at each run of the draining task.
+	 */
+	EventMailbox(EventListener listener, ExecutorService executor, int batchSize) {
+		this(listener, executor, batchSize, 0, JanusConfig.MAILBOX_OVERFLOW_POLICY_VALUE,
+				JanusConfig.MAILBOX_BLOCK_TIMEOUT_VALUE, null);
+	}
+
+	/**
+	 * @param listener - the participant that is the consumer of the mailbox.
+	 * @param executor - the executor service that is running the draining task.
+	 * @param batchSize - the maximal number of events delivered at each run of the draining task.
+	 * @param capacity - the maximal number of events in the mailbox; zero or negative for an unbounded mailbox.
+	 * @param policy - the policy to apply when an event is posted in the full mailbox.
+	 * @param blockTimeout - the maximal time during which the emitter is blocked on the full mailbox
+	 *     with the {@link MailboxOverflowPolicy#BLOCK} policy, in milliseconds.
+	 * @param overflowHandler - the handler notified about the overflows; may be <code>null</code>.
+	 */
+	EventMailbox(EventListener listener, ExecutorService executor, int batchSize,
+			int capacity, MailboxOverflowPolicy policy, long blockTimeout, OverflowHandler overflowHandler) {
+		assert (listener != null);
+		assert (executor != null);
+		assert (policy != null);
+		this.listener = listener;
+		this.executor = executor;
+		this.batchSize = Math.max(1, batchSize);
+		this.capacity = Math.max(0, capacity);
+		this.policy = policy;
+		this.blockTimeout = Math.max(0, blockTimeout);
+		this.overflowHandler = overflowHandler;
+	}
+
+	/** Replies the participant that is the consumer of this mailbox.
+	 *
+	 * @return the participant.
+	 */
+	public EventListener getListener() {
+		return this.listener;
+	}
+
+	/** Replies the maximal number of events that are delivered at each run
+	 * of the draining task.
+	 *
+	 * @return the size of a batch.
+	 */
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public Object getAffinityKey() {
+		return this.listener.getID();
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public TaskKind getTaskKind() {
+		return TaskKind.EVENT_DELIVERY;
+	}
+
+	/** Replies the maximal number of events in the mailbox.
+	 *
+	 * @return the capacity, or zero if the mailbox is unbounded.
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/** Replies the policy that is applied when an event is posted in the full mailbox.
+	 *
+	 * @return the overflow policy.
+	 */
+	public MailboxOverflowPolicy getOverflowPolicy() {
+		return this.policy;
+	}
+
+	/** Replies the number of events that were posted in the full mailbox.
+	 *
+	 * @return the number of overflows.
+	 */
+	public long getOverflowCount() {
+		return this.overflowCount.get();
+	}
+
+	/** Replies the number of events waiting for the delivery.
+	 *
+	 * @return the number of events in the mailbox.
+	 */
+	public int size() {
+		return Math.max(0, this.size.get());
+	}
+
+	/** Post an event in the mailbox, and schedule the draining task
+	 * if the mailbox was empty. If the mailbox is full, the overflow
+	 * policy is applied.
+	 *
+	 * @param event - the event to deliver.
+	 */
+	public void post(Event event) {
+		assert (event != null);
+		if (this.capacity > 0 && this.size.get() >= this.capacity && !overflow(event)) {
+			return;
+		}
+		this.events.add(event);
+		if (this.size.getAndIncrement() == 0) {
+			this.executor.execute(this);
+		}
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public void run() {
+		int count = 0;
+		try {
+			Event event = this.events.poll();
+			while (event != null) {
+				++count;
+				this.listener.receiveEvent(event);
+				event = (count < this.batchSize) ? this.events.poll() : null;
+			}
+		} finally {
+			if (this.size.addAndGet(-count) > 0) {
+				this.executor.execute(this);
+			}
+			if (this.waiters.get() > 0) {
+				synchronized (this.lock) {
+					this.lock.notifyAll();
+				}
+			}
+		}
+	}
+
+	/** Apply the overflow policy for the given event.
+	 *
+	 * @param event - the event posted in the full mailbox.
+	 * @return <code>true</code> if the event must be added in the mailbox by the caller,
+	 *     <code>false</code> if the event was dropped or already added.
+	 */
+	private boolean overflow(Event event) {
+		this.overflowCount.incrementAndGet();
+		switch (this.policy) {
+		case BLOCK:
+			if (this.executor.isKernelThread()) {
+				// The emitter may be the thread that must drain the mailbox.
+				fireOverflow(event, MailboxOverflowPolicy.DROP_NEWEST);
+				return false;
+			}
+			fireOverflow(event, MailboxOverflowPolicy.BLOCK);
+			return awaitFreeSlot();
+		case DROP_OLDEST:
+			// The oldest event is replaced by the new one: the size of the mailbox is unchanged.
+			Event oldest = this.events.poll();
+			if (oldest == null) {
+				// The mailbox was drained in the meantime.
+				return true;
+			}
+			this.events.add(event);
+			fireOverflow(oldest, this.policy);
+			return false;
+		case CONFLATE:
+			for (Event pending : this.events) {
+				// The equality of the events implies the equality of their types.
+				if (pending.getClass() == event.getClass() && this.events.remove(pending)) {
+					this.events.add(event);
+					fireOverflow(pending, this.policy);
+					return false;
+				}
+			}
+			fireOverflow(event, this.policy);
+			return false;
+		case DROP_NEWEST:
+			fireOverflow(event, this.policy);
+			return false;
+		default:
+			throw new IllegalStateException();
+		}
+	}
+
+	private void fireOverflow(Event event, MailboxOverflowPolicy appliedPolicy) {
+		if (this.overflowHandler != null) {
+			this.overflowHandler.mailboxOverflow(this, event, appliedPolicy);
+		}
+	}
+
+	/** Block the current thread until the mailbox is no more full,
+	 * the block timeout has elapsed, or the thread is interrupted.
+	 *
+	 * @return <code>true</code> if the mailbox has a free slot, <code>false</code>
+	 *     if the timeout has elapsed or the thread was interrupted.
+	 */
+	private boolean awaitFreeSlot() {
+		this.waiters.incrementAndGet();
+		try {
+			long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.blockTimeout);
+			synchronized (this.lock) {
+				while (this.size.get() >= this.capacity) {
+					long remaining = end - System.nanoTime();
+					if (remaining <= 0) {
+						return false;
+					}
+					TimeUnit.NANOSECONDS.timedWait(this.lock, remaining);
+				}
+			}
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} finally {
+			this.waiters.decrementAndGet();
+		}
+	}
+
+	/** {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "[agent=" + this.listener + "; mailbox=" + size() + "]"; //$NON-NLS-1$//$NON-NLS-2$//$NON-NLS-3$
+	}
+
+	/** Handler of the overflows of a mailbox.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	interface OverflowHandler {
+
+		/** Invoked when an event is posted in the full mailbox.
+		 *
+		 * @param mailbox - the full mailbox.
+		 * @param event - the dropped event, or the event that is blocking its emitter.
+		 * @param policy - the applied policy.
+		 */
+		void mailboxOverflow(EventMailbox mailbox, Event event, MailboxOverflowPolicy policy);
+
+	}
+
+}
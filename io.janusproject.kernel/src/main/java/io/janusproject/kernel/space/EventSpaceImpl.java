@@ -25,6 +25,10 @@ import io.sarl.lang.core.EventListener;
 import io.sarl.lang.core.SpaceID;
 import io.sarl.util.OpenEventSpace;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Default implementation of an event space.
  *
@@ -50,16 +54,27 @@ public class EventSpaceImpl extends AbstractEventSpace implements OpenEventSpace
 	@Override
 	public Address register(EventListener entity) {
 		Address a = new Address(getID(), entity.getID());
-		synchronized (this.participants) {
-			return this.participants.registerParticipant(a, entity);
+		return addParticipant(a, entity);
+	}
+
+	/** Register the given entities in this space.
+	 * <p>
+	 * The entities become participants all at once. A later call to
+	 * {@link #register(EventListener)} for one of them has no effect.
+	 *
+	 * @param entities - the entities to register.
+	 */
+	public void registerAll(Collection<? extends EventListener> entities) {
+		Map<Address, EventListener> participants = new LinkedHashMap<>();
+		for (EventListener entity : entities) {
+			participants.put(new Address(getID(), entity.getID()), entity);
 		}
+		addParticipants(participants);
 	}
 
 	@Override
 	public Address unregister(EventListener entity) {
-		synchronized (this.participants) {
-			return this.participants.unregisterParticipant(entity);
-		}
+		return removeParticipant(entity);
 	}
 
 }
@@ -0,0 +1,52 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.space;
+
+import io.sarl.lang.core.Event;
+import io.sarl.lang.core.SpaceID;
+
+import java.util.EventListener;
+import java.util.UUID;
+
+/**
+ * Listener on the overflows of the mailboxes of the participants in an event space.
+ * The emitters of events may use this listener for throttling their emissions.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public interface MailboxOverflowListener extends EventListener {
+
+	/** Invoked when an event is posted in the full mailbox of a participant.
+	 * <p>
+	 * This function is invoked in the thread of the emitter.
+	 *
+	 * @param space - the identifier of the space.
+	 * @param participant - the identifier of the participant with the full mailbox.
+	 * @param event - the event that is dropped, or the event that is blocking
+	 *     its emitter with the {@link MailboxOverflowPolicy#BLOCK} policy.
+	 * @param policy - the policy that is applied; it is {@link MailboxOverflowPolicy#DROP_NEWEST}
+	 *     when the event is dropped because its emitter is a thread of the kernel that cannot be blocked.
+	 */
+	void mailboxOverflow(SpaceID space, UUID participant, Event event, MailboxOverflowPolicy policy);
+
+}
@@ -0,0 +1,59 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.space;
+
+/**
+ * Policy that is applied when an event is posted in the full mailbox
+ * of a participant.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @see io.janusproject.JanusConfig#MAILBOX_OVERFLOW_POLICY_NAME
+ */
+public enum MailboxOverflowPolicy {
+
+	/** The emitter of the event is blocked until the mailbox has a free slot.
+	 * The new event is dropped if the emitter is blocked longer than the timeout,
+	 * or if it is interrupted. When the emitter is a thread of the kernel, it is
+	 * never blocked, since it may be the thread that is draining the mailbox:
+	 * the new event is dropped as with {@link #DROP_NEWEST}.
+	 *
+	 * @see io.janusproject.JanusConfig#MAILBOX_BLOCK_TIMEOUT_NAME
+	 */
+	BLOCK,
+
+	/** The oldest event in the mailbox is dropped for giving a slot
+	 * to the new event.
+	 */
+	DROP_OLDEST,
+
+	/** The new event is dropped.
+	 */
+	DROP_NEWEST,
+
+	/** The new event replaces an event of the same type that is waiting
+	 * in the mailbox. If there is no waiting event of the same type,
+	 * the new event is dropped.
+	 */
+	CONFLATE;
+
+}
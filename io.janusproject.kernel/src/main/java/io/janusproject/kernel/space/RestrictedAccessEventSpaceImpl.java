@@ -84,9 +84,7 @@ public class RestrictedAccessEventSpaceImpl extends AbstractEventSpace implement
 	public Address register(EventListener entity, Principal principal) {
 		if (this.acl.checkPermission(principal, this.accessPermission)) {
 			Address a = new Address(getID(), entity.getID());
-			synchronized (this.participants) {
-				return this.participants.registerParticipant(a, entity);
-			}
+			return addParticipant(a, entity);
 		}
 		return null;
 	}
@@ -98,9 +96,7 @@ public class RestrictedAccessEventSpaceImpl extends AbstractEventSpace implement
 
 	@Override
 	public Address unregister(EventListener entity) {
-		synchronized (this.participants) {
-			return this.participants.unregisterParticipant(entity);
-		}
+		return removeParticipant(entity);
 	}
 
 }
@@ -19,10 +19,10 @@
  */
 package io.janusproject.modules;
 
+import io.janusproject.JanusConfig;
 import io.janusproject.kernel.services.arakhne.ArakhneLocaleLogService;
 import io.janusproject.kernel.services.jdk.contextspace.StandardContextSpaceService;
 import io.janusproject.kernel.services.jdk.spawn.StandardSpawnService;
-import io.janusproject.modules.executors.JdkExecutorModule;
 import io.janusproject.modules.kernel.MandatoryKernelModule;
 import io.janusproject.services.contextspace.ContextSpaceService;
 import io.janusproject.services.distributeddata.DistributedDataStructureService;
@@ -34,6 +34,7 @@ import io.janusproject.services.spawn.SpawnService;
 
 import com.google.common.util.concurrent.Service;
 import com.google.inject.AbstractModule;
+import com.google.inject.Module;
 import com.google.inject.Singleton;
 import com.google.inject.multibindings.Multibinder;
 
@@ -42,7 +43,10 @@ import com.google.inject.multibindings.Multibinder;
  * for Janus to run properly.
  * The network-based modules are skipped in this StandardCoreModule.
  * See {@link StandardJanusPlatformModule} for the configuration
- * of the network-based modules
+ * of the network-based modules.
+ * <p>
+ * The module for the executors is retreived from the system
+ * property with the name stored in {@link JanusConfig#EXECUTOR_MODULE_NAME}.
  *
  *
  * @author $Author: srodriguez$
@@ -61,7 +65,7 @@ public class StandardCoreModule extends AbstractModule {
 		bind(ContextSpaceService.class).to(StandardContextSpaceService.class).in(Singleton.class);
 		bind(SpawnService.class).to(StandardSpawnService.class).in(Singleton.class);
 
-		install(new JdkExecutorModule());
+		installExecutorModule();
 
 		// Install the elements for the Janus kernel
 		install(new MandatoryKernelModule());
@@ -86,4 +90,18 @@ public class StandardCoreModule extends AbstractModule {
 		serviceSetBinder.addBinding().to(DistributedDataStructureService.class);
 	}
 
+	/** Install the module that is binding the executors.
+	 */
+	private void installExecutorModule() {
+		Class<? extends Module> executorModule = JanusConfig.getSystemPropertyAsClass(
+				Module.class, JanusConfig.EXECUTOR_MODULE_NAME,
+				JanusConfig.EXECUTOR_MODULE_NAME_VALUE);
+		assert (executorModule != null) : "No executor injection module"; //$NON-NLS-1$
+		try {
+			install(executorModule.newInstance());
+		} catch (InstantiationException | IllegalAccessException e) {
+			addError(e);
+		}
+	}
+
 }
@@ -0,0 +1,98 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.modules.executors;
+
+import io.janusproject.JanusConfig;
+import io.janusproject.kernel.services.jdk.executors.JdkDeterministicScheduledExecutor;
+import io.janusproject.kernel.services.jdk.executors.JdkExecutorService;
+import io.janusproject.kernel.services.jdk.executors.JdkThreadFactory;
+import io.janusproject.kernel.services.jdk.executors.JdkUncaughtExceptionHandler;
+import io.janusproject.services.executor.ExecutorService;
+import io.janusproject.services.executor.PerceptExceptionHandler;
+
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+import com.google.common.eventbus.SubscriberExceptionHandler;
+import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+
+/** Configure the module for the {@code ExecutorService} that runs all the tasks
+ * on a single thread, in a reproducible order.
+ * <p>
+ * The delays are honoured according to a virtual clock. This module is dedicated to
+ * the unit tests and to the benchmarks, for which the runs must be repeatable.
+ * The waiting for the end of the run is done with
+ * {@link ExecutorService#runUntilQuiescent(long, java.util.concurrent.TimeUnit)}.
+ * This module is an alternative to {@link JdkExecutorModule};
+ * it is selected by setting the system property
+ * {@link io.janusproject.JanusConfig#EXECUTOR_MODULE_NAME} to the name of this class.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public class DeterministicExecutorModule extends AbstractModule {
+
+	private final long seed;
+
+	/** Create the module with the seed given by the system property
+	 * {@link JanusConfig#DETERMINISTIC_SEED_NAME}.
+	 */
+	public DeterministicExecutorModule() {
+		this(JanusConfig.getSystemPropertyAsInteger(
+				JanusConfig.DETERMINISTIC_SEED_NAME,
+				JanusConfig.DETERMINISTIC_SEED_VALUE));
+	}
+
+	/**
+	 * @param seed - the seed of the order of the tasks; zero for running the tasks
+	 * in their submission order.
+	 */
+	public DeterministicExecutorModule(long seed) {
+		this.seed = seed;
+	}
+
+	@Override
+	protected void configure() {
+		// Thread catchers
+		bind(SubscriberExceptionHandler.class).to(JdkUncaughtExceptionHandler.class).in(Singleton.class);
+		bind(UncaughtExceptionHandler.class).to(JdkUncaughtExceptionHandler.class).in(Singleton.class);
+		bind(PerceptExceptionHandler.class).to(JdkUncaughtExceptionHandler.class).in(Singleton.class);
+
+		// Bind the background objects; the same executor runs and schedules the tasks.
+		bind(ThreadFactory.class).to(JdkThreadFactory.class).in(Singleton.class);
+		bind(java.util.concurrent.ExecutorService.class).to(JdkDeterministicScheduledExecutor.class).in(Singleton.class);
+		bind(ScheduledExecutorService.class).to(JdkDeterministicScheduledExecutor.class).in(Singleton.class);
+
+		// Bind the service
+		bind(ExecutorService.class).to(JdkExecutorService.class).in(Singleton.class);
+	}
+
+	@Provides
+	@Singleton
+	private JdkDeterministicScheduledExecutor createExecutor(ThreadFactory factory) {
+		return new JdkDeterministicScheduledExecutor(this.seed, factory);
+	}
+
+}
@@ -19,12 +19,15 @@
  */
 package io.janusproject.modules.executors;
 
+import io.janusproject.JanusConfig;
 import io.janusproject.kernel.services.jdk.executors.JdkExecutorService;
 import io.janusproject.kernel.services.jdk.executors.JdkScheduledThreadPoolExecutor;
 import io.janusproject.kernel.services.jdk.executors.JdkThreadFactory;
 import io.janusproject.kernel.services.jdk.executors.JdkThreadPoolExecutor;
+import io.janusproject.kernel.services.jdk.executors.JdkTimingWheelScheduledExecutor;
 import io.janusproject.kernel.services.jdk.executors.JdkUncaughtExceptionHandler;
 import io.janusproject.services.executor.ExecutorService;
+import io.janusproject.services.executor.PerceptExceptionHandler;
 
 import java.lang.Thread.UncaughtExceptionHandler;
 import java.util.concurrent.ScheduledExecutorService;
@@ -49,11 +52,16 @@ public class JdkExecutorModule extends AbstractModule {
 		// Thread catchers
 		bind(SubscriberExceptionHandler.class).to(JdkUncaughtExceptionHandler.class).in(Singleton.class);
 		bind(UncaughtExceptionHandler.class).to(JdkUncaughtExceptionHandler.class).in(Singleton.class);
+		bind(PerceptExceptionHandler.class).to(JdkUncaughtExceptionHandler.class).in(Singleton.class);
 
 		// Bind the background objects
 		bind(ThreadFactory.class).to(JdkThreadFactory.class).in(Singleton.class);
 		bind(java.util.concurrent.ExecutorService.class).to(JdkThreadPoolExecutor.class).in(Singleton.class);
-		bind(ScheduledExecutorService.class).to(JdkScheduledThreadPoolExecutor.class).in(Singleton.class);
+		if (JanusConfig.getSystemPropertyAsBoolean(JanusConfig.TIMING_WHEEL_NAME, JanusConfig.TIMING_WHEEL_VALUE)) {
+			bind(ScheduledExecutorService.class).to(JdkTimingWheelScheduledExecutor.class).in(Singleton.class);
+		} else {
+			bind(ScheduledExecutorService.class).to(JdkScheduledThreadPoolExecutor.class).in(Singleton.class);
+		}
 
 		// Bind the service
 		bind(ExecutorService.class).to(JdkExecutorService.class).in(Singleton.class);
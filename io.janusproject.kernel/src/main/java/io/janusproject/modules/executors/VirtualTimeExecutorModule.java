@@ -0,0 +1,71 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.modules.executors;
+
+import io.janusproject.kernel.services.jdk.executors.JdkExecutorService;
+import io.janusproject.kernel.services.jdk.executors.JdkThreadFactory;
+import io.janusproject.kernel.services.jdk.executors.JdkUncaughtExceptionHandler;
+import io.janusproject.kernel.services.jdk.executors.JdkVirtualTimeScheduledExecutor;
+import io.janusproject.services.executor.ExecutorService;
+import io.janusproject.services.executor.PerceptExceptionHandler;
+
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+import com.google.common.eventbus.SubscriberExceptionHandler;
+import com.google.inject.AbstractModule;
+import com.google.inject.Singleton;
+
+/** Configure the module for the {@code ExecutorService} based on a virtual clock.
+ * <p>
+ * The scheduled tasks are run according to a virtual time, which jumps to the
+ * next due time when no task is running. It is dedicated to the simulations, in
+ * which the delays given to the <code>Schedules</code> capacity are model times.
+ * This module is an alternative to {@link JdkExecutorModule};
+ * it is selected by setting the system property
+ * {@link io.janusproject.JanusConfig#EXECUTOR_MODULE_NAME} to the name of this class.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public class VirtualTimeExecutorModule extends AbstractModule {
+
+	@Override
+	protected void configure() {
+		// Thread catchers
+		bind(SubscriberExceptionHandler.class).to(JdkUncaughtExceptionHandler.class).in(Singleton.class);
+		bind(UncaughtExceptionHandler.class).to(JdkUncaughtExceptionHandler.class).in(Singleton.class);
+		bind(PerceptExceptionHandler.class).to(JdkUncaughtExceptionHandler.class).in(Singleton.class);
+
+		// Bind the background objects; the same executor runs and schedules the tasks,
+		// for observing all the activity of the kernel.
+		bind(ThreadFactory.class).to(JdkThreadFactory.class).in(Singleton.class);
+		bind(JdkVirtualTimeScheduledExecutor.class).in(Singleton.class);
+		bind(java.util.concurrent.ExecutorService.class).to(JdkVirtualTimeScheduledExecutor.class).in(Singleton.class);
+		bind(ScheduledExecutorService.class).to(JdkVirtualTimeScheduledExecutor.class).in(Singleton.class);
+
+		// Bind the service
+		bind(ExecutorService.class).to(JdkExecutorService.class).in(Singleton.class);
+	}
+
+}
@@ -21,12 +21,15 @@ package io.janusproject.modules.kernel;
 
 import io.janusproject.JanusConfig;
 import io.janusproject.kernel.bic.StandardBuiltinCapacitiesProvider;
+import io.janusproject.kernel.bic.internaleventdispatching.AgentInternalEventsDispatcher;
+import io.janusproject.kernel.bic.internaleventdispatching.PerceptHandlerRegistry;
 import io.janusproject.kernel.space.EventSpaceSpecificationImpl;
 import io.janusproject.kernel.space.OpenEventSpaceSpecificationImpl;
 import io.janusproject.kernel.space.RestrictedAccessEventSpaceSpecificationImpl;
 import io.janusproject.services.GoogleServiceManager;
 import io.janusproject.services.IServiceManager;
 import io.janusproject.services.contextspace.ContextSpaceService;
+import io.janusproject.services.executor.PerceptExceptionHandler;
 import io.sarl.lang.core.AgentContext;
 import io.sarl.lang.core.BuiltinCapacitiesProvider;
 import io.sarl.lang.core.EventSpaceSpecification;
@@ -38,8 +41,8 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.logging.Logger;
 
-import com.google.common.eventbus.AsyncSyncEventBus;
-import com.google.common.eventbus.SubscriberExceptionHandler;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.Service;
 import com.google.inject.AbstractModule;
 import com.google.inject.Injector;
@@ -89,14 +92,24 @@ public class MandatoryKernelModule extends AbstractModule {
 	}
 
 	@Provides
-	private static AsyncSyncEventBus createAgentInternalBus(
-			Injector injector,
-			java.util.concurrent.ExecutorService service,
-			SubscriberExceptionHandler exceptionHandler) {
-		AsyncSyncEventBus aeb = new AsyncSyncEventBus(service, exceptionHandler, Percept.class);
-		// to be able to inject the SubscriberFindingStrategy
-		injector.injectMembers(aeb);
-		return aeb;
+	@Singleton
+	private static PerceptHandlerRegistry createPerceptHandlerRegistry(Injector injector) {
+		String blockingTypes = JanusConfig.getSystemProperty(
+				JanusConfig.BLOCKING_TYPES_NAME,
+				JanusConfig.BLOCKING_TYPES_VALUE);
+		PerceptHandlerRegistry registry = new PerceptHandlerRegistry(Percept.class, ImmutableSet.copyOf(
+				Splitter.on(',').trimResults().omitEmptyStrings().split(blockingTypes)));
+		// to be able to inject the PerceptHandlerFindingStrategy
+		injector.injectMembers(registry);
+		return registry;
+	}
+
+	@Provides
+	private static AgentInternalEventsDispatcher createAgentInternalDispatcher(
+			io.janusproject.services.executor.ExecutorService service,
+			PerceptExceptionHandler exceptionHandler,
+			PerceptHandlerRegistry registry) {
+		return new AgentInternalEventsDispatcher(service, service.getBlockingExecutor(), exceptionHandler, registry);
 	}
 
 	@Provides
@@ -0,0 +1,45 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.services.executor;
+
+/**
+ * A task that prefers to be run by the same thread as the other tasks
+ * with the same affinity key.
+ * <p>
+ * The executors that are supporting the affinity of the tasks, e.g.
+ * the event loops, run the tasks with the same key on the same thread
+ * as long as this thread is not overloaded. The other executors
+ * ignore the affinity key.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public interface AffinityTask extends Runnable {
+
+	/** Replies the key that is identifying the tasks to run on the same thread,
+	 * usually the identifier of an agent.
+	 *
+	 * @return the affinity key, or <code>null</code> if the task has no affinity.
+	 */
+	Object getAffinityKey();
+
+}
@@ -22,6 +22,7 @@ package io.janusproject.services.executor;
 import io.janusproject.services.DependentService;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -35,7 +36,7 @@ import java.util.concurrent.TimeUnit;
  * @mavengroupid $GroupId$
  * @mavenartifactid $ArtifactId$
  */
-public interface ExecutorService extends DependentService {
+public interface ExecutorService extends DependentService, Executor {
 
 	/** Replies the JVM executor service used by service.
 	 *
@@ -43,6 +44,18 @@ public interface ExecutorService extends DependentService {
 	 */
 	java.util.concurrent.ExecutorService getExecutorService();
 
+	/** Execute a task in the executor service, without any future.
+	 * <p>
+	 * This function is dedicated to the fire-and-forget tasks: no
+	 * {@link JanusFutureTask} is created, and the exception thrown
+	 * by the task are directly given to the uncaught exception handler
+	 * of the running thread.
+	 *
+	 * @param task - the task to run.
+	 */
+	@Override
+	void execute(Runnable task);
+
 	/** Submit a task to the executor service.
 	 *
 	 * @param task - the task to submit.
@@ -126,8 +139,71 @@ public interface ExecutorService extends DependentService {
 	ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay,
 			long delay, TimeUnit unit);
 
+	/** Replies the executor that is dedicated to the tasks that may block
+	 * their running threads for a long time, e.g. the event handlers that
+	 * are doing I/O.
+	 * <p>
+	 * The tasks given to this executor cannot starve the tasks that are
+	 * given to {@link #execute(Runnable)}. If no dedicated pool is configured,
+	 * the replied executor delegates to {@link #execute(Runnable)}.
+	 *
+	 * @return the executor of the blocking tasks.
+	 * @see io.janusproject.JanusConfig#BLOCKING_THREADS_NAME
+	 */
+	Executor getBlockingExecutor();
+
 	/** Remove any canceled/terminated tasks from the lists of tasks.
 	 */
 	void purge();
 
+	/** Replies the statistics on the execution of the tasks.
+	 *
+	 * @return the statistics.
+	 */
+	ExecutorStatistics getStatistics();
+
+	/** Replies the current time of the clock that is used for scheduling the tasks.
+	 * <p>
+	 * The replied time is the time elapsed since the start of the kernel, whatever
+	 * the clock: with a real-time scheduler, it is measured with the time of the
+	 * system; with a virtual-time scheduler, it is the virtual time.
+	 * It is not a date: it must be used only for computing durations.
+	 *
+	 * @param unit - the unit of the replied time.
+	 * @return the time since the start of the kernel.
+	 */
+	long getTime(TimeUnit unit);
+
+	/** Replies if the tasks are scheduled according to a virtual clock.
+	 *
+	 * @return <code>true</code> if the time is virtual, <code>false</code> if it is
+	 * the time of the system.
+	 */
+	boolean isVirtualTime();
+
+	/** Replies if the current thread is a thread of the kernel, i.e. a thread
+	 * that is running the tasks of the agents and of the services.
+	 * <p>
+	 * A thread of the kernel must not be blocked for waiting the end of another
+	 * task: the other task may need this thread for running.
+	 *
+	 * @return <code>true</code> if the current thread is a thread of the kernel.
+	 */
+	boolean isKernelThread();
+
+	/** Wait until the kernel is quiescent: no task is running or waiting for a thread,
+	 * and no task of the agents is scheduled.
+	 * <p>
+	 * When the tasks are scheduled according to the time of the system
+	 * (see {@link #isVirtualTime()}), the delayed tasks are not considered: the kernel
+	 * is quiescent when no task is running or waiting for a thread.
+	 *
+	 * @param timeout - the maximal real time to wait.
+	 * @param unit - the unit of the timeout.
+	 * @return <code>true</code> if the kernel is quiescent, <code>false</code>
+	 * if the timeout has elapsed.
+	 * @throws InterruptedException - if the waiting thread was interrupted.
+	 */
+	boolean runUntilQuiescent(long timeout, TimeUnit unit) throws InterruptedException;
+
 }
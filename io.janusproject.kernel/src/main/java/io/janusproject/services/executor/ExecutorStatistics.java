@@ -0,0 +1,81 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.services.executor;
+
+/**
+ * Statistics on the execution of the tasks by the {@link ExecutorService}.
+ * <p>
+ * The times are in nanoseconds. The wait time of a task is the duration
+ * between its submission (or its due time for a scheduled task) and the
+ * start of its execution. The run time is the duration of its execution.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public interface ExecutorStatistics {
+
+	/** Replies if the statistics are collected.
+	 *
+	 * @return <code>true</code> if the statistics are collected,
+	 * <code>false</code> if all the values are always zero.
+	 */
+	boolean isEnabled();
+
+	/** Replies the number of threads that are currently running a task.
+	 *
+	 * @return the number of active threads.
+	 */
+	int getActiveThreadCount();
+
+	/** Replies the greatest number of threads that have simultaneously run
+	 * a task since the last reset.
+	 *
+	 * @return the peak number of active threads.
+	 */
+	int getPeakThreadCount();
+
+	/** Replies the number of tasks that are waiting in the queues of the
+	 * executors.
+	 *
+	 * @return the number of pending tasks.
+	 */
+	int getQueueSize();
+
+	/** Replies the histogram of the wait times for the given kind of tasks.
+	 *
+	 * @param kind - the kind of the tasks.
+	 * @return the histogram of the wait times, in nanoseconds.
+	 */
+	LatencyHistogram getWaitTimeHistogram(TaskKind kind);
+
+	/** Replies the histogram of the execution times for the given kind of tasks.
+	 *
+	 * @param kind - the kind of the tasks.
+	 * @return the histogram of the execution times, in nanoseconds.
+	 */
+	LatencyHistogram getRunTimeHistogram(TaskKind kind);
+
+	/** Reset the histograms and the peak number of threads.
+	 */
+	void reset();
+
+}
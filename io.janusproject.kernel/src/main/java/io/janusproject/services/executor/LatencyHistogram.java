@@ -0,0 +1,209 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.services.executor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations that may be updated concurrently without lock.
+ * <p>
+ * The values are counted in buckets with a logarithmic scale: each power of two is
+ * split into {@value #SUB_BUCKET_COUNT} linear sub-buckets. The values that
+ * are replied by the histogram are therefore approximated with a relative
+ * error lower than <code>1/{@value #SUB_BUCKET_COUNT}</code>, whatever the
+ * magnitude of the recorded values. The memory footprint of the histogram is
+ * constant.
+ * <p>
+ * The histogram is not a consistent snapshot: a value that is recorded
+ * concurrently to a read may be partially visible.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public final class LatencyHistogram {
+
+	/** Number of bits that are used for the sub-buckets.
+	 */
+	private static final int SUB_BUCKET_BITS = 3;
+
+	/** Number of linear sub-buckets per power of two.
+	 */
+	public static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+	private static final double PERCENT = 100.;
+
+	private static final double MEDIAN = 50.;
+
+	private static final double HIGH_PERCENTILE = 99.;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+	private final AtomicLong count = new AtomicLong();
+
+	private final AtomicLong total = new AtomicLong();
+
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 */
+	public LatencyHistogram() {
+		//
+	}
+
+	/** Replies the index of the bucket that contains the given value.
+	 *
+	 * @param value - the value, positive or zero.
+	 * @return the index of the bucket.
+	 */
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int exponent = (Long.SIZE - 1) - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		int sub = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+		return (shift + 1) * SUB_BUCKET_COUNT + sub;
+	}
+
+	/** Replies the smallest value that is counted in the given bucket.
+	 *
+	 * @param index - the index of the bucket.
+	 * @return the lowest value of the bucket.
+	 */
+	static long bucketLowestValue(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		long sub = index % SUB_BUCKET_COUNT;
+		return (SUB_BUCKET_COUNT + sub) << shift;
+	}
+
+	/** Replies the greatest value that is counted in the given bucket.
+	 *
+	 * @param index - the index of the bucket.
+	 * @return the highest value of the bucket.
+	 */
+	static long bucketHighestValue(int index) {
+		if (index >= BUCKET_COUNT - 1) {
+			return Long.MAX_VALUE;
+		}
+		return bucketLowestValue(index + 1) - 1;
+	}
+
+	/** Record a value.
+	 *
+	 * @param value - the value to record. A negative value is recorded as zero.
+	 */
+	public void record(long value) {
+		long v = (value < 0) ? 0 : value;
+		this.buckets.incrementAndGet(bucketIndex(v));
+		this.count.incrementAndGet();
+		this.total.addAndGet(v);
+		long m = this.max.get();
+		while (v > m && !this.max.compareAndSet(m, v)) {
+			m = this.max.get();
+		}
+	}
+
+	/** Replies the number of recorded values.
+	 *
+	 * @return the number of values.
+	 */
+	public long getCount() {
+		return this.count.get();
+	}
+
+	/** Replies the sum of the recorded values.
+	 *
+	 * @return the sum of the values.
+	 */
+	public long getTotal() {
+		return this.total.get();
+	}
+
+	/** Replies the greatest recorded value.
+	 *
+	 * @return the greatest value, or zero if no value was recorded.
+	 */
+	public long getMax() {
+		return this.max.get();
+	}
+
+	/** Replies the mean of the recorded values.
+	 *
+	 * @return the mean, or zero if no value was recorded.
+	 */
+	public double getMean() {
+		long n = this.count.get();
+		if (n <= 0) {
+			return 0.;
+		}
+		return ((double) this.total.get()) / n;
+	}
+
+	/** Replies the value under which the given percentage of the recorded values are.
+	 *
+	 * @param percentile - the percentile, between 0 and 100.
+	 * @return the approximated value at the percentile, or zero if no value was recorded.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long n = this.count.get();
+		if (n <= 0) {
+			return 0;
+		}
+		double p = Math.min(Math.max(percentile, 0.), PERCENT);
+		long rank = Math.max(1, (long) Math.ceil(p * n / PERCENT));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; ++i) {
+			seen += this.buckets.get(i);
+			if (seen >= rank) {
+				return Math.min(bucketHighestValue(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/** Remove all the recorded values.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; ++i) {
+			this.buckets.set(i, 0);
+		}
+		this.count.set(0);
+		this.total.set(0);
+		this.max.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return "count=" + getCount() //$NON-NLS-1$
+				+ "; mean=" + getMean() //$NON-NLS-1$
+				+ "; p50=" + getValueAtPercentile(MEDIAN) //$NON-NLS-1$
+				+ "; p99=" + getValueAtPercentile(HIGH_PERCENTILE) //$NON-NLS-1$
+				+ "; max=" + getMax(); //$NON-NLS-1$
+	}
+
+}
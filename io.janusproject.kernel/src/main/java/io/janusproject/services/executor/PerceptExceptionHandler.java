@@ -0,0 +1,42 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.services.executor;
+
+/**
+ * Handler of the exceptions that are thrown by the event handlers
+ * of the agents and of the behaviors.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public interface PerceptExceptionHandler {
+
+	/** Invoked when an event handler has thrown an exception.
+	 *
+	 * @param exception - the exception thrown by the handler.
+	 * @param dispatcher - the dispatcher that has invoked the handler.
+	 * @param event - the event that was given to the handler.
+	 * @param subscriber - the object that owns the handler.
+	 */
+	void handleException(Throwable exception, Object dispatcher, Object event, Object subscriber);
+
+}
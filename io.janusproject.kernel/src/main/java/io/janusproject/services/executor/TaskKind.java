@@ -0,0 +1,72 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.services.executor;
+
+/**
+ * Kind of the tasks that are run by the {@link ExecutorService}.
+ * <p>
+ * The kind of a task is used for classifying the execution statistics.
+ * The tasks are declaring their kind by implementing {@link ClassifiedTask};
+ * the other tasks are considered as {@link #SERVICE_TASK}.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @see ExecutorStatistics
+ */
+public enum TaskKind {
+
+	/** Delivery of events from a space to the mailbox of an agent.
+	 */
+	EVENT_DELIVERY,
+
+	/** Invocation of a behavior unit (<code>on</code> statement) of an agent.
+	 */
+	EVENT_HANDLER,
+
+	/** Handling of an event received from the network.
+	 */
+	NETWORK_RECEIVE,
+
+	/** Task scheduled by an agent with the <code>Schedules</code> capacity.
+	 */
+	SCHEDULED_AGENT_TASK,
+
+	/** Any other task, usually run by a kernel service.
+	 */
+	SERVICE_TASK;
+
+	/** Replies the kind of the given task.
+	 *
+	 * @param task - the task.
+	 * @return the kind of the task, never <code>null</code>.
+	 */
+	public static TaskKind of(Object task) {
+		if (task instanceof ClassifiedTask) {
+			TaskKind kind = ((ClassifiedTask) task).getTaskKind();
+			if (kind != null) {
+				return kind;
+			}
+		}
+		return SERVICE_TASK;
+	}
+
+}
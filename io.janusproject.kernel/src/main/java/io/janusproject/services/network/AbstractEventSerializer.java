@@ -55,4 +55,15 @@ public abstract class AbstractEventSerializer implements EventSerializer {
 		return this.encrypter.encryptUUID(id);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws Exception
+	 */
+	@Override
+	public byte[] serializeSpaceID(UUID id) throws Exception {
+		assert (this.encrypter != null) : "Error in the injection of the encrypter"; //$NON-NLS-1$
+		return this.encrypter.encryptUUID(id);
+	}
+
 }
@@ -63,4 +63,15 @@ public interface EventSerializer {
 	 */
 	byte[] serializeContextID(UUID id) throws Exception;
 
+	/** Serialize the given identifier of space.
+	 * <p>
+	 * The replied bytes are the same as the space identifier in the envelopes
+	 * that are replied by {@link #serialize(EventDispatch)}.
+	 *
+	 * @param id - identifier to serialize.
+	 * @return the byte-representation of the given identifier.
+	 * @throws Exception - if error when serializing
+	 */
+	byte[] serializeSpaceID(UUID id) throws Exception;
+
 }
@@ -65,6 +65,19 @@ public final class NetworkConfig {
 	 */
 	public static final Charset BYTE_ARRAY_STRING_CHARSET_VALUE = Charsets.UTF_8;
 
+	/** Name of the property for the number of the lanes in which the received events
+	 * are deserialized in parallel. The events of a space are always deserialized
+	 * in the same lane, in their reception order.
+	 * @see #RECEPTION_LANES_VALUE
+	 */
+	public static final String RECEPTION_LANES_NAME = "network.reception.lanes"; //$NON-NLS-1$
+
+	/** Indicates the number of the lanes in which the received events are deserialized.
+	 * By default, there is one lane per available processor.
+	 * @see #RECEPTION_LANES_NAME
+	 */
+	public static final int RECEPTION_LANES_VALUE = 0;
+
 	private static Charset currentStringEncoding;
 
 	private NetworkConfig() {
@@ -79,6 +92,7 @@ public final class NetworkConfig {
 		NetworkEventModule.getDefaultValues(defaultValues);
 		defaultValues.put(AES_KEY, ""); //$NON-NLS-1$
 		defaultValues.put(BYTE_ARRAY_STRING_CHARSET_NAME, BYTE_ARRAY_STRING_CHARSET_VALUE.name());
+		defaultValues.put(RECEPTION_LANES_NAME, Integer.toString(RECEPTION_LANES_VALUE));
 	}
 
 	/** Replies the charset that must be used for encoding the strings.
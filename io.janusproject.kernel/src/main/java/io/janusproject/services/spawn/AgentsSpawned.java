@@ -0,0 +1,98 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.services.spawn;
+
+import io.sarl.lang.core.Address;
+import io.sarl.lang.core.Event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/** Janus event that notifies about the creation of a group
+ * of agents of the same type.
+ * <p>
+ * This event is emitted in the default space of the parent context
+ * by {@link SpawnService#spawn(io.sarl.lang.core.AgentContext, int, Class, Object...)}
+ * in place of one <code>AgentSpawned</code> event for each of the created agents.
+ * The source of the event is the address of the first spawned agent.
+ * Each of the spawned agents receives its own <code>AgentSpawned</code>
+ * event when it receives this event.
+ * <p>
+ * The list of the identifiers must not be changed after the event is emitted.
+ *
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+public class AgentsSpawned extends Event {
+
+	private static final long serialVersionUID = -4372953470934817592L;
+
+	/** Identifiers of the spawned agents.
+	 */
+	public List<UUID> agentIDs;
+
+	/** Fully qualified name of the type of the spawned agents.
+	 */
+	public String agentType;
+
+	/** Index of {@link #agentIDs}, lazily built by {@link #contains(UUID)}.
+	 * Because the same event is posted to all the local receivers,
+	 * the index is built once.
+	 */
+	private transient volatile Set<UUID> agentIDSet;
+
+	/**
+	 */
+	public AgentsSpawned() {
+		this.agentIDs = new ArrayList<>();
+	}
+
+	/**
+	 * @param source - address of the first spawned agent.
+	 * @param agentIDs - identifiers of the spawned agents.
+	 * @param agentType - fully qualified name of the type of the spawned agents.
+	 */
+	public AgentsSpawned(Address source, Collection<UUID> agentIDs, String agentType) {
+		setSource(source);
+		this.agentIDs = new ArrayList<>(agentIDs);
+		this.agentType = agentType;
+	}
+
+	/** Replies if the agent with the given identifier is one of the spawned agents.
+	 *
+	 * @param agentID - the identifier of the agent.
+	 * @return <code>true</code> if the agent was spawned, otherwise <code>false</code>.
+	 */
+	public boolean contains(UUID agentID) {
+		Set<UUID> ids = this.agentIDSet;
+		if (ids == null) {
+			ids = new HashSet<>(this.agentIDs);
+			this.agentIDSet = ids;
+		}
+		return ids.contains(agentID);
+	}
+
+}
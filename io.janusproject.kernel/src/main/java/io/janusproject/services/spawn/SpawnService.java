@@ -23,6 +23,7 @@ import io.janusproject.services.DependentService;
 import io.sarl.lang.core.Agent;
 import io.sarl.lang.core.AgentContext;
 
+import java.util.List;
 import java.util.UUID;
 
 import org.arakhne.afc.vmutil.locale.Locale;
@@ -50,6 +51,21 @@ public interface SpawnService extends DependentService {
 	 */
 	UUID spawn(AgentContext parent, UUID agentId, Class<? extends Agent> agentClazz, Object... params);
 
+	/** Spawn a group of agents of the given type, and pass the parameters to
+	 * their initialization functions.
+	 * <p>
+	 * The agents are registered in one batch, and a single {@link AgentsSpawned}
+	 * event is emitted in the default space of the parent context in place of
+	 * one <code>AgentSpawned</code> event for each agent.
+	 *
+	 * @param parent - the parent entity that is creating the agents.
+	 * @param nbAgents - the number of agents to spawn.
+	 * @param agentClazz - the type of the agents to spawn.
+	 * @param params - the list of the parameters to pass to the agent initialization functions.
+	 * @return the identifiers of the agents, never <code>null</code>.
+	 */
+	List<UUID> spawn(AgentContext parent, int nbAgents, Class<? extends Agent> agentClazz, Object... params);
+
 	/** Kill the agent with the given identifier.
 	 *
 	 * @param agentID - the identifier of the agent to kill.
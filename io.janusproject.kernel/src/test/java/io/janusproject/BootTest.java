@@ -1037,6 +1037,17 @@ public class BootTest {
 			assertEquals(defaultID, id);
 		}
 
+		@Test
+		public void defaultContextUUID_deterministic() throws Exception {
+			Boot.setDefaultContextUUID();
+			// The agent is killed by a task scheduled one second after its initialization.
+			runJanusDeterministically(RCAgent.class, false, 0, 10);
+			UUID id = getResult(UUID.class, 0);
+			assertNotNull(id);
+			assertEquals(defaultID, id);
+			assertFalse(this.janusKernel.isRunning());
+		}
+
 		@Test
 		public void bootContextUUID() throws Exception {
 			Boot.setBootAgentTypeContextUUID();
@@ -19,28 +19,38 @@
  */
 package io.janusproject.kernel.bic;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import io.janusproject.kernel.bic.internaleventdispatching.AgentInternalEventsDispatcher;
 import io.janusproject.services.logging.LogService;
+import io.janusproject.services.spawn.AgentsSpawned;
+import io.janusproject.services.spawn.SpawnService;
 import io.janusproject.testutils.AbstractJanusTest;
+import io.sarl.core.AgentSpawned;
 import io.sarl.core.Destroy;
 import io.sarl.core.Initialize;
 import io.sarl.lang.core.Address;
 import io.sarl.lang.core.Agent;
 import io.sarl.lang.core.Event;
 import io.sarl.lang.core.EventListener;
+import io.sarl.lang.core.SpaceID;
+import io.sarl.util.OpenEventSpaceSpecification;
+
+import java.util.Arrays;
+import java.util.UUID;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
+import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.internal.verification.Times;
 
-import com.google.common.eventbus.AsyncSyncEventBus;
-
 /**
  * @author $Author: sgalland$
  * @version $FullVersion$
@@ -51,7 +61,7 @@ import com.google.common.eventbus.AsyncSyncEventBus;
 public class InternalEventBusSkillTest extends AbstractJanusTest {
 
 	@Mock
-	private AsyncSyncEventBus eventBus;
+	private AgentInternalEventsDispatcher eventBus;
 	
 	@Mock
 	private LogService logger;
@@ -62,6 +72,9 @@ public class InternalEventBusSkillTest extends AbstractJanusTest {
 	@Mock
 	private Address innerAddress;
 
+	@Mock
+	private SpawnService spawnService;
+
 	@InjectMocks
 	private InternalEventBusSkill skill;
 	
@@ -140,6 +153,34 @@ public class InternalEventBusSkillTest extends AbstractJanusTest {
 		assertSame(event, argument.getValue());
 	}
 
+	@Test
+	public void selfEvent_other_bufferedUntilInitialized() {
+		Event event1 = Mockito.mock(Event.class);
+		this.skill.selfEvent(event1);
+		Initialize initEvent = Mockito.mock(Initialize.class);
+		this.skill.selfEvent(initEvent);
+		//
+		Event event2 = Mockito.mock(Event.class);
+		this.skill.selfEvent(event2);
+		ArgumentCaptor<Object> argument = ArgumentCaptor.forClass(Object.class);
+		Mockito.verify(this.eventBus, new Times(2)).post(argument.capture());
+		assertSame(event1, argument.getAllValues().get(0));
+		assertSame(event2, argument.getAllValues().get(1));
+	}
+
+	@Test
+	public void selfEvent_other_destroyed() {
+		Initialize initEvent = Mockito.mock(Initialize.class);
+		this.skill.selfEvent(initEvent);
+		Destroy destroyEvent = Mockito.mock(Destroy.class);
+		this.skill.selfEvent(destroyEvent);
+		//
+		Event event = Mockito.mock(Event.class);
+		this.skill.selfEvent(event);
+		Mockito.verify(this.eventBus, new Times(0)).post(Matchers.any());
+		assertSame(InternalEventBusCapacity.OwnerState.DESTROYED, this.skill.getOwnerState());
+	}
+
 	@Test
 	public void selfEvent_initialize() {
 		Initialize event = Mockito.mock(Initialize.class);
@@ -158,4 +199,74 @@ public class InternalEventBusSkillTest extends AbstractJanusTest {
 		assertSame(event, argument.getValue());
 	}
 
+	/** Create the skill for an owner with the given identifier.
+	 *
+	 * @param id - the identifier of the owner.
+	 */
+	private void createSkill(UUID id) {
+		Agent owner = Mockito.mock(Agent.class);
+		Mockito.when(owner.getID()).thenReturn(id);
+		this.skill = new InternalEventBusSkill(owner, this.innerAddress);
+		// Inject the mocks in the fields of the created skill.
+		MockitoAnnotations.initMocks(this);
+	}
+
+	@Test
+	public void receiveEvent_agentsSpawned_ownNotification() {
+		UUID id = UUID.randomUUID();
+		createSkill(id);
+		Initialize initEvent = Mockito.mock(Initialize.class);
+		this.skill.selfEvent(initEvent);
+		//
+		SpaceID spaceID = new SpaceID(UUID.randomUUID(), UUID.randomUUID(), OpenEventSpaceSpecification.class);
+		AgentsSpawned event = new AgentsSpawned(new Address(spaceID, UUID.randomUUID()),
+				Arrays.asList(UUID.randomUUID(), id), "type"); //$NON-NLS-1$
+		this.skill.asEventListener().receiveEvent(event);
+		//
+		ArgumentCaptor<Object> argument = ArgumentCaptor.forClass(Object.class);
+		Mockito.verify(this.eventBus, new Times(2)).post(argument.capture());
+		assertTrue(argument.getAllValues().get(0) instanceof AgentSpawned);
+		AgentSpawned ownEvent = (AgentSpawned) argument.getAllValues().get(0);
+		assertEquals(id, ownEvent.agentID);
+		assertEquals("type", ownEvent.agentType); //$NON-NLS-1$
+		assertEquals(new Address(spaceID, id), ownEvent.getSource());
+		assertSame(event, argument.getAllValues().get(1));
+	}
+
+	@Test
+	public void receiveEvent_agentsSpawned_killedInInitialize() throws Exception {
+		UUID id = UUID.randomUUID();
+		createSkill(id);
+		// killMe() is invoked by the handler of the Initialize event.
+		this.skill.selfEvent(new AsynchronousAgentKillingEvent());
+		Initialize initEvent = Mockito.mock(Initialize.class);
+		this.skill.selfEvent(initEvent);
+		Mockito.verifyZeroInteractions(this.spawnService);
+		//
+		SpaceID spaceID = new SpaceID(UUID.randomUUID(), UUID.randomUUID(), OpenEventSpaceSpecification.class);
+		AgentsSpawned event = new AgentsSpawned(new Address(spaceID, UUID.randomUUID()),
+				Arrays.asList(UUID.randomUUID(), id), "type"); //$NON-NLS-1$
+		this.skill.asEventListener().receiveEvent(event);
+		//
+		Mockito.verify(this.spawnService, new Times(1)).killAgent(id);
+		Mockito.verify(this.eventBus, new Times(0)).post(Matchers.any());
+	}
+
+	@Test
+	public void receiveEvent_agentsSpawned_otherAgents() {
+		UUID id = UUID.randomUUID();
+		createSkill(id);
+		Initialize initEvent = Mockito.mock(Initialize.class);
+		this.skill.selfEvent(initEvent);
+		//
+		SpaceID spaceID = new SpaceID(UUID.randomUUID(), UUID.randomUUID(), OpenEventSpaceSpecification.class);
+		AgentsSpawned event = new AgentsSpawned(new Address(spaceID, UUID.randomUUID()),
+				Arrays.asList(UUID.randomUUID(), UUID.randomUUID()), "type"); //$NON-NLS-1$
+		this.skill.asEventListener().receiveEvent(event);
+		//
+		ArgumentCaptor<Object> argument = ArgumentCaptor.forClass(Object.class);
+		Mockito.verify(this.eventBus, new Times(1)).post(argument.capture());
+		assertSame(event, argument.getValue());
+	}
+
 }
@@ -198,6 +198,52 @@ public class SchedulesSkillTest extends AbstractJanusTest {
 		assertSame(TimeUnit.MILLISECONDS, argument4.getValue());
 	}
 
+	@Test
+	public void everyAgentTaskLongPolicyProcedure1_fixedRate() {
+		AgentTask task = this.skill.task("thetask"); //$NON-NLS-1$
+		Procedure1 procedure = Mockito.mock(Procedure1.class);
+		AgentTask t = this.skill.every(task, 5, PeriodicTaskPolicy.FIXED_RATE, procedure);
+		assertSame(task, t);
+		Mockito.verify(this.executorService, new Times(1)).scheduleAtFixedRate(
+				Matchers.any(Runnable.class), Matchers.eq(0L), Matchers.eq(5L), Matchers.eq(TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void everyAgentTaskLongPolicyProcedure1_fixedDelay() {
+		AgentTask task = this.skill.task("thetask"); //$NON-NLS-1$
+		Procedure1 procedure = Mockito.mock(Procedure1.class);
+		AgentTask t = this.skill.every(task, 5, PeriodicTaskPolicy.FIXED_DELAY, procedure);
+		assertSame(task, t);
+		Mockito.verify(this.executorService, new Times(1)).scheduleWithFixedDelay(
+				Matchers.any(Runnable.class), Matchers.eq(0L), Matchers.eq(5L), Matchers.eq(TimeUnit.MILLISECONDS));
+		Mockito.verify(this.executorService, new Times(0)).scheduleAtFixedRate(
+				Matchers.any(Runnable.class), Matchers.anyLong(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
+	}
+
+	@Test
+	public void everyAgentTaskLongPolicyProcedure1_skip() {
+		AgentTask task = this.skill.task("thetask"); //$NON-NLS-1$
+		Procedure1 procedure = Mockito.mock(Procedure1.class);
+		this.skill.every(task, 5, PeriodicTaskPolicy.SKIP, procedure);
+		ArgumentCaptor<Runnable> argument = ArgumentCaptor.forClass(Runnable.class);
+		Mockito.verify(this.executorService, new Times(1)).scheduleAtFixedRate(
+				argument.capture(), Matchers.anyLong(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
+		Runnable runner = argument.getValue();
+		// The first run lasts 25ms; the executor runs the missed ticks immediately.
+		Mockito.when(this.executorService.getTime(TimeUnit.MILLISECONDS)).thenReturn(0L, 25L, 25L, 25L, 25L, 26L);
+		for (int i = 0; i < 6; ++i) {
+			runner.run();
+		}
+		Mockito.verify(procedure, new Times(2)).apply(this.agent);
+		assertEquals(4, this.skill.getSkippedTicks(task));
+	}
+
+	@Test
+	public void getSkippedTicks_unknownTask() {
+		assertEquals(0, this.skill.getSkippedTicks(this.skill.task("thetask"))); //$NON-NLS-1$
+		assertEquals(0, this.skill.getSkippedTicks(null));
+	}
+
 	@Test
 	public void uninstall() {
 		Procedure1 procedure1 = Mockito.mock(Procedure1.class);
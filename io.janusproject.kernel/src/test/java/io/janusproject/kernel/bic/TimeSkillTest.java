@@ -0,0 +1,89 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.bic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import io.janusproject.services.executor.ExecutorService;
+import io.janusproject.testutils.AbstractJanusTest;
+import io.sarl.lang.core.Agent;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class TimeSkillTest extends AbstractJanusTest {
+
+	@Mock
+	private ExecutorService executorService;
+
+	@Mock
+	private Agent agent;
+
+	@InjectMocks
+	private TimeSkill skill;
+
+	@Before
+	public void setUp() throws Exception {
+		MockitoAnnotations.initMocks(this);
+		Mockito.when(this.executorService.getTime(Matchers.any(TimeUnit.class))).thenAnswer(
+				new Answer<Long>() {
+					@Override
+					public Long answer(InvocationOnMock invocation) throws Throwable {
+						return ((TimeUnit) invocation.getArguments()[0]).convert(123456, TimeUnit.MILLISECONDS);
+					}
+				});
+	}
+
+	@Test
+	public void getTime() {
+		assertEquals(123456, this.skill.getTime());
+	}
+
+	@Test
+	public void getTimeTimeUnit() {
+		assertEquals(123, this.skill.getTime(TimeUnit.SECONDS));
+		assertEquals(123456000, this.skill.getTime(TimeUnit.MICROSECONDS));
+	}
+
+	@Test
+	public void isVirtualTime() {
+		assertFalse(this.skill.isVirtualTime());
+		Mockito.when(this.executorService.isVirtualTime()).thenReturn(true);
+		assertTrue(this.skill.isVirtualTime());
+	}
+
+}
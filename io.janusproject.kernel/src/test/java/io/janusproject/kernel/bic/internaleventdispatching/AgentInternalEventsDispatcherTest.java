@@ -0,0 +1,298 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.bic.internaleventdispatching;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import io.janusproject.kernel.annotations.Blocking;
+import io.janusproject.services.executor.PerceptExceptionHandler;
+import io.janusproject.testutils.AbstractJanusTest;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.internal.verification.Times;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.DeadEvent;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class AgentInternalEventsDispatcherTest extends AbstractJanusTest {
+
+	@Nullable
+	private Executor executor;
+
+	@Nullable
+	private PerceptExceptionHandler exceptionHandler;
+
+	@Nullable
+	private AgentInternalEventsDispatcher dispatcher;
+
+	@Nullable
+	private Subscriber subscriber;
+
+	@Before
+	public void setUp() {
+		this.executor = Mockito.mock(Executor.class);
+		this.exceptionHandler = Mockito.mock(PerceptExceptionHandler.class);
+		this.dispatcher = new AgentInternalEventsDispatcher(this.executor, this.exceptionHandler, Handler.class);
+		this.subscriber = new Subscriber();
+	}
+
+	@Test
+	public void register() {
+		this.dispatcher.register(this.subscriber);
+		this.dispatcher.register(this.subscriber);
+		assertEquals(1, this.dispatcher.getSubscribers().size());
+		assertSame(this.subscriber, this.dispatcher.getSubscribers().get(0));
+	}
+
+	@Test
+	public void unregister() {
+		this.dispatcher.register(this.subscriber);
+		this.dispatcher.unregister(this.subscriber);
+		assertTrue(this.dispatcher.getSubscribers().isEmpty());
+		this.dispatcher.fire(1);
+		assertTrue(this.subscriber.events.isEmpty());
+	}
+
+	@Test
+	public void fire() {
+		this.dispatcher.register(this.subscriber);
+		this.dispatcher.fire(1);
+		assertEquals(2, this.subscriber.events.size());
+		assertContains(this.subscriber.events, "integer:1", "number:1");
+		Mockito.verifyZeroInteractions(this.executor);
+	}
+
+	@Test
+	public void fire_deadEvent() {
+		this.dispatcher.register(this.subscriber);
+		this.dispatcher.fire("a"); //$NON-NLS-1$
+		assertEquals(1, this.subscriber.events.size());
+		assertEquals("dead:a", this.subscriber.events.get(0)); //$NON-NLS-1$
+	}
+
+	@Test
+	public void fire_exception() {
+		this.dispatcher.register(this.subscriber);
+		this.dispatcher.fire(Boolean.TRUE);
+		ArgumentCaptor<Throwable> argument = ArgumentCaptor.forClass(Throwable.class);
+		Mockito.verify(this.exceptionHandler).handleException(argument.capture(),
+				Matchers.same(this.dispatcher), Matchers.same(Boolean.TRUE), Matchers.same(this.subscriber));
+		assertTrue(argument.getValue() instanceof IllegalStateException);
+	}
+
+	@Test
+	public void post() {
+		this.dispatcher.register(this.subscriber);
+		this.dispatcher.post(1);
+		assertTrue(this.subscriber.events.isEmpty());
+		ArgumentCaptor<Runnable> argument = ArgumentCaptor.forClass(Runnable.class);
+		Mockito.verify(this.executor, new Times(2)).execute(argument.capture());
+		for (Runnable runnable : argument.getAllValues()) {
+			runnable.run();
+		}
+		assertEquals(2, this.subscriber.events.size());
+		assertContains(this.subscriber.events, "integer:1", "number:1");
+	}
+
+	@Test
+	public void post_blockingHandler() {
+		Executor blockingExecutor = Mockito.mock(Executor.class);
+		this.dispatcher = new AgentInternalEventsDispatcher(this.executor, blockingExecutor, this.exceptionHandler,
+				new PerceptHandlerRegistry(Handler.class));
+		BlockingSubscriber blockingSubscriber = new BlockingSubscriber();
+		this.dispatcher.register(blockingSubscriber);
+		this.dispatcher.post(1);
+		ArgumentCaptor<Runnable> argument = ArgumentCaptor.forClass(Runnable.class);
+		Mockito.verify(blockingExecutor, new Times(1)).execute(argument.capture());
+		argument.getValue().run();
+		assertContains(blockingSubscriber.events, "blocking:1"); //$NON-NLS-1$
+		argument = ArgumentCaptor.forClass(Runnable.class);
+		Mockito.verify(this.executor, new Times(1)).execute(argument.capture());
+		argument.getValue().run();
+		assertContains(blockingSubscriber.events, "blocking:1", "number:1"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void post_blockingEventType() {
+		Executor blockingExecutor = Mockito.mock(Executor.class);
+		this.dispatcher = new AgentInternalEventsDispatcher(this.executor, blockingExecutor, this.exceptionHandler,
+				new PerceptHandlerRegistry(Handler.class, Collections.singleton(Integer.class.getName())));
+		this.dispatcher.register(this.subscriber);
+		this.dispatcher.post(1);
+		Mockito.verifyZeroInteractions(this.executor);
+		Mockito.verify(blockingExecutor, new Times(2)).execute(Matchers.any(Runnable.class));
+		//
+		this.dispatcher.post(1.);
+		Mockito.verify(this.executor, new Times(1)).execute(Matchers.any(Runnable.class));
+	}
+
+	@Test
+	public void post_serializedHandler() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			this.dispatcher = new AgentInternalEventsDispatcher(pool, this.exceptionHandler, Handler.class);
+			SerialSubscriber serialSubscriber = new SerialSubscriber();
+			this.dispatcher.register(serialSubscriber);
+			for (int i = 0; i < 8; ++i) {
+				this.dispatcher.post(i);
+			}
+			pool.shutdown();
+			assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+			assertEquals(8, serialSubscriber.count.get());
+			assertEquals(1, serialSubscriber.maxActive.get());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	public void post_concurrentHandler() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			this.dispatcher = new AgentInternalEventsDispatcher(pool, this.exceptionHandler, Handler.class);
+			ConcurrentSubscriber concurrentSubscriber = new ConcurrentSubscriber();
+			this.dispatcher.register(concurrentSubscriber);
+			// The two invocations meet on the barrier only if they are run concurrently.
+			this.dispatcher.post(1);
+			this.dispatcher.post(2);
+			pool.shutdown();
+			assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+			assertEquals(2, concurrentSubscriber.count.get());
+			Mockito.verifyZeroInteractions(this.exceptionHandler);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.METHOD)
+	public static @interface Handler {
+		//
+	}
+
+	public static class BlockingSubscriber {
+
+		public final List<Object> events = new ArrayList<>();
+
+		@Handler
+		@Blocking
+		public void onInteger(Integer event) {
+			this.events.add("blocking:" + event);
+		}
+
+		@Handler
+		public void onNumber(Number event) {
+			this.events.add("number:" + event);
+		}
+
+	}
+
+	public static class SerialSubscriber {
+
+		public final AtomicInteger active = new AtomicInteger();
+
+		public final AtomicInteger maxActive = new AtomicInteger();
+
+		public final AtomicInteger count = new AtomicInteger();
+
+		@Handler
+		public void onInteger(Integer event) throws InterruptedException {
+			int n = this.active.incrementAndGet();
+			int max = this.maxActive.get();
+			while (n > max && !this.maxActive.compareAndSet(max, n)) {
+				max = this.maxActive.get();
+			}
+			Thread.sleep(10);
+			this.count.incrementAndGet();
+			this.active.decrementAndGet();
+		}
+
+	}
+
+	public static class ConcurrentSubscriber {
+
+		public final CyclicBarrier barrier = new CyclicBarrier(2);
+
+		public final AtomicInteger count = new AtomicInteger();
+
+		@Handler
+		@AllowConcurrentEvents
+		public void onInteger(Integer event) throws Exception {
+			this.barrier.await(5, TimeUnit.SECONDS);
+			this.count.incrementAndGet();
+		}
+
+	}
+
+	public static class Subscriber {
+
+		public final List<Object> events = new ArrayList<>();
+
+		@Handler
+		public void onInteger(Integer event) {
+			this.events.add("integer:" + event);
+		}
+
+		@Handler
+		public void onNumber(Number event) {
+			this.events.add("number:" + event);
+		}
+
+		@Handler
+		public void onBoolean(Boolean event) {
+			throw new IllegalStateException();
+		}
+
+		@Handler
+		public void onDeadEvent(DeadEvent event) {
+			this.events.add("dead:" + event.getEvent());
+		}
+
+	}
+
+}
@@ -0,0 +1,165 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.bic.internaleventdispatching;
+
+import static org.junit.Assert.assertEquals;
+import io.janusproject.testutils.AbstractJanusTest;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class AnnotatedPerceptHandlerFindingStrategyTest extends AbstractJanusTest {
+
+	@Nullable
+	private AnnotatedPerceptHandlerFindingStrategy strategy;
+
+	@Before
+	public void setUp() {
+		this.strategy = new AnnotatedPerceptHandlerFindingStrategy();
+	}
+
+	private static List<String> names(Collection<Method> methods) {
+		List<String> names = new ArrayList<>();
+		for (Method method : methods) {
+			names.add(method.getDeclaringClass().getSimpleName() + "." + method.getName()); //$NON-NLS-1$
+		}
+		return names;
+	}
+
+	@Test
+	public void findHandlers_visibility() {
+		Collection<Method> handlers = this.strategy.findHandlers(Subscriber.class, Handler.class);
+		assertContains(names(handlers),
+				"Subscriber.onPublic", //$NON-NLS-1$
+				"Subscriber.onProtected", //$NON-NLS-1$
+				"Subscriber.onPackage", //$NON-NLS-1$
+				"Subscriber.onPrivate"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void findHandlers_overridden() {
+		Collection<Method> handlers = this.strategy.findHandlers(SubSubscriber.class, Handler.class);
+		assertContains(names(handlers),
+				"SubSubscriber.onPublic", //$NON-NLS-1$
+				"SubSubscriber.onProtected", //$NON-NLS-1$
+				"SubSubscriber.onPrivate", //$NON-NLS-1$
+				"Subscriber.onPackage", //$NON-NLS-1$
+				"Subscriber.onPrivate"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void invoke_nonPublic() throws Throwable {
+		PerceptHandlerTable table = new PerceptHandlerTable(SubSubscriber.class, Handler.class);
+		PerceptHandler[] handlers = table.getHandlers(Integer.class);
+		assertEquals(5, handlers.length);
+		SubSubscriber subscriber = new SubSubscriber();
+		for (PerceptHandler handler : handlers) {
+			handler.invoke(subscriber, 1);
+		}
+		assertContains(subscriber.events,
+				"sub-public:1", //$NON-NLS-1$
+				"sub-protected:1", //$NON-NLS-1$
+				"sub-private:1", //$NON-NLS-1$
+				"package:1", //$NON-NLS-1$
+				"private:1"); //$NON-NLS-1$
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.METHOD)
+	public static @interface Handler {
+		//
+	}
+
+	public static class Subscriber {
+
+		public final List<Object> events = new ArrayList<>();
+
+		@Handler
+		public void onPublic(Integer event) {
+			this.events.add("public:" + event);
+		}
+
+		@Handler
+		protected void onProtected(Integer event) {
+			this.events.add("protected:" + event);
+		}
+
+		@Handler
+		void onPackage(Integer event) {
+			this.events.add("package:" + event);
+		}
+
+		@Handler
+		private void onPrivate(Integer event) {
+			this.events.add("private:" + event);
+		}
+
+		@Handler
+		public static void onStatic(Integer event) {
+			//
+		}
+
+		@Handler
+		public void onTwoParameters(Integer event, Integer other) {
+			//
+		}
+
+	}
+
+	public static class SubSubscriber extends Subscriber {
+
+		@Handler
+		@Override
+		public void onPublic(Integer event) {
+			this.events.add("sub-public:" + event);
+		}
+
+		@Handler
+		@Override
+		protected void onProtected(Integer event) {
+			this.events.add("sub-protected:" + event);
+		}
+
+		@Handler
+		private void onPrivate(Integer event) {
+			this.events.add("sub-private:" + event);
+		}
+
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.bic.internaleventdispatching;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import io.janusproject.kernel.annotations.Blocking;
+import io.janusproject.kernel.bic.internaleventdispatching.PerceptHandlerTableTest.Handler;
+import io.janusproject.kernel.bic.internaleventdispatching.PerceptHandlerTableTest.SubSubscriber;
+import io.janusproject.kernel.bic.internaleventdispatching.PerceptHandlerTableTest.Subscriber;
+import io.janusproject.services.executor.PerceptExceptionHandler;
+import io.janusproject.testutils.AbstractJanusTest;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nullable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class PerceptHandlerRegistryTest extends AbstractJanusTest {
+
+	@Nullable
+	private PerceptHandlerRegistry registry;
+
+	@Before
+	public void setUp() {
+		this.registry = new PerceptHandlerRegistry(Handler.class);
+	}
+
+	@Test
+	public void getAnnotation() {
+		assertSame(Handler.class, this.registry.getAnnotation());
+	}
+
+	@Test
+	public void getHandlerTable() {
+		PerceptHandlerTable table = this.registry.getHandlerTable(Subscriber.class);
+		assertSame(Subscriber.class, table.getSubscriberType());
+		assertEquals(2, table.getHandlers(Integer.class).length);
+		assertSame(table, this.registry.getHandlerTable(Subscriber.class));
+		assertNotSame(table, this.registry.getHandlerTable(SubSubscriber.class));
+	}
+
+	@Test
+	public void isBlockingType_annotation() {
+		assertFalse(this.registry.isBlockingType(Subscriber.class));
+		assertTrue(this.registry.isBlockingType(BlockingSubscriber.class));
+		assertTrue(this.registry.isBlockingType(SubBlockingSubscriber.class));
+	}
+
+	@Test
+	public void isBlockingType_names() {
+		this.registry = new PerceptHandlerRegistry(Handler.class,
+				Arrays.asList(Subscriber.class.getName(), CharSequence.class.getName()));
+		assertTrue(this.registry.isBlockingType(Subscriber.class));
+		assertTrue(this.registry.isBlockingType(SubSubscriber.class));
+		assertTrue(this.registry.isBlockingType(String.class));
+		assertFalse(this.registry.isBlockingType(Integer.class));
+		assertTrue(this.registry.isBlockingType(BlockingSubscriber.class));
+	}
+
+	@Test
+	public void getHandlerTable_blockingSubscriber() {
+		PerceptHandler[] handlers = this.registry.getHandlerTable(BlockingSubscriber.class).getHandlers(Integer.class);
+		assertEquals(2, handlers.length);
+		for (PerceptHandler handler : handlers) {
+			assertTrue(handler.isBlocking());
+		}
+		for (PerceptHandler handler : this.registry.getHandlerTable(Subscriber.class).getHandlers(Integer.class)) {
+			assertFalse(handler.isBlocking());
+		}
+	}
+
+	@Test
+	public void setFindingStrategy() throws Exception {
+		PerceptHandlerFindingStrategy strategy = Mockito.mock(PerceptHandlerFindingStrategy.class);
+		Method method = Subscriber.class.getMethod("onInteger", Integer.class); //$NON-NLS-1$
+		Mockito.when(strategy.findHandlers(Subscriber.class, Handler.class)).thenReturn(
+				Collections.singletonList(method));
+		assertTrue(this.registry.getFindingStrategy() instanceof AnnotatedPerceptHandlerFindingStrategy);
+		this.registry.setFindingStrategy(strategy);
+		assertSame(strategy, this.registry.getFindingStrategy());
+		PerceptHandler[] handlers = this.registry.getHandlerTable(Subscriber.class).getHandlers(Integer.class);
+		assertEquals(1, handlers.length);
+		assertEquals(method, handlers[0].getMethod());
+	}
+
+	@Test
+	public void sharedByDispatchers() {
+		Executor executor = Mockito.mock(Executor.class);
+		PerceptExceptionHandler handler = Mockito.mock(PerceptExceptionHandler.class);
+		AgentInternalEventsDispatcher d1 = new AgentInternalEventsDispatcher(executor, handler, this.registry);
+		AgentInternalEventsDispatcher d2 = new AgentInternalEventsDispatcher(executor, handler, this.registry);
+		assertSame(this.registry, d1.getRegistry());
+		assertSame(d1.getHandlerTable(Subscriber.class), d2.getHandlerTable(Subscriber.class));
+	}
+
+	@Blocking
+	public static class BlockingSubscriber extends Subscriber {
+		//
+	}
+
+	public static class SubBlockingSubscriber extends BlockingSubscriber {
+		//
+	}
+
+}
@@ -0,0 +1,151 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.bic.internaleventdispatching;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import io.janusproject.testutils.AbstractJanusTest;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class PerceptHandlerTableTest extends AbstractJanusTest {
+
+	@Test
+	public void isEmpty() {
+		assertTrue(new PerceptHandlerTable(Object.class, Handler.class).isEmpty());
+		assertFalse(new PerceptHandlerTable(Subscriber.class, Handler.class).isEmpty());
+	}
+
+	@Test
+	public void getSubscriberType() {
+		assertSame(Subscriber.class, new PerceptHandlerTable(Subscriber.class, Handler.class).getSubscriberType());
+	}
+
+	@Test
+	public void getHandlers_exactType() {
+		PerceptHandlerTable table = new PerceptHandlerTable(Subscriber.class, Handler.class);
+		PerceptHandler[] handlers = table.getHandlers(Integer.class);
+		assertEquals(2, handlers.length);
+		List<String> names = new ArrayList<>();
+		for (PerceptHandler handler : handlers) {
+			names.add(handler.getMethod().getName());
+		}
+		assertContains(names, "onInteger", "onNumber");
+		assertSame(handlers, table.getHandlers(Integer.class));
+	}
+
+	@Test
+	public void getHandlers_superType() {
+		PerceptHandlerTable table = new PerceptHandlerTable(Subscriber.class, Handler.class);
+		PerceptHandler[] handlers = table.getHandlers(Double.class);
+		assertEquals(1, handlers.length);
+		assertEquals("onNumber", handlers[0].getMethod().getName());
+		assertEquals(0, table.getHandlers(String.class).length);
+	}
+
+	@Test
+	public void getHandlers_inherited() throws Throwable {
+		PerceptHandlerTable table = new PerceptHandlerTable(SubSubscriber.class, Handler.class);
+		assertEquals(2, table.getHandlers(Integer.class).length);
+		PerceptHandler[] handlers = table.getHandlers(Double.class);
+		assertEquals(1, handlers.length);
+		SubSubscriber subscriber = new SubSubscriber();
+		handlers[0].invoke(subscriber, 1.);
+		assertContains(subscriber.events, "sub:1.0");
+	}
+
+	@Test
+	public void isConcurrent() {
+		PerceptHandlerTable table = new PerceptHandlerTable(ConcurrentSubscriber.class, Handler.class);
+		assertEquals(2, table.size());
+		for (PerceptHandler handler : table.getHandlers(Integer.class)) {
+			assertEquals(handler.getMethod().getName().equals("onInteger"), handler.isConcurrent()); //$NON-NLS-1$
+		}
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.METHOD)
+	public static @interface Handler {
+		//
+	}
+
+	public static class Subscriber {
+
+		public final List<Object> events = new ArrayList<>();
+
+		@Handler
+		public void onInteger(Integer event) {
+			this.events.add("integer:" + event);
+		}
+
+		@Handler
+		public void onNumber(Number event) {
+			this.events.add("number:" + event);
+		}
+
+		public void notAHandler(Number event) {
+			this.events.add("none:" + event);
+		}
+
+	}
+
+	public static class ConcurrentSubscriber {
+
+		@Handler
+		@AllowConcurrentEvents
+		public void onInteger(Integer event) {
+			//
+		}
+
+		@Handler
+		public void onNumber(Number event) {
+			//
+		}
+
+	}
+
+	public static class SubSubscriber extends Subscriber {
+
+		@Override
+		public void onNumber(Number event) {
+			this.events.add("sub:" + event);
+		}
+
+	}
+
+}
@@ -25,10 +25,12 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import io.janusproject.kernel.repository.ParticipantRepository.Participant;
 import io.janusproject.testutils.AbstractJanusTest;
 import io.sarl.lang.core.EventListener;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -214,5 +216,54 @@ public class ParticipantRepositoryTest extends AbstractJanusTest {
 		assertFalse(list.isEmpty());
 		assertEquals(5, list.size());
 	}
-	
+
+	@Test
+	public void getParticipantSnapshot() {
+		List<Participant<String>> snapshot = this.repository.getParticipantSnapshot();
+		assertNotNull(snapshot);
+		assertTrue(snapshot.isEmpty());
+		//
+		addListenerMocks();
+		//
+		List<Participant<String>> snapshot2 = this.repository.getParticipantSnapshot();
+		assertTrue(snapshot.isEmpty());
+		assertEquals(5, snapshot2.size());
+		int i = 0;
+		for(Entry<String,EventListener> entry : this.listeners.entrySet()) {
+			assertEquals(entry.getKey(), snapshot2.get(i).getAddress());
+			assertSame(entry.getValue(), snapshot2.get(i).getListener());
+			++i;
+		}
+		assertSame(snapshot2, this.repository.getParticipantSnapshot());
+		//
+		this.repository.removeListener("c"); //$NON-NLS-1$
+		List<Participant<String>> snapshot3 = this.repository.getParticipantSnapshot();
+		assertEquals(5, snapshot2.size());
+		assertEquals(4, snapshot3.size());
+		for(Participant<String> participant : snapshot3) {
+			assertFalse("c".equals(participant.getAddress())); //$NON-NLS-1$
+		}
+		//
+		this.repository.clearListeners();
+		assertTrue(this.repository.getParticipantSnapshot().isEmpty());
+	}
+
+	@Test
+	public void lookupListener() {
+		for(String k : this.listeners.keySet()) {
+			assertNull(this.repository.lookupListener(k));
+		}
+		//
+		addListenerMocks();
+		//
+		for(String k : this.listeners.keySet()) {
+			assertSame(this.listeners.get(k), this.repository.lookupListener(k));
+		}
+		assertNull(this.repository.lookupListener("f")); //$NON-NLS-1$
+		//
+		this.repository.removeListener("a"); //$NON-NLS-1$
+		assertNull(this.repository.lookupListener("a")); //$NON-NLS-1$
+		assertSame(this.listeners.get("b"), this.repository.lookupListener("b")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
 }
@@ -27,6 +27,8 @@ import io.sarl.lang.core.EventListener;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 
 import javax.annotation.Nullable;
@@ -97,6 +99,27 @@ public class UniqueAddressParticipantRepositoryTest extends AbstractJanusTest {
 		assertEquals("b", this.repository.getAddress(this.listener2)); //$NON-NLS-1$
 	}
 
+	@Test
+	public void registerParticipants() {
+		Map<String, EventListener> participants = new TreeMap<>();
+		participants.put("a", this.listener1); //$NON-NLS-1$
+		participants.put("b", this.listener2); //$NON-NLS-1$
+		this.repository.registerParticipants(participants);
+		assertEquals("a", this.repository.getAddress(this.listener1)); //$NON-NLS-1$
+		assertEquals("b", this.repository.getAddress(this.listener2)); //$NON-NLS-1$
+		assertSame(this.listener1, this.repository.lookupListener("a")); //$NON-NLS-1$
+		assertSame(this.listener2, this.repository.lookupListener("b")); //$NON-NLS-1$
+	}
+
+	@Test
+	public void isRegistered() {
+		assertFalse(this.repository.isRegistered("a", this.listener1)); //$NON-NLS-1$
+		this.repository.registerParticipant("a", this.listener1); //$NON-NLS-1$
+		assertTrue(this.repository.isRegistered("a", this.listener1)); //$NON-NLS-1$
+		assertFalse(this.repository.isRegistered("a", this.listener2)); //$NON-NLS-1$
+		assertFalse(this.repository.isRegistered("b", this.listener1)); //$NON-NLS-1$
+	}
+
 	@Test
 	public void unregisterParticipantEventListener() {	
 		assertEquals("a", this.repository.registerParticipant("a", this.listener1)); //$NON-NLS-1$ //$NON-NLS-2$
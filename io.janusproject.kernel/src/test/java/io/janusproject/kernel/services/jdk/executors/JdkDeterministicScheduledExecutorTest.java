@@ -0,0 +1,320 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.jdk.executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import io.janusproject.services.executor.ClassifiedTask;
+import io.janusproject.services.executor.JanusScheduledFutureTask;
+import io.janusproject.services.executor.TaskKind;
+import io.janusproject.testutils.AbstractJanusTest;
+
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class JdkDeterministicScheduledExecutorTest extends AbstractJanusTest {
+
+	private static final int TIMEOUT = 5;
+
+	private static final long HOUR = 3600;
+
+	private static final int TASKS = 20;
+
+	private static final long SEED = 1234;
+
+	@Nullable
+	private UncaughtExceptionHandler handler;
+
+	@Nullable
+	private JdkDeterministicScheduledExecutor executor;
+
+	@Before
+	public void setUp() {
+		this.handler = Mockito.mock(UncaughtExceptionHandler.class);
+		this.executor = new JdkDeterministicScheduledExecutor(0, new JdkThreadFactory(this.handler));
+	}
+
+	@After
+	public void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	/** Submit, from a task of the executor, the tasks that are adding their
+	 * indexes in the replied list.
+	 */
+	private static List<Integer> runTasks(final JdkDeterministicScheduledExecutor executor) throws Exception {
+		final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				for (int i = 0; i < TASKS; ++i) {
+					final int index = i;
+					executor.execute(new Runnable() {
+						@Override
+						public void run() {
+							order.add(index);
+						}
+					});
+				}
+			}
+		});
+		assertTrue(executor.runUntilQuiescent(TIMEOUT, TimeUnit.SECONDS));
+		return order;
+	}
+
+	/** Replies a callable that is classified as an agent task. The callable type
+	 * is explicit for selecting the callable variant of the schedule functions.
+	 */
+	private static Callable<Long> agentCallable(JdkDeterministicScheduledExecutor executor) {
+		return new AgentCallable(executor);
+	}
+
+	@Test
+	public void getTime_initial() {
+		assertEquals(0, this.executor.getTime(TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void execute_submissionOrder() throws Exception {
+		List<Integer> order = runTasks(this.executor);
+		assertEquals(TASKS, order.size());
+		for (int i = 0; i < TASKS; ++i) {
+			assertEquals(i, order.get(i).intValue());
+		}
+	}
+
+	@Test
+	public void execute_seededOrder() throws Exception {
+		JdkDeterministicScheduledExecutor executor1 = new JdkDeterministicScheduledExecutor(SEED, new JdkThreadFactory(this.handler));
+		JdkDeterministicScheduledExecutor executor2 = new JdkDeterministicScheduledExecutor(SEED, new JdkThreadFactory(this.handler));
+		try {
+			List<Integer> order1 = runTasks(executor1);
+			List<Integer> order2 = runTasks(executor2);
+			assertEquals(TASKS, order1.size());
+			assertEquals(order1, order2);
+			assertNotEquals(runTasks(this.executor), order1);
+		} finally {
+			executor1.shutdownNow();
+			executor2.shutdownNow();
+		}
+	}
+
+	@Test
+	public void execute_singleThread() throws Exception {
+		final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+		for (int i = 0; i < TASKS; ++i) {
+			this.executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					threads.add(Thread.currentThread());
+				}
+			});
+		}
+		assertTrue(this.executor.runUntilQuiescent(TIMEOUT, TimeUnit.SECONDS));
+		assertEquals(TASKS, threads.size());
+		for (Thread thread : threads) {
+			assertSame(threads.get(0), thread);
+		}
+	}
+
+	@Test
+	public void execute_exception() throws Exception {
+		this.executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				throw new IllegalStateException();
+			}
+		});
+		List<Integer> order = runTasks(this.executor);
+		assertEquals(TASKS, order.size());
+	}
+
+	@Test
+	public void schedule_jumpToDueTime() throws Exception {
+		long start = System.currentTimeMillis();
+		ScheduledFuture<Long> future = this.executor.schedule(agentCallable(this.executor), HOUR, TimeUnit.SECONDS);
+		assertTrue(future instanceof JanusScheduledFutureTask<?>);
+		assertTrue(this.executor.runUntilQuiescent(TIMEOUT, TimeUnit.SECONDS));
+		assertTrue(future.isDone());
+		assertEquals(HOUR, future.get().longValue());
+		assertTrue(System.currentTimeMillis() - start < TIMEOUT * 1000);
+		assertEquals(HOUR, this.executor.getTime(TimeUnit.SECONDS));
+		Mockito.verifyZeroInteractions(this.handler);
+	}
+
+	@Test
+	public void schedule_order() throws Exception {
+		final JdkDeterministicScheduledExecutor executor = this.executor;
+		final List<ScheduledFuture<Long>> futures = Collections.synchronizedList(new ArrayList<ScheduledFuture<Long>>());
+		// Schedule from the executor, as an agent would do.
+		this.executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				futures.add(executor.schedule(agentCallable(executor), 3 * HOUR, TimeUnit.SECONDS));
+				futures.add(executor.schedule(agentCallable(executor), HOUR, TimeUnit.SECONDS));
+				futures.add(executor.schedule(agentCallable(executor), 2 * HOUR, TimeUnit.SECONDS));
+			}
+		});
+		assertTrue(this.executor.runUntilQuiescent(TIMEOUT, TimeUnit.SECONDS));
+		assertEquals(3 * HOUR, futures.get(0).get().longValue());
+		assertEquals(HOUR, futures.get(1).get().longValue());
+		assertEquals(2 * HOUR, futures.get(2).get().longValue());
+	}
+
+	@Test
+	public void schedule_serviceTaskDoesNotMoveClock() throws Exception {
+		Runnable service = Mockito.mock(Runnable.class);
+		ScheduledFuture<?> future = this.executor.schedule(service, HOUR, TimeUnit.SECONDS);
+		assertTrue(this.executor.runUntilQuiescent(TIMEOUT, TimeUnit.SECONDS));
+		assertFalse(future.isDone());
+		assertEquals(0, this.executor.getTime(TimeUnit.SECONDS));
+		Mockito.verifyZeroInteractions(service);
+	}
+
+	@Test
+	public void scheduleAtFixedRate() throws Exception {
+		final JdkDeterministicScheduledExecutor executor = this.executor;
+		final List<Long> times = Collections.synchronizedList(new ArrayList<Long>());
+		final ScheduledFuture<?>[] future = new ScheduledFuture<?>[1];
+		synchronized (future) {
+			future[0] = this.executor.scheduleAtFixedRate(new AgentRunnable() {
+				@Override
+				public void run() {
+					times.add(executor.getTime(TimeUnit.SECONDS));
+					if (times.size() == 3) {
+						synchronized (future) {
+							future[0].cancel(false);
+						}
+					}
+				}
+			}, HOUR, HOUR, TimeUnit.SECONDS);
+		}
+		assertTrue(this.executor.runUntilQuiescent(TIMEOUT, TimeUnit.SECONDS));
+		assertEquals(3, times.size());
+		for (int i = 0; i < 3; ++i) {
+			assertEquals((i + 1) * HOUR, times.get(i).longValue());
+		}
+	}
+
+	@Test
+	public void runUntilQuiescent_periodicTask() throws Exception {
+		ScheduledFuture<?> future = this.executor.scheduleWithFixedDelay(new AgentRunnable() {
+			@Override
+			public void run() {
+				//
+			}
+		}, HOUR, HOUR, TimeUnit.SECONDS);
+		assertFalse(this.executor.runUntilQuiescent(1, TimeUnit.MILLISECONDS));
+		assertTrue(future.cancel(false));
+		assertTrue(this.executor.runUntilQuiescent(TIMEOUT, TimeUnit.SECONDS));
+		assertTrue(this.executor.getTime(TimeUnit.SECONDS) >= HOUR);
+	}
+
+	@Test
+	public void shutdown() throws Exception {
+		final Object lock = new Object();
+		ScheduledFuture<Long> future;
+		synchronized (lock) {
+			// Keep the worker busy for avoiding the run of the scheduled task.
+			this.executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					synchronized (lock) {
+						//
+					}
+				}
+			});
+			future = this.executor.schedule(agentCallable(this.executor), HOUR, TimeUnit.SECONDS);
+			this.executor.shutdown();
+		}
+		assertTrue(this.executor.awaitTermination(TIMEOUT, TimeUnit.SECONDS));
+		assertTrue(future.isCancelled());
+		assertTrue(this.executor.isTerminated());
+	}
+
+	/**
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private static abstract class AgentRunnable implements ClassifiedTask {
+
+		@Override
+		public TaskKind getTaskKind() {
+			return TaskKind.SCHEDULED_AGENT_TASK;
+		}
+
+	}
+
+	/**
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private static class AgentCallable implements Callable<Long>, ClassifiedTask {
+
+		private final JdkDeterministicScheduledExecutor executor;
+
+		public AgentCallable(JdkDeterministicScheduledExecutor executor) {
+			this.executor = executor;
+		}
+
+		@Override
+		public TaskKind getTaskKind() {
+			return TaskKind.SCHEDULED_AGENT_TASK;
+		}
+
+		@Override
+		public Long call() throws Exception {
+			return this.executor.getTime(TimeUnit.SECONDS);
+		}
+
+		@Override
+		public void run() {
+			//
+		}
+
+	}
+
+}
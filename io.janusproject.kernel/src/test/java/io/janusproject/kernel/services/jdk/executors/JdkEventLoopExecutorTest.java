@@ -0,0 +1,287 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.jdk.executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import io.janusproject.services.executor.AffinityTask;
+import io.janusproject.testutils.AbstractJanusTest;
+
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class JdkEventLoopExecutorTest extends AbstractJanusTest {
+
+	private static final int TIMEOUT = 5;
+
+	@Nullable
+	private UncaughtExceptionHandler handler;
+
+	@Nullable
+	private JdkEventLoopExecutor executor;
+
+	@Before
+	public void setUp() {
+		this.handler = Mockito.mock(UncaughtExceptionHandler.class);
+		this.executor = new JdkEventLoopExecutor(2, new JdkThreadFactory(this.handler));
+		this.executor.start();
+	}
+
+	@After
+	public void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	public void getLoopCount() {
+		assertEquals(2, this.executor.getLoopCount());
+		JdkEventLoopExecutor executor = new JdkEventLoopExecutor(0, new JdkThreadFactory(this.handler));
+		try {
+			assertEquals(Runtime.getRuntime().availableProcessors(), executor.getLoopCount());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void submitCallable() throws Exception {
+		Future<String> future = this.executor.submit(new Callable<String>() {
+			@Override
+			public String call() throws Exception {
+				return "a"; //$NON-NLS-1$
+			}
+		});
+		assertEquals("a", future.get(TIMEOUT, TimeUnit.SECONDS)); //$NON-NLS-1$
+		Mockito.verifyZeroInteractions(this.handler);
+	}
+
+	@Test
+	public void submitRunnable_result() throws Exception {
+		Object value = new Object();
+		Future<Object> future = this.executor.submit(Mockito.mock(Runnable.class), value);
+		assertSame(value, future.get(TIMEOUT, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void isEventLoopThread() throws Exception {
+		assertFalse(this.executor.isEventLoopThread());
+		Future<Boolean> future = this.executor.submit(new Callable<Boolean>() {
+			@Override
+			public Boolean call() throws Exception {
+				return JdkEventLoopExecutorTest.this.executor.isEventLoopThread();
+			}
+		});
+		assertTrue(future.get(TIMEOUT, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void affinity() throws Exception {
+		UUID key = UUID.randomUUID();
+		ThreadTask t1 = new ThreadTask(key);
+		ThreadTask t2 = new ThreadTask(key);
+		this.executor.submit(t1).get(TIMEOUT, TimeUnit.SECONDS);
+		this.executor.submit(t2).get(TIMEOUT, TimeUnit.SECONDS);
+		assertSame(t1.thread, t2.thread);
+		assertSame(this.executor.getLoop(t1), this.executor.getLoop(t2));
+	}
+
+	@Test
+	public void currentLoop() throws Exception {
+		final ThreadTask inner = new ThreadTask(null);
+		ThreadTask outer = new ThreadTask(null) {
+			@Override
+			public void run() {
+				super.run();
+				assertSame(JdkEventLoopExecutorTest.this.executor.getLoop(inner),
+						JdkEventLoopExecutorTest.this.executor.getLoop(inner));
+			}
+		};
+		this.executor.submit(outer).get(TIMEOUT, TimeUnit.SECONDS);
+		assertNotSame(Thread.currentThread(), outer.thread);
+	}
+
+	@Test
+	public void start() throws Exception {
+		JdkEventLoopExecutor executor = new JdkEventLoopExecutor(1, new JdkThreadFactory(this.handler));
+		try {
+			ThreadTask task = new ThreadTask(null);
+			Future<?> future = executor.submit(task);
+			Thread.sleep(100);
+			assertFalse(future.isDone());
+			executor.start();
+			executor.start();
+			future.get(TIMEOUT, TimeUnit.SECONDS);
+			assertTrue(task.thread != null);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void workStealing() throws Exception {
+		final UUID key = UUID.randomUUID();
+		final CountDownLatch blocker = new CountDownLatch(1);
+		final ThreadTask stolen = new ThreadTask(null);
+		final Future<?>[] stolenFuture = new Future<?>[1];
+		final CountDownLatch started = new CountDownLatch(1);
+		// Block the loop associated to the key
+		ThreadTask blocking = new ThreadTask(key) {
+			@Override
+			public void run() {
+				super.run();
+				// The task without affinity key is queued in the blocked loop.
+				stolenFuture[0] = JdkEventLoopExecutorTest.this.executor.submit(stolen);
+				started.countDown();
+				try {
+					blocker.await(TIMEOUT, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					//
+				}
+			}
+		};
+		this.executor.execute(blocking);
+		assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+		// The task is stolen by the idle loop.
+		stolenFuture[0].get(TIMEOUT, TimeUnit.SECONDS);
+		blocker.countDown();
+		assertNotSame(blocking.thread, stolen.thread);
+	}
+
+	@Test
+	public void workStealing_affinityTask() throws Exception {
+		final UUID key = UUID.randomUUID();
+		final CountDownLatch blocker = new CountDownLatch(1);
+		final CountDownLatch started = new CountDownLatch(1);
+		// Block the loop associated to the key
+		ThreadTask blocking = new ThreadTask(key) {
+			@Override
+			public void run() {
+				super.run();
+				started.countDown();
+				try {
+					blocker.await(TIMEOUT, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					//
+				}
+			}
+		};
+		this.executor.execute(blocking);
+		assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+		// The second task is queued in the blocked loop, and never stolen by the idle loop.
+		ThreadTask task = new ThreadTask(key);
+		Future<?> future = this.executor.submit(task);
+		Thread.sleep(100);
+		assertFalse(future.isDone());
+		blocker.countDown();
+		future.get(TIMEOUT, TimeUnit.SECONDS);
+		assertSame(blocking.thread, task.thread);
+	}
+
+	@Test
+	public void shutdown() throws Exception {
+		this.executor.shutdown();
+		assertTrue(this.executor.isShutdown());
+		assertTrue(this.executor.awaitTermination(TIMEOUT, TimeUnit.SECONDS));
+		assertTrue(this.executor.isTerminated());
+	}
+
+	@Test
+	public void shutdown_notStarted() throws Exception {
+		JdkEventLoopExecutor executor = new JdkEventLoopExecutor(2, new JdkThreadFactory(this.handler));
+		ThreadTask task = new ThreadTask(null);
+		executor.execute(task);
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(TIMEOUT, TimeUnit.SECONDS));
+		assertTrue(task.thread != null);
+	}
+
+	@Test(expected = RejectedExecutionException.class)
+	public void execute_afterShutdown() throws Exception {
+		this.executor.shutdown();
+		this.executor.execute(Mockito.mock(Runnable.class));
+	}
+
+	@Test
+	public void execute_exception() throws Exception {
+		final RuntimeException ex = new RuntimeException();
+		final CountDownLatch done = new CountDownLatch(1);
+		this.executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				done.countDown();
+				throw ex;
+			}
+		});
+		assertTrue(done.await(TIMEOUT, TimeUnit.SECONDS));
+		Mockito.verify(this.handler, Mockito.timeout(TIMEOUT * 1000)).uncaughtException(
+				Mockito.any(Thread.class), Mockito.same(ex));
+	}
+
+	/**
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private static class ThreadTask implements AffinityTask {
+
+		private final Object key;
+
+		volatile Thread thread;
+
+		public ThreadTask(Object key) {
+			this.key = key;
+		}
+
+		@Override
+		public Object getAffinityKey() {
+			return this.key;
+		}
+
+		@Override
+		public void run() {
+			this.thread = Thread.currentThread();
+		}
+
+	}
+
+}
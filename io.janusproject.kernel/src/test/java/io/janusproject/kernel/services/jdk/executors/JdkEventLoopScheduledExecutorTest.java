@@ -0,0 +1,123 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.jdk.executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import io.janusproject.services.executor.JanusScheduledFutureTask;
+import io.janusproject.testutils.AbstractJanusTest;
+
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class JdkEventLoopScheduledExecutorTest extends AbstractJanusTest {
+
+	private static final int TIMEOUT = 5;
+
+	@Nullable
+	private UncaughtExceptionHandler handler;
+
+	@Nullable
+	private JdkEventLoopExecutor loops;
+
+	@Nullable
+	private JdkEventLoopScheduledExecutor executor;
+
+	@Before
+	public void setUp() {
+		this.handler = Mockito.mock(UncaughtExceptionHandler.class);
+		JdkThreadFactory factory = new JdkThreadFactory(this.handler);
+		this.loops = new JdkEventLoopExecutor(2, factory);
+		this.loops.start();
+		this.executor = new JdkEventLoopScheduledExecutor(factory, this.loops);
+	}
+
+	@After
+	public void tearDown() {
+		this.executor.shutdownNow();
+		this.loops.shutdownNow();
+	}
+
+	@Test
+	public void isResizable() {
+		// The scheduler has a single timer thread by design.
+		assertFalse(this.executor.isResizable());
+	}
+
+	@Test
+	public void schedule_runOnEventLoop() throws Exception {
+		final JdkEventLoopExecutor loops = this.loops;
+		ScheduledFuture<Boolean> future = this.executor.schedule(new Callable<Boolean>() {
+			@Override
+			public Boolean call() throws Exception {
+				return loops.isEventLoopThread();
+			}
+		}, 10, TimeUnit.MILLISECONDS);
+		assertTrue(future.get(TIMEOUT, TimeUnit.SECONDS));
+		assertTrue(future instanceof JanusScheduledFutureTask<?>);
+		assertNotSame(Thread.currentThread(), ((JanusScheduledFutureTask<?>) future).getThread());
+		Mockito.verifyZeroInteractions(this.handler);
+	}
+
+	@Test
+	public void scheduleAtFixedRate_runOnEventLoop() throws Exception {
+		final JdkEventLoopExecutor loops = this.loops;
+		final int[] count = new int[1];
+		final boolean[] onLoop = new boolean[] {true};
+		ScheduledFuture<?> future = this.executor.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				synchronized (count) {
+					++count[0];
+					onLoop[0] &= loops.isEventLoopThread();
+					count.notifyAll();
+				}
+			}
+		}, 0, 10, TimeUnit.MILLISECONDS);
+		synchronized (count) {
+			long end = System.currentTimeMillis() + TIMEOUT * 1000;
+			while (count[0] < 3 && System.currentTimeMillis() < end) {
+				count.wait(100);
+			}
+		}
+		future.cancel(false);
+		assertTrue(count[0] >= 3);
+		assertTrue(onLoop[0]);
+	}
+
+}
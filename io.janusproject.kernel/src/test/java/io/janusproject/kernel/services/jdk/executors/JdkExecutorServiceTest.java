@@ -20,14 +20,23 @@
 package io.janusproject.kernel.services.jdk.executors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import io.janusproject.services.executor.ClassifiedTask;
+import io.janusproject.services.executor.ExecutorStatistics;
+import io.janusproject.services.executor.TaskKind;
 import io.janusproject.testutils.AbstractDependentServiceTest;
 import io.janusproject.testutils.AvoidServiceStartForTest;
 import io.janusproject.testutils.StartServiceForTest;
 
+import java.lang.Thread.UncaughtExceptionHandler;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -90,6 +99,52 @@ extends AbstractDependentServiceTest<JdkExecutorService> {
 		assertSame(this.runnable, argument.getValue());
 	}
 
+	@Test
+	public void execute() {
+		this.service.execute(this.runnable);
+		ArgumentCaptor<Runnable> argument = ArgumentCaptor.forClass(Runnable.class);
+		Mockito.verify(this.executorService).execute(argument.capture());
+		Mockito.verifyZeroInteractions(this.runnable);
+		argument.getValue().run();
+		Mockito.verify(this.runnable, new Times(1)).run();
+	}
+
+	@Test
+	public void execute_exception() {
+		RuntimeException e = new RuntimeException();
+		Mockito.doThrow(e).when(this.runnable).run();
+		UncaughtExceptionHandler handler = Mockito.mock(UncaughtExceptionHandler.class);
+		UncaughtExceptionHandler old = Thread.currentThread().getUncaughtExceptionHandler();
+		Thread.currentThread().setUncaughtExceptionHandler(handler);
+		try {
+			this.service.execute(this.runnable);
+			ArgumentCaptor<Runnable> argument = ArgumentCaptor.forClass(Runnable.class);
+			Mockito.verify(this.executorService).execute(argument.capture());
+			argument.getValue().run();
+			Mockito.verify(handler, new Times(1)).uncaughtException(Thread.currentThread(), e);
+		} finally {
+			Thread.currentThread().setUncaughtExceptionHandler(old);
+		}
+	}
+
+	@Test
+	public void execute_statistics() {
+		ClassifiedTask task = Mockito.mock(ClassifiedTask.class);
+		Mockito.when(task.getTaskKind()).thenReturn(TaskKind.NETWORK_RECEIVE);
+		this.service.execute(task);
+		ArgumentCaptor<Runnable> argument = ArgumentCaptor.forClass(Runnable.class);
+		Mockito.verify(this.executorService).execute(argument.capture());
+		argument.getValue().run();
+		ExecutorStatistics statistics = this.service.getStatistics();
+		assertNotNull(statistics);
+		if (statistics.isEnabled()) {
+			assertEquals(1, statistics.getWaitTimeHistogram(TaskKind.NETWORK_RECEIVE).getCount());
+			assertEquals(1, statistics.getRunTimeHistogram(TaskKind.NETWORK_RECEIVE).getCount());
+			assertEquals(0, statistics.getRunTimeHistogram(TaskKind.SERVICE_TASK).getCount());
+			assertEquals(0, statistics.getActiveThreadCount());
+		}
+	}
+
 	@Test
 	public void submitRunnableObject() {
 		Object result = Mockito.mock(Object.class);
@@ -167,6 +222,41 @@ extends AbstractDependentServiceTest<JdkExecutorService> {
 		assertSame(this.executorService, this.service.getExecutorService());
 	}
 
+	@Test
+	public void getTime() {
+		assertFalse(this.service.isVirtualTime());
+		long time1 = this.service.getTime(TimeUnit.NANOSECONDS);
+		long time2 = this.service.getTime(TimeUnit.NANOSECONDS);
+		assertTrue(time1 >= 0);
+		assertTrue(time2 >= time1);
+		// The time is relative to the start of the service, not to the epoch.
+		assertTrue(this.service.getTime(TimeUnit.MILLISECONDS) < System.currentTimeMillis());
+	}
+
+	@Test
+	public void runUntilQuiescent_realTime() throws Exception {
+		assertTrue(this.service.runUntilQuiescent(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void runUntilQuiescent_realTimeRunningTask() throws Exception {
+		this.service.setExecutorService(new JdkThreadPoolExecutor(1, Executors.defaultThreadFactory()));
+		final CountDownLatch latch = new CountDownLatch(1);
+		this.service.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					latch.await();
+				} catch (InterruptedException e) {
+					//
+				}
+			}
+		});
+		assertFalse(this.service.runUntilQuiescent(100, TimeUnit.MILLISECONDS));
+		latch.countDown();
+		assertTrue(this.service.runUntilQuiescent(10, TimeUnit.SECONDS));
+	}
+
 	@AvoidServiceStartForTest
 	@Test
 	public void doStop_noinit() {
@@ -0,0 +1,147 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.jdk.executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import io.janusproject.services.executor.TaskKind;
+import io.janusproject.testutils.AbstractJanusTest;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class JdkExecutorStatisticsTest extends AbstractJanusTest {
+
+	@Nullable
+	private JdkExecutorStatistics statistics;
+
+	@Before
+	public void setUp() {
+		this.statistics = new JdkExecutorStatistics(true);
+	}
+
+	@Test
+	public void isEnabled() {
+		assertTrue(this.statistics.isEnabled());
+		assertFalse(new JdkExecutorStatistics(false).isEnabled());
+	}
+
+	@Test
+	public void taskStartedFinished() {
+		long start1 = this.statistics.taskStarted(TaskKind.EVENT_DELIVERY, 1000);
+		assertEquals(1, this.statistics.getActiveThreadCount());
+		long start2 = this.statistics.taskStarted(TaskKind.NETWORK_RECEIVE, -1);
+		assertEquals(2, this.statistics.getActiveThreadCount());
+		assertEquals(2, this.statistics.getPeakThreadCount());
+		this.statistics.taskFinished(TaskKind.EVENT_DELIVERY, start1);
+		this.statistics.taskFinished(TaskKind.NETWORK_RECEIVE, start2);
+		assertEquals(0, this.statistics.getActiveThreadCount());
+		assertEquals(2, this.statistics.getPeakThreadCount());
+		//
+		assertEquals(1, this.statistics.getWaitTimeHistogram(TaskKind.EVENT_DELIVERY).getCount());
+		assertEquals(1000, this.statistics.getWaitTimeHistogram(TaskKind.EVENT_DELIVERY).getMax());
+		assertEquals(1, this.statistics.getRunTimeHistogram(TaskKind.EVENT_DELIVERY).getCount());
+		assertEquals(0, this.statistics.getWaitTimeHistogram(TaskKind.NETWORK_RECEIVE).getCount());
+		assertEquals(1, this.statistics.getRunTimeHistogram(TaskKind.NETWORK_RECEIVE).getCount());
+		assertEquals(0, this.statistics.getRunTimeHistogram(TaskKind.SERVICE_TASK).getCount());
+	}
+
+	@Test
+	public void disabled() {
+		this.statistics = new JdkExecutorStatistics(false);
+		long start = this.statistics.taskStarted(TaskKind.EVENT_DELIVERY, 1000);
+		assertEquals(0, this.statistics.getActiveThreadCount());
+		this.statistics.taskFinished(TaskKind.EVENT_DELIVERY, start);
+		assertEquals(0, this.statistics.getActiveThreadCount());
+		assertEquals(0, this.statistics.getWaitTimeHistogram(TaskKind.EVENT_DELIVERY).getCount());
+		assertEquals(0, this.statistics.getRunTimeHistogram(TaskKind.EVENT_DELIVERY).getCount());
+	}
+
+	@Test
+	public void reset() {
+		long start = this.statistics.taskStarted(TaskKind.SERVICE_TASK, 10);
+		this.statistics.taskStarted(TaskKind.SERVICE_TASK, 10);
+		this.statistics.taskFinished(TaskKind.SERVICE_TASK, start);
+		this.statistics.reset();
+		assertEquals(1, this.statistics.getActiveThreadCount());
+		assertEquals(1, this.statistics.getPeakThreadCount());
+		assertEquals(0, this.statistics.getWaitTimeHistogram(TaskKind.SERVICE_TASK).getCount());
+		assertEquals(0, this.statistics.getRunTimeHistogram(TaskKind.SERVICE_TASK).getCount());
+	}
+
+	@Test
+	public void getQueueSize() {
+		assertEquals(0, this.statistics.getQueueSize());
+		ArrayBlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(10);
+		queue.add(Mockito.mock(Runnable.class));
+		queue.add(Mockito.mock(Runnable.class));
+		ThreadPoolExecutor executor = Mockito.mock(ThreadPoolExecutor.class);
+		Mockito.when(executor.getQueue()).thenReturn(queue);
+		this.statistics.addExecutor(executor);
+		assertEquals(2, this.statistics.getQueueSize());
+		this.statistics.removeExecutor(executor);
+		assertEquals(0, this.statistics.getQueueSize());
+	}
+
+	@Test
+	public void getQueueSize_monitoredExecutor() {
+		JdkMonitoredExecutor executor = Mockito.mock(JdkMonitoredExecutor.class,
+				Mockito.withSettings().extraInterfaces(Executor.class));
+		Mockito.when(executor.getQueueSize()).thenReturn(3);
+		this.statistics.addExecutor((Executor) executor);
+		assertEquals(3, this.statistics.getQueueSize());
+		this.statistics.removeExecutor((Executor) executor);
+		assertEquals(0, this.statistics.getQueueSize());
+	}
+
+	@Test
+	public void threadPoolExecutor() throws Exception {
+		JdkThreadPoolExecutor executor = new JdkThreadPoolExecutor(1, new JdkThreadFactory(null));
+		executor.setStatistics(this.statistics);
+		try {
+			executor.submit(Mockito.mock(Runnable.class)).get(10, TimeUnit.SECONDS);
+			executor.shutdown();
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, this.statistics.getWaitTimeHistogram(TaskKind.SERVICE_TASK).getCount());
+		assertEquals(1, this.statistics.getRunTimeHistogram(TaskKind.SERVICE_TASK).getCount());
+		assertEquals(0, this.statistics.getActiveThreadCount());
+		assertEquals(1, this.statistics.getPeakThreadCount());
+	}
+
+}
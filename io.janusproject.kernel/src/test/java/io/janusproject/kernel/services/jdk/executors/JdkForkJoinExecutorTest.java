@@ -0,0 +1,237 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.jdk.executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import io.janusproject.services.executor.ChuckNorrisException;
+import io.janusproject.services.executor.JanusFutureTask;
+import io.janusproject.testutils.AbstractJanusTest;
+import io.janusproject.testutils.FutureExceptionMatcher;
+
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Nullable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.mockito.exceptions.base.MockitoException;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class JdkForkJoinExecutorTest extends AbstractJanusTest {
+
+	private static final int TIMEOUT = 5;
+
+	static final Object VALUE = new Object();
+
+	@Nullable
+	private UncaughtExceptionHandler handler;
+
+	@Nullable
+	private JdkForkJoinExecutor executor;
+
+	@Before
+	public void setUp() {
+		this.handler = Mockito.mock(UncaughtExceptionHandler.class);
+		this.executor = new JdkForkJoinExecutor(2, new JdkThreadFactory(this.handler));
+	}
+
+	@After
+	public void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	public void getPool() {
+		assertEquals(2, this.executor.getPool().getParallelism());
+		assertTrue(this.executor.getPool().getAsyncMode());
+	}
+
+	@Test
+	public void submitRunnable_succeed() throws Exception {
+		Future<?> f = this.executor.submit(Mockito.mock(Runnable.class));
+		assertNull(f.get(TIMEOUT, TimeUnit.SECONDS));
+		assertTrue(f instanceof JanusFutureTask<?>);
+		Mockito.verifyZeroInteractions(this.handler);
+	}
+
+	@Test
+	public void submitRunnableObject_succeed() throws Exception {
+		Future<?> f = this.executor.submit(Mockito.mock(Runnable.class), VALUE);
+		assertSame(VALUE, f.get(TIMEOUT, TimeUnit.SECONDS));
+		Mockito.verifyZeroInteractions(this.handler);
+	}
+
+	@Test
+	public void submitCallable_succeed() throws Exception {
+		Future<?> f = this.executor.submit(new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				return VALUE;
+			}
+		});
+		assertSame(VALUE, f.get(TIMEOUT, TimeUnit.SECONDS));
+		Mockito.verifyZeroInteractions(this.handler);
+	}
+
+	@Test
+	public void submitRunnable_thread() throws Exception {
+		final AtomicReference<Thread> thread = new AtomicReference<>();
+		final AtomicReference<Future<?>> future = new AtomicReference<>();
+		final CountDownLatch submitted = new CountDownLatch(1);
+		Future<?> f = this.executor.submit(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					submitted.await(TIMEOUT, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					//
+				}
+				thread.set(Thread.currentThread());
+				assertTrue(((JanusFutureTask<?>) future.get()).isCurrentThread());
+			}
+		});
+		future.set(f);
+		submitted.countDown();
+		f.get(TIMEOUT, TimeUnit.SECONDS);
+		assertSame(thread.get(), ((JanusFutureTask<?>) f).getThread());
+		assertFalse(((JanusFutureTask<?>) f).isCurrentThread());
+		assertFalse(thread.get().isDaemon());
+	}
+
+	@Test
+	public void workerThread_kernelFactory() throws Exception {
+		final AtomicReference<Thread> thread = new AtomicReference<>();
+		final AtomicReference<Boolean> kernelThread = new AtomicReference<>();
+		Future<?> f = this.executor.submit(new Runnable() {
+			@Override
+			public void run() {
+				thread.set(Thread.currentThread());
+				kernelThread.set(JdkExecutorUtil.isKernelThread());
+			}
+		});
+		f.get(TIMEOUT, TimeUnit.SECONDS);
+		assertTrue(thread.get().getName().startsWith("pool-")); //$NON-NLS-1$
+		assertFalse(thread.get().isDaemon());
+		assertSame(this.handler, thread.get().getUncaughtExceptionHandler());
+		assertTrue(kernelThread.get());
+	}
+
+	@Test
+	public void workerThread_customFactory() throws Exception {
+		final UncaughtExceptionHandler customHandler = Mockito.mock(UncaughtExceptionHandler.class);
+		JdkForkJoinExecutor customExecutor = new JdkForkJoinExecutor(1, new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "custom-thread"); //$NON-NLS-1$
+				t.setDaemon(true);
+				t.setUncaughtExceptionHandler(customHandler);
+				return t;
+			}
+		});
+		try {
+			final AtomicReference<Thread> thread = new AtomicReference<>();
+			final AtomicReference<Boolean> kernelThread = new AtomicReference<>();
+			Future<?> f = customExecutor.submit(new Runnable() {
+				@Override
+				public void run() {
+					thread.set(Thread.currentThread());
+					kernelThread.set(JdkExecutorUtil.isKernelThread());
+				}
+			});
+			f.get(TIMEOUT, TimeUnit.SECONDS);
+			assertEquals("custom-thread", thread.get().getName()); //$NON-NLS-1$
+			assertTrue(thread.get().isDaemon());
+			assertSame(customHandler, thread.get().getUncaughtExceptionHandler());
+			assertFalse(kernelThread.get());
+		} finally {
+			customExecutor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void submitRunnable_chucknorris() throws Exception {
+		Future<?> f = this.executor.submit(new Runnable() {
+			@Override
+			public void run() {
+				throw new ChuckNorrisException();
+			}
+		});
+		assertNull(f.get(TIMEOUT, TimeUnit.SECONDS));
+		Mockito.verifyZeroInteractions(this.handler);
+	}
+
+	@Test
+	public void submitRunnable_exception() throws Exception {
+		Future<?> f = this.executor.submit(new Runnable() {
+			@Override
+			public void run() {
+				throw new MockitoException(""); //$NON-NLS-1$
+			}
+		});
+		assertThat(f, new FutureExceptionMatcher(MockitoException.class));
+		ArgumentCaptor<Throwable> argument = ArgumentCaptor.forClass(Throwable.class);
+		Mockito.verify(this.handler, Mockito.timeout(TIMEOUT * 1000)).uncaughtException(
+				Mockito.any(Thread.class), argument.capture());
+		assertTrue(argument.getValue() instanceof MockitoException);
+	}
+
+	@Test
+	public void executeRunnable_exception() throws Exception {
+		this.executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				throw new MockitoException(""); //$NON-NLS-1$
+			}
+		});
+		ArgumentCaptor<Throwable> argument = ArgumentCaptor.forClass(Throwable.class);
+		Mockito.verify(this.handler, Mockito.timeout(TIMEOUT * 1000)).uncaughtException(
+				Mockito.any(Thread.class), argument.capture());
+		assertTrue(argument.getValue() instanceof MockitoException);
+	}
+
+	@Test
+	public void shutdown() throws Exception {
+		this.executor.shutdown();
+		assertTrue(this.executor.isShutdown());
+		assertTrue(this.executor.awaitTermination(TIMEOUT, TimeUnit.SECONDS));
+		assertTrue(this.executor.isTerminated());
+	}
+
+}
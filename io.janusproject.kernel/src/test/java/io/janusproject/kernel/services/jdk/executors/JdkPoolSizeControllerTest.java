@@ -0,0 +1,275 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.jdk.executors;
+
+import static org.junit.Assert.assertEquals;
+import io.janusproject.services.logging.LogService;
+import io.janusproject.testutils.AbstractJanusTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class JdkPoolSizeControllerTest extends AbstractJanusTest {
+
+	/** Wait threshold in microseconds.
+	 */
+	private static final long THRESHOLD = 1000;
+
+	/** A wait time that is above the threshold, in nanoseconds.
+	 */
+	private static final double LONG_WAIT = 5000000.;
+
+	@Nullable
+	private ThreadPoolExecutor pool;
+
+	@Nullable
+	private LogService logger;
+
+	@Nullable
+	private JdkPoolSizeController controller;
+
+	@Before
+	public void setUp() {
+		this.pool = new ThreadPoolExecutor(16, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+				new SynchronousQueue<Runnable>());
+		this.logger = Mockito.mock(LogService.class);
+		this.controller = new JdkPoolSizeController("test", this.pool, //$NON-NLS-1$
+				this.logger, 4, 32, THRESHOLD);
+	}
+
+	@After
+	public void tearDown() {
+		this.pool.shutdownNow();
+	}
+
+	@Test
+	public void bounds() {
+		assertEquals(4, this.controller.getMinPoolSize());
+		assertEquals(32, this.controller.getMaxPoolSize());
+		JdkPoolSizeController c = new JdkPoolSizeController("test", this.pool, //$NON-NLS-1$
+				null, 64, 32, THRESHOLD);
+		assertEquals(32, c.getMinPoolSize());
+		assertEquals(32, c.getMaxPoolSize());
+	}
+
+	@Test
+	public void computePoolSize_steady() {
+		assertEquals(16, this.controller.computePoolSize(16, 10, 0, 100., 1000., .5));
+		Mockito.verifyZeroInteractions(this.logger);
+	}
+
+	@Test
+	public void computePoolSize_waiting() {
+		assertEquals(18, this.controller.computePoolSize(16, 16, 0, 100., LONG_WAIT, .5));
+		assertEquals(20, this.controller.computePoolSize(18, 18, 0, 120., LONG_WAIT, .5));
+		Mockito.verify(this.logger, Mockito.times(2)).fineInfo(
+				Matchers.eq(JdkPoolSizeController.class), Matchers.eq("GROW_TASKS_WAITING"), //$NON-NLS-1$
+				Matchers.anyVararg());
+	}
+
+	@Test
+	public void computePoolSize_waitingNotSaturated() {
+		assertEquals(16, this.controller.computePoolSize(16, 12, 0, 100., LONG_WAIT, .5));
+	}
+
+	@Test
+	public void computePoolSize_waitingMax() {
+		assertEquals(32, this.controller.computePoolSize(31, 31, 0, 100., LONG_WAIT, .5));
+		assertEquals(32, this.controller.computePoolSize(32, 32, 0, 100., LONG_WAIT, .5));
+	}
+
+	@Test
+	public void computePoolSize_growthReverted() {
+		assertEquals(18, this.controller.computePoolSize(16, 16, 0, 100., LONG_WAIT, .5));
+		assertEquals(16, this.controller.computePoolSize(18, 18, 0, 50., LONG_WAIT, .5));
+		// Cool down: the pool is not grown again during a few periods.
+		for (int i = 0; i < JdkPoolSizeController.COOL_DOWN_PERIODS - 1; ++i) {
+			assertEquals(16, this.controller.computePoolSize(16, 16, 0, 50., LONG_WAIT, .5));
+		}
+		assertEquals(18, this.controller.computePoolSize(16, 16, 0, 50., LONG_WAIT, .5));
+	}
+
+	@Test
+	public void computePoolSize_cpuSaturated() {
+		assertEquals(14, this.controller.computePoolSize(16, 16, 0, 100., 0., .95));
+		assertEquals(4, this.controller.computePoolSize(4, 4, 0, 100., 0., .95));
+	}
+
+	@Test
+	public void computePoolSize_cpuSaturatedWaiting() {
+		assertEquals(18, this.controller.computePoolSize(16, 16, 0, 100., LONG_WAIT, .95));
+	}
+
+	@Test
+	public void computePoolSize_threadsBeyondCore() {
+		assertEquals(18, this.controller.computePoolSize(16, 20, 0, 100., 0., .5));
+	}
+
+	@Test
+	public void getReadyTaskCount() {
+		assertEquals(0, JdkPoolSizeController.getReadyTaskCount(this.pool.getQueue()));
+		LinkedBlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+		queue.add(Mockito.mock(Runnable.class));
+		queue.add(Mockito.mock(Runnable.class));
+		assertEquals(2, JdkPoolSizeController.getReadyTaskCount(queue));
+	}
+
+	@Test
+	public void getReadyTaskCount_delayed() {
+		ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+		try {
+			scheduler.schedule(Mockito.mock(Runnable.class), 1, TimeUnit.HOURS);
+			assertEquals(1, scheduler.getQueue().size());
+			// The delay of the task is not elapsed.
+			assertEquals(0, JdkPoolSizeController.getReadyTaskCount(scheduler.getQueue()));
+		} finally {
+			scheduler.shutdownNow();
+		}
+	}
+
+	@Test
+	public void computeMeanWait() {
+		assertEquals(0., JdkPoolSizeController.computeMeanWait(0., 100., 1000), 0.);
+		assertEquals(20000000., JdkPoolSizeController.computeMeanWait(2., 100., 1000), 1.);
+		assertEquals(1000., JdkPoolSizeController.computeMeanWait(2., 0., 1000), 0.);
+	}
+
+	@Test
+	public void computePoolSize_idle() {
+		assertEquals(14, this.controller.computePoolSize(16, 2, 0, 10., 0., .1));
+		assertEquals(4, this.controller.computePoolSize(4, 0, 0, 10., 0., .1));
+	}
+
+	@Test
+	public void computePoolSize_unknownCpuLoad() {
+		assertEquals(18, this.controller.computePoolSize(16, 16, 0, 100., LONG_WAIT, -1.));
+	}
+
+	@Test
+	public void computePoolSize_queued() {
+		assertEquals(18, this.controller.computePoolSize(16, 10, 3, 100., LONG_WAIT, .5));
+	}
+
+	@Test
+	public void computePoolSize_outOfBounds() {
+		assertEquals(32, this.controller.computePoolSize(50, 30, 0, 100., 0., .5));
+		Mockito.verify(this.logger).fineInfo(
+				Matchers.eq(JdkPoolSizeController.class), Matchers.eq("RESIZE_TO_BOUNDS"), //$NON-NLS-1$
+				Matchers.anyVararg());
+	}
+
+	@Test
+	public void run() {
+		this.controller.run();
+		assertEquals(16, this.pool.getCorePoolSize());
+		// The pool is idle.
+		this.controller.run();
+		assertEquals(14, this.pool.getCorePoolSize());
+	}
+
+	@Test
+	public void run_fixedSizePool() {
+		ThreadPoolExecutor fixedPool = new ThreadPoolExecutor(16, 16, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>());
+		try {
+			JdkPoolSizeController c = new JdkPoolSizeController("test", fixedPool, //$NON-NLS-1$
+					null, 4, 32, THRESHOLD);
+			c.run();
+			// The pool is idle.
+			c.run();
+			assertEquals(14, fixedPool.getCorePoolSize());
+			assertEquals(14, fixedPool.getMaximumPoolSize());
+		} finally {
+			fixedPool.shutdownNow();
+		}
+	}
+
+	@Test
+	public void resize_concurrency() throws Exception {
+		ThreadPoolExecutor fixedPool = new ThreadPoolExecutor(4, 4, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>());
+		try {
+			JdkPoolSizeController c = new JdkPoolSizeController("test", fixedPool, //$NON-NLS-1$
+					null, 1, 4, THRESHOLD);
+			c.resize(4, 1);
+			assertEquals(1, runConcurrently(fixedPool, 4));
+			c.resize(1, 3);
+			assertEquals(3, runConcurrently(fixedPool, 3));
+		} finally {
+			fixedPool.shutdownNow();
+		}
+	}
+
+	/** Run tasks that are waiting for each other, and reply the maximal
+	 * number of tasks that were running at the same time.
+	 */
+	private static int runConcurrently(ThreadPoolExecutor pool, int taskCount) throws Exception {
+		final CyclicBarrier barrier = new CyclicBarrier(taskCount);
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger peak = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < taskCount; ++i) {
+			futures.add(pool.submit(new Runnable() {
+				@Override
+				public void run() {
+					int n = running.incrementAndGet();
+					int p;
+					do {
+						p = peak.get();
+					} while (n > p && !peak.compareAndSet(p, n));
+					try {
+						barrier.await(200, TimeUnit.MILLISECONDS);
+					} catch (Exception e) {
+						// The other tasks are not running.
+					}
+					running.decrementAndGet();
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get(10, TimeUnit.SECONDS);
+		}
+		return peak.get();
+	}
+
+}
@@ -19,11 +19,14 @@
  */
 package io.janusproject.kernel.services.jdk.executors;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import io.janusproject.testutils.AbstractJanusTest;
 
 import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.annotation.Nullable;
 
@@ -59,4 +62,19 @@ public class JdkThreadFactoryTest extends AbstractJanusTest {
 		assertSame(this.handler, t.getUncaughtExceptionHandler());
 	}
 
+	@Test
+	public void newThread_kernelThread() throws Exception {
+		final AtomicBoolean kernelThread = new AtomicBoolean();
+		Thread t = this.factory.newThread(new Runnable() {
+			@Override
+			public void run() {
+				kernelThread.set(JdkExecutorUtil.isKernelThread());
+			}
+		});
+		t.start();
+		t.join(10000);
+		assertTrue(kernelThread.get());
+		assertFalse(JdkExecutorUtil.isKernelThread());
+	}
+
 }
@@ -21,6 +21,7 @@ package io.janusproject.kernel.services.jdk.executors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
@@ -31,9 +32,12 @@ import io.janusproject.testutils.FutureExceptionMatcher;
 
 import java.lang.Thread.UncaughtExceptionHandler;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.annotation.Nullable;
 
@@ -190,6 +194,42 @@ public class JdkThreadPoolExecutorTest extends AbstractJanusTest {
 		assertTrue(argument2.getValue() instanceof MockitoException);
 	}
 
+	@Test
+	public void execute_allThreadsBusy() throws Exception {
+		JdkThreadPoolExecutor pool = new JdkThreadPoolExecutor(1, Executors.defaultThreadFactory());
+		try {
+			final CountDownLatch latch = new CountDownLatch(1);
+			Runnable blocking = new Runnable() {
+				@Override
+				public void run() {
+					try {
+						latch.await();
+					} catch (InterruptedException e) {
+						//
+					}
+				}
+			};
+			pool.execute(blocking);
+			pool.execute(blocking);
+			final AtomicReference<Thread> thread = new AtomicReference<>();
+			final CountDownLatch done = new CountDownLatch(1);
+			pool.execute(new Runnable() {
+				@Override
+				public void run() {
+					thread.set(Thread.currentThread());
+					done.countDown();
+				}
+			});
+			// The task is run by a new thread of the pool, even if the core threads are blocked.
+			assertTrue(done.await(10, TimeUnit.SECONDS));
+			assertNotSame(Thread.currentThread(), thread.get());
+			assertEquals(3, pool.getPoolSize());
+			latch.countDown();
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
 	private void waitTaskTermination() throws Exception {
 		this.termListener.waitForTermination();
 		this.executor.shutdown();
@@ -0,0 +1,301 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.jdk.executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import io.janusproject.services.executor.ChuckNorrisException;
+import io.janusproject.services.executor.JanusScheduledFutureTask;
+import io.janusproject.testutils.AbstractJanusTest;
+
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class JdkTimingWheelScheduledExecutorTest extends AbstractJanusTest {
+
+	private static final int TIMEOUT = 5;
+
+	@Nullable
+	private UncaughtExceptionHandler handler;
+
+	@Nullable
+	private ExecutorService workers;
+
+	@Nullable
+	private JdkTimingWheelScheduledExecutor executor;
+
+	@Before
+	public void setUp() {
+		this.handler = Mockito.mock(UncaughtExceptionHandler.class);
+		JdkThreadFactory factory = new JdkThreadFactory(this.handler);
+		this.workers = Executors.newCachedThreadPool(factory);
+		this.executor = new JdkTimingWheelScheduledExecutor(5, TimeUnit.MILLISECONDS, 6, factory, this.workers);
+		this.executor.start();
+	}
+
+	private JdkTimingWheelScheduledExecutor createNotStartedExecutor() {
+		return new JdkTimingWheelScheduledExecutor(5, TimeUnit.MILLISECONDS, 6,
+				new JdkThreadFactory(this.handler), this.workers);
+	}
+
+	@After
+	public void tearDown() {
+		this.executor.shutdownNow();
+		this.workers.shutdownNow();
+	}
+
+	private static void waitCount(AtomicInteger count, int expected) throws InterruptedException {
+		long end = System.currentTimeMillis() + TIMEOUT * 1000;
+		while (count.get() < expected && System.currentTimeMillis() < end) {
+			Thread.sleep(5);
+		}
+	}
+
+	@Test
+	public void getWheelSize() {
+		assertEquals(8, this.executor.getWheelSize());
+		assertEquals(5, this.executor.getTickDuration(TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void schedule_notBeforeDelay() throws Exception {
+		final long start = System.nanoTime();
+		ScheduledFuture<Long> future = this.executor.schedule(new Callable<Long>() {
+			@Override
+			public Long call() throws Exception {
+				return System.nanoTime() - start;
+			}
+		}, 50, TimeUnit.MILLISECONDS);
+		assertTrue(future instanceof JanusScheduledFutureTask<?>);
+		long elapsed = future.get(TIMEOUT, TimeUnit.SECONDS);
+		assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(50));
+		assertNotSame(Thread.currentThread(), ((JanusScheduledFutureTask<?>) future).getThread());
+		assertEquals(0, this.executor.getScheduledTaskCount());
+		Mockito.verifyZeroInteractions(this.handler);
+	}
+
+	@Test
+	public void schedule_severalRounds() throws Exception {
+		// 100ms is more than the 8 buckets of 5ms
+		ScheduledFuture<Boolean> future = this.executor.schedule(new Callable<Boolean>() {
+			@Override
+			public Boolean call() throws Exception {
+				return Boolean.TRUE;
+			}
+		}, 100, TimeUnit.MILLISECONDS);
+		assertTrue(future.get(TIMEOUT, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void schedule_cancel() throws Exception {
+		final AtomicInteger count = new AtomicInteger();
+		ScheduledFuture<?> future = this.executor.schedule(new Runnable() {
+			@Override
+			public void run() {
+				count.incrementAndGet();
+			}
+		}, 50, TimeUnit.MILLISECONDS);
+		assertTrue(future.cancel(false));
+		Thread.sleep(150);
+		assertEquals(0, count.get());
+		assertTrue(future.isCancelled());
+		assertEquals(0, this.executor.getScheduledTaskCount());
+	}
+
+	@Test
+	public void scheduleAtFixedRate() throws Exception {
+		final AtomicInteger count = new AtomicInteger();
+		ScheduledFuture<?> future = this.executor.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				count.incrementAndGet();
+			}
+		}, 0, 10, TimeUnit.MILLISECONDS);
+		assertTrue(((JanusScheduledFutureTask<?>) future).isPeriodic());
+		waitCount(count, 3);
+		future.cancel(false);
+		assertTrue(count.get() >= 3);
+		assertFalse(future.isDone() && !future.isCancelled());
+	}
+
+	@Test
+	public void scheduleWithFixedDelay() throws Exception {
+		final AtomicInteger count = new AtomicInteger();
+		ScheduledFuture<?> future = this.executor.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				count.incrementAndGet();
+			}
+		}, 10, 10, TimeUnit.MILLISECONDS);
+		waitCount(count, 3);
+		future.cancel(false);
+		assertTrue(count.get() >= 3);
+	}
+
+	@Test
+	public void schedule_exception() throws Exception {
+		final Exception error = new Exception();
+		ScheduledFuture<Object> future = this.executor.schedule(new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				throw error;
+			}
+		}, 10, TimeUnit.MILLISECONDS);
+		Mockito.verify(this.handler, Mockito.timeout(TIMEOUT * 1000)).uncaughtException(
+				Matchers.any(Thread.class), Matchers.same(error));
+	}
+
+	@Test
+	public void schedule_chuckNorris() throws Exception {
+		ScheduledFuture<Object> future = this.executor.schedule(new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				throw new ChuckNorrisException();
+			}
+		}, 10, TimeUnit.MILLISECONDS);
+		assertNull(future.get(TIMEOUT, TimeUnit.SECONDS));
+		Mockito.verifyZeroInteractions(this.handler);
+	}
+
+	@Test
+	public void isCurrentThread() throws Exception {
+		final JanusScheduledFutureTask<?>[] task = new JanusScheduledFutureTask<?>[1];
+		final Object lock = new Object();
+		ScheduledFuture<Boolean> future;
+		synchronized (lock) {
+			future = this.executor.schedule(new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					synchronized (lock) {
+						return task[0].isCurrentThread();
+					}
+				}
+			}, 10, TimeUnit.MILLISECONDS);
+			task[0] = (JanusScheduledFutureTask<?>) future;
+		}
+		assertTrue(future.get(TIMEOUT, TimeUnit.SECONDS));
+		assertFalse(task[0].isCurrentThread());
+	}
+
+	@Test
+	public void shutdown() throws Exception {
+		final AtomicInteger count = new AtomicInteger();
+		ScheduledFuture<?> delayed = this.executor.schedule(new Runnable() {
+			@Override
+			public void run() {
+				count.incrementAndGet();
+			}
+		}, 30, TimeUnit.MILLISECONDS);
+		ScheduledFuture<?> periodic = this.executor.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				//
+			}
+		}, 1000, 1000, TimeUnit.MILLISECONDS);
+		this.executor.shutdown();
+		assertTrue(this.executor.isShutdown());
+		try {
+			this.executor.schedule(Mockito.mock(Runnable.class), 10, TimeUnit.MILLISECONDS);
+			throw new AssertionError("RejectedExecutionException expected"); //$NON-NLS-1$
+		} catch (RejectedExecutionException e) {
+			//
+		}
+		assertTrue(this.executor.awaitTermination(TIMEOUT, TimeUnit.SECONDS));
+		assertTrue(this.executor.isTerminated());
+		delayed.get(TIMEOUT, TimeUnit.SECONDS);
+		assertEquals(1, count.get());
+		assertTrue(delayed.isDone());
+		assertTrue(periodic.isCancelled());
+	}
+
+	@Test
+	public void start() throws Exception {
+		JdkTimingWheelScheduledExecutor executor = createNotStartedExecutor();
+		try {
+			final AtomicInteger count = new AtomicInteger();
+			executor.schedule(new Runnable() {
+				@Override
+				public void run() {
+					count.incrementAndGet();
+				}
+			}, 10, TimeUnit.MILLISECONDS);
+			Thread.sleep(100);
+			// The ticker is not started.
+			assertEquals(0, count.get());
+			assertEquals(1, executor.getScheduledTaskCount());
+			executor.start();
+			waitCount(count, 1);
+			assertEquals(1, count.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void isIdle() throws Exception {
+		JdkTimingWheelScheduledExecutor executor = createNotStartedExecutor();
+		try {
+			assertTrue(executor.isIdle());
+			ScheduledFuture<?> future = executor.schedule(Mockito.mock(Runnable.class), 10, TimeUnit.MILLISECONDS);
+			// The timer is not yet due.
+			assertTrue(executor.isIdle());
+			Thread.sleep(50);
+			// The timer is due, but the ticker is not started.
+			assertFalse(executor.isIdle());
+			executor.start();
+			future.get(TIMEOUT, TimeUnit.SECONDS);
+			assertTrue(executor.isIdle());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void shutdown_notStarted() throws Exception {
+		JdkTimingWheelScheduledExecutor executor = createNotStartedExecutor();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(TIMEOUT, TimeUnit.SECONDS));
+	}
+
+}
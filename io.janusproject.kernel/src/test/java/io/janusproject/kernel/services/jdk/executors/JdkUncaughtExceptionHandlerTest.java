@@ -167,4 +167,17 @@ public class JdkUncaughtExceptionHandlerTest extends AbstractJanusTest {
 		assertEquals("handleException_Interrupt", argument.getValue().getSourceMethodName()); //$NON-NLS-1$
 	}
 
+	@Test
+	public void handleException_perceptDispatcher() {
+		Exception e = new Exception();
+		this.handler.handleException(e, this.exceptionContext.getEventBus(), this.exceptionContext.getEvent(), new Object());
+
+		ArgumentCaptor<LogRecord> argument = ArgumentCaptor.forClass(LogRecord.class);
+		Mockito.verify(this.logger).log(argument.capture());
+		assertSame(Level.SEVERE, argument.getValue().getLevel());
+		assertSame(e, argument.getValue().getThrown());
+		assertEquals(JdkUncaughtExceptionHandlerTest.class.getName(), argument.getValue().getSourceClassName());
+		assertEquals("handleException_perceptDispatcher", argument.getValue().getSourceMethodName()); //$NON-NLS-1$
+	}
+
 }
@@ -0,0 +1,284 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.jdk.executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import io.janusproject.services.executor.ClassifiedTask;
+import io.janusproject.services.executor.JanusScheduledFutureTask;
+import io.janusproject.services.executor.TaskKind;
+import io.janusproject.testutils.AbstractJanusTest;
+
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class JdkVirtualTimeScheduledExecutorTest extends AbstractJanusTest {
+
+	private static final int TIMEOUT = 5;
+
+	private static final long HOUR = 3600;
+
+	@Nullable
+	private UncaughtExceptionHandler handler;
+
+	@Nullable
+	private JdkVirtualTimeScheduledExecutor executor;
+
+	@Before
+	public void setUp() {
+		this.handler = Mockito.mock(UncaughtExceptionHandler.class);
+		this.executor = new JdkVirtualTimeScheduledExecutor(4, new JdkThreadFactory(this.handler));
+	}
+
+	@After
+	public void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	/** Run the given code in the executor, as an agent would do.
+	 */
+	private <T> T inExecutor(Callable<T> code) throws Exception {
+		return this.executor.submit(code).get(TIMEOUT, TimeUnit.SECONDS);
+	}
+
+	/** Replies a callable that is classified as an agent task. The callable type
+	 * is explicit for selecting the callable variant of the schedule functions.
+	 */
+	private static Callable<Long> agentCallable(JdkVirtualTimeScheduledExecutor executor) {
+		return new AgentCallable(executor);
+	}
+
+	@Test
+	public void getTime_initial() {
+		assertEquals(0, this.executor.getTime(TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void schedule_jumpToDueTime() throws Exception {
+		final JdkVirtualTimeScheduledExecutor executor = this.executor;
+		long start = System.currentTimeMillis();
+		ScheduledFuture<Long> future = inExecutor(new Callable<ScheduledFuture<Long>>() {
+			@Override
+			public ScheduledFuture<Long> call() throws Exception {
+				return executor.schedule(agentCallable(executor), HOUR, TimeUnit.SECONDS);
+			}
+		});
+		assertTrue(future instanceof JanusScheduledFutureTask<?>);
+		assertEquals(HOUR, future.get(TIMEOUT, TimeUnit.SECONDS).longValue());
+		assertTrue(System.currentTimeMillis() - start < TIMEOUT * 1000);
+		assertEquals(HOUR, this.executor.getTime(TimeUnit.SECONDS));
+		Mockito.verifyZeroInteractions(this.handler);
+	}
+
+	@Test
+	public void schedule_order() throws Exception {
+		final JdkVirtualTimeScheduledExecutor executor = this.executor;
+		final List<ScheduledFuture<Long>> futures = inExecutor(new Callable<List<ScheduledFuture<Long>>>() {
+			@Override
+			public List<ScheduledFuture<Long>> call() throws Exception {
+				List<ScheduledFuture<Long>> list = new ArrayList<>();
+				list.add(executor.schedule(agentCallable(executor), 3 * HOUR, TimeUnit.SECONDS));
+				list.add(executor.schedule(agentCallable(executor), HOUR, TimeUnit.SECONDS));
+				list.add(executor.schedule(agentCallable(executor), 2 * HOUR, TimeUnit.SECONDS));
+				return list;
+			}
+		});
+		assertEquals(3 * HOUR, futures.get(0).get(TIMEOUT, TimeUnit.SECONDS).longValue());
+		assertEquals(HOUR, futures.get(1).get(TIMEOUT, TimeUnit.SECONDS).longValue());
+		assertEquals(2 * HOUR, futures.get(2).get(TIMEOUT, TimeUnit.SECONDS).longValue());
+	}
+
+	@Test
+	public void schedule_waitForActivity() throws Exception {
+		final JdkVirtualTimeScheduledExecutor executor = this.executor;
+		final Object lock = new Object();
+		ScheduledFuture<Long> future;
+		synchronized (lock) {
+			future = inExecutor(new Callable<ScheduledFuture<Long>>() {
+				@Override
+				public ScheduledFuture<Long> call() throws Exception {
+					// A busy agent prevents the clock to move.
+					executor.execute(new Runnable() {
+						@Override
+						public void run() {
+							synchronized (lock) {
+								//
+							}
+						}
+					});
+					return executor.schedule(agentCallable(executor), HOUR, TimeUnit.SECONDS);
+				}
+			});
+			Thread.sleep(100);
+			assertFalse(future.isDone());
+			assertEquals(0, this.executor.getTime(TimeUnit.SECONDS));
+		}
+		assertEquals(HOUR, future.get(TIMEOUT, TimeUnit.SECONDS).longValue());
+	}
+
+	@Test
+	public void schedule_serviceTaskDoesNotMoveClock() throws Exception {
+		final JdkVirtualTimeScheduledExecutor executor = this.executor;
+		final Runnable service = Mockito.mock(Runnable.class);
+		ScheduledFuture<?> future = inExecutor(new Callable<ScheduledFuture<?>>() {
+			@Override
+			public ScheduledFuture<?> call() throws Exception {
+				return executor.schedule(service, HOUR, TimeUnit.SECONDS);
+			}
+		});
+		Thread.sleep(100);
+		assertFalse(future.isDone());
+		assertEquals(0, this.executor.getTime(TimeUnit.SECONDS));
+		Mockito.verifyZeroInteractions(service);
+	}
+
+	@Test
+	public void schedule_cancel() throws Exception {
+		final JdkVirtualTimeScheduledExecutor executor = this.executor;
+		final ScheduledFuture<?>[] futures = inExecutor(new Callable<ScheduledFuture<?>[]>() {
+			@Override
+			public ScheduledFuture<?>[] call() throws Exception {
+				ScheduledFuture<?>[] array = new ScheduledFuture<?>[] {
+					executor.schedule(agentCallable(executor), HOUR, TimeUnit.SECONDS),
+					executor.schedule(agentCallable(executor), 2 * HOUR, TimeUnit.SECONDS),
+				};
+				// Cancel while the clock cannot move.
+				array[1].cancel(false);
+				return array;
+			}
+		});
+		assertTrue(futures[1].isCancelled());
+		assertEquals(HOUR, ((Long) futures[0].get(TIMEOUT, TimeUnit.SECONDS)).longValue());
+		Thread.sleep(100);
+		assertEquals(HOUR, this.executor.getTime(TimeUnit.SECONDS));
+		assertEquals(0, this.executor.getScheduledTaskCount());
+	}
+
+	@Test
+	public void scheduleAtFixedRate() throws Exception {
+		final JdkVirtualTimeScheduledExecutor executor = this.executor;
+		final List<Long> times = new ArrayList<>();
+		ScheduledFuture<?> future = inExecutor(new Callable<ScheduledFuture<?>>() {
+			@Override
+			public ScheduledFuture<?> call() throws Exception {
+				return executor.scheduleAtFixedRate(new AgentRunnable() {
+					@Override
+					public void run() {
+						synchronized (times) {
+							times.add(executor.getTime(TimeUnit.SECONDS));
+							times.notifyAll();
+						}
+					}
+				}, HOUR, HOUR, TimeUnit.SECONDS);
+			}
+		});
+		synchronized (times) {
+			long end = System.currentTimeMillis() + TIMEOUT * 1000;
+			while (times.size() < 3 && System.currentTimeMillis() < end) {
+				times.wait(100);
+			}
+			future.cancel(false);
+			assertTrue(times.size() >= 3);
+			for (int i = 0; i < 3; ++i) {
+				assertEquals((i + 1) * HOUR, times.get(i).longValue());
+			}
+		}
+	}
+
+	@Test
+	public void shutdown() throws Exception {
+		final JdkVirtualTimeScheduledExecutor executor = this.executor;
+		ScheduledFuture<?> future = inExecutor(new Callable<ScheduledFuture<?>>() {
+			@Override
+			public ScheduledFuture<?> call() throws Exception {
+				return executor.schedule(Mockito.mock(Runnable.class), HOUR, TimeUnit.SECONDS);
+			}
+		});
+		this.executor.shutdown();
+		assertTrue(this.executor.awaitTermination(TIMEOUT, TimeUnit.SECONDS));
+		assertTrue(future.isCancelled());
+	}
+
+	/**
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private static abstract class AgentRunnable implements ClassifiedTask {
+
+		@Override
+		public TaskKind getTaskKind() {
+			return TaskKind.SCHEDULED_AGENT_TASK;
+		}
+
+	}
+
+	/**
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private static class AgentCallable implements Callable<Long>, ClassifiedTask {
+
+		private final JdkVirtualTimeScheduledExecutor executor;
+
+		public AgentCallable(JdkVirtualTimeScheduledExecutor executor) {
+			this.executor = executor;
+		}
+
+		@Override
+		public TaskKind getTaskKind() {
+			return TaskKind.SCHEDULED_AGENT_TASK;
+		}
+
+		@Override
+		public Long call() throws Exception {
+			return this.executor.getTime(TimeUnit.SECONDS);
+		}
+
+		@Override
+		public void run() {
+			//
+		}
+
+	}
+
+}
@@ -31,6 +31,7 @@ import io.janusproject.services.distributeddata.DistributedDataStructureService;
 import io.janusproject.services.kerneldiscovery.KernelDiscoveryService;
 import io.janusproject.services.network.NetworkService;
 import io.janusproject.services.spawn.AgentFactory;
+import io.janusproject.services.spawn.AgentsSpawned;
 import io.janusproject.services.spawn.KernelAgentSpawnListener;
 import io.janusproject.services.spawn.SpawnService;
 import io.janusproject.services.spawn.SpawnService.AgentKillException;
@@ -52,9 +53,11 @@ import io.sarl.lang.util.SynchronizedSet;
 import io.sarl.util.Collections3;
 import io.sarl.util.OpenEventSpace;
 
+import java.lang.invoke.MethodHandle;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -70,6 +73,7 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.internal.verification.Times;
 
 import com.google.inject.Injector;
+import com.google.inject.MembersInjector;
 
 /**
  * @author $Author: sgalland$
@@ -237,6 +241,79 @@ public class StandardSpawnServiceTest extends AbstractDependentServiceTest<Stand
 		assertEquals(ag.getClass().getName(), ((AgentSpawned)argument4.getValue()).agentType);
 	}
 
+	@Test
+	public void spawn_group() throws Exception {
+		Agent agent1 = Mockito.mock(Agent.class);
+		UUID id1 = UUID.randomUUID();
+		Mockito.when(agent1.getID()).thenReturn(id1);
+		Agent agent2 = Mockito.mock(Agent.class);
+		UUID id2 = UUID.randomUUID();
+		Mockito.when(agent2.getID()).thenReturn(id2);
+		Agent agent3 = Mockito.mock(Agent.class);
+		UUID id3 = UUID.randomUUID();
+		Mockito.when(agent3.getID()).thenReturn(id3);
+		Mockito.when(this.agentFactory.newInstance(Matchers.any(Class.class), Matchers.any(UUID.class), Matchers.any(UUID.class)))
+			.thenReturn(agent1, agent2, agent3);
+		//
+		List<UUID> agentIds = this.service.spawn(this.agentContext, 3, Agent.class, "a", "b");  //$NON-NLS-1$//$NON-NLS-2$
+		//
+		assertEquals(Arrays.asList(id1, id2, id3), agentIds);
+		Set<UUID> agents = this.service.getAgents();
+		assertEquals(3, agents.size());
+		assertTrue(agents.containsAll(agentIds));
+		//
+		ArgumentCaptor<Agent> argument1 = ArgumentCaptor.forClass(Agent.class);
+		Mockito.verify(this.serviceListener, new Times(3)).agentSpawned(
+				Matchers.same(this.agentContext), argument1.capture(), Matchers.any(Object[].class));
+		assertEquals(Arrays.asList(agent1, agent2, agent3), argument1.getAllValues());
+		//
+		ArgumentCaptor<Event> argument2 = ArgumentCaptor.forClass(Event.class);
+		Mockito.verify(this.defaultSpace, new Times(1)).emit(argument2.capture());
+		assertTrue(argument2.getValue() instanceof AgentsSpawned);
+		assertEquals(agentIds, ((AgentsSpawned) argument2.getValue()).agentIDs);
+		assertEquals(Agent.class.getName(), ((AgentsSpawned) argument2.getValue()).agentType);
+	}
+
+	@Test
+	public void spawn_group_listenerFailure() throws Exception {
+		Agent agent1 = Mockito.mock(Agent.class);
+		UUID id1 = UUID.randomUUID();
+		Mockito.when(agent1.getID()).thenReturn(id1);
+		Agent agent2 = Mockito.mock(Agent.class);
+		UUID id2 = UUID.randomUUID();
+		Mockito.when(agent2.getID()).thenReturn(id2);
+		Agent agent3 = Mockito.mock(Agent.class);
+		UUID id3 = UUID.randomUUID();
+		Mockito.when(agent3.getID()).thenReturn(id3);
+		Mockito.when(this.agentFactory.newInstance(Matchers.any(Class.class), Matchers.any(UUID.class), Matchers.any(UUID.class)))
+			.thenReturn(agent1, agent2, agent3);
+		RuntimeException failure = new RuntimeException();
+		Mockito.doNothing().doThrow(failure).when(this.serviceListener).agentSpawned(
+				Matchers.any(AgentContext.class), Matchers.any(Agent.class), Matchers.any(Object[].class));
+		//
+		try {
+			this.service.spawn(this.agentContext, 3, Agent.class, "a", "b");  //$NON-NLS-1$//$NON-NLS-2$
+			fail("Expecting CannotSpawnException"); //$NON-NLS-1$
+		} catch (StandardSpawnService.CannotSpawnException e) {
+			assertSame(failure, e.getCause());
+		}
+		//
+		assertTrue(this.service.getAgents().isEmpty());
+		Mockito.verify(this.serviceListener, new Times(2)).agentSpawned(
+				Matchers.any(AgentContext.class), Matchers.any(Agent.class), Matchers.any(Object[].class));
+		Mockito.verify(this.defaultSpace, new Times(0)).emit(Matchers.any(AgentsSpawned.class));
+		Mockito.verify(this.kernelListener, new Times(1)).kernelAgentDestroy();
+	}
+
+	@Test
+	public void spawn_emptyGroup() {
+		List<UUID> agentIds = this.service.spawn(this.agentContext, 0, Agent.class);
+		//
+		assertTrue(agentIds.isEmpty());
+		assertTrue(this.service.getAgents().isEmpty());
+		Mockito.verifyZeroInteractions(this.serviceListener, this.defaultSpace);
+	}
+
 	@AvoidServiceStartForTest
 	@Test
 	public void canKillAgent_oneagentinsideinnercontext() {
@@ -296,6 +373,34 @@ public class StandardSpawnServiceTest extends AbstractDependentServiceTest<Stand
 		Mockito.verify(this.kernelListener, new Times(1)).kernelAgentDestroy();
 	}
 
+	@Test
+	public void spawn_sameIdentifier() {
+		UUID agentId = this.service.spawn(this.agentContext, null, Agent.class, "a", "b");  //$NON-NLS-1$//$NON-NLS-2$
+		try {
+			this.service.spawn(this.agentContext, agentId, Agent.class, "a", "b");  //$NON-NLS-1$//$NON-NLS-2$
+			fail("Expecting CannotSpawnException"); //$NON-NLS-1$
+		} catch (StandardSpawnService.CannotSpawnException _) {
+			// Expected exception
+		}
+		//
+		Set<UUID> agents = this.service.getAgents();
+		assertEquals(1, agents.size());
+		Mockito.verify(this.serviceListener, new Times(1)).agentSpawned(
+				Matchers.any(AgentContext.class), Matchers.any(Agent.class), Matchers.any(Object[].class));
+	}
+
+	@Test
+	public void killAgent_twice() throws AgentKillException {
+		UUID agentId = this.service.spawn(this.agentContext, null, Agent.class, "a", "b");  //$NON-NLS-1$//$NON-NLS-2$
+		//
+		this.service.killAgent(agentId);
+		this.service.killAgent(agentId);
+		//
+		assertTrue(this.service.getAgents().isEmpty());
+		Mockito.verify(this.serviceListener, new Times(1)).agentDestroy(Matchers.any(Agent.class));
+		Mockito.verify(this.kernelListener, new Times(1)).kernelAgentDestroy();
+	}
+
 	@AvoidServiceStartForTest
 	@Test
 	public void doStart() {
@@ -309,4 +414,125 @@ public class StandardSpawnServiceTest extends AbstractDependentServiceTest<Stand
 		Mockito.verify(this.kernelListener, new Times(1)).kernelAgentSpawn();
 	}
 
+	/** Replies the default agent factory of a new service.
+	 */
+	private StandardSpawnService.DefaultAgentFactory newDefaultAgentFactory(MembersInjector<Agent> membersInjector) {
+		Mockito.when(this.injector.getMembersInjector(Matchers.any(Class.class))).thenReturn(membersInjector);
+		AgentFactory factory = new StandardSpawnService(this.injector).getAgentFactory();
+		assertTrue(factory instanceof StandardSpawnService.DefaultAgentFactory);
+		return (StandardSpawnService.DefaultAgentFactory) factory;
+	}
+
+	@Test
+	public void defaultAgentFactory_withoutID() throws Exception {
+		MembersInjector<Agent> membersInjector = Mockito.mock(MembersInjector.class);
+		AgentFactory factory = newDefaultAgentFactory(membersInjector);
+		UUID contextId = UUID.randomUUID();
+		FactoryAgent ag = factory.newInstance(FactoryAgent.class, null, contextId);
+		assertNotNull(ag);
+		assertEquals(contextId, ag.getParentID());
+		assertNotNull(ag.getID());
+		Mockito.verify(membersInjector, new Times(1)).injectMembers(ag);
+	}
+
+	@Test
+	public void defaultAgentFactory_withID() throws Exception {
+		MembersInjector<Agent> membersInjector = Mockito.mock(MembersInjector.class);
+		AgentFactory factory = newDefaultAgentFactory(membersInjector);
+		UUID contextId = UUID.randomUUID();
+		UUID agentId = UUID.randomUUID();
+		FactoryAgent ag = factory.newInstance(FactoryAgent.class, agentId, contextId);
+		assertNotNull(ag);
+		assertEquals(contextId, ag.getParentID());
+		assertEquals(agentId, ag.getID());
+		Mockito.verify(membersInjector, new Times(1)).injectMembers(ag);
+	}
+
+	@Test
+	public void defaultAgentFactory_missingConstructor() throws Exception {
+		MembersInjector<Agent> membersInjector = Mockito.mock(MembersInjector.class);
+		AgentFactory factory = newDefaultAgentFactory(membersInjector);
+		try {
+			factory.newInstance(ParentOnlyAgent.class, UUID.randomUUID(), UUID.randomUUID());
+			fail("Expecting NoSuchMethodException"); //$NON-NLS-1$
+		} catch (NoSuchMethodException _) {
+			// Expected exception
+		}
+		this.service.setAgentFactory(factory);
+		try {
+			this.service.spawn(this.agentContext, UUID.randomUUID(), ParentOnlyAgent.class);
+			fail("Expecting CannotSpawnException"); //$NON-NLS-1$
+		} catch (StandardSpawnService.CannotSpawnException e) {
+			assertTrue(e.getCause() instanceof NoSuchMethodException);
+		}
+		assertTrue(this.service.getAgents().isEmpty());
+		Mockito.verifyZeroInteractions(membersInjector);
+		Mockito.verify(this.serviceListener, new Times(0)).agentSpawned(
+				Matchers.any(AgentContext.class), Matchers.any(Agent.class), Matchers.any(Object[].class));
+	}
+
+	@Test
+	public void defaultAgentFactory_cache() throws Exception {
+		MembersInjector<Agent> membersInjector = Mockito.mock(MembersInjector.class);
+		StandardSpawnService.DefaultAgentFactory factory = newDefaultAgentFactory(membersInjector);
+		UUID contextId = UUID.randomUUID();
+		FactoryAgent ag1 = factory.newInstance(FactoryAgent.class, null, contextId);
+		StandardSpawnService.AgentType agentType = factory.getAgentType(FactoryAgent.class);
+		MethodHandle constructor = agentType.getConstructor();
+		FactoryAgent ag2 = factory.newInstance(FactoryAgent.class, null, contextId);
+		FactoryAgent ag3 = factory.newInstance(FactoryAgent.class, UUID.randomUUID(), contextId);
+		MethodHandle constructorWithID = agentType.getConstructorWithID();
+		FactoryAgent ag4 = factory.newInstance(FactoryAgent.class, UUID.randomUUID(), contextId);
+		assertNotSame(ag1, ag2);
+		assertNotSame(ag3, ag4);
+		assertSame(agentType, factory.getAgentType(FactoryAgent.class));
+		assertSame(constructor, agentType.getConstructor());
+		assertSame(constructorWithID, agentType.getConstructorWithID());
+		assertSame(membersInjector, agentType.getMembersInjector());
+		Mockito.verify(this.injector, new Times(1)).getMembersInjector(Matchers.any(Class.class));
+		Mockito.verify(membersInjector, new Times(4)).injectMembers(Matchers.any(Agent.class));
+	}
+
+	/**
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	public static class FactoryAgent extends Agent {
+
+		/**
+		 * @param parentID - the identifier of the parent's agent.
+		 */
+		public FactoryAgent(UUID parentID) {
+			super(parentID);
+		}
+
+		/**
+		 * @param parentID - the identifier of the parent's agent.
+		 * @param agentID - the identifier of the agent.
+		 */
+		public FactoryAgent(UUID parentID, UUID agentID) {
+			super(parentID, agentID);
+		}
+
+	}
+
+	/**
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	public static class ParentOnlyAgent extends Agent {
+
+		/**
+		 * @param parentID - the identifier of the parent's agent.
+		 */
+		public ParentOnlyAgent(UUID parentID) {
+			super(parentID);
+		}
+
+	}
+
 }
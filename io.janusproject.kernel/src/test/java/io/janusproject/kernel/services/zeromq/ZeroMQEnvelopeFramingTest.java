@@ -0,0 +1,153 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.zeromq;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import io.janusproject.services.network.EventEnvelope;
+import io.janusproject.testutils.AbstractJanusTest;
+
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class ZeroMQEnvelopeFramingTest extends AbstractJanusTest {
+
+	@Nullable
+	private ZeroMQEnvelopeFraming framing;
+
+	@Nullable
+	private EventEnvelope envelope1;
+
+	@Nullable
+	private EventEnvelope envelope2;
+
+	@Before
+	public void setUp() {
+		this.framing = new ZeroMQEnvelopeFraming();
+		this.envelope1 = new EventEnvelope(new byte[] {1, 2}, new byte[] {3}, new byte[] {4, 5, 6},
+				new byte[] {7}, new byte[] {8, 9});
+		this.envelope2 = new EventEnvelope(new byte[] {1, 2}, new byte[] {3}, new byte[] {12},
+				new byte[] {13, 14, 15}, new byte[5000]);
+	}
+
+	private static byte[] toArray(ByteBuffer buffer) {
+		byte[] array = new byte[buffer.remaining()];
+		buffer.get(array);
+		return array;
+	}
+
+	private static void assertEnvelopeEquals(EventEnvelope expected, EventEnvelope actual) {
+		assertArrayEquals(expected.getContextId(), actual.getContextId());
+		assertArrayEquals(expected.getSpaceId(), actual.getSpaceId());
+		assertArrayEquals(expected.getScope(), actual.getScope());
+		assertArrayEquals(expected.getCustomHeaders(), actual.getCustomHeaders());
+		assertArrayEquals(expected.getBody(), actual.getBody());
+	}
+
+	@Test
+	public void buildFilterableHeader() {
+		assertArrayEquals(new byte[] {0, 0, 0, 2, 1, 2, 0, 0, 0, 1, 3},
+				ZeroMQEnvelopeFraming.buildFilterableHeader(new byte[] {1, 2}, new byte[] {3}));
+	}
+
+	@Test
+	public void getFilterableHeader() {
+		byte[] header = this.framing.getFilterableHeader(this.envelope1.getContextId(), this.envelope1.getSpaceId());
+		assertArrayEquals(new byte[] {0, 0, 0, 2, 1, 2, 0, 0, 0, 1, 3}, header);
+		assertSame(header, this.framing.getFilterableHeader(new byte[] {1, 2}, new byte[] {3}));
+		assertNotSame(header, this.framing.getFilterableHeader(new byte[] {1, 2}, new byte[] {4}));
+		assertNotSame(header, this.framing.getFilterableHeader(new byte[] {3}, new byte[] {4}));
+	}
+
+	@Test
+	public void buildFilterableHeader_notPrefix() {
+		byte[] header1 = ZeroMQEnvelopeFraming.buildFilterableHeader(new byte[] {1}, new byte[] {2});
+		byte[] header2 = ZeroMQEnvelopeFraming.buildFilterableHeader(new byte[] {1, 0, 0, 0}, new byte[] {1, 2});
+		assertFalse(Arrays.equals(header1, Arrays.copyOf(header2, header1.length)));
+	}
+
+	@Test
+	public void payloadSize() {
+		assertEquals(12 + 6, ZeroMQEnvelopeFraming.payloadSize(this.envelope1));
+	}
+
+	@Test
+	public void writePayload() {
+		ByteBuffer buffer = this.framing.writePayload(Arrays.asList(this.envelope1));
+		assertArrayEquals(new byte[] {
+				0, 0, 0, 3, 4, 5, 6,
+				0, 0, 0, 1, 7,
+				0, 0, 0, 2, 8, 9}, toArray(buffer));
+	}
+
+	@Test
+	public void readEnvelopes_one() throws Exception {
+		byte[] header = ZeroMQEnvelopeFraming.buildFilterableHeader(this.envelope1.getContextId(),
+				this.envelope1.getSpaceId());
+		byte[] payload = toArray(this.framing.writePayload(Arrays.asList(this.envelope1)));
+		List<EventEnvelope> envelopes = ZeroMQEnvelopeFraming.readEnvelopes(header, payload);
+		assertEquals(1, envelopes.size());
+		assertEnvelopeEquals(this.envelope1, envelopes.get(0));
+	}
+
+	@Test
+	public void readEnvelopes_two() throws Exception {
+		byte[] header = ZeroMQEnvelopeFraming.buildFilterableHeader(this.envelope1.getContextId(),
+				this.envelope1.getSpaceId());
+		// The second envelope is larger than the initial buffer.
+		byte[] payload = toArray(this.framing.writePayload(Arrays.asList(this.envelope1, this.envelope2)));
+		List<EventEnvelope> envelopes = ZeroMQEnvelopeFraming.readEnvelopes(header, payload);
+		assertEquals(2, envelopes.size());
+		assertEnvelopeEquals(this.envelope1, envelopes.get(0));
+		assertEnvelopeEquals(this.envelope2, envelopes.get(1));
+	}
+
+	@Test
+	public void readEnvelopes_truncated() throws Exception {
+		byte[] header = ZeroMQEnvelopeFraming.buildFilterableHeader(this.envelope1.getContextId(),
+				this.envelope1.getSpaceId());
+		byte[] payload = toArray(this.framing.writePayload(Arrays.asList(this.envelope1)));
+		try {
+			ZeroMQEnvelopeFraming.readEnvelopes(header, Arrays.copyOf(payload, payload.length - 1));
+			fail("Expecting EOFException"); //$NON-NLS-1$
+		} catch (EOFException _) {
+			// Expected exception
+		}
+	}
+
+}
@@ -19,28 +19,54 @@
  */
 package io.janusproject.kernel.services.zeromq;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import io.janusproject.services.contextspace.ContextSpaceService;
 import io.janusproject.services.executor.ExecutorService;
 import io.janusproject.services.kerneldiscovery.KernelDiscoveryService;
 import io.janusproject.services.logging.LogService;
+import io.janusproject.services.network.EventDispatch;
+import io.janusproject.services.network.EventEnvelope;
 import io.janusproject.services.network.EventSerializer;
 import io.janusproject.services.network.NetworkService;
+import io.janusproject.services.network.NetworkService.NetworkEventReceivingListener;
 import io.janusproject.services.network.NetworkUtil;
 import io.janusproject.testutils.AbstractDependentServiceTest;
 import io.janusproject.testutils.AvoidServiceStartForTest;
 import io.janusproject.testutils.StartServiceForTest;
+import io.sarl.lang.core.Address;
+import io.sarl.lang.core.Event;
+import io.sarl.lang.core.Scope;
+import io.sarl.lang.core.SpaceID;
+import io.sarl.util.OpenEventSpaceSpecification;
 
 import java.net.InetAddress;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Nullable;
 
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Test;
 import org.mockito.InjectMocks;
+import org.mockito.Matchers;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.zeromq.ZContext;
+import org.zeromq.ZMQ;
+import org.zeromq.ZMQ.Socket;
 
+import com.google.common.primitives.Ints;
 import com.google.inject.Inject;
 
 /** 
@@ -53,6 +79,22 @@ import com.google.inject.Inject;
 @SuppressWarnings("all")
 public class ZeroMQNetworkServiceTest extends AbstractDependentServiceTest<ZeroMQNetworkService> {
 
+	private static final int TIMEOUT = 5;
+
+	private static final int RECEIVE_TIMEOUT = 100;
+
+	private static final int IDLE_DELAY = 200;
+
+	private static final int WAKEUP_TIMEOUT = 500;
+
+	private static final byte[] CONTEXT_ID = new byte[] {1, 2};
+
+	private static final byte[] SPACE_ID = new byte[] {3, 4};
+
+	private static final byte[] PROBE_SCOPE = new byte[] {5};
+
+	private static final byte[] EVENT_SCOPE = new byte[] {6};
+
 	@Nullable
 	private URI uri;
 	
@@ -106,4 +148,101 @@ public class ZeroMQNetworkServiceTest extends AbstractDependentServiceTest<ZeroM
 				KernelDiscoveryService.class);
 	}
 
+	/** Connect the service to itself for the given space.
+	 */
+	private void connectToItself(SpaceID spaceId) throws Exception {
+		Mockito.when(this.serializer.serializeContextID(Matchers.any(UUID.class))).thenReturn(CONTEXT_ID);
+		Mockito.when(this.serializer.serializeSpaceID(Matchers.any(UUID.class))).thenReturn(SPACE_ID);
+		this.service.connectToRemoteSpaces(this.service.getURI(), spaceId,
+				Mockito.mock(NetworkEventReceivingListener.class));
+	}
+
+	private static Event newEvent(SpaceID spaceId) {
+		Address adr = Mockito.mock(Address.class);
+		Mockito.when(adr.getSpaceId()).thenReturn(spaceId);
+		Event event = Mockito.mock(Event.class);
+		Mockito.when(event.getSource()).thenReturn(adr);
+		return event;
+	}
+
+	/** Read the envelopes of a message, or nothing if no message was received before the timeout.
+	 */
+	private static List<EventEnvelope> receive(Socket socket) throws Exception {
+		byte[] header = socket.recv(0);
+		if (header == null) {
+			return Collections.emptyList();
+		}
+		assertTrue(socket.hasReceiveMore());
+		return ZeroMQEnvelopeFraming.readEnvelopes(header, socket.recv(0));
+	}
+
+	@Test
+	public void run_wakeUpOnSubscription() throws Exception {
+		SpaceID spaceId = new SpaceID(UUID.randomUUID(), UUID.randomUUID(), OpenEventSpaceSpecification.class);
+		// Let the thread of the service block on the poller.
+		Thread.sleep(IDLE_DELAY);
+		connectToItself(spaceId);
+		URI peer = this.service.getURI();
+		// The subscription command is run by the thread of the service without waiting for a message.
+		Mockito.verify(this.logger, Mockito.timeout(WAKEUP_TIMEOUT)).debug("PEER_CONNECTED", peer); //$NON-NLS-1$
+		Mockito.verify(this.logger, Mockito.timeout(WAKEUP_TIMEOUT)).debug("PEER_SUBSCRIPTION", peer, spaceId); //$NON-NLS-1$
+	}
+
+	@Test
+	public void shutDown_sendsPendingEnvelopes() throws Exception {
+		final Scope<?> probeScope = Mockito.mock(Scope.class);
+		Scope<?> eventScope = Mockito.mock(Scope.class);
+		final AtomicInteger counter = new AtomicInteger();
+		Mockito.when(this.serializer.serialize(Matchers.any(EventDispatch.class))).thenAnswer(new Answer<EventEnvelope>() {
+			@Override
+			public EventEnvelope answer(InvocationOnMock invocation) throws Throwable {
+				EventDispatch dispatch = (EventDispatch) invocation.getArguments()[0];
+				byte[] scope = (dispatch.getScope() == probeScope) ? PROBE_SCOPE : EVENT_SCOPE;
+				return new EventEnvelope(CONTEXT_ID, SPACE_ID, scope, new byte[] {0},
+						Ints.toByteArray(counter.getAndIncrement()));
+			}
+		});
+		SpaceID spaceId = new SpaceID(UUID.randomUUID(), UUID.randomUUID(), OpenEventSpaceSpecification.class);
+		Event event = newEvent(spaceId);
+		connectToItself(spaceId);
+		int nbEvents = 100;
+		ZContext context = new ZContext();
+		try {
+			Socket subscriber = context.createSocket(ZMQ.SUB);
+			subscriber.setReceiveTimeOut(RECEIVE_TIMEOUT);
+			subscriber.subscribe(new byte[0]);
+			subscriber.connect(this.service.getURI().toString());
+			// Publish probes until the subscriber is connected.
+			long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT);
+			do {
+				if (System.currentTimeMillis() > end) {
+					fail("The subscriber is not connected"); //$NON-NLS-1$
+				}
+				this.service.publish(probeScope, event);
+			} while (receive(subscriber).isEmpty());
+
+			for (int i = 0; i < nbEvents; ++i) {
+				this.service.publish(eventScope, event);
+			}
+			this.service.stopAsync().awaitTerminated(TIMEOUT, TimeUnit.SECONDS);
+
+			// All the envelopes that were queued before the shutdown were sent.
+			List<Integer> received = new ArrayList<>();
+			end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT);
+			while (received.size() < nbEvents && System.currentTimeMillis() < end) {
+				for (EventEnvelope env : receive(subscriber)) {
+					if (env.getScope()[0] == EVENT_SCOPE[0]) {
+						received.add(Ints.fromByteArray(env.getBody()));
+					}
+				}
+			}
+			assertEquals(nbEvents, received.size());
+			for (int i = 1; i < nbEvents; ++i) {
+				assertEquals(received.get(i - 1) + 1, received.get(i).intValue());
+			}
+		} finally {
+			context.destroy();
+		}
+	}
+
 }
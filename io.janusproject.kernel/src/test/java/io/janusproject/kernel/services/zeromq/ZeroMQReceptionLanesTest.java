@@ -0,0 +1,257 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.services.zeromq;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import io.janusproject.services.logging.LogService;
+import io.janusproject.services.network.EventEnvelope;
+import io.janusproject.testutils.AbstractJanusTest;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class ZeroMQReceptionLanesTest extends AbstractJanusTest {
+
+	private static final int TIMEOUT = 10;
+
+	private static final int LANES = 4;
+
+	private static final int BATCH_SIZE = 2;
+
+	private static final byte[] CONTEXT_ID = new byte[] {1, 2, 3};
+
+	@Nullable
+	private ExecutorService executor;
+
+	@Nullable
+	private LogService logger;
+
+	@Before
+	public void setUp() {
+		this.executor = Executors.newFixedThreadPool(LANES, Executors.defaultThreadFactory());
+		this.logger = Mockito.mock(LogService.class);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		this.executor.shutdownNow();
+		this.executor.awaitTermination(TIMEOUT, TimeUnit.SECONDS);
+	}
+
+	private static EventEnvelope envelope(int space, int index) {
+		return new EventEnvelope(CONTEXT_ID, new byte[] {(byte) space}, new byte[] {4}, new byte[] {5},
+				ByteBuffer.allocate(4).putInt(index).array());
+	}
+
+	private static int space(EventEnvelope env) {
+		return env.getSpaceId()[0];
+	}
+
+	private static int index(EventEnvelope env) {
+		return ByteBuffer.wrap(env.getBody()).getInt();
+	}
+
+	/** Replies a space that is not in the lane of the given space.
+	 */
+	private static int spaceInOtherLane(ZeroMQReceptionLanes lanes, int space) {
+		int lane = lanes.getLaneIndex(envelope(space, 0));
+		int other = space + 1;
+		while (lanes.getLaneIndex(envelope(other, 0)) == lane) {
+			++other;
+		}
+		return other;
+	}
+
+	@Test
+	public void getLaneIndex() {
+		ZeroMQReceptionLanes lanes = new ZeroMQReceptionLanes(LANES, BATCH_SIZE, this.executor, this.logger,
+				new RecordingReceiver(0, 0));
+		assertEquals(LANES, lanes.getLaneCount());
+		for (int space = 0; space < 16; ++space) {
+			int index = lanes.getLaneIndex(envelope(space, 0));
+			assertTrue(index >= 0 && index < LANES);
+			assertEquals(index, lanes.getLaneIndex(envelope(space, 1)));
+		}
+	}
+
+	@Test
+	public void dispatch_orderPerSpace() throws Exception {
+		int nbSpaces = 8;
+		int nbEnvelopes = 200;
+		RecordingReceiver receiver = new RecordingReceiver(nbSpaces, nbSpaces * nbEnvelopes);
+		ZeroMQReceptionLanes lanes = new ZeroMQReceptionLanes(LANES, BATCH_SIZE, this.executor, this.logger,
+				receiver);
+		for (int i = 0; i < nbEnvelopes; ++i) {
+			for (int space = 0; space < nbSpaces; ++space) {
+				lanes.dispatch(envelope(space, i));
+			}
+		}
+		assertTrue(receiver.received.await(TIMEOUT, TimeUnit.SECONDS));
+		for (int space = 0; space < nbSpaces; ++space) {
+			List<Integer> indexes = receiver.indexes.get(space);
+			assertEquals(nbEnvelopes, indexes.size());
+			for (int i = 0; i < nbEnvelopes; ++i) {
+				assertEquals(Integer.valueOf(i), indexes.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void dispatch_spacesInterleave() throws Exception {
+		final CountDownLatch blocked = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		RecordingReceiver receiver = new RecordingReceiver(LANES * LANES, 6) {
+			@Override
+			public void receive(EventEnvelope env) throws Exception {
+				if (space(env) == 0 && index(env) == 0) {
+					blocked.countDown();
+					release.await(TIMEOUT, TimeUnit.SECONDS);
+				}
+				super.receive(env);
+			}
+		};
+		ZeroMQReceptionLanes lanes = new ZeroMQReceptionLanes(LANES, BATCH_SIZE, this.executor, this.logger,
+				receiver);
+		int other = spaceInOtherLane(lanes, 0);
+		lanes.dispatch(envelope(0, 0));
+		lanes.dispatch(envelope(0, 1));
+		lanes.dispatch(envelope(0, 2));
+		assertTrue(blocked.await(TIMEOUT, TimeUnit.SECONDS));
+		lanes.dispatch(envelope(other, 0));
+		lanes.dispatch(envelope(other, 1));
+		lanes.dispatch(envelope(other, 2));
+		// The envelopes of the other space are received while the first space is blocked.
+		long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT);
+		while (receiver.indexes.get(other).size() < 3 && System.currentTimeMillis() < end) {
+			Thread.sleep(1);
+		}
+		assertEquals(Collections.emptyList(), receiver.indexes.get(0));
+		assertEquals(3, receiver.indexes.get(other).size());
+		release.countDown();
+		assertTrue(receiver.received.await(TIMEOUT, TimeUnit.SECONDS));
+		assertEquals(0, receiver.indexes.get(0).get(0).intValue());
+		assertEquals(1, receiver.indexes.get(0).get(1).intValue());
+		assertEquals(2, receiver.indexes.get(0).get(2).intValue());
+		assertEquals(0, receiver.indexes.get(other).get(0).intValue());
+		assertEquals(1, receiver.indexes.get(other).get(1).intValue());
+		assertEquals(2, receiver.indexes.get(other).get(2).intValue());
+	}
+
+	@Test
+	public void dispatch_sameLane() throws Exception {
+		final CountDownLatch blocked = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		RecordingReceiver receiver = new RecordingReceiver(1, 2) {
+			@Override
+			public void receive(EventEnvelope env) throws Exception {
+				if (index(env) == 0) {
+					blocked.countDown();
+					release.await(TIMEOUT, TimeUnit.SECONDS);
+				}
+				super.receive(env);
+			}
+		};
+		ZeroMQReceptionLanes lanes = new ZeroMQReceptionLanes(LANES, BATCH_SIZE, this.executor, this.logger,
+				receiver);
+		lanes.dispatch(envelope(0, 0));
+		assertTrue(blocked.await(TIMEOUT, TimeUnit.SECONDS));
+		lanes.dispatch(envelope(0, 1));
+		// The lane is never run by two threads.
+		Thread.sleep(100);
+		assertEquals(Collections.emptyList(), receiver.indexes.get(0));
+		release.countDown();
+		assertTrue(receiver.received.await(TIMEOUT, TimeUnit.SECONDS));
+		assertEquals(0, receiver.indexes.get(0).get(0).intValue());
+		assertEquals(1, receiver.indexes.get(0).get(1).intValue());
+	}
+
+	@Test
+	public void dispatch_receiverError() throws Exception {
+		RecordingReceiver receiver = new RecordingReceiver(1, 2) {
+			@Override
+			public void receive(EventEnvelope env) throws Exception {
+				if (index(env) == 0) {
+					this.received.countDown();
+					throw new Exception();
+				}
+				super.receive(env);
+			}
+		};
+		ZeroMQReceptionLanes lanes = new ZeroMQReceptionLanes(LANES, BATCH_SIZE, this.executor, this.logger,
+				receiver);
+		lanes.dispatch(envelope(0, 0));
+		lanes.dispatch(envelope(0, 1));
+		assertTrue(receiver.received.await(TIMEOUT, TimeUnit.SECONDS));
+		assertEquals(Collections.singletonList(1), receiver.indexes.get(0));
+		Mockito.verify(this.logger).log(Matchers.any(Level.class), Matchers.any(Class.class),
+				Matchers.anyString(), Matchers.anyVararg());
+	}
+
+	/**
+	 * @author $Author: sgalland$
+	 * @version $FullVersion$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private static class RecordingReceiver implements ZeroMQReceptionLanes.Receiver {
+
+		public final List<List<Integer>> indexes = new ArrayList<>();
+
+		public final CountDownLatch received;
+
+		public RecordingReceiver(int nbSpaces, int nbEnvelopes) {
+			for (int i = 0; i < nbSpaces; ++i) {
+				this.indexes.add(Collections.synchronizedList(new ArrayList<Integer>()));
+			}
+			this.received = new CountDownLatch(nbEnvelopes);
+		}
+
+		@Override
+		public void receive(EventEnvelope env) throws Exception {
+			this.indexes.get(space(env)).add(index(env));
+			this.received.countDown();
+		}
+
+	}
+
+}
@@ -43,7 +43,6 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.Future;
 
 import javax.annotation.Nullable;
 
@@ -119,23 +118,23 @@ public class AbstractEventSpaceTest extends AbstractJanusTest {
 
 		MockitoAnnotations.initMocks(this);
 
-		Mockito.when(this.executor.submit(Mockito.any(Runnable.class))).thenAnswer(
-				new Answer<Future<?>>() {
+		Mockito.doAnswer(
+				new Answer<Object>() {
 					@Override
-					public Future<?> answer(InvocationOnMock invocation) throws Throwable {
+					public Object answer(InvocationOnMock invocation) throws Throwable {
 						Runnable r = (Runnable)invocation.getArguments()[0];
 						r.run();
 						return null;
 					}
-				});
+				}).when(this.executor).execute(Mockito.any(Runnable.class));
 	}
 
 	private void register() {
-		this.space.participants.registerParticipant(this.address, this.listener);
+		this.space.addParticipant(this.address, this.listener);
 	}
 
 	private void unregister() {
-		this.space.participants.unregisterParticipant(this.listener);
+		this.space.removeParticipant(this.listener);
 	}
 
 	@Test
@@ -291,6 +290,55 @@ public class AbstractEventSpaceTest extends AbstractJanusTest {
 		assertNotSame(event, argument.getValue());
 	}
 
+	@Test
+	public void doEmit_addressSetScope() {
+		Address otherAddress = new Address(this.spaceId, UUID.randomUUID());
+
+		Event event;
+
+		event = Mockito.mock(Event.class);
+		Mockito.when(event.getSource()).thenReturn(this.address);
+		this.space.doEmit(event, new AddressSetScope(this.address, otherAddress));
+		Mockito.verifyZeroInteractions(this.listener);
+
+		register();
+
+		event = Mockito.mock(Event.class);
+		Mockito.when(event.getSource()).thenReturn(this.address);
+		this.space.doEmit(event, new AddressSetScope(this.address, otherAddress));
+
+		ArgumentCaptor<Event> argument = ArgumentCaptor.forClass(Event.class);
+		Mockito.verify(this.listener).receiveEvent(argument.capture());
+		assertSame(event, argument.getValue());
+
+		event = Mockito.mock(Event.class);
+		Mockito.when(event.getSource()).thenReturn(this.address);
+		this.space.doEmit(event, new AddressSetScope(otherAddress));
+		Mockito.verify(this.listener).receiveEvent(Mockito.any(Event.class));
+
+		unregister();
+
+		event = Mockito.mock(Event.class);
+		Mockito.when(event.getSource()).thenReturn(this.address);
+		this.space.doEmit(event, new AddressSetScope(this.address));
+		Mockito.verify(this.listener).receiveEvent(Mockito.any(Event.class));
+	}
+
+	@Test
+	public void doEmit_unregisteredMailbox() {
+		assertNull(this.space.getMailbox(this.listener));
+		register();
+		assertNotNull(this.space.getMailbox(this.listener));
+		unregister();
+
+		Event event = Mockito.mock(Event.class);
+		Mockito.when(event.getSource()).thenReturn(this.address);
+		this.space.doEmit(event, new AddressSetScope(this.address));
+		this.space.doEmit(event, Scopes.<Address>allParticipants());
+		assertNull(this.space.getMailbox(this.listener));
+		Mockito.verify(this.listener, new Times(0)).receiveEvent(Mockito.any(Event.class));
+	}
+
 	@Test
 	public void emitEventScope_fullscope() throws Exception {
 		Event event;
@@ -0,0 +1,101 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.space;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import io.janusproject.testutils.AbstractJanusTest;
+import io.sarl.lang.core.Address;
+import io.sarl.lang.core.SpaceID;
+import io.sarl.util.OpenEventSpaceSpecification;
+
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class AddressSetScopeTest extends AbstractJanusTest {
+
+	@Nullable
+	private Address address1;
+
+	@Nullable
+	private Address address2;
+
+	@Nullable
+	private Address address3;
+
+	@Before
+	public void setUp() {
+		SpaceID spaceId = new SpaceID(
+				UUID.randomUUID(),
+				UUID.randomUUID(),
+				OpenEventSpaceSpecification.class);
+		this.address1 = new Address(spaceId, UUID.randomUUID());
+		this.address2 = new Address(spaceId, UUID.randomUUID());
+		this.address3 = new Address(spaceId, UUID.randomUUID());
+	}
+
+	@Test
+	public void getAddresses() {
+		AddressSetScope scope = new AddressSetScope(this.address1, this.address2, this.address1, null);
+		assertEquals(2, scope.size());
+		assertSame(this.address1, scope.getAddress(0));
+		assertSame(this.address2, scope.getAddress(1));
+		assertContains(scope.getAddresses(), this.address1, this.address2);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void getAddresses_unmodifiable() {
+		new AddressSetScope(this.address1).getAddresses().add(this.address2);
+	}
+
+	@Test
+	public void matches() {
+		AddressSetScope scope = new AddressSetScope(this.address1, this.address2);
+		assertTrue(scope.matches(this.address1));
+		assertTrue(scope.matches(this.address2));
+		assertFalse(scope.matches(this.address3));
+		assertFalse(scope.matches(null));
+	}
+
+	@Test
+	public void equalsHashCode() {
+		AddressSetScope scope1 = new AddressSetScope(this.address1, this.address2);
+		AddressSetScope scope2 = new AddressSetScope(this.address1, this.address2);
+		AddressSetScope scope3 = new AddressSetScope(this.address3);
+		assertEquals(scope1, scope2);
+		assertEquals(scope1.hashCode(), scope2.hashCode());
+		assertNotEquals(scope1, scope3);
+	}
+
+}
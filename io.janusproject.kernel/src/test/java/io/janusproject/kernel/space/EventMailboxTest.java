@@ -0,0 +1,295 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.kernel.space;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import io.janusproject.kernel.space.EventMailbox.OverflowHandler;
+import io.janusproject.services.executor.ExecutorService;
+import io.janusproject.testutils.AbstractJanusTest;
+import io.sarl.lang.core.Event;
+import io.sarl.lang.core.EventListener;
+
+import java.util.List;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.mockito.internal.verification.Times;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class EventMailboxTest extends AbstractJanusTest {
+
+	private static final int BATCH_SIZE = 2;
+
+	private static final long BLOCK_TIMEOUT = 5000;
+
+	@Nullable
+	private EventListener listener;
+
+	@Nullable
+	private ExecutorService executor;
+
+	@Nullable
+	private EventMailbox mailbox;
+
+	@Before
+	public void setUp() {
+		this.listener = Mockito.mock(EventListener.class);
+		Mockito.when(this.listener.getID()).thenReturn(UUID.randomUUID());
+		this.executor = Mockito.mock(ExecutorService.class);
+		this.mailbox = new EventMailbox(this.listener, this.executor, BATCH_SIZE);
+	}
+
+	@Test
+	public void getListener() {
+		assertSame(this.listener, this.mailbox.getListener());
+	}
+
+	@Test
+	public void getBatchSize() {
+		assertEquals(BATCH_SIZE, this.mailbox.getBatchSize());
+		assertEquals(1, new EventMailbox(this.listener, this.executor, 0).getBatchSize());
+	}
+
+	@Test
+	public void post_scheduleOnlyWhenEmpty() {
+		this.mailbox.post(Mockito.mock(Event.class));
+		this.mailbox.post(Mockito.mock(Event.class));
+		this.mailbox.post(Mockito.mock(Event.class));
+		assertEquals(3, this.mailbox.size());
+		Mockito.verify(this.executor, new Times(1)).execute(this.mailbox);
+		Mockito.verifyZeroInteractions(this.listener);
+	}
+
+	@Test
+	public void run_fifo() {
+		Event e1 = Mockito.mock(Event.class);
+		Event e2 = Mockito.mock(Event.class);
+		this.mailbox.post(e1);
+		this.mailbox.post(e2);
+		this.mailbox.run();
+		ArgumentCaptor<Event> argument = ArgumentCaptor.forClass(Event.class);
+		Mockito.verify(this.listener, new Times(2)).receiveEvent(argument.capture());
+		List<Event> events = argument.getAllValues();
+		assertSame(e1, events.get(0));
+		assertSame(e2, events.get(1));
+		assertEquals(0, this.mailbox.size());
+		Mockito.verify(this.executor, new Times(1)).execute(this.mailbox);
+	}
+
+	@Test
+	public void run_batch() {
+		Event e1 = Mockito.mock(Event.class);
+		Event e2 = Mockito.mock(Event.class);
+		Event e3 = Mockito.mock(Event.class);
+		this.mailbox.post(e1);
+		this.mailbox.post(e2);
+		this.mailbox.post(e3);
+		this.mailbox.run();
+		Mockito.verify(this.listener, new Times(2)).receiveEvent(Mockito.any(Event.class));
+		assertEquals(1, this.mailbox.size());
+		// The draining task was resubmitted for the remaining event.
+		Mockito.verify(this.executor, new Times(2)).execute(this.mailbox);
+		this.mailbox.run();
+		Mockito.verify(this.listener).receiveEvent(e3);
+		assertEquals(0, this.mailbox.size());
+		Mockito.verify(this.executor, new Times(2)).execute(this.mailbox);
+	}
+
+	@Test
+	public void post_afterDrain() {
+		this.mailbox.post(Mockito.mock(Event.class));
+		this.mailbox.run();
+		this.mailbox.post(Mockito.mock(Event.class));
+		Mockito.verify(this.executor, new Times(2)).execute(this.mailbox);
+	}
+
+	private EventMailbox createBoundedMailbox(MailboxOverflowPolicy policy, OverflowHandler handler) {
+		return new EventMailbox(this.listener, this.executor, 10, 2, policy, BLOCK_TIMEOUT, handler);
+	}
+
+	private List<Event> drain(EventMailbox mailbox) {
+		mailbox.run();
+		ArgumentCaptor<Event> argument = ArgumentCaptor.forClass(Event.class);
+		Mockito.verify(this.listener, Mockito.atLeast(0)).receiveEvent(argument.capture());
+		return argument.getAllValues();
+	}
+
+	@Test
+	public void getCapacity() {
+		assertEquals(0, this.mailbox.getCapacity());
+		assertEquals(2, createBoundedMailbox(MailboxOverflowPolicy.BLOCK, null).getCapacity());
+	}
+
+	@Test
+	public void post_dropNewest() {
+		OverflowHandler handler = Mockito.mock(OverflowHandler.class);
+		EventMailbox mailbox = createBoundedMailbox(MailboxOverflowPolicy.DROP_NEWEST, handler);
+		Event e1 = Mockito.mock(Event.class);
+		Event e2 = Mockito.mock(Event.class);
+		Event e3 = Mockito.mock(Event.class);
+		mailbox.post(e1);
+		mailbox.post(e2);
+		mailbox.post(e3);
+		assertEquals(2, mailbox.size());
+		assertEquals(1, mailbox.getOverflowCount());
+		Mockito.verify(handler).mailboxOverflow(mailbox, e3, MailboxOverflowPolicy.DROP_NEWEST);
+		List<Event> events = drain(mailbox);
+		assertEquals(2, events.size());
+		assertSame(e1, events.get(0));
+		assertSame(e2, events.get(1));
+	}
+
+	@Test
+	public void post_dropOldest() {
+		OverflowHandler handler = Mockito.mock(OverflowHandler.class);
+		EventMailbox mailbox = createBoundedMailbox(MailboxOverflowPolicy.DROP_OLDEST, handler);
+		Event e1 = Mockito.mock(Event.class);
+		Event e2 = Mockito.mock(Event.class);
+		Event e3 = Mockito.mock(Event.class);
+		mailbox.post(e1);
+		mailbox.post(e2);
+		mailbox.post(e3);
+		assertEquals(2, mailbox.size());
+		assertEquals(1, mailbox.getOverflowCount());
+		Mockito.verify(handler).mailboxOverflow(mailbox, e1, MailboxOverflowPolicy.DROP_OLDEST);
+		List<Event> events = drain(mailbox);
+		assertEquals(2, events.size());
+		assertSame(e2, events.get(0));
+		assertSame(e3, events.get(1));
+		assertEquals(0, mailbox.size());
+	}
+
+	@Test
+	public void post_conflate() {
+		OverflowHandler handler = Mockito.mock(OverflowHandler.class);
+		EventMailbox mailbox = createBoundedMailbox(MailboxOverflowPolicy.CONFLATE, handler);
+		Event e1 = Mockito.mock(Event1.class);
+		Event e2 = Mockito.mock(Event2.class);
+		Event e3 = Mockito.mock(Event1.class);
+		Event e4 = Mockito.mock(Event.class);
+		mailbox.post(e1);
+		mailbox.post(e2);
+		mailbox.post(e3);
+		Mockito.verify(handler).mailboxOverflow(mailbox, e1, MailboxOverflowPolicy.CONFLATE);
+		mailbox.post(e4);
+		Mockito.verify(handler).mailboxOverflow(mailbox, e4, MailboxOverflowPolicy.CONFLATE);
+		assertEquals(2, mailbox.size());
+		assertEquals(2, mailbox.getOverflowCount());
+		List<Event> events = drain(mailbox);
+		assertEquals(2, events.size());
+		assertSame(e2, events.get(0));
+		assertSame(e3, events.get(1));
+	}
+
+	@Test
+	public void post_block() throws Exception {
+		OverflowHandler handler = Mockito.mock(OverflowHandler.class);
+		final EventMailbox mailbox = createBoundedMailbox(MailboxOverflowPolicy.BLOCK, handler);
+		mailbox.post(Mockito.mock(Event.class));
+		mailbox.post(Mockito.mock(Event.class));
+		final Event e3 = Mockito.mock(Event.class);
+		Thread emitter = new Thread() {
+			@Override
+			public void run() {
+				mailbox.post(e3);
+			}
+		};
+		emitter.start();
+		Mockito.verify(handler, Mockito.timeout(5000)).mailboxOverflow(mailbox, e3, MailboxOverflowPolicy.BLOCK);
+		assertEquals(2, mailbox.size());
+		mailbox.run();
+		emitter.join(5000);
+		assertEquals(1, mailbox.size());
+		mailbox.run();
+		Mockito.verify(this.listener).receiveEvent(e3);
+	}
+
+	@Test
+	public void post_blockTimeout() {
+		OverflowHandler handler = Mockito.mock(OverflowHandler.class);
+		EventMailbox mailbox = new EventMailbox(this.listener, this.executor, 10, 2,
+				MailboxOverflowPolicy.BLOCK, 10, handler);
+		mailbox.post(Mockito.mock(Event.class));
+		mailbox.post(Mockito.mock(Event.class));
+		Event e3 = Mockito.mock(Event.class);
+		mailbox.post(e3);
+		// The event is dropped when the timeout has elapsed.
+		Mockito.verify(handler).mailboxOverflow(mailbox, e3, MailboxOverflowPolicy.BLOCK);
+		assertEquals(2, mailbox.size());
+		assertEquals(2, drain(mailbox).size());
+	}
+
+	@Test
+	public void post_blockInterrupted() {
+		OverflowHandler handler = Mockito.mock(OverflowHandler.class);
+		EventMailbox mailbox = createBoundedMailbox(MailboxOverflowPolicy.BLOCK, handler);
+		mailbox.post(Mockito.mock(Event.class));
+		mailbox.post(Mockito.mock(Event.class));
+		Event e3 = Mockito.mock(Event.class);
+		Thread.currentThread().interrupt();
+		try {
+			mailbox.post(e3);
+			assertTrue(Thread.currentThread().isInterrupted());
+		} finally {
+			Thread.interrupted();
+		}
+		assertEquals(2, mailbox.size());
+		assertFalse(drain(mailbox).contains(e3));
+	}
+
+	@Test
+	public void post_blockKernelThread() {
+		Mockito.when(this.executor.isKernelThread()).thenReturn(true);
+		OverflowHandler handler = Mockito.mock(OverflowHandler.class);
+		EventMailbox mailbox = createBoundedMailbox(MailboxOverflowPolicy.BLOCK, handler);
+		mailbox.post(Mockito.mock(Event.class));
+		mailbox.post(Mockito.mock(Event.class));
+		Event e3 = Mockito.mock(Event.class);
+		// The thread of the kernel is not blocked: the event is dropped.
+		mailbox.post(e3);
+		Mockito.verify(handler).mailboxOverflow(mailbox, e3, MailboxOverflowPolicy.DROP_NEWEST);
+		assertEquals(2, mailbox.size());
+		assertEquals(1, mailbox.getOverflowCount());
+		assertFalse(drain(mailbox).contains(e3));
+	}
+
+	public static abstract class Event1 extends Event {
+		//
+	}
+
+	public static abstract class Event2 extends Event {
+		//
+	}
+
+}
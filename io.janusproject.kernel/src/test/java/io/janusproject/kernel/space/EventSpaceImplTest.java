@@ -39,11 +39,11 @@ import io.sarl.lang.core.SpaceID;
 import io.sarl.util.OpenEventSpaceSpecification;
 import io.sarl.util.Scopes;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.Future;
 
 import javax.annotation.Nullable;
 
@@ -117,16 +117,15 @@ public class EventSpaceImplTest extends AbstractJanusTest {
 
 		MockitoAnnotations.initMocks(this);
 
-		Mockito.when(this.executor.submit(Mockito.any(Runnable.class))).thenAnswer(
-				new Answer<Future<?>>() {
+		Mockito.doAnswer(
+				new Answer<Object>() {
 					@Override
-					public Future<?> answer(InvocationOnMock invocation) throws Throwable {
+					public Object answer(InvocationOnMock invocation) throws Throwable {
 						Runnable r = (Runnable)invocation.getArguments()[0];
 						r.run();
 						return null;
 					}
-				}
-		);
+				}).when(this.executor).execute(Mockito.any(Runnable.class));
 	}
 
 	private void register() {
@@ -172,6 +171,32 @@ public class EventSpaceImplTest extends AbstractJanusTest {
 		assertTrue(set.isEmpty());
 	}
 
+	@Test
+	public void registerAll() {
+		EventListener listener2 = Mockito.mock(EventListener.class);
+		UUID id2 = UUID.randomUUID();
+		Mockito.when(listener2.getID()).thenReturn(id2);
+		this.space.registerAll(Arrays.asList(this.listener, listener2));
+		assertEquals(this.address, this.space.getAddress(this.listener));
+		assertEquals(new Address(this.spaceId, id2), this.space.getAddress(listener2));
+		assertNotNull(this.space.getMailbox(this.listener));
+		assertNotNull(this.space.getMailbox(listener2));
+		//
+		Event event = Mockito.mock(Event.class);
+		Mockito.when(event.getSource()).thenReturn(this.address);
+		this.space.doEmit(event, Scopes.<Address>allParticipants());
+		Mockito.verify(this.listener).receiveEvent(event);
+		Mockito.verify(listener2).receiveEvent(event);
+	}
+
+	@Test
+	public void register_alreadyRegistered() {
+		register();
+		EventMailbox mailbox = this.space.getMailbox(this.listener);
+		assertEquals(this.address, this.space.register(this.listener));
+		assertSame(mailbox, this.space.getMailbox(this.listener));
+	}
+
 	@Test
 	public void doEmit_fullscope() {
 		Event event;
@@ -46,7 +46,6 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.Future;
 
 import javax.annotation.Nullable;
 
@@ -130,16 +129,15 @@ public class RestrictedAccessEventSpaceImplTest extends AbstractJanusTest {
 
 		MockitoAnnotations.initMocks(this);
 
-		Mockito.when(this.executor.submit(Mockito.any(Runnable.class))).thenAnswer(
-				new Answer<Future<?>>() {
+		Mockito.doAnswer(
+				new Answer<Object>() {
 					@Override
-					public Future<?> answer(InvocationOnMock invocation) throws Throwable {
+					public Object answer(InvocationOnMock invocation) throws Throwable {
 						Runnable r = (Runnable)invocation.getArguments()[0];
 						r.run();
 						return null;
 					}
-				}
-		);
+				}).when(this.executor).execute(Mockito.any(Runnable.class));
 	}
 
 	private void register() {
@@ -0,0 +1,113 @@
+/*
+ * $Id$
+ *
+ * Janus platform is an open-source multiagent platform.
+ * More details on http://www.janusproject.io
+ *
+ * Copyright (C) 2014 Sebastian RODRIGUEZ, Nicolas GAUD, Stéphane GALLAND.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.janusproject.services.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import io.janusproject.testutils.AbstractJanusTest;
+
+import javax.annotation.Nullable;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author $Author: sgalland$
+ * @version $FullVersion$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class LatencyHistogramTest extends AbstractJanusTest {
+
+	@Nullable
+	private LatencyHistogram histogram;
+
+	@Before
+	public void setUp() {
+		this.histogram = new LatencyHistogram();
+	}
+
+	@Test
+	public void bucketIndex() {
+		for (long v = 0; v < LatencyHistogram.SUB_BUCKET_COUNT; ++v) {
+			assertEquals(v, LatencyHistogram.bucketIndex(v));
+		}
+		long[] values = new long[] {8, 15, 16, 17, 1000, 123456789, Long.MAX_VALUE};
+		for (long v : values) {
+			int index = LatencyHistogram.bucketIndex(v);
+			assertTrue(LatencyHistogram.bucketLowestValue(index) <= v);
+			assertTrue(LatencyHistogram.bucketHighestValue(index) >= v);
+		}
+	}
+
+	@Test
+	public void bucketIndex_contiguous() {
+		for (int i = 0; i < 200; ++i) {
+			assertEquals(LatencyHistogram.bucketLowestValue(i + 1), LatencyHistogram.bucketHighestValue(i) + 1);
+			assertEquals(i, LatencyHistogram.bucketIndex(LatencyHistogram.bucketLowestValue(i)));
+			assertEquals(i, LatencyHistogram.bucketIndex(LatencyHistogram.bucketHighestValue(i)));
+		}
+	}
+
+	@Test
+	public void empty() {
+		assertEquals(0, this.histogram.getCount());
+		assertEquals(0, this.histogram.getMax());
+		assertEquals(0., this.histogram.getMean(), 0.);
+		assertEquals(0, this.histogram.getValueAtPercentile(50));
+	}
+
+	@Test
+	public void record() {
+		for (long v = 1; v <= 100; ++v) {
+			this.histogram.record(v);
+		}
+		this.histogram.record(-5);
+		assertEquals(101, this.histogram.getCount());
+		assertEquals(100, this.histogram.getMax());
+		assertEquals(5050. / 101., this.histogram.getMean(), 1e-9);
+		assertEquals(0, this.histogram.getValueAtPercentile(0));
+		assertEquals(100, this.histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void getValueAtPercentile_relativeError() {
+		for (long v = 1; v <= 100000; ++v) {
+			this.histogram.record(v * 1000);
+		}
+		long p50 = this.histogram.getValueAtPercentile(50);
+		long p99 = this.histogram.getValueAtPercentile(99);
+		assertEquals(50000000., p50, 50000000. / LatencyHistogram.SUB_BUCKET_COUNT);
+		assertEquals(99000000., p99, 99000000. / LatencyHistogram.SUB_BUCKET_COUNT);
+		assertTrue(p50 <= p99);
+	}
+
+	@Test
+	public void reset() {
+		this.histogram.record(10);
+		this.histogram.record(1000);
+		this.histogram.reset();
+		assertEquals(0, this.histogram.getCount());
+		assertEquals(0, this.histogram.getMax());
+		assertEquals(0, this.histogram.getValueAtPercentile(100));
+	}
+
+}
@@ -19,6 +19,7 @@
  */
 package io.janusproject.services.network;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import io.janusproject.kernel.services.jdk.network.PlainTextEventEncrypter;
@@ -103,5 +104,13 @@ public class AbstractEventSerializerTest extends AbstractJanusTest {
 		assertEquals((byte)'8', b[34]);
 		assertEquals((byte)'6', b[35]);
 	}
+
+	@Test
+	public void serializeSpaceID() throws Exception {
+		UUID id = UUID.fromString("005dd043-8553-40d2-8094-ad159bfabf86"); //$NON-NLS-1$
+		byte[] b = serializer.serializeSpaceID(id);
+		assertNotNull(b);
+		assertArrayEquals(serializer.serializeContextID(id), b);
+	}
 	
 }
@@ -49,6 +49,7 @@ public class NetworkConfigTest extends AbstractJanusTest {
 		assertEquals(GsonEventSerializer.class.getName(), defs.get("network.serializer.class")); //$NON-NLS-1$
 		assertEquals(PlainTextEventEncrypter.class.getName(), defs.get("network.encrypter.class")); //$NON-NLS-1$
 		assertEquals(Charsets.UTF_8.name(), defs.get("network.serializer.charset")); //$NON-NLS-1$
+		assertEquals("0", defs.get("network.reception.lanes")); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 	
 }
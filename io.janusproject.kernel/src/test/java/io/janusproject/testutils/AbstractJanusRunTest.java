@@ -24,6 +24,8 @@ import static org.junit.Assert.assertNull;
 import io.janusproject.Boot;
 import io.janusproject.kernel.Kernel;
 import io.janusproject.modules.StandardJanusPlatformModule;
+import io.janusproject.modules.executors.DeterministicExecutorModule;
+import io.janusproject.services.executor.ExecutorService;
 import io.sarl.core.Initialize;
 import io.sarl.core.Lifecycle;
 import io.sarl.core.Schedules;
@@ -41,6 +43,7 @@ import java.lang.annotation.Target;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import javax.annotation.Nullable;
@@ -65,6 +68,10 @@ import com.google.inject.util.Modules;
 @SuppressWarnings("all")
 public abstract class AbstractJanusRunTest extends AbstractJanusTest {
 
+	/** Maximal time in milliseconds of each wait for the quiescence of the kernel.
+	 */
+	private static final long QUIESCENCE_TIMEOUT = 10;
+
 	/** Reference to the instance of the Janus kernel.
 	 */
 	protected Kernel janusKernel;
@@ -192,6 +199,51 @@ public abstract class AbstractJanusRunTest extends AbstractJanusTest {
 	 * @throws Exception - if the kernel cannot be launched.
 	 */
 	protected void runJanus(Class<? extends TestingAgent> type, boolean enableLogging, boolean offline, int timeout) throws Exception {
+		runJanus(type, enableLogging, offline, timeout, null);
+	}
+
+	/** Start the Janus platform offline, with all the tasks run on a single thread
+	 * in a reproducible order, and according to a virtual clock.
+	 * <p>
+	 * The delays of the agents are not waited in real time; the run is then
+	 * faster and repeatable. The end of the run is detected with
+	 * {@link ExecutorService#runUntilQuiescent(long, TimeUnit)}.
+	 *
+	 * @param type - the type of the agent to launch at start-up.
+	 * @param enableLogging - indicates if the logging is enable or not.
+	 * @param seed - the seed of the order of the tasks; zero for running the tasks
+	 * in their submission order.
+	 * @param timeout - the maximum waiting time in seconds, or <code>-1</code> to ignore the timeout.
+	 * @throws Exception - if the kernel cannot be launched.
+	 * @see DeterministicExecutorModule
+	 */
+	protected void runJanusDeterministically(Class<? extends TestingAgent> type, boolean enableLogging, long seed,
+			int timeout) throws Exception {
+		runJanus(type, enableLogging, true, timeout, new DeterministicExecutorModule(seed));
+	}
+
+	/** Wait until the kernel is quiescent, and then until it is stopped.
+	 *
+	 * @param endTime - the time at which the waiting is timed out, or <code>-1</code> to ignore the timeout.
+	 * @throws Exception - if the waiting thread is interrupted.
+	 */
+	private void waitForQuiescence(long endTime) throws Exception {
+		ExecutorService executor = this.janusKernel.getService(ExecutorService.class);
+		// The executor service is not running when the kernel is already stopping.
+		while (executor != null && executor.isRunning()
+				&& (endTime == -1 || System.currentTimeMillis() <= endTime)) {
+			if (executor.runUntilQuiescent(QUIESCENCE_TIMEOUT, TimeUnit.MILLISECONDS)) {
+				executor = null;
+			}
+		}
+		// The agents are killed; the services of the kernel are stopped by a dedicated thread.
+		while (this.janusKernel.isRunning() && (endTime == -1 || System.currentTimeMillis() <= endTime)) {
+			Thread.sleep(QUIESCENCE_TIMEOUT);
+		}
+	}
+
+	private void runJanus(Class<? extends TestingAgent> type, boolean enableLogging, boolean offline, int timeout,
+			Module executorModule) throws Exception {
 		assertNull("Janus already launched.", this.janusKernel);
 		Module module = new StandardJanusPlatformModule();
 		Boot.setConsoleLogger(new PrintStream(new OutputStream() {
@@ -206,6 +258,9 @@ public abstract class AbstractJanusRunTest extends AbstractJanusTest {
 		} else {
 			module = Modules.override(new StandardJanusPlatformModule()).with(new ErrorLogTestingModule(this.results));
 		}
+		if (executorModule != null) {
+			module = Modules.override(module).with(executorModule);
+		}
 		Boot.setOffline(offline);
 		this.janusKernel = Boot.startJanus(
 				module,
@@ -217,8 +272,12 @@ public abstract class AbstractJanusRunTest extends AbstractJanusTest {
 		} else {
 			endTime = -1;
 		}
-		while (this.janusKernel.isRunning() && (endTime == -1 || System.currentTimeMillis() <= endTime)) {
-			Thread.yield();
+		if (executorModule != null) {
+			waitForQuiescence(endTime);
+		} else {
+			while (this.janusKernel.isRunning() && (endTime == -1 || System.currentTimeMillis() <= endTime)) {
+				Thread.yield();
+			}
 		}
 		boolean isTimedOut = this.janusKernel.isRunning();
 		Boot.setConsoleLogger(null);